@@ -1,7 +1,6 @@
 package io.jenkins.plugins.coverage;
 
 import java.io.IOException;
-import java.lang.ref.WeakReference;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -22,12 +21,17 @@ import io.jenkins.plugins.coverage.targets.CoverageResult;
 public class CoverageAction implements StaplerProxy, SimpleBuildStep.LastBuildAction, RunAction2, HealthReportingAction {
 
     private transient Run<?, ?> owner;
-    private transient WeakReference<CoverageResult> report;
+    /**
+     * The result of a new build until this action is attached to the build. Afterwards the result is held by the
+     * {@link CoverageResultCache} only, unless the cache is disabled.
+     */
+    @CheckForNull
+    private transient CoverageResult newResult;
     private HealthReport healthReport;
     private String failMessage;
 
     public CoverageAction(final CoverageResult result) {
-        this.report = new WeakReference<>(result);
+        this.newResult = result;
     }
 
     @Override
@@ -44,33 +48,74 @@ public class CoverageAction implements StaplerProxy, SimpleBuildStep.LastBuildAc
     }
 
     /**
-     * Get coverage result. If not exist, try to find it in build dir.
+     * Get coverage result. If not exist, try to find it in build dir. The results are cached in the {@link
+     * CoverageResultCache}.
      *
      * @return coverage result
      */
     public CoverageResult getResult() {
-        if (report != null) {
-            CoverageResult coverageResult = report.get();
-            if (coverageResult != null) {
-                return coverageResult;
+        Run<?, ?> run;
+        synchronized (this) {
+            if (newResult != null || owner == null) {
+                return newResult;
             }
+            run = owner;
         }
 
         CoverageResult coverageResult = null;
         try {
-            coverageResult = CoverageProcessor.recoverCoverageResult(owner);
+            coverageResult = CoverageResultCache.getInstance().get(getCacheKey(run), () -> {
+                CoverageResult recovered = CoverageProcessor.recoverCoverageResult(run);
+                recovered.setOwner(run);
+                return recovered;
+            });
         }
         catch (IOException | ClassNotFoundException e) {
             e.printStackTrace();
         }
 
-        if (coverageResult != null) {
-            coverageResult.setOwner(owner);
-            report = new WeakReference<>(coverageResult);
+        if (coverageResult != null && coverageResult.getOwner() != run) {
+            // the build has been loaded again
+            coverageResult.setOwner(run);
         }
         return coverageResult;
     }
 
+    /**
+     * Replaces the result of the build, e.g. after the result has been modified by another invocation of the step.
+     *
+     * @param result
+     *         the modified result
+     */
+    synchronized void updateResult(final CoverageResult result) {
+        if (owner == null || !CoverageResultCache.getInstance().isEnabled()) {
+            newResult = result;
+        }
+        else {
+            CoverageResultCache.getInstance().put(getCacheKey(owner), result);
+        }
+    }
+
+    /**
+     * Removes the result of the build from the {@link CoverageResultCache}, so that it is read from the build
+     * directory on the next access, e.g. since the lines of the result in memory have been spilled to a file that has
+     * been deleted.
+     */
+    synchronized void evictResult() {
+        if (owner != null) {
+            newResult = null;
+            CoverageResultCache.getInstance().remove(getCacheKey(owner));
+        }
+    }
+
+    /**
+     * Returns the key of the result of the specified build in the {@link CoverageResultCache}. The key contains the
+     * start time of the build, since the IDs of builds are reused if a job is deleted and created again.
+     */
+    private static String getCacheKey(final Run<?, ?> run) {
+        return run.getExternalizableId() + '@' + run.getTimeInMillis();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -99,10 +144,11 @@ public class CoverageAction implements StaplerProxy, SimpleBuildStep.LastBuildAc
 
     private synchronized void setOwner(final Run<?, ?> owner) {
         this.owner = owner;
-        if (report != null) {
-            CoverageResult coverageResult = report.get();
-            if (coverageResult != null) {
-                coverageResult.setOwner(owner);
+        if (newResult != null) {
+            newResult.setOwner(owner);
+            if (CoverageResultCache.getInstance().isEnabled()) {
+                CoverageResultCache.getInstance().put(getCacheKey(owner), newResult);
+                newResult = null;
             }
         }
     }
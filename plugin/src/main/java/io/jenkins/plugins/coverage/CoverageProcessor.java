@@ -1,16 +1,21 @@
 package io.jenkins.plugins.coverage;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -19,13 +24,17 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 
-import com.google.common.collect.Sets;
-
 import edu.hm.hafner.util.FilteredLog;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -37,18 +46,31 @@ import hudson.model.Result;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import jenkins.MasterToSlaveFileCallable;
+import jenkins.util.SystemProperties;
 
+import io.jenkins.plugins.coverage.WorkspaceScanner.ScanResult;
 import io.jenkins.plugins.coverage.adapter.CoverageReportAdapter;
 import io.jenkins.plugins.coverage.adapter.CoverageReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.adapter.util.XMLUtils;
 import io.jenkins.plugins.coverage.detector.Detectable;
+import io.jenkins.plugins.coverage.detector.HeaderDetector;
 import io.jenkins.plugins.coverage.detector.ReportDetector;
+import io.jenkins.plugins.coverage.detector.ReportHeader;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import io.jenkins.plugins.coverage.model.CoverageReporter;
 import io.jenkins.plugins.coverage.source.SourceFileResolver;
 import io.jenkins.plugins.coverage.source.SourceFileResolver.SourceFileResolverLevel;
 import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageElementRegister;
+import io.jenkins.plugins.coverage.targets.CoverageHeapBudget;
+import io.jenkins.plugins.coverage.targets.CoveragePaintStore;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.CoverageResultMerger;
+import io.jenkins.plugins.coverage.targets.CoverageResultSerializer;
+import io.jenkins.plugins.coverage.targets.NamePool;
 import io.jenkins.plugins.coverage.targets.Ratio;
 import io.jenkins.plugins.coverage.threshold.Threshold;
 import io.jenkins.plugins.forensics.reference.ReferenceFinder;
@@ -59,6 +81,14 @@ public class CoverageProcessor {
 
     private static final String DEFAULT_REPORT_SAVE_NAME = "coverage-report";
 
+    /**
+     * The default number of threads that convert reports concurrently. May be overridden with the system property
+     * {@code io.jenkins.plugins.coverage.CoverageProcessor.maxParallelConversions}.
+     */
+    private static final int DEFAULT_MAX_PARALLEL_CONVERSIONS = SystemProperties.getInteger(
+            CoverageProcessor.class.getName() + ".maxParallelConversions",
+            Runtime.getRuntime().availableProcessors());
+
     private final Run<?, ?> run;
     private final FilePath workspace;
     private final TaskListener listener;
@@ -73,6 +103,21 @@ public class CoverageProcessor {
 
     private boolean failBuildIfCoverageDecreasedInChangeRequest;
 
+    private boolean parseReportsOnAgent;
+
+    private int maxParallelConversions = DEFAULT_MAX_PARALLEL_CONVERSIONS;
+
+    private String scanExcludes = StringUtils.EMPTY;
+    private int scanMaxDepth;
+
+    private int heapBudget;
+    @CheckForNull
+    private CoverageHeapBudget coverageHeapBudget;
+    // reports that have not been parsed since their lines exceed the heap budget
+    private final List<String> reportsOverHeapBudget = new ArrayList<>();
+    // reports of the same build contain the same package, file and class names
+    private NamePool namePool = new NamePool();
+
     @CheckForNull
     private SourceFileResolver sourceFileResolver;
 
@@ -109,32 +154,105 @@ public class CoverageProcessor {
             final List<ReportDetector> reportDetectors, final List<Threshold> globalThresholds,
             final Set<String> sourceDirectories, final String sourceCodeEncoding, final String scm)
             throws IOException, InterruptedException, CoverageException {
-        Map<CoverageReportAdapter, List<CoverageResult>> results = convertToResults(reportAdapters, reportDetectors);
-
-        CoverageResult coverageReport = aggregateReports(results);
-        if (coverageReport == null) {
-            return;
+        namePool = new NamePool();
+        if (heapBudget > 0) {
+            coverageHeapBudget = new CoverageHeapBudget(heapBudget, new CoveragePaintStore(run.getRootDir()));
         }
 
-        coverageReport.setOwner(run);
+        CoverageAction action = null;
+        try {
+            XMLUtils xmlUtils = XMLUtils.getInstance();
+            long templatesCacheHits = xmlUtils.getTemplatesCacheHits();
+            long templatesCacheMisses = xmlUtils.getTemplatesCacheMisses();
+            long templatesCompileTime = xmlUtils.getTemplatesCompileTime();
+
+            Map<CoverageReportAdapter, List<CoverageResult>> results = convertToResults(reportAdapters,
+                    reportDetectors);
+            logTemplatesCache(xmlUtils.getTemplatesCacheHits() - templatesCacheHits,
+                    xmlUtils.getTemplatesCacheMisses() - templatesCacheMisses,
+                    xmlUtils.getTemplatesCompileTime() - templatesCompileTime);
+            markUnstableIfReportsOverHeapBudget();
+
+            CoverageResult coverageReport = aggregateReports(results);
+            if (coverageReport == null) {
+                return;
+            }
+
+            coverageReport.setOwner(run);
+            if (coverageHeapBudget != null && coverageHeapBudget.isExceeded()) {
+                // merging the reports of an adapter created new paints for the merged files
+                coverageHeapBudget.spill(coverageReport);
+                listener.getLogger().printf("Spilled the line coverage of %d lines to %s%n",
+                        coverageHeapBudget.getSpilledLines(), coverageHeapBudget.getStore().getFile());
+            }
+
+            LogHandler logHandler = new LogHandler(listener, "Coverage");
+            FilteredLog log = new FilteredLog("Errors while computing delta coverage:");
+            setDiffInCoverageForChangeRequest(coverageReport, log);
+            logHandler.log(log);
 
-        LogHandler logHandler = new LogHandler(listener, "Coverage");
-        FilteredLog log = new FilteredLog("Errors while computing delta coverage:");
-        setDiffInCoverageForChangeRequest(coverageReport, log);
-        logHandler.log(log);
+            // the files of this invocation, the reports are merged into the result of previous invocations below
+            Set<String> touchedFiles = new HashSet<>(coverageReport.getPaintedSources().keySet());
+            action = convertResultToAction(coverageReport);
 
-        CoverageAction action = convertResultToAction(coverageReport);
+            HealthReport healthReport = processThresholds(results, globalThresholds, action);
+            action.setHealthReport(healthReport);
+
+            // Transform the old model to the new model
+            CoverageReporter coverageReporter = new CoverageReporter(namePool);
+            coverageReporter.run(coverageReport.getRoot(), touchedFiles, run, workspace, listener, healthReport,
+                    scm, sourceDirectories, sourceCodeEncoding, mapSourceCodeRetention());
+
+            if (failBuildIfCoverageDecreasedInChangeRequest) {
+                failBuildIfChangeRequestDecreasedCoverage(coverageReport, action);
+            }
+        }
+        finally {
+            deleteSpilledLines(action);
+        }
+    }
 
-        HealthReport healthReport = processThresholds(results, globalThresholds, action);
-        action.setHealthReport(healthReport);
+    /**
+     * Sets the build result to unstable if reports have been skipped since their lines exceed the heap budget: the
+     * published coverage would silently miss the lines of these reports otherwise.
+     */
+    private void markUnstableIfReportsOverHeapBudget() {
+        if (reportsOverHeapBudget.isEmpty()) {
+            return;
+        }
+        listener.getLogger().printf("Build unstable: the coverage is incomplete since %d reports exceed the heap "
+                + "budget of %d MB: %s%n", reportsOverHeapBudget.size(), heapBudget, reportsOverHeapBudget);
+        run.setResult(Result.UNSTABLE);
+    }
 
-        // Transform the old model to the new model
-        CoverageReporter coverageReporter = new CoverageReporter();
-        coverageReporter.run(coverageReport.getRoot(), run, workspace, listener, healthReport, scm,
-                sourceDirectories, sourceCodeEncoding, mapSourceCodeRetention());
+    /**
+     * Logs how often the compiled XSL stylesheets have been reused while the reports of the build have been converted
+     * on the controller. Reports that have been parsed on an agent are not counted.
+     */
+    private void logTemplatesCache(final long hits, final long misses, final long compileTime) {
+        if (hits + misses > 0) {
+            listener.getLogger().printf("XSL stylesheets: %d reused from the cache, %d compiled in %d ms%n",
+                    hits, misses, compileTime);
+        }
+    }
 
-        if (failBuildIfCoverageDecreasedInChangeRequest) {
-            failBuildIfChangeRequestDecreasedCoverage(coverageReport, action);
+    /**
+     * Deletes the file with the spilled lines of the build. The result of the build has been saved already, so the
+     * action reads it from the build directory again.
+     */
+    private void deleteSpilledLines(@CheckForNull final CoverageAction action) {
+        if (coverageHeapBudget == null || !coverageHeapBudget.isExceeded()) {
+            return;
+        }
+        if (action != null) {
+            action.evictResult();
+        }
+        try {
+            coverageHeapBudget.getStore().delete();
+        }
+        catch (IOException e) {
+            listener.getLogger().printf("Unable to delete the spilled line coverage %s: %s%n",
+                    coverageHeapBudget.getStore().getFile(), e.getMessage());
         }
     }
 
@@ -160,35 +278,50 @@ public class CoverageProcessor {
                 return action;
             }
             else {
+                // only the reports of this invocation are written, they are merged again when the result is read
+                appendCoverageResult(run, coverageReport);
+
                 CoverageResult previousResult = previousAction.getResult();
-                Collection<CoverageResult> previousReports = previousResult.getChildrenReal().values();
+                mergeReports(previousResult, coverageReport);
 
-                for (CoverageResult report : coverageReport.getChildrenReal().values()) {
-                    if (StringUtils.isEmpty(report.getTag())) {
-                        report.resetParent(previousResult);
-                        continue;
-                    }
+                previousAction.updateResult(previousResult);
+                return previousAction;
+            }
+        }
+    }
 
-                    Optional<CoverageResult> matchedTagReport;
-                    if ((matchedTagReport = previousReports.stream()
-                            .filter(r -> !StringUtils.isEmpty(r.getTag()) && r.getTag().equals(report.getTag()))
-                            .findAny()).isPresent()) {
-                        try {
-                            matchedTagReport.get().merge(report);
-                        }
-                        catch (CoverageException e) {
-                            e.printStackTrace();
-                            report.resetParent(previousResult);
-                        }
-                    }
-                    else {
-                        report.resetParent(previousResult);
-                    }
-                }
+    /**
+     * Merges the reports of another invocation of the step into the result of the build. Tagged reports are merged
+     * with the report of the same tag, all other reports are added.
+     *
+     * @param previousResult
+     *         the result of the build
+     * @param coverageReport
+     *         the reports of another invocation
+     */
+    private static void mergeReports(final CoverageResult previousResult, final CoverageResult coverageReport) {
+        Collection<CoverageResult> previousReports = previousResult.getChildrenReal().values();
 
-                previousResult.setOwner(run);
-                saveCoverageResult(run, previousResult);
-                return previousAction;
+        for (CoverageResult report : coverageReport.getChildrenReal().values()) {
+            if (StringUtils.isEmpty(report.getTag())) {
+                report.resetParent(previousResult);
+                continue;
+            }
+
+            Optional<CoverageResult> matchedTagReport;
+            if ((matchedTagReport = previousReports.stream()
+                    .filter(r -> !StringUtils.isEmpty(r.getTag()) && r.getTag().equals(report.getTag()))
+                    .findAny()).isPresent()) {
+                try {
+                    matchedTagReport.get().merge(report);
+                }
+                catch (CoverageException e) {
+                    e.printStackTrace();
+                    report.resetParent(previousResult);
+                }
+            }
+            else {
+                report.resetParent(previousResult);
             }
         }
     }
@@ -278,51 +411,96 @@ public class CoverageProcessor {
         Map<CoverageReportAdapter, Set<FilePath>> reports = new HashMap<>();
         Map<CoverageReportAdapter, List<File>> copiedReport = new HashMap<>();
 
+        // convert report to results
+        Map<CoverageReportAdapter, List<CoverageResult>> results = new HashMap<>();
+
+        // find the reports of all adapters and detectors with a single walk over the workspace
+        List<String> patterns = new ArrayList<>();
         if (adapters != null) {
-            // find report according to the path of each adapter
             for (CoverageReportAdapter adapter : adapters) {
-                String path = adapter.getPath();
-
-                FilePath[] r = workspace.act(new FindReportCallable(path, adapter));
-                reports.put(adapter, Sets.newHashSet(r));
+                patterns.add(adapter.getPath());
             }
+        }
+        List<ReportDetector> scannedDetectors = reportDetectors.stream()
+                .filter(reportDetector -> reportDetector.getScanPattern() != null)
+                .collect(Collectors.toList());
+        for (ReportDetector reportDetector : scannedDetectors) {
+            patterns.add(reportDetector.getScanPattern());
+        }
+        // the files of the workspace that the adapters require besides their reports are found with the same walk
+        List<String> workspacePatterns = new ArrayList<>();
+        Map<CoverageReportAdapter, Integer> workspacePatternIndexes = new HashMap<>();
+        if (adapters != null) {
+            for (CoverageReportAdapter adapter : adapters) {
+                String workspacePattern = adapter.getWorkspacePattern();
+                if (workspacePattern != null) {
+                    workspacePatternIndexes.put(adapter, patterns.size() + workspacePatterns.size());
+                    workspacePatterns.add(workspacePattern);
+                }
+            }
+        }
+        ScanResult scanResult = scanWorkspace(patterns, workspacePatterns);
 
-            // copy reports to build dir
-            File runRootDir = run.getRootDir();
+        if (adapters != null) {
+            // copy the reports of all adapters to the build dir with a single transfer, unless the reports are
+            // parsed on the agent and only the serialized results are transferred
+            ReportTransfer transfer = new ReportTransfer();
+            Map<CoverageReportAdapter, List<String>> transferredReports = new HashMap<>();
+            for (int i = 0; i < adapters.size(); i++) {
+                CoverageReportAdapter adapter = adapters.get(i);
+                if (parseReportsOnAgent || adapter.isWorkspaceRequired()) {
+                    Integer workspacePatternIndex = workspacePatternIndexes.get(adapter);
+                    List<String> workspaceFiles = workspacePatternIndex == null
+                            ? Collections.emptyList() : scanResult.getMatches(workspacePatternIndex);
+                    reports.put(adapter,
+                            parseReportsOnAgent(adapter, scanResult.getMatches(i), workspaceFiles, results));
+                    continue;
+                }
 
-            for (Map.Entry<CoverageReportAdapter, Set<FilePath>> adapterReports : reports.entrySet()) {
-                Set<FilePath> r = adapterReports.getValue();
-                List<File> copies = new LinkedList<>();
+                List<FilePath> adapterReports = toFilePaths(scanResult.getMatches(i));
+                reports.put(adapter, new HashSet<>(adapterReports));
 
-                for (FilePath f : r) {
-                    File copy = new File(runRootDir, f.getName());
+                List<String> names = new ArrayList<>();
+                for (FilePath report : adapterReports) {
+                    names.add(transfer.add(report.getRemote(), report.getName()));
+                }
+                transferredReports.put(adapter, names);
+            }
 
-                    //if copy exist, it means there have reports have same name.
-                    int i = 1;
-                    while (copy.exists()) {
-                        copy = new File(runRootDir, String.format("%s(%d)", f.getName(), i++));
+            if (!transfer.isEmpty()) {
+                File transferDirectory = transfer.transfer(workspace, run.getRootDir(), "coverage reports");
+                for (Map.Entry<CoverageReportAdapter, List<String>> adapterReports : transferredReports.entrySet()) {
+                    List<File> copies = new LinkedList<>();
+                    for (String name : adapterReports.getValue()) {
+                        copies.add(new File(transferDirectory, name));
                     }
-
-                    f.copyTo(new FilePath(copy));
-                    copies.add(copy);
+                    copiedReport.put(adapterReports.getKey(), copies);
                 }
-
-                copiedReport.put(adapterReports.getKey(), copies);
+                logger.printf("Transferred %d reports from the workspace%n", transfer.getManifest().size());
             }
         }
 
         int detectCount = 0;
         if (reportDetectors.size() != 0) {
+            Predicate<FilePath> notFoundByAdapters = filePath -> {
+                for (Map.Entry<CoverageReportAdapter, Set<FilePath>> entry : reports.entrySet()) {
+                    if (entry.getValue().contains(filePath)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+            int adapterCount = patterns.size() - scannedDetectors.size();
             for (ReportDetector reportDetector : reportDetectors) {
-                Map<CoverageReportAdapter, List<File>> detectedReportFiles = reportDetector.getReports(run, workspace,
-                        listener, filePath -> {
-                            for (Map.Entry<CoverageReportAdapter, Set<FilePath>> entry : reports.entrySet()) {
-                                if (entry.getValue().contains(filePath)) {
-                                    return false;
-                                }
-                            }
-                            return true;
-                        });
+                Map<CoverageReportAdapter, List<File>> detectedReportFiles;
+                int scanIndex = scannedDetectors.indexOf(reportDetector);
+                if (scanIndex >= 0) {
+                    detectedReportFiles = reportDetector.getReports(run, workspace,
+                            toFilePaths(scanResult.getMatches(adapterCount + scanIndex)), notFoundByAdapters);
+                }
+                else {
+                    detectedReportFiles = reportDetector.getReports(run, workspace, listener, notFoundByAdapters);
+                }
 
                 detectCount += detectedReportFiles.values().stream().mapToInt(List::size).sum();
 
@@ -340,56 +518,22 @@ public class CoverageProcessor {
 
         reports.clear();
 
-        // convert report to results
-        Map<CoverageReportAdapter, List<CoverageResult>> results = new HashMap<>();
-        for (Map.Entry<CoverageReportAdapter, List<File>> adapterReports : copiedReport.entrySet()) {
-            CoverageReportAdapter adapter = adapterReports.getKey();
-            CoverageReportAdapterDescriptor descriptor = (CoverageReportAdapterDescriptor) adapter.getDescriptor();
-            for (File foundedFile : adapterReports.getValue()) {
-                try {
-                    boolean isValidate;
-
-                    // If is Detectable, then use detect to validate file, else simply use file length
-                    if (descriptor instanceof Detectable) {
-                        isValidate = ((Detectable) descriptor).detect(foundedFile);
-                    }
-                    else {
-                        // skip file if file is empty
-                        isValidate = Files.size(Paths.get(foundedFile.toURI())) > 0;
-                    }
-
-                    if (isValidate) {
-                        results.putIfAbsent(adapter, new LinkedList<>());
-                        CoverageResult result = adapter.getResult(foundedFile);
-
-                        if (!StringUtils.isEmpty(globalTag)) {
-                            result.setTag(globalTag);
-                        }
+        try {
+            convertReports(copiedReport, results);
+        }
+        finally {
+            ReportTransfer.deleteTransferDirectories(
+                    copiedReport.values().stream().flatMap(List::stream).collect(Collectors.toList()));
+        }
 
-                        results.get(adapter).add(result);
-                    }
-                }
-                catch (CoverageException e) {
-                    e.printStackTrace();
-                    logger.printf("report %s for %s has met some errors: %s%n",
-                            foundedFile.getAbsolutePath(),
-                            adapter.getDescriptor().getDisplayName(),
-                            e.getMessage());
-                }
-                finally {
-                    FileUtils.deleteQuietly(foundedFile);
-                }
-            }
-            if (adapter.isMergeToOneReport()) {
-                List<CoverageResult> resultOfAdapter = results.get(adapter);
-                if (resultOfAdapter == null || resultOfAdapter.size() <= 1) {
-                    continue;
-                }
+        for (Map.Entry<CoverageReportAdapter, List<CoverageResult>> adapterResults : results.entrySet()) {
+            CoverageReportAdapter adapter = adapterResults.getKey();
+            List<CoverageResult> resultOfAdapter = adapterResults.getValue();
+            if (adapter.isMergeToOneReport() && resultOfAdapter.size() > 1) {
                 CoverageResult report = aggregateToOneReport(adapter, resultOfAdapter);
                 resultOfAdapter.clear();
                 resultOfAdapter.add(report);
             }
-
         }
 
         if (results.size() == 0) {
@@ -409,6 +553,197 @@ public class CoverageProcessor {
         return results;
     }
 
+    /**
+     * Converts the copied reports to {@link CoverageResult}s. The reports are converted concurrently by at most {@link
+     * #getMaxParallelConversions()} threads. The results and errors are reported afterwards in the order of the
+     * reports, so the outcome does not depend on the scheduling of the threads.
+     *
+     * @param copiedReport
+     *         the copied reports of each adapter
+     * @param results
+     *         the results of all adapters, the converted results will be added
+     */
+    private void convertReports(final Map<CoverageReportAdapter, List<File>> copiedReport,
+            final Map<CoverageReportAdapter, List<CoverageResult>> results)
+            throws IOException, InterruptedException {
+        List<ReportConversion> conversions = new ArrayList<>();
+        for (Map.Entry<CoverageReportAdapter, List<File>> adapterReports : copiedReport.entrySet()) {
+            CoverageReportAdapter adapter = adapterReports.getKey();
+            CoverageReportAdapterDescriptor<?> descriptor = (CoverageReportAdapterDescriptor<?>) adapter.getDescriptor();
+            for (File foundedFile : adapterReports.getValue()) {
+                conversions.add(new ReportConversion(adapter, descriptor, foundedFile));
+            }
+        }
+
+        int threads = Math.min(maxParallelConversions, conversions.size());
+        if (threads <= 1) {
+            for (ReportConversion conversion : conversions) {
+                conversion.convert();
+            }
+        }
+        else {
+            ExecutorService executor = Executors.newFixedThreadPool(threads,
+                    new NamingThreadFactory(new DaemonThreadFactory(), "CoverageProcessor.convertReports"));
+            try {
+                List<Future<Void>> futures = new ArrayList<>();
+                for (ReportConversion conversion : conversions) {
+                    futures.add(executor.submit(conversion));
+                }
+                for (Future<Void> future : futures) {
+                    waitForConversion(future);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+
+        PrintStream logger = listener.getLogger();
+        for (ReportConversion conversion : conversions) {
+            conversion.addResult(results, logger);
+        }
+    }
+
+    private void waitForConversion(final Future<Void> future) throws IOException, InterruptedException {
+        try {
+            future.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Finds the files that match the specified patterns with a single walk over the workspace.
+     *
+     * @param patterns
+     *         the Ant patterns of the adapters and detectors
+     *
+     * @return the matching files of each pattern
+     */
+    private ScanResult scanWorkspace(final List<String> patterns, final List<String> workspacePatterns)
+            throws IOException, InterruptedException {
+        ScanResult scanResult = workspace.act(
+                new WorkspaceScanner(patterns, workspacePatterns, scanExcludes, scanMaxDepth));
+        listener.getLogger().printf("Scanned the workspace in %d ms: visited %d files and directories%n",
+                scanResult.getWalkTime(), scanResult.getVisitedEntries());
+        return scanResult;
+    }
+
+    private List<FilePath> toFilePaths(final List<String> remotePaths) {
+        return remotePaths.stream().map(workspace::child).collect(Collectors.toList());
+    }
+
+    /**
+     * Parses the reports of the specified adapter on the agent that owns the workspace. Only the serialized {@link
+     * CoverageResult} trees are transferred to the controller, the reports remain in the workspace.
+     *
+     * @param adapter
+     *         the adapter to parse the reports with
+     * @param reportPaths
+     *         the absolute paths of the reports in the workspace
+     * @param workspaceFiles
+     *         the absolute paths of the files of the workspace that match the workspace pattern of the adapter
+     * @param results
+     *         the results of all adapters, the results of the specified adapter will be added
+     *
+     * @return the reports that have been parsed
+     */
+    private Set<FilePath> parseReportsOnAgent(final CoverageReportAdapter adapter, final List<String> reportPaths,
+            final List<String> workspaceFiles, final Map<CoverageReportAdapter, List<CoverageResult>> results)
+            throws IOException, InterruptedException {
+        PrintStream logger = listener.getLogger();
+        CoverageReportAdapterDescriptor<?> descriptor = (CoverageReportAdapterDescriptor<?>) adapter.getDescriptor();
+
+        HeaderDetector headerDetector = null;
+        if (descriptor instanceof Detectable) {
+            headerDetector = ((Detectable) descriptor).getHeaderDetector();
+        }
+        long budget = coverageHeapBudget == null ? 0 : coverageHeapBudget.getBudget();
+        List<ParsedReport> parsedReports = workspace.act(new ParseReportCallable(adapter, reportPaths, workspaceFiles,
+                headerDetector, budget, descriptor.getCoverageElementType(),
+                new ArrayList<>(descriptor.getCoverageElements())));
+
+        Set<FilePath> found = new HashSet<>();
+        for (ParsedReport parsedReport : parsedReports) {
+            found.add(workspace.child(parsedReport.getPath()));
+
+            byte[] serializedResult = parsedReport.getResult();
+            String errorMessage = parsedReport.getErrorMessage();
+            if (serializedResult == null && errorMessage == null) {
+                continue; // report is empty
+            }
+
+            results.putIfAbsent(adapter, new LinkedList<>());
+            if (serializedResult != null) {
+                try {
+                    CoverageResult result = CoverageResultSerializer.deserialize(serializedResult, namePool);
+                    result.trimToSize();
+
+                    if (!StringUtils.isEmpty(globalTag)) {
+                        result.setTag(globalTag);
+                    }
+
+                    if (addToHeapBudget(result)) {
+                        logSpilledReport(logger, parsedReport.getPath());
+                    }
+                    results.get(adapter).add(result);
+                }
+                catch (IOException e) {
+                    errorMessage = e.getMessage();
+                }
+            }
+            if (errorMessage != null) {
+                logger.printf("report %s for %s has met some errors: %s%n",
+                        parsedReport.getPath(), descriptor.getDisplayName(), errorMessage);
+            }
+            if (parsedReport.isOverHeapBudget()) {
+                reportsOverHeapBudget.add(parsedReport.getPath());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds the specified result to the heap budget of the build, if a budget has been set.
+     *
+     * @param result
+     *         the result to add
+     *
+     * @return {@code true} if the budget has been exceeded and the line coverage of the result has been spilled
+     * @throws IOException
+     *         if the line coverage can't be spilled
+     */
+    private boolean addToHeapBudget(final CoverageResult result) throws IOException {
+        return coverageHeapBudget != null && coverageHeapBudget.add(result);
+    }
+
+    private static String getExceededBudgetMessage(final long reportSize, final long budget) {
+        return String.format("Skipped the report of %d MB since its lines exceed the heap budget of %d MB "
+                        + "(estimated %d MB): the line coverage of a report can be spilled to disk only after the "
+                        + "report has been parsed. Increase the heap budget or split the report",
+                CoverageHeapBudget.toMegabytes(reportSize), CoverageHeapBudget.toMegabytes(budget),
+                CoverageHeapBudget.toMegabytes(CoverageHeapBudget.estimateParsingSize(reportSize)));
+    }
+
+    private void logSpilledReport(final PrintStream logger, final String report) {
+        logger.printf("Coverage results exceed the heap budget of %d MB (estimated %d MB): "
+                        + "spilled the line coverage of report %s to %s%n",
+                CoverageHeapBudget.toMegabytes(coverageHeapBudget.getBudget()),
+                CoverageHeapBudget.toMegabytes(coverageHeapBudget.getUsage()), report,
+                coverageHeapBudget.getStore().getFile());
+    }
+
     /**
      * Process threshold and return health report.
      *
@@ -552,10 +887,11 @@ public class CoverageProcessor {
         CoverageResult report = new CoverageResult(CoverageElement.REPORT, null,
                 adapter.getDescriptor().getDisplayName() + ": " + adapter.getPath());
 
+        CoverageResultMerger merger = new CoverageResultMerger(report);
         results.forEach(r -> {
             if (r.getElement().equals(CoverageElement.REPORT)) {
                 try {
-                    report.merge(r);
+                    merger.merge(r);
                 }
                 catch (CoverageException e) {
                     listener.getLogger()
@@ -567,7 +903,7 @@ public class CoverageProcessor {
                 r.resetParent(report);
             }
         });
-        return report;
+        return merger.finish();
     }
 
     /**
@@ -678,30 +1014,312 @@ public class CoverageProcessor {
         this.failBuildIfCoverageDecreasedInChangeRequest = failBuildIfCoverageDecreasedInChangeRequest;
     }
 
-    private static class FindReportCallable extends MasterToSlaveFileCallable<FilePath[]> {
+    public boolean isParseReportsOnAgent() {
+        return parseReportsOnAgent;
+    }
 
-        private final String reportFilePath;
-        private final CoverageReportAdapter reportAdapter;
+    /**
+     * Setter for property 'parseReportsOnAgent'. If set, the reports of the {@link CoverageReportAdapter}s are parsed
+     * on the agent and only the serialized results are transferred to the controller. Reports of adapters that
+     * {@link CoverageReportAdapter#isWorkspaceRequired() require the workspace} are always parsed on the agent.
+     *
+     * @param parseReportsOnAgent
+     *         value to set for property 'parseReportsOnAgent'
+     */
+    public void setParseReportsOnAgent(final boolean parseReportsOnAgent) {
+        this.parseReportsOnAgent = parseReportsOnAgent;
+    }
+
+    public int getMaxParallelConversions() {
+        return maxParallelConversions;
+    }
 
-        public FindReportCallable(final String reportFilePath, final CoverageReportAdapter reportAdapter) {
-            this.reportFilePath = reportFilePath;
+    /**
+     * Setter for property 'maxParallelConversions'. Determines the maximum number of reports that are converted
+     * concurrently, the default depends on the number of available processors.
+     *
+     * @param maxParallelConversions
+     *         value to set for property 'maxParallelConversions', values less than 1 are treated as 1
+     */
+    public void setMaxParallelConversions(final int maxParallelConversions) {
+        this.maxParallelConversions = Math.max(1, maxParallelConversions);
+    }
+
+    public String getScanExcludes() {
+        return scanExcludes;
+    }
+
+    /**
+     * Setter for property 'scanExcludes'. The files and directories that match these Ant patterns are skipped when
+     * the workspace is scanned for reports, directories matching a pattern that ends with {@code /**} are not
+     * entered at all.
+     *
+     * @param scanExcludes
+     *         comma or space separated Ant patterns
+     */
+    public void setScanExcludes(final String scanExcludes) {
+        this.scanExcludes = StringUtils.defaultString(scanExcludes);
+    }
+
+    public int getScanMaxDepth() {
+        return scanMaxDepth;
+    }
+
+    /**
+     * Setter for property 'scanMaxDepth'.
+     *
+     * @param scanMaxDepth
+     *         the maximum depth of reports below the workspace, 0 to scan all levels
+     */
+    public void setScanMaxDepth(final int scanMaxDepth) {
+        this.scanMaxDepth = Math.max(0, scanMaxDepth);
+    }
+
+    public int getHeapBudget() {
+        return heapBudget;
+    }
+
+    /**
+     * Setter for property 'heapBudget'. If the estimated heap usage of the coverage results of the build exceeds the
+     * budget, then the line coverage of the results is spilled to a file in the build directory. The file is deleted
+     * as soon as the result of the build has been saved and reported.
+     *
+     * @param heapBudget
+     *         the heap budget in MB, 0 for no limit
+     */
+    public void setHeapBudget(final int heapBudget) {
+        this.heapBudget = Math.max(0, heapBudget);
+    }
+
+    /**
+     * Converts a single report of an adapter and keeps the outcome until it is added to the results.
+     */
+    private class ReportConversion implements Callable<Void> {
+        private final CoverageReportAdapter adapter;
+        private final CoverageReportAdapterDescriptor<?> descriptor;
+        private final File foundedFile;
+
+        private boolean isValidate;
+        private boolean isSpilled;
+        private boolean isOverHeapBudget;
+        @CheckForNull
+        private CoverageResult result;
+        @CheckForNull
+        private CoverageException error;
+
+        ReportConversion(final CoverageReportAdapter adapter, final CoverageReportAdapterDescriptor<?> descriptor,
+                final File foundedFile) {
+            this.adapter = adapter;
+            this.descriptor = descriptor;
+            this.foundedFile = foundedFile;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            convert();
+            return null;
+        }
+
+        void convert() throws IOException {
+            try {
+                // If is Detectable, then use detect to validate file, else simply use file length
+                if (descriptor instanceof Detectable) {
+                    isValidate = ((Detectable) descriptor).detect(foundedFile);
+                }
+                else {
+                    // skip file if file is empty
+                    isValidate = Files.size(Paths.get(foundedFile.toURI())) > 0;
+                }
+
+                if (isValidate) {
+                    long reportSize = foundedFile.length();
+                    if (coverageHeapBudget != null && !coverageHeapBudget.canParse(reportSize)) {
+                        isOverHeapBudget = true;
+                        throw new CoverageException(
+                                getExceededBudgetMessage(reportSize, coverageHeapBudget.getBudget()));
+                    }
+                    result = adapter.getResult(foundedFile, namePool);
+                    if (result != null) {
+                        result.trimToSize();
+                    }
+                    isSpilled = addToHeapBudget(result);
+                }
+            }
+            catch (CoverageException e) {
+                error = e;
+            }
+            finally {
+                FileUtils.deleteQuietly(foundedFile);
+            }
+        }
+
+        void addResult(final Map<CoverageReportAdapter, List<CoverageResult>> results, final PrintStream logger) {
+            if (isValidate) {
+                results.putIfAbsent(adapter, new LinkedList<>());
+            }
+            if (result != null) {
+                if (!StringUtils.isEmpty(globalTag)) {
+                    result.setTag(globalTag);
+                }
+
+                results.get(adapter).add(result);
+                if (isSpilled) {
+                    logSpilledReport(logger, foundedFile.getAbsolutePath());
+                }
+            }
+            if (error != null) {
+                error.printStackTrace();
+                logger.printf("report %s for %s has met some errors: %s%n",
+                        foundedFile.getAbsolutePath(),
+                        descriptor.getDisplayName(),
+                        error.getMessage());
+            }
+            if (isOverHeapBudget) {
+                reportsOverHeapBudget.add(foundedFile.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Parses the reports of an adapter on the agent. Since the descriptors of the adapters are not available on the
+     * agent, the coverage elements of the adapter are registered before the reports are parsed. Reports are validated
+     * like on the controller: by the {@link HeaderDetector} of a {@link Detectable} adapter, otherwise by their size.
+     * Detectables without a header detector need the descriptor and are validated by their size only. Reports that
+     * exceed the heap budget of the build are not parsed and make the build unstable.
+     */
+    private static class ParseReportCallable extends MasterToSlaveFileCallable<List<ParsedReport>> {
+        private static final long serialVersionUID = -3163419364936306513L;
+
+        private final CoverageReportAdapter reportAdapter;
+        private final List<String> reportPaths;
+        private final List<String> workspaceFiles;
+        @CheckForNull
+        private final HeaderDetector headerDetector;
+        private final long heapBudget;
+        private final String coverageElementType;
+        private final List<CoverageElement> coverageElements;
+
+        ParseReportCallable(final CoverageReportAdapter reportAdapter, final List<String> reportPaths,
+                final List<String> workspaceFiles, @CheckForNull final HeaderDetector headerDetector,
+                final long heapBudget, final String coverageElementType,
+                final List<CoverageElement> coverageElements) {
             this.reportAdapter = reportAdapter;
+            this.reportPaths = new ArrayList<>(reportPaths);
+            this.workspaceFiles = new ArrayList<>(workspaceFiles);
+            this.headerDetector = headerDetector;
+            this.heapBudget = heapBudget;
+            this.coverageElementType = coverageElementType;
+            this.coverageElements = coverageElements;
         }
 
         @Override
-        public FilePath[] invoke(final File f, final VirtualChannel channel) throws IOException, InterruptedException {
+        public List<ParsedReport> invoke(final File f, final VirtualChannel channel)
+                throws IOException, InterruptedException {
+            registerCoverageElements();
+
+            NamePool namePool = new NamePool();
+            List<File> files = new ArrayList<>();
+            for (String workspaceFile : workspaceFiles) {
+                files.add(new File(workspaceFile));
+            }
+            List<ParsedReport> parsedReports = new ArrayList<>();
+            for (String reportPath : reportPaths) {
+                File file = new File(reportPath);
+                if (!isValid(file)) {
+                    parsedReports.add(new ParsedReport(reportPath, null, null));
+                    continue;
+                }
+                long reportSize = file.length();
+                if (heapBudget > 0 && CoverageHeapBudget.estimateParsingSize(reportSize) > heapBudget) {
+                    parsedReports.add(new ParsedReport(reportPath, null,
+                            getExceededBudgetMessage(reportSize, heapBudget), true));
+                    continue;
+                }
 
-            FilePath[] r = new FilePath(f).list(reportFilePath);
+                try {
+                    CoverageResult result = reportAdapter.getResult(file, files, namePool);
+                    if (result == null) {
+                        parsedReports.add(new ParsedReport(reportPath, null, null));
+                        continue;
+                    }
+                    result.trimToSize();
+                    parsedReports.add(new ParsedReport(reportPath, CoverageResultSerializer.serialize(result), null));
+                }
+                catch (CoverageException e) {
+                    parsedReports.add(new ParsedReport(reportPath, null, e.getMessage()));
+                }
+            }
+            return parsedReports;
+        }
 
-            for (FilePath filePath : r) {
-                //TODO check report file (it might should be implement by adapter)
+        private boolean isValid(final File file) throws IOException {
+            // If is Detectable, then use detect to validate file, else simply use file length
+            if (headerDetector != null) {
+                return file.exists() && headerDetector.detect(ReportHeader.read(file));
+            }
+            // skip file if file is empty
+            return Files.size(file.toPath()) > 0;
+        }
+
+        private void registerCoverageElements() {
+            synchronized (CoverageElementRegister.class) {
+                for (CoverageElement element : coverageElements) {
+                    if (CoverageElementRegister.getDespiteType(element.getName()) == null) {
+                        CoverageElementRegister.addCoverageElement(coverageElementType, element);
+                    }
+                }
             }
-            return r;
         }
     }
 
     /**
-     * Save {@link CoverageResult} in build directory.
+     * A report that has been parsed on the agent: contains either the serialized result, an error message, or none
+     * of both if the report has been skipped.
+     */
+    private static class ParsedReport implements Serializable {
+        private static final long serialVersionUID = 4352406624766624914L;
+
+        private final String path;
+        @CheckForNull
+        private final byte[] result;
+        @CheckForNull
+        private final String errorMessage;
+        private final boolean isOverHeapBudget;
+
+        ParsedReport(final String path, @CheckForNull final byte[] result, @CheckForNull final String errorMessage) {
+            this(path, result, errorMessage, false);
+        }
+
+        ParsedReport(final String path, @CheckForNull final byte[] result, @CheckForNull final String errorMessage,
+                final boolean isOverHeapBudget) {
+            this.path = path;
+            this.result = result;
+            this.errorMessage = errorMessage;
+            this.isOverHeapBudget = isOverHeapBudget;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        @CheckForNull
+        byte[] getResult() {
+            return result;
+        }
+
+        @CheckForNull
+        String getErrorMessage() {
+            return errorMessage;
+        }
+
+        boolean isOverHeapBudget() {
+            return isOverHeapBudget;
+        }
+    }
+
+    /**
+     * Save {@link CoverageResult} in build directory. The result is written in the format of {@link
+     * CoverageResultSerializer}.
      *
      * @param run
      *         build
@@ -709,26 +1327,78 @@ public class CoverageProcessor {
      *         report
      */
     public static void saveCoverageResult(final Run<?, ?> run, final CoverageResult report) throws IOException {
-        File reportFile = new File(run.getRootDir(), DEFAULT_REPORT_SAVE_NAME);
+        writeCoverageResult(new File(run.getRootDir(), DEFAULT_REPORT_SAVE_NAME), report);
+    }
 
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(reportFile))) {
-            oos.writeObject(report);
+    /**
+     * Saves the reports of another invocation of the step in the build directory. Each invocation writes a file of its
+     * own, so the reports of the previous invocations are not written again. The reports are merged with the saved
+     * result when the result is recovered.
+     *
+     * @param run
+     *         build
+     * @param report
+     *         the reports of the invocation
+     */
+    private static void appendCoverageResult(final Run<?, ?> run, final CoverageResult report) throws IOException {
+        int invocation = 1;
+        while (getAppendedReportFile(run, invocation).exists()) {
+            invocation++;
+        }
+        writeCoverageResult(getAppendedReportFile(run, invocation), report);
+    }
+
+    private static File getAppendedReportFile(final Run<?, ?> run, final int invocation) {
+        return new File(run.getRootDir(), DEFAULT_REPORT_SAVE_NAME + "." + invocation);
+    }
+
+    private static void writeCoverageResult(final File reportFile, final CoverageResult report) throws IOException {
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(reportFile))) {
+            CoverageResultSerializer.write(report, output);
         }
     }
 
     /**
-     * Recover {@link CoverageResult} from build directory.
+     * Recover {@link CoverageResult} from build directory. The reports of further invocations of the step are merged
+     * in the order of the invocations. Results of older releases that have been written with the Java serialization
+     * are still read.
      *
      * @param run
      *         build
      *
      * @return Coverage result
+     * @throws IOException
+     *         if the result cannot be read, e.g. since it has been written by a newer release in a format version that
+     *         is not supported by this release
      */
     public static CoverageResult recoverCoverageResult(final Run<?, ?> run) throws IOException, ClassNotFoundException {
-        File reportFile = new File(run.getRootDir(), DEFAULT_REPORT_SAVE_NAME);
+        CoverageResult result = readCoverageResult(new File(run.getRootDir(), DEFAULT_REPORT_SAVE_NAME));
 
-        try (ObjectInputStream ois = new CompatibleObjectInputStream(new FileInputStream(reportFile))) {
-            return (CoverageResult) ois.readObject();
+        for (int invocation = 1; getAppendedReportFile(run, invocation).exists(); invocation++) {
+            mergeReports(result, readCoverageResult(getAppendedReportFile(run, invocation)));
+        }
+        return result;
+    }
+
+    private static CoverageResult readCoverageResult(final File reportFile) throws IOException, ClassNotFoundException {
+        try (InputStream input = new BufferedInputStream(new FileInputStream(reportFile))) {
+            if (CoverageResultSerializer.isSerializedResult(input)) {
+                return readSerializedResult(input, reportFile);
+            }
+            try (ObjectInputStream ois = new CompatibleObjectInputStream(input)) {
+                return (CoverageResult) ois.readObject();
+            }
+        }
+    }
+
+    private static CoverageResult readSerializedResult(final InputStream input, final File reportFile)
+            throws IOException {
+        try {
+            return CoverageResultSerializer.read(input);
+        }
+        catch (IOException exception) {
+            throw new IOException(String.format("Unable to recover the coverage result from %s: %s",
+                    reportFile, exception.getMessage()), exception);
         }
     }
 }
@@ -75,6 +75,15 @@ public class CoveragePublisher extends Recorder implements SimpleBuildStep {
 
     private boolean skipPublishingChecks = false;
 
+    private boolean parseReportsOnAgent = false;
+
+    private String scanExcludes = StringUtils.EMPTY;
+    private int scanMaxDepth;
+
+    private int heapBudget;
+
+    private int maxParallelConversions;
+
     @DataBoundConstructor
     public CoveragePublisher() {
     }
@@ -109,6 +118,13 @@ public class CoveragePublisher extends Recorder implements SimpleBuildStep {
         processor.setFailUnstable(failUnstable);
         processor.setFailNoReports(failNoReports);
         processor.setApplyThresholdRecursively(applyThresholdRecursively);
+        processor.setParseReportsOnAgent(parseReportsOnAgent);
+        processor.setScanExcludes(scanExcludes);
+        processor.setScanMaxDepth(scanMaxDepth);
+        processor.setHeapBudget(heapBudget);
+        if (maxParallelConversions > 0) {
+            processor.setMaxParallelConversions(maxParallelConversions);
+        }
 
         try {
             processor.performCoverageReport(reportAdapters, reportDetectors, globalThresholds,
@@ -247,6 +263,84 @@ public class CoveragePublisher extends Recorder implements SimpleBuildStep {
         return skipPublishingChecks;
     }
 
+    /**
+     * Determines whether the reports should be parsed on the agent. Then only the parsed results will be transferred
+     * to the controller rather than the reports.
+     *
+     * @param parseReportsOnAgent
+     *         {@code true} if the reports should be parsed on the agent
+     */
+    @DataBoundSetter
+    public void setParseReportsOnAgent(final boolean parseReportsOnAgent) {
+        this.parseReportsOnAgent = parseReportsOnAgent;
+    }
+
+    public boolean isParseReportsOnAgent() {
+        return parseReportsOnAgent;
+    }
+
+    /**
+     * Sets the files and directories that should be skipped when the workspace is scanned for reports, e.g.
+     * {@code **&#47;node_modules/**}.
+     *
+     * @param scanExcludes
+     *         comma or space separated Ant patterns
+     */
+    @DataBoundSetter
+    public void setScanExcludes(final String scanExcludes) {
+        this.scanExcludes = StringUtils.defaultString(scanExcludes);
+    }
+
+    public String getScanExcludes() {
+        return scanExcludes;
+    }
+
+    /**
+     * Sets the maximum depth of reports below the workspace.
+     *
+     * @param scanMaxDepth
+     *         the maximum depth, 0 to scan all levels
+     */
+    @DataBoundSetter
+    public void setScanMaxDepth(final int scanMaxDepth) {
+        this.scanMaxDepth = Math.max(0, scanMaxDepth);
+    }
+
+    public int getScanMaxDepth() {
+        return scanMaxDepth;
+    }
+
+    /**
+     * Sets the heap budget of the coverage results of a build. If the estimated size of the results exceeds the
+     * budget, then the line coverage is spilled to a file in the build directory.
+     *
+     * @param heapBudget
+     *         the heap budget in MB, 0 for no limit
+     */
+    @DataBoundSetter
+    public void setHeapBudget(final int heapBudget) {
+        this.heapBudget = Math.max(0, heapBudget);
+    }
+
+    public int getHeapBudget() {
+        return heapBudget;
+    }
+
+    /**
+     * Sets the maximum number of reports that are converted concurrently.
+     *
+     * @param maxParallelConversions
+     *         the maximum number of concurrent conversions, 0 for the number of processors of the controller
+     */
+    @DataBoundSetter
+    public void setMaxParallelConversions(final int maxParallelConversions) {
+        this.maxParallelConversions = Math.max(0, maxParallelConversions);
+    }
+
+    public int getMaxParallelConversions() {
+        return maxParallelConversions;
+    }
+
     @DataBoundSetter
     public void setFailBuildIfCoverageDecreasedInChangeRequest(
             final boolean failBuildIfCoverageDecreasedInChangeRequest) {
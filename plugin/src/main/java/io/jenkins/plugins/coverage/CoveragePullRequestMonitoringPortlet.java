@@ -97,8 +97,8 @@ public class CoveragePullRequestMonitoringPortlet extends MonitorPortlet {
         data.add("missed", missed);
 
         JsonArray coveredPercentage = new JsonArray();
-        coveredPercentage.add(line.denominator == 0 ? 0 : (double) (100 * (covered.get(0).getAsInt() / line.denominator)));
-        coveredPercentage.add(conditional.denominator == 0 ? 0 : (double) (100 * (covered.get(1).getAsInt() / conditional.denominator)));
+        coveredPercentage.add(line.denominator == 0 ? 0 : 100.0 * line.numerator / line.denominator);
+        coveredPercentage.add(conditional.denominator == 0 ? 0 : 100.0 * conditional.numerator / conditional.denominator);
         data.add("coveredPercentage", coveredPercentage);
 
         JsonArray missedPercentage = new JsonArray();
@@ -0,0 +1,286 @@
+package io.jenkins.plugins.coverage;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import jenkins.util.SystemProperties;
+
+import io.jenkins.plugins.coverage.targets.CoverageHeapBudget;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+
+/**
+ * Caches the coverage results that have been read from the build directories, so that the results of a build are not
+ * read again on every request. The cache is bounded by the estimated heap usage of the results, see {@link
+ * CoverageHeapBudget#estimateSize(CoverageResult)}: if the limit is exceeded, then the least recently used results
+ * are evicted. The most recently used result is kept even if it exceeds the limit on its own.
+ *
+ * <p>
+ * The result of a build is loaded only once, even if several threads request it at the same time: the other threads
+ * wait for the first one. The limit of the global cache is 256 MB by default and may be overridden with the system
+ * property {@code io.jenkins.plugins.coverage.CoverageResultCache.maxSize} in MB, a limit of 0 disables the cache.
+ * </p>
+ */
+public class CoverageResultCache {
+    private static final long MEGABYTE = 1024 * 1024;
+    private static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final CoverageResultCache INSTANCE = new CoverageResultCache(MEGABYTE * SystemProperties.getInteger(
+            CoverageResultCache.class.getName() + ".maxSize", DEFAULT_MAX_SIZE));
+
+    private final long maxSize;
+    private final Map<String, CachedResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, FutureTask<CoverageResult>> loadingResults = new HashMap<>();
+    private long size;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the global cache of the coverage results of all builds.
+     *
+     * @return the global cache
+     */
+    public static CoverageResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize
+     *         the maximum estimated heap usage of the cached results in bytes, 0 to disable the cache
+     */
+    public CoverageResultCache(final long maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+    }
+
+    /**
+     * Returns the cached result with the specified key. If the result is not cached yet, then it is loaded with the
+     * specified loader and added to the cache. If another thread is loading the result already, then this thread waits
+     * for the result of the other thread.
+     *
+     * @param key
+     *         the key of the result, e.g. the ID of the build
+     * @param loader
+     *         the loader of the result
+     *
+     * @return the result
+     * @throws IOException
+     *         if the result can't be loaded
+     * @throws ClassNotFoundException
+     *         if the result can't be loaded
+     */
+    public CoverageResult get(final String key, final ResultLoader loader) throws IOException, ClassNotFoundException {
+        FutureTask<CoverageResult> loading;
+        boolean isLoadedByThisThread = false;
+        synchronized (this) {
+            CachedResult cached = results.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached.result;
+            }
+            loading = loadingResults.get(key);
+            if (loading == null) {
+                loading = new FutureTask<>(loader::load);
+                loadingResults.put(key, loading);
+                isLoadedByThisThread = true;
+                misses.incrementAndGet();
+            }
+            else {
+                hits.incrementAndGet();
+            }
+        }
+
+        if (isLoadedByThisThread) {
+            loading.run();
+            CoverageResult result = getLoadedResult(loading);
+            long estimatedSize = result == null ? 0 : CoverageHeapBudget.estimateSize(result);
+            synchronized (this) {
+                // skip the loaded result if it has been replaced or removed in the meantime
+                if (loadingResults.remove(key, loading) && result != null) {
+                    add(key, result, estimatedSize);
+                }
+            }
+        }
+        return waitForResult(loading);
+    }
+
+    @CheckForNull
+    private CoverageResult getLoadedResult(final FutureTask<CoverageResult> loading) {
+        try {
+            return loading.get();
+        }
+        catch (InterruptedException | ExecutionException exception) {
+            return null;
+        }
+    }
+
+    private CoverageResult waitForResult(final FutureTask<CoverageResult> loading)
+            throws IOException, ClassNotFoundException {
+        try {
+            return loading.get();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the coverage result", exception);
+        }
+        catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof ClassNotFoundException) {
+                throw (ClassNotFoundException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Adds the specified result to the cache or replaces the cached result with the same key. Must be called again
+     * if a cached result has been modified, so that its size is estimated again. A result with the same key that is
+     * being loaded at the same time is not added to the cache afterwards.
+     *
+     * @param key
+     *         the key of the result
+     * @param result
+     *         the result
+     */
+    public void put(final String key, final CoverageResult result) {
+        long estimatedSize = CoverageHeapBudget.estimateSize(result);
+        synchronized (this) {
+            loadingResults.remove(key);
+            add(key, result, estimatedSize);
+        }
+    }
+
+    private void add(final String key, final CoverageResult result, final long estimatedSize) {
+        if (maxSize == 0) {
+            return;
+        }
+
+        CachedResult cached = new CachedResult(result, estimatedSize);
+        CachedResult replaced = results.put(key, cached);
+        if (replaced != null) {
+            size -= replaced.size;
+        }
+        size += cached.size;
+
+        Iterator<CachedResult> leastRecentlyUsed = results.values().iterator();
+        while (size > maxSize && results.size() > 1) {
+            size -= leastRecentlyUsed.next().size;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    /**
+     * Removes the result with the specified key from the cache. A result with the same key that is being loaded at the
+     * same time is not added to the cache afterwards.
+     *
+     * @param key
+     *         the key of the result
+     */
+    public synchronized void remove(final String key) {
+        loadingResults.remove(key);
+        CachedResult removed = results.remove(key);
+        if (removed != null) {
+            size -= removed.size;
+        }
+    }
+
+    /**
+     * Returns whether results are cached at all. If the cache is disabled, then the callers need to keep the results
+     * that they have not stored in the build directory yet.
+     *
+     * @return {@code true} if results are cached, {@code false} if the limit is 0
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns the maximum estimated heap usage of the cached results.
+     *
+     * @return the limit in bytes
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the estimated heap usage of the cached results.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return the number of cached results
+     */
+    public synchronized int getNumberOfResults() {
+        return results.size();
+    }
+
+    /**
+     * Returns the number of requests that have been served without loading the result.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of requests that required to load the result.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Loads a coverage result, e.g. from the build directory.
+     */
+    @FunctionalInterface
+    public interface ResultLoader {
+        /**
+         * Loads the result.
+         *
+         * @return the result
+         * @throws IOException
+         *         if the result can't be loaded
+         * @throws ClassNotFoundException
+         *         if the result can't be loaded
+         */
+        CoverageResult load() throws IOException, ClassNotFoundException;
+    }
+
+    private static final class CachedResult {
+        private final CoverageResult result;
+        private final long size;
+
+        CachedResult(final CoverageResult result, final long size) {
+            this.result = result;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.jenkins.plugins.coverage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.io.FileUtils;
+
+import hudson.FilePath;
+import hudson.util.DirScanner;
+import hudson.util.FileVisitor;
+
+/**
+ * Transfers reports from the workspace to the build directory on the controller with a single remote call. The reports
+ * are packed into one compressed archive on the agent and unpacked into a new directory of the build.
+ *
+ * <p>
+ * The name of each report in the target directory is assigned by a manifest before the transfer: reports with the
+ * same name get a numeric suffix, so there is no need to probe for existing files on the controller.
+ * </p>
+ */
+public class ReportTransfer {
+    private static final String DIRECTORY_PREFIX = "coverage-reports";
+
+    private final Map<String, String> manifest = new LinkedHashMap<>();
+
+    /**
+     * Adds a report to the transfer.
+     *
+     * @param remotePath
+     *         the absolute path of the report in the workspace
+     * @param name
+     *         the preferred name of the report in the target directory
+     *
+     * @return the name of the report in the target directory, the preferred name with a suffix if another report uses
+     *         the preferred name already
+     */
+    public String add(final String remotePath, final String name) {
+        String targetName = name;
+        int i = 1;
+        while (manifest.containsKey(targetName)) {
+            targetName = String.format("%s(%d)", name, i++);
+        }
+        manifest.put(targetName, remotePath);
+        return targetName;
+    }
+
+    /**
+     * Returns the manifest of the transfer.
+     *
+     * @return the absolute paths of the reports in the workspace, mapped by their name in the target directory
+     */
+    public Map<String, String> getManifest() {
+        return Collections.unmodifiableMap(manifest);
+    }
+
+    public boolean isEmpty() {
+        return manifest.isEmpty();
+    }
+
+    /**
+     * Transfers all reports of the manifest to a new directory below the specified build directory.
+     *
+     * @param workspace
+     *         the workspace that contains the reports
+     * @param buildDirectory
+     *         the directory of the build on the controller
+     * @param description
+     *         the description of the transfer for the log of the agent
+     *
+     * @return the directory that contains the transferred reports
+     * @throws IOException
+     *         if the reports cannot be transferred
+     * @throws InterruptedException
+     *         if the transfer has been interrupted
+     */
+    public File transfer(final FilePath workspace, final File buildDirectory, final String description)
+            throws IOException, InterruptedException {
+        File directory = Files.createTempDirectory(buildDirectory.toPath(), DIRECTORY_PREFIX).toFile();
+        try {
+            workspace.copyRecursiveTo(new ManifestScanner(manifest), new FilePath(directory), description);
+        }
+        catch (IOException | InterruptedException | RuntimeException e) {
+            FileUtils.deleteQuietly(directory);
+            throw e;
+        }
+        return directory;
+    }
+
+    /**
+     * Deletes the directories the specified reports have been transferred to. Reports that have not been transferred
+     * by a {@link ReportTransfer} are not touched.
+     *
+     * @param reports
+     *         the transferred reports
+     */
+    public static void deleteTransferDirectories(final Collection<File> reports) {
+        reports.stream()
+                .map(File::getParentFile)
+                .filter(Objects::nonNull)
+                .filter(directory -> directory.getName().startsWith(DIRECTORY_PREFIX))
+                .distinct()
+                .forEach(FileUtils::deleteQuietly);
+    }
+
+    /**
+     * Visits the reports of the manifest with their name in the target directory.
+     */
+    private static class ManifestScanner extends DirScanner {
+        private static final long serialVersionUID = 7308513420973622145L;
+
+        private final Map<String, String> manifest;
+
+        ManifestScanner(final Map<String, String> manifest) {
+            this.manifest = new LinkedHashMap<>(manifest);
+        }
+
+        @Override
+        public void scan(final File dir, final FileVisitor visitor) throws IOException {
+            for (Map.Entry<String, String> report : manifest.entrySet()) {
+                visitor.visit(new File(report.getValue()), report.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package io.jenkins.plugins.coverage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.tools.ant.DirectoryScanner;
+import org.apache.tools.ant.types.selectors.SelectorUtils;
+
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Walks the workspace once and matches every file against the Ant patterns of all report adapters and report
+ * detectors. Patterns use the same syntax as {@link hudson.FilePath#list(String)}: each pattern may contain several
+ * comma or space separated includes and the default excludes of Ant are applied. Directory patterns also match
+ * directories, e.g. the class directories that are required to analyze the reports of an adapter.
+ *
+ * <p>
+ * Directories are not entered if no include pattern could match a file below them, if they are matched by an exclude
+ * pattern that ends with {@code /**} (e.g. {@code **&#47;node_modules/**}), or if they are deeper than the maximum
+ * depth.
+ * </p>
+ */
+public class WorkspaceScanner extends MasterToSlaveFileCallable<WorkspaceScanner.ScanResult> {
+    private static final long serialVersionUID = -5720064937183957361L;
+
+    private static final String PATTERN_SEPARATORS = ", ";
+
+    private final List<String> patterns;
+    private final List<String> directoryPatterns;
+    private final String excludes;
+    private final int maxDepth;
+
+    /**
+     * Creates a new scanner.
+     *
+     * @param patterns
+     *         the Ant patterns to match, the result contains the matching files of each pattern
+     * @param excludes
+     *         comma or space separated Ant patterns of files and directories to skip, may be empty
+     * @param maxDepth
+     *         the maximum depth of files below the workspace, 0 to scan all levels
+     */
+    public WorkspaceScanner(final List<String> patterns, final String excludes, final int maxDepth) {
+        this(patterns, Collections.emptyList(), excludes, maxDepth);
+    }
+
+    /**
+     * Creates a new scanner that matches files and directories.
+     *
+     * @param patterns
+     *         the Ant patterns of files to match, the result contains the matching files of each pattern
+     * @param directoryPatterns
+     *         the Ant patterns of directories and files to match, the result contains the matches of each pattern
+     *         after the matches of the file patterns
+     * @param excludes
+     *         comma or space separated Ant patterns of files and directories to skip, may be empty
+     * @param maxDepth
+     *         the maximum depth of files below the workspace, 0 to scan all levels
+     */
+    public WorkspaceScanner(final List<String> patterns, final List<String> directoryPatterns, final String excludes,
+            final int maxDepth) {
+        this.patterns = new ArrayList<>(patterns);
+        this.directoryPatterns = new ArrayList<>(directoryPatterns);
+        this.excludes = StringUtils.defaultString(excludes);
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    public ScanResult invoke(final File workspace, final VirtualChannel channel) throws IOException {
+        List<List<String>> includePatterns = new ArrayList<>();
+        for (String pattern : patterns) {
+            includePatterns.add(tokenize(pattern));
+        }
+        for (String pattern : directoryPatterns) {
+            includePatterns.add(tokenize(pattern));
+        }
+        List<String> excludePatterns = tokenize(excludes);
+        for (String defaultExclude : DirectoryScanner.getDefaultExcludes()) {
+            excludePatterns.add(normalize(defaultExclude));
+        }
+
+        long start = System.nanoTime();
+        Walker walker = new Walker(workspace.toPath(), includePatterns, patterns.size(), excludePatterns);
+        if (workspace.isDirectory()) {
+            Files.walkFileTree(workspace.toPath(), EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+                    maxDepth > 0 ? maxDepth : Integer.MAX_VALUE, walker);
+        }
+        return new ScanResult(walker.matches, walker.visitedEntries, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static List<String> tokenize(final String pattern) {
+        List<String> tokens = new ArrayList<>();
+        StringTokenizer tokenizer = new StringTokenizer(pattern, PATTERN_SEPARATORS);
+        while (tokenizer.hasMoreTokens()) {
+            tokens.add(normalize(tokenizer.nextToken()));
+        }
+        return tokens;
+    }
+
+    // the same normalization as Ant's PatternSet: a trailing separator matches all files below the directory
+    private static String normalize(final String pattern) {
+        String normalized = pattern.replace('/', File.separatorChar).replace('\\', File.separatorChar);
+        if (normalized.endsWith(File.separator)) {
+            normalized += SelectorUtils.DEEP_TREE_MATCH;
+        }
+        return normalized;
+    }
+
+    /**
+     * Visits all files and directories of the workspace and collects the matching files. The include patterns
+     * starting at {@code firstDirectoryPattern} also collect the matching directories.
+     */
+    private static class Walker extends SimpleFileVisitor<Path> {
+        private final Path workspace;
+        private final List<List<String>> includePatterns;
+        private final int firstDirectoryPattern;
+        private final List<String> excludePatterns;
+        private final List<String> prunePatterns = new ArrayList<>();
+        private final List<List<String>> matches = new ArrayList<>();
+        private int visitedEntries;
+
+        Walker(final Path workspace, final List<List<String>> includePatterns, final int firstDirectoryPattern,
+                final List<String> excludePatterns) {
+            this.workspace = workspace;
+            this.includePatterns = includePatterns;
+            this.firstDirectoryPattern = firstDirectoryPattern;
+            this.excludePatterns = excludePatterns;
+            for (String exclude : excludePatterns) {
+                if (exclude.endsWith(File.separator + SelectorUtils.DEEP_TREE_MATCH)) {
+                    prunePatterns.add(exclude);
+                }
+            }
+            for (int i = 0; i < includePatterns.size(); i++) {
+                matches.add(new ArrayList<>());
+            }
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+            if (dir.equals(workspace)) {
+                return FileVisitResult.CONTINUE;
+            }
+            visitedEntries++;
+
+            String relativePath = workspace.relativize(dir).toString();
+            if (matchesAny(prunePatterns, relativePath) || !couldHoldIncluded(relativePath)) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            addDirectory(dir, relativePath);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+            visitedEntries++;
+            String relativePath = workspace.relativize(file).toString();
+            if (attrs.isDirectory()) {
+                // a directory at the maximum depth
+                if (!matchesAny(prunePatterns, relativePath)) {
+                    addDirectory(file, relativePath);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            if (matchesAny(excludePatterns, relativePath)) {
+                return FileVisitResult.CONTINUE;
+            }
+            for (int i = 0; i < includePatterns.size(); i++) {
+                if (matchesAny(includePatterns.get(i), relativePath)) {
+                    matches.get(i).add(file.toString());
+                }
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(final Path file, final IOException exception) {
+            // unreadable files and symbolic link cycles are skipped, just like in Ant's DirectoryScanner
+            return FileVisitResult.CONTINUE;
+        }
+
+        private void addDirectory(final Path dir, final String relativePath) {
+            if (firstDirectoryPattern == includePatterns.size() || matchesAny(excludePatterns, relativePath)) {
+                return;
+            }
+            for (int i = firstDirectoryPattern; i < includePatterns.size(); i++) {
+                if (matchesAny(includePatterns.get(i), relativePath)) {
+                    matches.get(i).add(dir.toString());
+                }
+            }
+        }
+
+        private boolean couldHoldIncluded(final String relativePath) {
+            for (List<String> include : includePatterns) {
+                for (String pattern : include) {
+                    if (SelectorUtils.matchPatternStart(pattern, relativePath, true)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean matchesAny(final List<String> patterns, final String relativePath) {
+            for (String pattern : patterns) {
+                if (SelectorUtils.matchPath(pattern, relativePath, true)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The files that match the patterns of the scanner, along with the statistics of the walk.
+     */
+    public static class ScanResult implements Serializable {
+        private static final long serialVersionUID = 6010938461296406021L;
+
+        private final List<List<String>> matches;
+        private final int visitedEntries;
+        private final long walkTime;
+
+        ScanResult(final List<List<String>> matches, final int visitedEntries, final long walkTime) {
+            this.matches = matches;
+            this.visitedEntries = visitedEntries;
+            this.walkTime = walkTime;
+        }
+
+        /**
+         * Returns the absolute paths of the files that match the specified pattern.
+         *
+         * @param patternIndex
+         *         the index of the pattern
+         *
+         * @return the matching files
+         */
+        public List<String> getMatches(final int patternIndex) {
+            return Collections.unmodifiableList(matches.get(patternIndex));
+        }
+
+        /**
+         * Returns the number of files and directories that have been visited.
+         *
+         * @return the number of visited entries
+         */
+        public int getVisitedEntries() {
+            return visitedEntries;
+        }
+
+        /**
+         * Returns the duration of the walk on the agent.
+         *
+         * @return the walk time in milliseconds
+         */
+        public long getWalkTime() {
+            return walkTime;
+        }
+    }
+}
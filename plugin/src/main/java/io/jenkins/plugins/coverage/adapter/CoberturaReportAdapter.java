@@ -1,18 +1,20 @@
 package io.jenkins.plugins.coverage.adapter;
 
 import java.io.File;
-import javax.xml.transform.TransformerException;
+import java.io.IOException;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.jenkinsci.Symbol;
 import hudson.Extension;
 
-import io.jenkins.plugins.coverage.adapter.util.XMLUtils;
+import io.jenkins.plugins.coverage.adapter.parser.CoberturaStreamingParser;
+import io.jenkins.plugins.coverage.adapter.parser.StreamingCoverageParser;
 import io.jenkins.plugins.coverage.detector.Detectable;
+import io.jenkins.plugins.coverage.detector.HeaderDetector;
+import io.jenkins.plugins.coverage.detector.ReportHeader;
+import io.jenkins.plugins.coverage.detector.RootElementDetector;
 
 /**
  * Coverage report adapter for Cobertura.
@@ -40,6 +42,11 @@ public final class CoberturaReportAdapter extends JavaXMLCoverageReportAdapter {
         return null;
     }
 
+    @Override
+    protected StreamingCoverageParser createStreamingParser(final String reportName) {
+        return new CoberturaStreamingParser(reportName);
+    }
+
     @Symbol("cobertura")
     @Extension
     public static final class CoberturaReportAdapterDescriptor extends JavaCoverageReportAdapterDescriptor
@@ -59,19 +66,21 @@ public final class CoberturaReportAdapter extends JavaXMLCoverageReportAdapter {
                 return false;
             }
 
-            Document d;
             try {
-                d = XMLUtils.getInstance().readXMLtoDocument(file);
-            } catch (TransformerException ignore) {
+                return detect(ReportHeader.read(file));
+            } catch (IOException ignore) {
                 return false;
             }
+        }
 
-            Element e = d.getDocumentElement();
-            if (e == null) {
-                return false;
-            }
+        @Override
+        public boolean hasStreamingParser() {
+            return true;
+        }
 
-            return "coverage".equals(e.getLocalName());
+        @Override
+        public HeaderDetector getHeaderDetector() {
+            return new RootElementDetector("coverage");
         }
 
         @NonNull
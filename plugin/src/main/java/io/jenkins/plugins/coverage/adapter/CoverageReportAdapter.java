@@ -11,6 +11,7 @@ import io.jenkins.plugins.coverage.CoveragePublisher;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import io.jenkins.plugins.coverage.source.DefaultSourceFileResolver;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
 import io.jenkins.plugins.coverage.threshold.Threshold;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.w3c.dom.Document;
@@ -20,7 +21,12 @@ import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 
-
+/**
+ * Base class of the adapters that read coverage reports. By default a report is converted to a DOM document of the
+ * standard format with {@link #convert(File)} and parsed with {@link #parseToResult(Document, String)}. Adapters that
+ * parse their reports without such a document override {@link #getResult(File)} instead, adapters that use the
+ * document should extend {@link DocumentCoverageReportAdapter}.
+ */
 public abstract class CoverageReportAdapter extends CoverageAdapter {
 
     // ant path of report files
@@ -59,23 +65,83 @@ public abstract class CoverageReportAdapter extends CoverageAdapter {
     }
 
     /**
-     * convert report to standard format report, and return the DOM document representation.
+     * Get {@link CoverageResult} from report file. The names and paths of the result are taken from the specified pool,
+     * so that the results of all reports of a build share the same instances. By default the pool is not used, adapters
+     * that create their results with a parser should override this method.
+     *
+     * @param report   report file
+     * @param namePool pool for the names and paths of the build
+     * @return CoverageResult
+     * @throws CoverageException cannot convert report file to CoverageResult
+     */
+    public CoverageResult getResult(File report, NamePool namePool) throws CoverageException {
+        return getResult(report);
+    }
+
+    /**
+     * Get {@link CoverageResult} from report file that is parsed in the workspace on the agent. By default the
+     * workspace is not used, adapters that require other files of the workspace should override this method,
+     * {@link #getWorkspacePattern()} and {@link #isWorkspaceRequired()}.
+     *
+     * @param report         report file
+     * @param workspaceFiles files and directories of the workspace that match {@link #getWorkspacePattern()}
+     * @param namePool       pool for the names and paths of the build
+     * @return CoverageResult
+     * @throws CoverageException cannot convert report file to CoverageResult
+     */
+    public CoverageResult getResult(File report, List<File> workspaceFiles, NamePool namePool)
+            throws CoverageException {
+        return getResult(report, namePool);
+    }
+
+    /**
+     * Returns the Ant patterns of the files and directories of the workspace that are required to parse the reports.
+     * They are found with the same walk over the workspace as the reports, so the excludes and the maximum depth of
+     * the scan apply, see {@link #getResult(File, List, NamePool)}.
+     *
+     * @return comma or space separated Ant patterns relative to the workspace, or {@code null} if the reports do not
+     *         require other files of the workspace
+     */
+    @CheckForNull
+    public String getWorkspacePattern() {
+        return null;
+    }
+
+    /**
+     * Returns whether the reports of this adapter can only be parsed in the workspace, i.e. with
+     * {@link #getResult(File, List, NamePool)} on the agent. Such reports are never copied to the controller.
+     *
+     * @return {@code true} if the reports require the workspace, {@code false} otherwise
+     */
+    public boolean isWorkspaceRequired() {
+        return false;
+    }
+
+    /**
+     * convert report to standard format report, and return the DOM document representation. Adapters that use the
+     * default implementation of {@link #getResult(File)} need to override this method.
      *
      * @param source report file
      * @return {@link Document} representation of standard format report
+     * @throws CoverageException if the adapter does not convert its reports to the standard format
      */
-    protected abstract Document convert(File source) throws CoverageException;
+    protected Document convert(File source) throws CoverageException {
+        throw new CoverageException(getClass().getName() + " does not convert reports to the standard format");
+    }
 
     /**
-     * parse report document to {@link CoverageResult}.
+     * parse report document to {@link CoverageResult}. Adapters that use the default implementation of {@link
+     * #getResult(File)} need to override this method.
      *
      * @param document   document be parse
      * @param reportName report name
      * @return CoverageResult
+     * @throws CoverageException if the adapter does not convert its reports to the standard format
      */
     @CheckForNull
-    protected abstract CoverageResult parseToResult(Document document, String reportName) throws CoverageException;
-
+    protected CoverageResult parseToResult(Document document, String reportName) throws CoverageException {
+        throw new CoverageException(getClass().getName() + " does not convert reports to the standard format");
+    }
 
     /**
      * Getter for thresholds.
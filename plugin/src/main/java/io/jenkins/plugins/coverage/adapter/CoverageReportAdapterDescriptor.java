@@ -25,4 +25,14 @@ public class CoverageReportAdapterDescriptor<T extends CoverageReportAdapter>
     public boolean defaultMergeToOneReport() {
         return false;
     }
+
+    /**
+     * Returns whether the adapter reads its reports with a streaming parser. In this case the configuration offers to
+     * use the XSL transformation instead, in case the streaming parser reads a report differently.
+     *
+     * @return {@code true} if the adapter has a streaming parser, {@code false} otherwise
+     */
+    public boolean hasStreamingParser() {
+        return false;
+    }
 }
@@ -0,0 +1,67 @@
+package io.jenkins.plugins.coverage.adapter;
+
+import java.io.File;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import org.w3c.dom.Document;
+
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+
+/**
+ * Base class of the adapters that convert their reports to a DOM document of the standard format first, and parse
+ * this document to {@link CoverageResult} afterwards. In contrast to {@link CoverageReportAdapter}, subclasses must
+ * implement {@link #convert(File)} and {@link #parseToResult(Document, String)}.
+ */
+public abstract class DocumentCoverageReportAdapter extends CoverageReportAdapter {
+
+    /**
+     * @param path Ant-style path of report files.
+     */
+    public DocumentCoverageReportAdapter(String path) {
+        super(path);
+    }
+
+    /**
+     * Get {@link CoverageResult} from report file. The report is converted to the standard format with {@link
+     * #convert(File)} and parsed with {@link #parseToResult(Document, String, NamePool)}.
+     *
+     * @param report report file
+     * @return CoverageResult
+     * @throws CoverageException cannot convert report file to CoverageResult
+     */
+    @Override
+    public CoverageResult getResult(File report) throws CoverageException {
+        return getResult(report, new NamePool());
+    }
+
+    @Override
+    public CoverageResult getResult(File report, NamePool namePool) throws CoverageException {
+        Document document = convert(report);
+        return parseToResult(document, report.getName(), namePool);
+    }
+
+    @Override
+    protected abstract Document convert(File source) throws CoverageException;
+
+    @CheckForNull
+    @Override
+    protected abstract CoverageResult parseToResult(Document document, String reportName) throws CoverageException;
+
+    /**
+     * parse report document to {@link CoverageResult}, the names and paths are taken from the specified pool. By
+     * default the pool is not used, adapters that parse the document with a {@link
+     * io.jenkins.plugins.coverage.adapter.parser.CoverageParser CoverageParser} should pass the pool to the parser.
+     *
+     * @param document   document be parse
+     * @param reportName report name
+     * @param namePool   pool for the names and paths of the build
+     * @return CoverageResult
+     */
+    @CheckForNull
+    protected CoverageResult parseToResult(Document document, String reportName, NamePool namePool)
+            throws CoverageException {
+        return parseToResult(document, reportName);
+    }
+}
@@ -19,6 +19,7 @@ import io.jenkins.plugins.coverage.adapter.parser.CoverageParser;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import io.jenkins.plugins.coverage.targets.CoverageElement;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
 
 public class IstanbulCoberturaReportAdapter extends XMLCoverageReportAdapter {
 
@@ -42,7 +43,16 @@ public class IstanbulCoberturaReportAdapter extends XMLCoverageReportAdapter {
     @CheckForNull
     @Override
     protected CoverageResult parseToResult(final Document document, final String reportName) throws CoverageException {
-        return new IstanbulCoberturaCoverageParser(reportName).parse(document);
+        return parseToResult(document, reportName, new NamePool());
+    }
+
+    @CheckForNull
+    @Override
+    protected CoverageResult parseToResult(final Document document, final String reportName,
+            final NamePool namePool) throws CoverageException {
+        IstanbulCoberturaCoverageParser parser = new IstanbulCoberturaCoverageParser(reportName);
+        parser.setNamePool(namePool);
+        return parser.parse(document);
     }
 
 
@@ -99,18 +109,20 @@ public class IstanbulCoberturaReportAdapter extends XMLCoverageReportAdapter {
                     String directoryName = getAttribute(current, "name", "<root>")
                             .replaceAll("\\.", "/");
 
-                    result = new CoverageResult(CoverageElement.get("Directory"), parentResult, directoryName);
+                    result = new CoverageResult(CoverageElement.get("Directory"), parentResult,
+                            intern(directoryName));
                     break;
                 case "file":
                     result = new CoverageResult(CoverageElement.get("File"), parentResult,
-                            getAttribute(current, "name", ""));
+                            intern(getAttribute(current, "name", "")));
 
-                    result.setRelativeSourcePath(getAttribute(current, "name", null));
+                    result.setRelativeSourcePath(intern(getAttribute(current, "name", null)));
                     break;
                 case "function":
                     String functionName = getAttribute(current, "name", "");
 
-                    result = new CoverageResult(CoverageElement.get("Function"), parentResult, functionName);
+                    result = new CoverageResult(CoverageElement.get("Function"), parentResult,
+                            intern(functionName));
 
                     break;
                 case "line":
@@ -8,7 +8,7 @@ import org.w3c.dom.Document;
 import java.io.File;
 import java.io.IOException;
 
-public abstract class JSONCoverageReportAdapter extends CoverageReportAdapter {
+public abstract class JSONCoverageReportAdapter extends DocumentCoverageReportAdapter {
 
     /**
      * @param path Ant-style path of report files.
@@ -0,0 +1,48 @@
+package io.jenkins.plugins.coverage.adapter;
+
+import java.io.File;
+
+import io.jenkins.plugins.coverage.adapter.converter.JSONStreamingConverter;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+
+/**
+ * Base class of the adapters that read JSON reports token by token with a {@link JSONStreamingConverter}. In contrast
+ * to the {@link JSONCoverageReportAdapter} neither a {@link com.fasterxml.jackson.databind.JsonNode JsonNode} tree nor
+ * a standard format document of the report is created.
+ */
+public abstract class JSONStreamingReportAdapter extends CoverageReportAdapter {
+
+    /**
+     * @param path Ant-style path of report files.
+     */
+    public JSONStreamingReportAdapter(final String path) {
+        super(path);
+    }
+
+    /**
+     * Get {@link CoverageResult} from report file. The report is converted by the {@link JSONStreamingConverter} of
+     * the adapter.
+     *
+     * @param report report file
+     * @return CoverageResult
+     * @throws CoverageException cannot convert report file to CoverageResult
+     */
+    @Override
+    public CoverageResult getResult(final File report) throws CoverageException {
+        return getResult(report, new NamePool());
+    }
+
+    @Override
+    public CoverageResult getResult(final File report, final NamePool namePool) throws CoverageException {
+        JSONStreamingConverter converter = getStreamingConverter();
+        converter.setNamePool(namePool);
+        return converter.convert(report, report.getName());
+    }
+
+    /**
+     * @return converter which reads the tokens of the report and creates the {@link CoverageResult} directly.
+     */
+    protected abstract JSONStreamingConverter getStreamingConverter();
+}
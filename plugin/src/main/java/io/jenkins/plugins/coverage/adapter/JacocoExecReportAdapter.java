@@ -0,0 +1,114 @@
+package io.jenkins.plugins.coverage.adapter;
+
+import java.io.File;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.apache.commons.lang.StringUtils;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.jenkinsci.Symbol;
+import hudson.Extension;
+
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter.JacocoReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.adapter.parser.JacocoExecAnalyzer;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+
+/**
+ * Reads the execution data of JaCoCo ({@code jacoco.exec}) and analyzes it with the class files of the workspace. In
+ * contrast to the {@link JacocoReportAdapter} no XML report is required: the reports are analyzed on the agent and only
+ * the resulting coverage tree is transferred to the controller.
+ */
+public final class JacocoExecReportAdapter extends CoverageReportAdapter {
+    /** The class directories of Gradle and Maven builds. */
+    static final String DEFAULT_CLASS_DIRECTORIES = "**/build/classes/java/main, **/target/classes";
+
+    private String classDirectories = DEFAULT_CLASS_DIRECTORIES;
+
+    /**
+     * @param path Ant-style path of the execution data files.
+     */
+    @DataBoundConstructor
+    public JacocoExecReportAdapter(final String path) {
+        super(path);
+    }
+
+    /**
+     * Sets the class directories or archives that have been executed during the tests.
+     *
+     * @param classDirectories
+     *         comma or space separated Ant-style patterns of class directories or archives, relative to the workspace
+     */
+    @DataBoundSetter
+    public void setClassDirectories(final String classDirectories) {
+        this.classDirectories = StringUtils.defaultIfBlank(classDirectories, DEFAULT_CLASS_DIRECTORIES);
+    }
+
+    public String getClassDirectories() {
+        return classDirectories;
+    }
+
+    @Override
+    public boolean isWorkspaceRequired() {
+        return true;
+    }
+
+    /**
+     * Returns the patterns of the class directories, so that they are found with the same walk over the workspace as
+     * the execution data.
+     *
+     * @return the patterns of the class directories
+     */
+    @Override
+    public String getWorkspacePattern() {
+        return classDirectories;
+    }
+
+    /**
+     * Not supported, since the class files of the workspace are required, see {@link #getResult(File, List, NamePool)}.
+     *
+     * @param report report file
+     * @throws CoverageException always
+     */
+    @Override
+    public CoverageResult getResult(final File report) throws CoverageException {
+        throw new CoverageException(
+                "JaCoCo execution data can only be analyzed with the class files of the workspace: " + report);
+    }
+
+    @Override
+    public CoverageResult getResult(final File report, final List<File> workspaceFiles, final NamePool namePool)
+            throws CoverageException {
+        if (workspaceFiles.isEmpty()) {
+            throw new CoverageException("No class directories found in the workspace for " + classDirectories);
+        }
+        JacocoExecAnalyzer analyzer = new JacocoExecAnalyzer(report.getName());
+        analyzer.setNamePool(namePool);
+        return analyzer.analyze(report, workspaceFiles);
+    }
+
+    @Symbol("jacocoExec")
+    @Extension
+    public static final class JacocoExecReportAdapterDescriptor extends JavaCoverageReportAdapterDescriptor {
+        public JacocoExecReportAdapterDescriptor() {
+            super(JacocoExecReportAdapter.class);
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.JacocoExecReportAdapter_displayName();
+        }
+
+        @Override
+        public List<CoverageElement> getCoverageElements() {
+            List<CoverageElement> registerCoverageElements = super.getCoverageElements();
+            registerCoverageElements.add(JacocoReportAdapterDescriptor.INSTRUCTION);
+            return registerCoverageElements;
+        }
+    }
+}
@@ -11,10 +11,13 @@ import org.kohsuke.stapler.DataBoundConstructor;
 import org.jenkinsci.Symbol;
 import hudson.Extension;
 
+import io.jenkins.plugins.coverage.adapter.parser.JacocoStreamingParser;
 import io.jenkins.plugins.coverage.adapter.parser.JavaCoverageParser;
+import io.jenkins.plugins.coverage.adapter.parser.StreamingCoverageParser;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import io.jenkins.plugins.coverage.targets.CoverageElement;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
 import io.jenkins.plugins.coverage.targets.Ratio;
 
 /**
@@ -37,8 +40,16 @@ public final class JacocoReportAdapter extends JavaXMLCoverageReportAdapter {
     }
 
     @Override
-    public CoverageResult parseToResult(final Document document, final String reportName) throws CoverageException {
-        return new JacocoCoverageParser(reportName).parse(document);
+    protected CoverageResult parseToResult(final Document document, final String reportName,
+            final NamePool namePool) throws CoverageException {
+        JacocoCoverageParser parser = new JacocoCoverageParser(reportName);
+        parser.setNamePool(namePool);
+        return parser.parse(document);
+    }
+
+    @Override
+    protected StreamingCoverageParser createStreamingParser(final String reportName) {
+        return new JacocoStreamingParser(reportName);
     }
 
     @Symbol(value = {"jacocoAdapter", "jacoco"})
@@ -62,6 +73,11 @@ public final class JacocoReportAdapter extends JavaXMLCoverageReportAdapter {
             registerCoverageElements.add(INSTRUCTION);
             return registerCoverageElements;
         }
+
+        @Override
+        public boolean hasStreamingParser() {
+            return true;
+        }
     }
 
     public static final class JacocoCoverageParser extends JavaCoverageParser {
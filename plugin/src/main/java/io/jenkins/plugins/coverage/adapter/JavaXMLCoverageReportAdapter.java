@@ -5,6 +5,7 @@ import org.w3c.dom.Document;
 import io.jenkins.plugins.coverage.adapter.parser.JavaCoverageParser;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
 
 public abstract class JavaXMLCoverageReportAdapter extends XMLCoverageReportAdapter {
 
@@ -15,6 +16,14 @@ public abstract class JavaXMLCoverageReportAdapter extends XMLCoverageReportAdap
 
     @Override
     public CoverageResult parseToResult(final Document document, final String reportName) throws CoverageException {
-        return new JavaCoverageParser(reportName).parse(document);
+        return parseToResult(document, reportName, new NamePool());
+    }
+
+    @Override
+    protected CoverageResult parseToResult(final Document document, final String reportName,
+            final NamePool namePool) throws CoverageException {
+        JavaCoverageParser parser = new JavaCoverageParser(reportName);
+        parser.setNamePool(namePool);
+        return parser.parse(document);
     }
 }
@@ -0,0 +1,100 @@
+package io.jenkins.plugins.coverage.adapter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import com.google.common.collect.Lists;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.jenkinsci.Symbol;
+import hudson.Extension;
+
+import io.jenkins.plugins.coverage.adapter.parser.LcovParser;
+import io.jenkins.plugins.coverage.detector.Detectable;
+import io.jenkins.plugins.coverage.detector.HeaderDetector;
+import io.jenkins.plugins.coverage.detector.LcovHeaderDetector;
+import io.jenkins.plugins.coverage.detector.ReportHeader;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+
+/**
+ * Coverage report adapter for LCOV tracefiles, e.g. created by {@code lcov}, {@code geninfo}, Istanbul or
+ * {@code c8}. The tracefile is read record by record with the {@link LcovParser}, so there is no intermediate
+ * standard format document.
+ */
+public final class LcovReportAdapter extends CoverageReportAdapter {
+
+    @DataBoundConstructor
+    public LcovReportAdapter(final String path) {
+        super(path);
+    }
+
+    @Override
+    public CoverageResult getResult(final File report) throws CoverageException {
+        return getResult(report, new NamePool());
+    }
+
+    @Override
+    public CoverageResult getResult(final File report, final NamePool namePool) throws CoverageException {
+        LcovParser parser = new LcovParser(report.getName());
+        parser.setNamePool(namePool);
+        return parser.parse(report);
+    }
+
+    @Symbol("lcov")
+    @Extension
+    public static final class LcovReportAdapterDescriptor extends CoverageReportAdapterDescriptor<CoverageReportAdapter>
+            implements Detectable {
+
+        public LcovReportAdapterDescriptor() {
+            super(LcovReportAdapter.class);
+        }
+
+        /**
+         * @param file file be detect
+         * @return <code>true</code> is file is a LCOV report
+         */
+        @Override
+        public boolean detect(final File file) {
+            if (!file.exists()) {
+                return false;
+            }
+
+            try {
+                return detect(ReportHeader.read(file));
+            } catch (IOException ignore) {
+                return false;
+            }
+        }
+
+        @Override
+        public HeaderDetector getHeaderDetector() {
+            return new LcovHeaderDetector();
+        }
+
+        @Override
+        public List<CoverageElement> getCoverageElements() {
+            return Lists.newArrayList(
+                    new CoverageElement("Directory", 1),
+                    CoverageElement.FILE,
+                    new CoverageElement("Function", 4)
+            );
+        }
+
+        @Override
+        public String getCoverageElementType() {
+            return CoverageElement.COVERAGE_ELEMENT_TYPE_JAVASCRIPT;
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.LcovReportAdapter_displayName();
+        }
+    }
+}
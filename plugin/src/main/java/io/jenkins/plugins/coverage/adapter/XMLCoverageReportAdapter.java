@@ -2,22 +2,69 @@ package io.jenkins.plugins.coverage.adapter;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import io.jenkins.plugins.coverage.adapter.parser.StreamingCoverageParser;
 import io.jenkins.plugins.coverage.adapter.util.XMLUtils;
 import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
 import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.w3c.dom.Document;
 
+import javax.xml.transform.Templates;
 import javax.xml.transform.stream.StreamSource;
 import java.io.File;
 import java.io.FileNotFoundException;
 
-public abstract class XMLCoverageReportAdapter extends CoverageReportAdapter {
+public abstract class XMLCoverageReportAdapter extends DocumentCoverageReportAdapter {
 
+    // use the XSL transformation even if the adapter provides a streaming parser
+    private boolean useXSLTransformation = false;
 
     public XMLCoverageReportAdapter(String path) {
         super(path);
     }
 
+    @DataBoundSetter
+    public void setUseXSLTransformation(boolean useXSLTransformation) {
+        this.useXSLTransformation = useXSLTransformation;
+    }
+
+    public boolean isUseXSLTransformation() {
+        return useXSLTransformation;
+    }
+
+    /**
+     * Get {@link CoverageResult} from report file. If the adapter provides a {@link StreamingCoverageParser} the
+     * report will be parsed directly, otherwise the report will be transformed with the XSL first.
+     *
+     * @param report   report file
+     * @param namePool pool for the names and paths of the build
+     * @return CoverageResult
+     * @throws CoverageException cannot convert report file to CoverageResult
+     */
+    @Override
+    public CoverageResult getResult(File report, NamePool namePool) throws CoverageException {
+        StreamingCoverageParser parser = useXSLTransformation ? null : createStreamingParser(report.getName());
+        if (parser == null) {
+            return super.getResult(report, namePool);
+        }
+        parser.setNamePool(namePool);
+        return parser.parse(report);
+    }
+
+    /**
+     * Creates a parser that reads the original report in a single pass, without transforming it to the standard
+     * format first.
+     *
+     * @param reportName report name
+     * @return the streaming parser, or {@code null} if the report can be read with the XSL transformation only
+     */
+    @CheckForNull
+    protected StreamingCoverageParser createStreamingParser(String reportName) {
+        return null;
+    }
+
     /**
      * @return XSL file that convert report into standard format
      */
@@ -33,15 +80,16 @@ public abstract class XMLCoverageReportAdapter extends CoverageReportAdapter {
     public abstract String getXSD();
 
     /**
-     * convert source xml file according to xsl file
+     * convert source xml file according to xsl file. The xsl file is compiled once per adapter class.
      *
      * @param source source xml file
      */
     @Override
     public Document convert(File source) throws CoverageException {
         try {
-            StreamSource xsl = getRealXSL();
-            return XMLUtils.getInstance().convertToDocumentWithXSL(xsl, source);
+            XMLUtils utils = XMLUtils.getInstance();
+            Templates xsl = utils.getTemplates(getXSLResourceClass(), getXSL(), this::getRealXSL);
+            return utils.convertToDocumentWithXSL(xsl, source);
         } catch (FileNotFoundException e) {
             e.printStackTrace();
             throw new CoverageException(e);
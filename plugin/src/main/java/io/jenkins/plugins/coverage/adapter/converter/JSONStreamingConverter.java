@@ -0,0 +1,71 @@
+package io.jenkins.plugins.coverage.adapter.converter;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+
+/**
+ * Converts a JSON coverage report to {@link CoverageResult} while reading the tokens of the report with a {@link
+ * JsonParser}. In contrast to the {@link JSONDocumentConverter} neither a {@link com.fasterxml.jackson.databind.JsonNode
+ * JsonNode} tree of the report nor a standard format document will be kept in memory, so the required memory only
+ * depends on the size of the resulting tree.
+ */
+public abstract class JSONStreamingConverter {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private NamePool namePool = new NamePool();
+
+    /**
+     * Sets the pool for the names and paths of the converted results. By default each converter uses its own pool,
+     * converters of the same build can share a pool so that equal names are stored only once.
+     *
+     * @param namePool the pool to use
+     */
+    public void setNamePool(final NamePool namePool) {
+        this.namePool = namePool;
+    }
+
+    /**
+     * Returns the pooled instance of the specified name or path.
+     *
+     * @param name the name
+     * @return the pooled instance
+     */
+    protected String intern(final String name) {
+        return namePool.intern(name);
+    }
+
+    /**
+     * Converts the specified JSON report to {@link CoverageResult}.
+     *
+     * @param report the JSON report
+     * @param reportName name of the report
+     * @return Coverage result of specified report
+     * @throws CoverageException if the report cannot be read or is not valid
+     */
+    public CoverageResult convert(final File report, final String reportName) throws CoverageException {
+        try (JsonParser parser = JSON_FACTORY.createParser(report)) {
+            return convert(parser, reportName);
+        } catch (IOException e) {
+            throw new CoverageException(e);
+        }
+    }
+
+    /**
+     * Converts all tokens of the specified parser to {@link CoverageResult}.
+     *
+     * @param parser the parser positioned before the first token of the report
+     * @param reportName name of the report
+     * @return Coverage result of specified report
+     * @throws IOException if the report cannot be read or is not well-formed
+     * @throws CoverageException if the report does not contain the expected values
+     */
+    protected abstract CoverageResult convert(JsonParser parser, String reportName)
+            throws IOException, CoverageException;
+}
@@ -0,0 +1,138 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+
+/**
+ * Parses Cobertura reports with a {@link XMLStreamReader} and creates the same {@link CoverageResult} tree as the
+ * transformation with {@code cobertura-to-standard.xsl} followed by the {@link JavaCoverageParser}.
+ *
+ * <p>
+ * Cobertura reports list classes per package, the standard format groups these classes by their source file. Since
+ * the children of a {@link CoverageResult} are sorted by name the grouping does not depend on the order of the
+ * classes in the report: the file result is created when the first class of a file is read and all subsequent classes
+ * of the same file are attached to this result.
+ * </p>
+ */
+public class CoberturaStreamingParser extends StreamingCoverageParser {
+    private static final int PACKAGE_DEPTH = 2;
+    private static final int CLASS_DEPTH = 4;
+    private static final int METHOD_DEPTH = 6;
+    private static final int CLASS_LINE_DEPTH = 6;
+    private static final int METHOD_LINE_DEPTH = 8;
+
+    /**
+     * Report name will show in the UI, to differentiate different report.
+     *
+     * @param reportName name of the report
+     */
+    public CoberturaStreamingParser(final String reportName) {
+        super(reportName);
+    }
+
+    @Override
+    protected CoverageResult parse(final XMLStreamReader reader) throws XMLStreamException {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "cobertura: " + getReportName());
+        CoverageResult group = new CoverageResult(CoverageElement.get("Group"), report, "project");
+
+        // files are grouped over the whole report, just like the XSL key 'filename'
+        Map<String, CoverageResult> files = new HashMap<>();
+        Deque<String> elements = new ArrayDeque<>();
+        boolean isCoberturaReport = false;
+
+        CoverageResult currentPackage = null;
+        CoverageResult currentClass = null;
+        CoverageResult currentMethod = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                String parentName = elements.peek();
+                int depth = elements.size();
+                elements.push(name);
+
+                if (depth == 0) {
+                    isCoberturaReport = "coverage".equals(name);
+                }
+                else if (depth == PACKAGE_DEPTH && isCoberturaReport
+                        && "package".equals(name) && "packages".equals(parentName)) {
+                    currentPackage = new CoverageResult(CoverageElement.get("Package"), group,
+                            intern(JavaCoverageParser.replacePathOrDollarWithDots(getAttribute(reader, "name", "-"))));
+                }
+                else if (depth == CLASS_DEPTH && currentPackage != null
+                        && "class".equals(name) && "classes".equals(parentName)) {
+                    currentClass = createClass(reader, currentPackage, files);
+                }
+                else if (depth == METHOD_DEPTH && currentClass != null
+                        && "method".equals(name) && "methods".equals(parentName)) {
+                    currentMethod = createMethod(reader, currentClass);
+                }
+                else if ("line".equals(name) && "lines".equals(parentName)) {
+                    if (depth == CLASS_LINE_DEPTH && currentClass != null) {
+                        processLine(reader, currentClass);
+                    }
+                    else if (depth == METHOD_LINE_DEPTH && currentMethod != null) {
+                        processLine(reader, currentMethod);
+                    }
+                }
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                elements.pop();
+                int depth = elements.size();
+                if (depth == PACKAGE_DEPTH) {
+                    currentPackage = null;
+                }
+                else if (depth == CLASS_DEPTH) {
+                    currentClass = null;
+                }
+                else if (depth == METHOD_DEPTH) {
+                    currentMethod = null;
+                }
+            }
+        }
+        return report;
+    }
+
+    @CheckForNull
+    private CoverageResult createClass(final XMLStreamReader reader, final CoverageResult packageResult,
+            final Map<String, CoverageResult> files) {
+        String fileName = intern(reader.getAttributeValue(null, "filename"));
+        if (fileName == null) {
+            // classes without a file name are not part of any file group, so the XSL skips them
+            return null;
+        }
+
+        CoverageResult file = files.computeIfAbsent(fileName, key -> createFile(packageResult, key));
+        return new CoverageResult(CoverageElement.get("Class"), file,
+                intern(JavaCoverageParser.replacePathOrDollarWithDots(getAttribute(reader, "name", "-"))));
+    }
+
+    private CoverageResult createFile(final CoverageResult packageResult, final String fileName) {
+        CoverageResult file = new CoverageResult(CoverageElement.get("File"), packageResult, fileName);
+        if (!fileName.isEmpty()) {
+            file.setRelativeSourcePath(fileName);
+        }
+        return file;
+    }
+
+    private CoverageResult createMethod(final XMLStreamReader reader, final CoverageResult classResult) {
+        String methodName = intern(JavaCoverageParser.buildMethodName(getAttribute(reader, "name", ""),
+                getAttribute(reader, "signature", "")));
+        CoverageResult method = new CoverageResult(CoverageElement.get("Method"), classResult, methodName);
+        // Cobertura does not report the line of a method, see JavaCoverageParser
+        method.addAdditionalProperty("lineNumber", "");
+        return method;
+    }
+}
@@ -1,8 +1,5 @@
 package io.jenkins.plugins.coverage.adapter.parser;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.apache.commons.lang.StringUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -14,6 +11,7 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import io.jenkins.plugins.coverage.targets.CoverageElement;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
 import io.jenkins.plugins.coverage.targets.Ratio;
 
 /**
@@ -21,9 +19,11 @@ import io.jenkins.plugins.coverage.targets.Ratio;
  */
 public abstract class CoverageParser {
 
-    private static final Pattern CONDITION_COVERAGE_PATTERN = Pattern.compile("(\\d*)\\s*%\\s*\\((\\d*)/(\\d*)\\)");
+    /** Result of {@link #scanConditionCoverage(String)} if the value has not the expected format. */
+    static final long NO_CONDITION_COVERAGE = -1;
 
     private String reportName;
+    private NamePool namePool = new NamePool();
 
     /**
      * Report name will show in the UI, to differentiate different report.
@@ -102,6 +102,26 @@ public abstract class CoverageParser {
         this.reportName = reportName;
     }
 
+    /**
+     * Sets the pool for the names and paths of the parsed results. By default each parser uses its own pool, parsers
+     * of the same build can share a pool so that equal names are stored only once.
+     *
+     * @param namePool the pool to use
+     */
+    public void setNamePool(final NamePool namePool) {
+        this.namePool = namePool;
+    }
+
+    /**
+     * Returns the pooled instance of the specified name or path.
+     *
+     * @param name the name
+     * @return the pooled instance
+     */
+    protected String intern(final String name) {
+        return namePool.intern(name);
+    }
+
     protected String getAttribute(final Element e, final String attributeName, final String defaultValue) {
         String value = e.getAttribute(attributeName);
         return StringUtils.isEmpty(value) ? defaultValue : value;
@@ -117,44 +137,146 @@ public abstract class CoverageParser {
     }
 
     protected void processLine(final Element current, final CoverageResult parentResult) {
-        String hitsString = current.getAttribute("hits");
-        String lineNumber = current.getAttribute("number");
+        processLine(parentResult, current.getAttribute("hits"), current.getAttribute("number"),
+                current.getAttribute("branch"), current.getAttribute("condition-coverage"));
+    }
+
+    /**
+     * Paints a single line of the standard format into the specified result. The attribute values are given as plain
+     * strings so that this method can be shared by the DOM based parsers and the streaming parsers.
+     *
+     * @param parentResult      the result that owns the line
+     * @param hitsString        the value of the attribute {@code hits}
+     * @param lineNumber        the value of the attribute {@code number}
+     * @param branch            the value of the attribute {@code branch}
+     * @param conditionCoverage the value of the attribute {@code condition-coverage}
+     */
+    static void processLine(final CoverageResult parentResult, final String hitsString, final String lineNumber,
+            final String branch, final String conditionCoverage) {
         int denominator = 0;
         int numerator = 0;
-        if (Boolean.parseBoolean(current.getAttribute("branch"))) {
-            final String conditionCoverage = current.getAttribute("condition-coverage");
+        if (Boolean.parseBoolean(branch)) {
             if (conditionCoverage != null) {
                 // some cases in the wild have branch = true but no condition-coverage attribute
-
-                // should be of the format xxx% (yyy/zzz),
-                // or xxx % (yyy/zzz) for French,
-                // because cobertura uses the default locale as said in
-                // http://sourceforge.net/tracker/?func=detail&aid=3296149&group_id=130558&atid=720015
-                Matcher matcher = CONDITION_COVERAGE_PATTERN.matcher(conditionCoverage);
-                if (matcher.matches()) {
-                    assert matcher.groupCount() == 3;
-                    final String numeratorStr = matcher.group(2);
-                    final String denominatorStr = matcher.group(3);
-                    try {
-                        numerator = Integer.parseInt(numeratorStr);
-                        denominator = Integer.parseInt(denominatorStr);
-                        parentResult.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(numerator, denominator));
-                    } catch (NumberFormatException ignore) {
-                    }
+                long coverage = scanConditionCoverage(conditionCoverage);
+                if (coverage != NO_CONDITION_COVERAGE) {
+                    numerator = (int) (coverage >>> Integer.SIZE);
+                    denominator = (int) coverage;
+                    parentResult.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(numerator, denominator));
                 }
             }
         }
         try {
             int hits = Integer.parseInt(hitsString);
             int number = Integer.parseInt(lineNumber);
-            if (denominator == 0) {
-                parentResult.paint(number, hits);
-            } else {
-                parentResult.paint(number, hits, numerator, denominator);
-            }
-            parentResult.updateCoverage(CoverageElement.LINE, Ratio.create((hits == 0) ? 0 : 1, 1));
+            processLine(parentResult, number, hits, numerator, denominator);
         } catch (NumberFormatException ignore) {
         }
     }
 
+    /**
+     * Scans the value of a {@code condition-coverage} attribute. The value should be of the format xxx% (yyy/zzz), or
+     * xxx % (yyy/zzz) for French, because cobertura uses the default locale as said in
+     * http://sourceforge.net/tracker/?func=detail&aid=3296149&group_id=130558&atid=720015. The value is scanned
+     * character by character, so neither a matcher nor substrings are created for the lines of a report.
+     *
+     * @param value the value of the attribute
+     * @return the covered branches in the upper 32 bits and the total branches in the lower 32 bits, or {@link
+     * #NO_CONDITION_COVERAGE} if the value has not the expected format or the numbers exceed the range of int
+     */
+    static long scanConditionCoverage(final String value) {
+        int length = value.length();
+        int position = skipWhitespace(value, skipDigits(value, 0));
+        if (position >= length || value.charAt(position) != '%') {
+            return NO_CONDITION_COVERAGE;
+        }
+        position = skipWhitespace(value, position + 1);
+        if (position >= length || value.charAt(position) != '(') {
+            return NO_CONDITION_COVERAGE;
+        }
+
+        int numeratorStart = position + 1;
+        int numeratorEnd = skipDigits(value, numeratorStart);
+        if (numeratorEnd >= length || value.charAt(numeratorEnd) != '/') {
+            return NO_CONDITION_COVERAGE;
+        }
+        int denominatorStart = numeratorEnd + 1;
+        int denominatorEnd = skipDigits(value, denominatorStart);
+        if (denominatorEnd != length - 1 || value.charAt(denominatorEnd) != ')') {
+            return NO_CONDITION_COVERAGE;
+        }
+
+        int numerator = parseDigits(value, numeratorStart, numeratorEnd);
+        int denominator = parseDigits(value, denominatorStart, denominatorEnd);
+        if (numerator < 0 || denominator < 0) {
+            return NO_CONDITION_COVERAGE;
+        }
+        return (long) numerator << Integer.SIZE | denominator;
+    }
+
+    private static int skipDigits(final String value, final int start) {
+        int position = start;
+        while (position < value.length() && isDigit(value.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipWhitespace(final String value, final int start) {
+        int position = start;
+        while (position < value.length() && isWhitespace(value.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Parses the digits in the specified range.
+     *
+     * @return the parsed number, or -1 if the range is empty or the number exceeds the range of int
+     */
+    private static int parseDigits(final String value, final int start, final int end) {
+        if (start == end) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (number > (Integer.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            number = number * 10 + digit;
+        }
+        return number;
+    }
+
+    // same characters as \d and \s of java.util.regex
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Paints a single line into the specified result and updates the line coverage. The conditional coverage of the
+     * line needs to be updated by the caller.
+     *
+     * @param parentResult  the result that owns the line
+     * @param number        the line number
+     * @param hits          the number of hits of the line
+     * @param branchCovered the number of covered branches
+     * @param branchTotal   the total number of branches, or 0 if the line has no branches
+     */
+    public static void processLine(final CoverageResult parentResult, final int number, final int hits,
+            final int branchCovered, final int branchTotal) {
+        if (branchTotal == 0) {
+            parentResult.paint(number, hits);
+        } else {
+            parentResult.paint(number, hits, branchCovered, branchTotal);
+        }
+        parentResult.updateCoverage(CoverageElement.LINE, Ratio.create((hits == 0) ? 0 : 1, 1));
+    }
+
 }
@@ -0,0 +1,208 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.tools.ExecFileLoader;
+
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+import io.jenkins.plugins.coverage.targets.Ratio;
+
+/**
+ * Analyzes the execution data of JaCoCo ({@code jacoco.exec}) together with the class files of the project and creates
+ * the {@link CoverageResult} tree of the {@link JacocoStreamingParser} directly from the analyzed bundle, so that no
+ * XML report needs to be written and parsed.
+ *
+ * <p>
+ * The analysis is done with the JaCoCo core analyzer, i.e. the same way the JaCoCo XML report is created. The class
+ * files need to be the files that have been executed during the tests, otherwise JaCoCo reports the classes as not
+ * covered.
+ * </p>
+ */
+public class JacocoExecAnalyzer {
+    private String reportName;
+    private NamePool namePool = new NamePool();
+
+    /**
+     * Report name will show in the UI, to differentiate different report.
+     *
+     * @param reportName name of the report
+     */
+    public JacocoExecAnalyzer(final String reportName) {
+        this.reportName = reportName;
+    }
+
+    /**
+     * Analyzes the specified execution data with the specified class files.
+     *
+     * @param executionData the execution data written by the JaCoCo agent
+     * @param classFiles    directories, archives or class files of the analyzed classes
+     * @return Coverage result of the analyzed classes
+     * @throws CoverageException if the execution data or the class files cannot be read
+     */
+    public CoverageResult analyze(final File executionData, final Collection<File> classFiles)
+            throws CoverageException {
+        try {
+            ExecFileLoader loader = new ExecFileLoader();
+            loader.load(executionData);
+
+            CoverageBuilder builder = new CoverageBuilder();
+            Analyzer analyzer = new Analyzer(loader.getExecutionDataStore(), builder);
+            for (File classFile : classFiles) {
+                analyzer.analyzeAll(classFile);
+            }
+            return createReport(builder.getBundle(reportName));
+        } catch (IOException e) {
+            throw new CoverageException(e);
+        } catch (IllegalStateException e) {
+            // thrown by the builder if the class files contain different classes with the same name
+            throw new CoverageException(e.getMessage());
+        }
+    }
+
+    private CoverageResult createReport(final IBundleCoverage bundle) {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "jacoco: " + reportName);
+        CoverageResult group = new CoverageResult(CoverageElement.get("Group"), report, "project");
+        for (IPackageCoverage packageCoverage : bundle.getPackages()) {
+            createPackage(group, packageCoverage);
+        }
+        return report;
+    }
+
+    private void createPackage(final CoverageResult group, final IPackageCoverage packageCoverage) {
+        String packagePath = packageCoverage.getName();
+        CoverageResult packageResult = new CoverageResult(CoverageElement.get("Package"), group,
+                intern(JavaCoverageParser.replacePathOrDollarWithDots(packagePath.isEmpty() ? "-" : packagePath)));
+        updateCoverage(packageResult, packageCoverage);
+
+        Map<String, CoverageResult> files = new HashMap<>();
+        for (IClassCoverage classCoverage : packageCoverage.getClasses()) {
+            String sourceFileName = classCoverage.getSourceFileName();
+            if (sourceFileName == null) {
+                // classes without debug information are assigned to the file of their outer class
+                sourceFileName = getOuterSimpleName(classCoverage.getName()) + ".java";
+            }
+            CoverageResult file = files.computeIfAbsent(intern(sourceFileName),
+                    fileName -> createFile(packageResult, fileName));
+            createClass(file, classCoverage);
+        }
+
+        for (ISourceFileCoverage sourceFile : packageCoverage.getSourceFiles()) {
+            CoverageResult file = files.get(sourceFile.getName());
+            if (file != null) {
+                paintLines(file, sourceFile);
+            }
+        }
+    }
+
+    private CoverageResult createFile(final CoverageResult packageResult, final String fileName) {
+        CoverageResult file = new CoverageResult(CoverageElement.get("File"), packageResult, fileName);
+        if (!fileName.isEmpty()) {
+            file.setRelativeSourcePath(fileName);
+        }
+        return file;
+    }
+
+    private void createClass(final CoverageResult file, final IClassCoverage classCoverage) {
+        String className = classCoverage.getName();
+        CoverageResult classResult = new CoverageResult(CoverageElement.get("Class"), file,
+                intern(JavaCoverageParser.replacePathOrDollarWithDots(className.isEmpty() ? "-" : className)));
+        updateCoverage(classResult, classCoverage);
+
+        for (IMethodCoverage methodCoverage : classCoverage.getMethods()) {
+            CoverageResult method = new CoverageResult(CoverageElement.get("Method"), classResult,
+                    intern(JavaCoverageParser.buildMethodName(methodCoverage.getName(), methodCoverage.getDesc())));
+            int line = methodCoverage.getFirstLine();
+            method.addAdditionalProperty("lineNumber",
+                    line == ISourceNode.UNKNOWN_LINE ? "" : intern(String.valueOf(line)));
+            updateCoverage(method, methodCoverage);
+        }
+    }
+
+    private void paintLines(final CoverageResult file, final ISourceFileCoverage sourceFile) {
+        int firstLine = sourceFile.getFirstLine();
+        if (firstLine == ISourceNode.UNKNOWN_LINE) {
+            return;
+        }
+        for (int number = firstLine; number <= sourceFile.getLastLine(); number++) {
+            ILine line = sourceFile.getLine(number);
+            if (line.getStatus() == ICounter.EMPTY) {
+                continue;
+            }
+            ICounter branches = line.getBranchCounter();
+            JacocoStreamingParser.paintLine(file, number, line.getInstructionCounter().getCoveredCount() > 0 ? 1 : 0,
+                    branches.getCoveredCount(), branches.getTotalCount());
+        }
+    }
+
+    /**
+     * Updates the coverage of the specified result with the counters of the node. Just like in the XML report, only
+     * counters with a total count are used.
+     */
+    private void updateCoverage(final CoverageResult result, final ICoverageNode node) {
+        updateCoverage(result, CoverageElement.LINE, node.getLineCounter());
+        updateCoverage(result, CoverageElement.CONDITIONAL, node.getBranchCounter());
+        updateCoverage(result, CoverageElement.get("Instruction"), node.getInstructionCounter());
+    }
+
+    private void updateCoverage(final CoverageResult result, final CoverageElement element, final ICounter counter) {
+        if (counter.getTotalCount() > 0) {
+            result.updateCoverage(element, Ratio.create(counter.getCoveredCount(), counter.getTotalCount()));
+        }
+    }
+
+    private static String getOuterSimpleName(final String className) {
+        int dollar = className.indexOf('$');
+        String outerClassName = dollar < 0 ? className : className.substring(0, dollar);
+        return outerClassName.substring(outerClassName.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Getter for property 'reportName'.
+     *
+     * @return value for property 'reportName'
+     */
+    public String getReportName() {
+        return reportName;
+    }
+
+    /**
+     * Setter for property 'reportName'.
+     *
+     * @param reportName value to set for property 'reportName'
+     */
+    public void setReportName(final String reportName) {
+        this.reportName = reportName;
+    }
+
+    /**
+     * Sets the pool for the names and paths of the analyzed results. By default each analyzer uses its own pool,
+     * analyzers of the same build can share a pool so that equal names are stored only once.
+     *
+     * @param namePool the pool to use
+     */
+    public void setNamePool(final NamePool namePool) {
+        this.namePool = namePool;
+    }
+
+    private String intern(final String name) {
+        return namePool.intern(name);
+    }
+}
@@ -0,0 +1,535 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.Ratio;
+
+/**
+ * Parses JaCoCo reports with a {@link XMLStreamReader} and creates the same {@link CoverageResult} tree as the
+ * transformation with {@code jacoco-to-standard.xsl} followed by the {@code JacocoCoverageParser} in a single pass.
+ *
+ * <p>
+ * The XSL looks up the classes and the lines of each source file with key lookups and path expressions, which makes
+ * the transformation quadratic in the number of classes of a package. This parser indexes the classes by their source
+ * file name and by their outer class name instead. The files of a package are created when the package has been read
+ * completely, classes of subsequent packages are added to the files that have been created already. So only the lines
+ * of the current package are buffered.
+ * </p>
+ *
+ * <p>
+ * Just like the keys of the XSL, these indexes span the whole report: a file contains the classes with the same
+ * source file name of all packages. The branches of a line are dropped if the XSL writes a percentage with a fraction,
+ * e.g. 5 of 6 covered branches, since the pattern of the condition coverage does not match such a percentage.
+ * </p>
+ */
+public class JacocoStreamingParser extends StreamingCoverageParser {
+    private static final int TOP_LEVEL_DEPTH = 1;
+
+    /**
+     * Report name will show in the UI, to differentiate different report.
+     *
+     * @param reportName name of the report
+     */
+    public JacocoStreamingParser(final String reportName) {
+        super(reportName);
+    }
+
+    @Override
+    protected CoverageResult parse(final XMLStreamReader reader) throws XMLStreamException, CoverageException {
+        CoverageResult report = null;
+        boolean hasGroup = false;
+        // the packages of the report element are only used if the report has no groups, so the implicit group is
+        // attached to the report at the end
+        CoverageResult implicitGroup = null;
+        ClassIndex index = new ClassIndex();
+        PackageState currentPackage = null;
+        ClassRecord currentClass = null;
+        Deque<Element> elements = new ArrayDeque<>();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                Element parent = elements.peek();
+                int depth = elements.size();
+                Element element = new Element();
+                elements.push(element);
+
+                if (depth == 0) {
+                    if (!"report".equals(name)) {
+                        throw new CoverageException("Unable to parse report: root element is not a JaCoCo report");
+                    }
+                    report = new CoverageResult(CoverageElement.REPORT, null,
+                            getAttribute(reader, "name", "") + ": " + getReportName());
+                }
+                else if (depth == TOP_LEVEL_DEPTH && "group".equals(name)) {
+                    hasGroup = true;
+                    element.kind = Kind.GROUP;
+                    element.result = new CoverageResult(CoverageElement.get("Group"), report,
+                            intern(getAttribute(reader, "name", "project")));
+                }
+                else if ("package".equals(name)) {
+                    String packagePath = getAttribute(reader, "name", "");
+                    CoverageResult group = null;
+                    if (depth == TOP_LEVEL_DEPTH) {
+                        if (implicitGroup == null) {
+                            implicitGroup = new CoverageResult(CoverageElement.get("Group"), null, "project");
+                        }
+                        group = implicitGroup;
+                    }
+                    else if (parent.kind == Kind.GROUP) {
+                        group = parent.result;
+                    }
+                    element.kind = Kind.PACKAGE;
+                    element.counters = new Counters();
+                    if (group != null) {
+                        element.result = new CoverageResult(CoverageElement.get("Package"), group, intern(
+                                JavaCoverageParser.replacePathOrDollarWithDots(
+                                        packagePath.isEmpty() ? "-" : packagePath)));
+                    }
+                    // the packages of nested groups are not part of the tree, but their classes are still indexed
+                    currentPackage = new PackageState(element.result, packagePath);
+                }
+                else if (parent.kind == Kind.PACKAGE) {
+                    if ("class".equals(name)) {
+                        element.kind = Kind.CLASS;
+                        currentClass = createClass(reader);
+                        currentPackage.classes.add(currentClass);
+                        element.counters = currentClass.counters;
+                    }
+                    else if ("sourcefile".equals(name)) {
+                        element.kind = Kind.SOURCE_FILE;
+                        if (parent.result != null) {
+                            currentPackage.startSourceFile(intern(getAttribute(reader, "name", "")));
+                        }
+                    }
+                    else if ("counter".equals(name)) {
+                        parent.counters.add(reader);
+                    }
+                }
+                else if (parent.kind == Kind.CLASS) {
+                    if ("method".equals(name)) {
+                        element.kind = Kind.METHOD;
+                        MethodRecord method = createMethod(reader);
+                        currentClass.methods.add(method);
+                        element.counters = method.counters;
+                    }
+                    else if ("counter".equals(name)) {
+                        parent.counters.add(reader);
+                    }
+                }
+                else if (parent.kind == Kind.METHOD && "counter".equals(name)) {
+                    parent.counters.add(reader);
+                }
+                else if (parent.kind == Kind.SOURCE_FILE && "line".equals(name)) {
+                    currentPackage.processLine(reader);
+                }
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                Element element = elements.pop();
+                if (element.kind == Kind.PACKAGE) {
+                    if (element.result != null) {
+                        element.counters.updateCoverage(element.result);
+                    }
+                    index.addPackage(currentPackage);
+                    currentPackage = null;
+                }
+                else if (element.kind == Kind.SOURCE_FILE) {
+                    currentPackage.endSourceFile();
+                }
+            }
+        }
+
+        if (report == null) {
+            throw new CoverageException("Unable to parse report: report is empty");
+        }
+        if (!hasGroup) {
+            if (implicitGroup == null) {
+                implicitGroup = new CoverageResult(CoverageElement.get("Group"), null, "project");
+            }
+            implicitGroup.addParent(report);
+        }
+        return report;
+    }
+
+    private ClassRecord createClass(final XMLStreamReader reader) {
+        String className = reader.getAttributeValue(null, "name");
+        if (className == null) {
+            className = "";
+        }
+        return new ClassRecord(
+                intern(JavaCoverageParser.replacePathOrDollarWithDots(className.isEmpty() ? "-" : className)),
+                getOuterClassName(className), intern(reader.getAttributeValue(null, "sourcefilename")));
+    }
+
+    private MethodRecord createMethod(final XMLStreamReader reader) {
+        return new MethodRecord(intern(JavaCoverageParser.buildMethodName(getAttribute(reader, "name", ""),
+                getAttribute(reader, "desc", ""))), intern(getAttribute(reader, "line", "")));
+    }
+
+    private static String getOuterClassName(final String className) {
+        int index = className.indexOf('$');
+        return index < 0 ? className : className.substring(0, index);
+    }
+
+    private static String substringAfter(final String value, final String separator) {
+        int index = value.indexOf(separator);
+        return index < 0 ? "" : value.substring(index + separator.length());
+    }
+
+    /**
+     * Parses a non negative integer.
+     *
+     * @param value the value to parse
+     * @return the parsed value, or -1 if the value is not a non negative integer
+     */
+    static int parseInt(@CheckForNull final String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = 0; i < value.length(); i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result > (Integer.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the XSL writes the condition coverage of a line as integral percentage. Other percentages are
+     * written with a fraction and are rejected by {@link CoverageParser#scanConditionCoverage(String)}.
+     *
+     * @param coveredBranches the covered branches of the line
+     * @param branches        the total branches of the line, must be positive
+     * @return {@code true} if the percentage has no fraction
+     */
+    static boolean hasIntegralPercentage(final int coveredBranches, final int branches) {
+        // same floating point operations as the XSL
+        double percentage = (double) coveredBranches / branches * 100;
+        return percentage == Math.rint(percentage);
+    }
+
+    /**
+     * Paints a line of a JaCoCo source file and updates the line and conditional coverage of the file.
+     */
+    static void paintLine(final CoverageResult file, final int number, final int hits,
+            final int coveredBranches, final int branches) {
+        if (branches > 0) {
+            file.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(coveredBranches, branches));
+        }
+        CoverageParser.processLine(file, number, hits, coveredBranches, branches);
+    }
+
+    /**
+     * The elements of a JaCoCo report that are mapped to the coverage tree.
+     */
+    private enum Kind {
+        OTHER, GROUP, PACKAGE, CLASS, METHOD, SOURCE_FILE
+    }
+
+    /**
+     * An open element of the report.
+     */
+    private static class Element {
+        private Kind kind = Kind.OTHER;
+        @CheckForNull
+        private CoverageResult result;
+        @CheckForNull
+        private Counters counters;
+    }
+
+    /**
+     * The line, branch and instruction counters of an element. Just like the XSL only the first counter of each type
+     * is used.
+     */
+    private static class Counters {
+        private static final String[] TYPES = {"LINE", "BRANCH", "INSTRUCTION"};
+
+        private final int[] covered = {-1, -1, -1};
+        private final int[] missed = {-1, -1, -1};
+        private int read;
+
+        void add(final XMLStreamReader reader) {
+            String type = reader.getAttributeValue(null, "type");
+            for (int i = 0; i < TYPES.length; i++) {
+                if (TYPES[i].equals(type)) {
+                    if ((read & 1 << i) == 0) {
+                        read |= 1 << i;
+                        covered[i] = parseInt(reader.getAttributeValue(null, "covered"));
+                        missed[i] = parseInt(reader.getAttributeValue(null, "missed"));
+                    }
+                    return;
+                }
+            }
+        }
+
+        void updateCoverage(final CoverageResult result) {
+            updateCoverage(result, 0, CoverageElement.LINE);
+            updateCoverage(result, 1, CoverageElement.CONDITIONAL);
+            updateCoverage(result, 2, CoverageElement.get("Instruction"));
+        }
+
+        private void updateCoverage(final CoverageResult result, final int type, final CoverageElement element) {
+            if (covered[type] >= 0 && missed[type] >= 0) {
+                result.updateCoverage(element, Ratio.create(covered[type], covered[type] + missed[type]));
+            }
+        }
+    }
+
+    /**
+     * A class of the report. A class may be added to several files, so the results of a class are created from this
+     * record for each file.
+     */
+    private static class ClassRecord {
+        private final String name;
+        private final String outerClassName;
+        @CheckForNull
+        private final String sourceFileName;
+        private final Counters counters = new Counters();
+        private final List<MethodRecord> methods = new ArrayList<>();
+
+        ClassRecord(final String name, final String outerClassName, @CheckForNull final String sourceFileName) {
+            this.name = name;
+            this.outerClassName = outerClassName;
+            this.sourceFileName = sourceFileName;
+        }
+
+        void addTo(final CoverageResult file) {
+            CoverageResult result = new CoverageResult(CoverageElement.get("Class"), file, name);
+            counters.updateCoverage(result);
+            for (MethodRecord method : methods) {
+                method.addTo(result);
+            }
+        }
+    }
+
+    /**
+     * A method of a {@link ClassRecord}.
+     */
+    private static class MethodRecord {
+        private final String name;
+        private final String lineNumber;
+        private final Counters counters = new Counters();
+
+        MethodRecord(final String name, final String lineNumber) {
+            this.name = name;
+            this.lineNumber = lineNumber;
+        }
+
+        void addTo(final CoverageResult classResult) {
+            CoverageResult result = new CoverageResult(CoverageElement.get("Method"), classResult, name);
+            result.addAdditionalProperty("lineNumber", lineNumber);
+            counters.updateCoverage(result);
+        }
+    }
+
+    /**
+     * The classes and source files of the package that is currently parsed.
+     */
+    private static class PackageState {
+        /** The result of the package, or {@code null} if the package is not part of the tree. */
+        @CheckForNull
+        private final CoverageResult result;
+        private final String packagePath;
+        private final List<ClassRecord> classes = new ArrayList<>();
+        private final List<LineBuffer> sourceFiles = new ArrayList<>();
+        /** The files that have been created for a source file name of a class. */
+        private final Map<String, CoverageResult> files = new HashMap<>();
+
+        @CheckForNull
+        private LineBuffer currentSourceFile;
+
+        PackageState(@CheckForNull final CoverageResult result, final String packagePath) {
+            this.result = result;
+            this.packagePath = packagePath;
+        }
+
+        void startSourceFile(final String fileName) {
+            currentSourceFile = new LineBuffer(fileName);
+            sourceFiles.add(currentSourceFile);
+        }
+
+        void processLine(final XMLStreamReader reader) {
+            if (currentSourceFile == null) {
+                return;
+            }
+            int number = parseInt(reader.getAttributeValue(null, "nr"));
+            int hits = parseInt(reader.getAttributeValue(null, "ci")) > 0 ? 1 : 0;
+            int missedBranches = parseInt(reader.getAttributeValue(null, "mb"));
+            int coveredBranches = parseInt(reader.getAttributeValue(null, "cb"));
+            int branches = 0;
+            if (missedBranches >= 0 && coveredBranches >= 0 && missedBranches + coveredBranches > 0
+                    && hasIntegralPercentage(coveredBranches, missedBranches + coveredBranches)) {
+                branches = missedBranches + coveredBranches;
+            }
+            currentSourceFile.add(number, hits, branches > 0 ? coveredBranches : 0, branches);
+        }
+
+        void endSourceFile() {
+            currentSourceFile = null;
+        }
+
+        CoverageResult createFile(final String fileName) {
+            CoverageResult file = new CoverageResult(CoverageElement.get("File"), result, fileName);
+            if (!fileName.isEmpty()) {
+                file.setRelativeSourcePath(fileName);
+            }
+            return file;
+        }
+    }
+
+    /**
+     * The classes of the report indexed by their source file name and their outer class name, just like the keys
+     * {@code sourcefilename} and {@code classname} of the XSL.
+     */
+    private static class ClassIndex {
+        /** The outer class names of all classes read so far, a file is only created for the first class. */
+        private final Set<String> outerClassNames = new HashSet<>();
+        private final Map<String, List<ClassRecord>> classesBySourceFile = new HashMap<>();
+        private final Map<String, List<CoverageResult>> filesBySourceFile = new HashMap<>();
+        private final Map<String, List<CoverageResult>> filesByOuterClassName = new HashMap<>();
+
+        /**
+         * Adds the classes of the specified package to the index and to the files of the previous packages, then
+         * creates the files of the package.
+         */
+        void addPackage(final PackageState packageState) {
+            for (ClassRecord classRecord : packageState.classes) {
+                addToFiles(classRecord, filesByOuterClassName.get(classRecord.outerClassName));
+                if (classRecord.sourceFileName != null) {
+                    addToFiles(classRecord, filesBySourceFile.get(classRecord.sourceFileName));
+                    classesBySourceFile.computeIfAbsent(classRecord.sourceFileName, key -> new ArrayList<>())
+                            .add(classRecord);
+                }
+            }
+
+            for (ClassRecord classRecord : packageState.classes) {
+                if (outerClassNames.add(classRecord.outerClassName) && packageState.result != null) {
+                    if (classRecord.sourceFileName == null) {
+                        createFileOfOuterClass(packageState, classRecord.outerClassName);
+                    }
+                    else {
+                        createFileOfSourceFile(packageState, classRecord.sourceFileName);
+                    }
+                }
+            }
+        }
+
+        private void addToFiles(final ClassRecord classRecord, @CheckForNull final List<CoverageResult> files) {
+            if (files != null) {
+                for (CoverageResult file : files) {
+                    classRecord.addTo(file);
+                }
+            }
+        }
+
+        private void createFileOfSourceFile(final PackageState packageState, final String sourceFileName) {
+            CoverageResult existing = packageState.files.get(sourceFileName);
+            if (existing != null && packageState.result.getChild(sourceFileName) == existing) {
+                return; // the XSL creates the same file again
+            }
+
+            CoverageResult file = packageState.createFile(sourceFileName);
+            for (ClassRecord classRecord : classesBySourceFile.get(sourceFileName)) {
+                classRecord.addTo(file);
+            }
+            for (LineBuffer lines : packageState.sourceFiles) {
+                if (lines.fileName.equals(sourceFileName)) {
+                    lines.paint(file);
+                }
+            }
+            packageState.files.put(sourceFileName, file);
+            filesBySourceFile.computeIfAbsent(sourceFileName, key -> new ArrayList<>()).add(file);
+        }
+
+        /**
+         * Creates the file of classes without a source file name. The file is named after the first source file of
+         * the package that starts with the simple name of the outer class.
+         */
+        private void createFileOfOuterClass(final PackageState packageState, final String outerClassName) {
+            String prefix = substringAfter(outerClassName, packageState.packagePath + "/");
+            List<LineBuffer> sourceFiles = new ArrayList<>();
+            for (LineBuffer lines : packageState.sourceFiles) {
+                if (lines.fileName.startsWith(prefix + ".")) {
+                    sourceFiles.add(lines);
+                }
+            }
+
+            CoverageResult file = packageState.createFile(
+                    sourceFiles.isEmpty() ? prefix + ".java" : sourceFiles.get(0).fileName);
+            for (ClassRecord classRecord : packageState.classes) {
+                if (classRecord.outerClassName.equals(outerClassName)) {
+                    classRecord.addTo(file);
+                }
+            }
+            for (LineBuffer lines : sourceFiles) {
+                lines.paint(file);
+            }
+            filesByOuterClassName.computeIfAbsent(outerClassName, key -> new ArrayList<>()).add(file);
+        }
+    }
+
+    /**
+     * Lines of a source file, stored in a compact form until the files of the package are created.
+     */
+    private static class LineBuffer {
+        private static final int FIELDS = 4;
+
+        private final String fileName;
+        private int[] values = new int[FIELDS * 16];
+        private int size;
+
+        LineBuffer(final String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * Adds a line, the number is -1 if the line has no valid number. The branches of such a line are counted
+         * nevertheless, just like in the {@link CoverageParser}.
+         */
+        void add(final int number, final int hits, final int coveredBranches, final int branches) {
+            if (size + FIELDS > values.length) {
+                int[] grown = new int[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = number;
+            values[size++] = hits;
+            values[size++] = coveredBranches;
+            values[size++] = branches;
+        }
+
+        void paint(final CoverageResult file) {
+            for (int i = 0; i < size; i += FIELDS) {
+                int number = values[i];
+                if (number < 0) {
+                    if (values[i + 3] > 0) {
+                        file.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(values[i + 2], values[i + 3]));
+                    }
+                }
+                else {
+                    paintLine(file, number, values[i + 1], values[i + 2], values[i + 3]);
+                }
+            }
+        }
+    }
+}
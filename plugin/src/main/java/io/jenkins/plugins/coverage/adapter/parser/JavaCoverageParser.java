@@ -1,9 +1,5 @@
 package io.jenkins.plugins.coverage.adapter.parser;
 
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.apache.commons.lang.StringUtils;
 import org.w3c.dom.Element;
 
@@ -45,8 +41,7 @@ import io.jenkins.plugins.coverage.targets.CoverageResult;
  */
 public class JavaCoverageParser extends CoverageParser {
 
-    private static final Pattern METHOD_SIGNATURE_PATTERN = Pattern.compile("\\((.*)\\)(.*)");
-    private static final Pattern METHOD_ARGS_PATTERN = Pattern.compile("\\[*([TL][^;]*;)|([ZCBSIFJDV])");
+    private static final String PRIMITIVE_TYPES = "ZCBSIFJDV";
 
 
     public JavaCoverageParser(final String reportName) {
@@ -63,29 +58,29 @@ public class JavaCoverageParser extends CoverageParser {
                 break;
             case "group":
                 result = new CoverageResult(CoverageElement.get("Group"), parentResult,
-                        getAttribute(current, "name", "project"));
+                        intern(getAttribute(current, "name", "project")));
                 break;
             case "package":
-                String packageName = replacePathOrDollarWithDots(getAttribute(current, "name", "-"));
+                String packageName = intern(replacePathOrDollarWithDots(getAttribute(current, "name", "-")));
                 result = new CoverageResult(CoverageElement.get("Package"), parentResult, packageName);
                 break;
             case "file":
                 result = new CoverageResult(CoverageElement.get("File"), parentResult,
-                        getAttribute(current, "name", ""));
-                result.setRelativeSourcePath(getAttribute(current, "name", null));
+                        intern(getAttribute(current, "name", "")));
+                result.setRelativeSourcePath(intern(getAttribute(current, "name", null)));
                 break;
             case "class":
-                String className = replacePathOrDollarWithDots(getAttribute(current, "name", "-"));
+                String className = intern(replacePathOrDollarWithDots(getAttribute(current, "name", "-")));
                 result = new CoverageResult(CoverageElement.get("Class"), parentResult, className);
                 break;
             case "method":
                 String name = getAttribute(current, "name", "");
                 String signature = getAttribute(current, "signature", "");
-                String methodName = buildMethodName(name, signature);
+                String methodName = intern(buildMethodName(name, signature));
                 result = new CoverageResult(CoverageElement.get("Method"), parentResult, methodName);
                 // TODO: workaround -> better rework whole parser
                 String line = getAttribute(current, "line", "");
-                result.addAdditionalProperty("lineNumber", line);
+                result.addAdditionalProperty("lineNumber", intern(line));
                 break;
             case "line":
                 processLine(current, parentResult);
@@ -105,9 +100,15 @@ public class JavaCoverageParser extends CoverageParser {
         return result;
     }
 
-    private String replacePathOrDollarWithDots(final String name) {
+    static String replacePathOrDollarWithDots(final String name) {
         if (StringUtils.isNotBlank(name)) {
-            return name.replaceAll("[\\\\/$]", ".");
+            char[] characters = name.toCharArray();
+            for (int i = 0; i < characters.length; i++) {
+                if (characters[i] == '\\' || characters[i] == '/' || characters[i] == '$') {
+                    characters[i] = '.';
+                }
+            }
+            return new String(characters);
         }
         return name;
     }
@@ -116,51 +117,103 @@ public class JavaCoverageParser extends CoverageParser {
      * convert method type signature and name to Java method name.
      * <p>
      * For example, signature (ILjava/lang/String;[I)J with name test will be converted to Java method <code>long test (int, String, int[]);</code>
+     * <p>
+     * The signature is scanned character by character: the arguments are the types between the first and the last
+     * parenthesis, characters that do not start a type are skipped. The return type is only used if the rest of the
+     * signature is a single type.
      *
      * @param name      method name
      * @param signature method type signature
      * @return Java method name
      */
-    private String buildMethodName(final String name, final String signature) {
-        Matcher signatureMatcher = METHOD_SIGNATURE_PATTERN.matcher(signature);
-        StringBuilder methodName = new StringBuilder();
-        if (signatureMatcher.matches()) {
-            String returnType = signatureMatcher.group(2);
-            Matcher matcher = METHOD_ARGS_PATTERN.matcher(returnType);
-            if (matcher.matches()) {
-                methodName.append(parseMethodArg(matcher.group()));
-                methodName.append(' ');
+    static String buildMethodName(final String name, final String signature) {
+        int argumentsEnd = signature.lastIndexOf(')');
+        if (signature.isEmpty() || signature.charAt(0) != '(' || argumentsEnd < 0
+                || containsLineTerminator(signature)) {
+            return name;
+        }
+
+        StringBuilder methodName = new StringBuilder(name.length() + signature.length() * 2);
+        int length = signature.length();
+        if (scanType(signature, argumentsEnd + 1, length) == length) {
+            appendType(methodName, signature, argumentsEnd + 1, length);
+            methodName.append(' ');
+        }
+        methodName.append(name);
+        methodName.append('(');
+        boolean first = true;
+        int position = 1;
+        while (position < argumentsEnd) {
+            int end = scanType(signature, position, argumentsEnd);
+            if (end < 0) {
+                position++;
             }
-            methodName.append(name);
-            String args = signatureMatcher.group(1);
-            matcher = METHOD_ARGS_PATTERN.matcher(args);
-            methodName.append('(');
-            boolean first = true;
-            while (matcher.find()) {
+            else {
                 if (!first) {
                     methodName.append(',');
                 }
-                methodName.append(parseMethodArg(matcher.group()));
+                appendType(methodName, signature, position, end);
                 first = false;
+                position = end;
             }
-            methodName.append(')');
-        } else {
-            methodName.append(name);
         }
+        methodName.append(')');
         return methodName.toString();
     }
 
     /**
-     * Convert type signature to Java type.
+     * Scans the type signature that starts at the specified position. A type signature is either a class or type
+     * variable (optionally an array) or a primitive type, an array of a primitive type is not recognized.
+     *
+     * @param signature the method type signature
+     * @param start     the position of the first character of the type
+     * @param limit     the position after the last character that may belong to the type
+     * @return the position after the type, or -1 if there is no type at the specified position
+     */
+    private static int scanType(final String signature, final int start, final int limit) {
+        int position = start;
+        while (position < limit && signature.charAt(position) == '[') {
+            position++;
+        }
+        if (position < limit && (signature.charAt(position) == 'L' || signature.charAt(position) == 'T')) {
+            int end = signature.indexOf(';', position + 1);
+            if (end >= 0 && end < limit) {
+                return end + 1;
+            }
+        }
+        if (start < limit && PRIMITIVE_TYPES.indexOf(signature.charAt(start)) >= 0) {
+            return start + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Appends the Java type of a type signature that has been found by {@link #scanType(String, int, int)}.
      * <p>
      * The type signature is Java VM's representation, more details see Java JNI document.
-     *
-     * @param s type signature
-     * @return Java type
      */
-    private String parseMethodArg(final String s) {
-        char c = s.charAt(0);
-        int end;
+    private static void appendType(final StringBuilder methodName, final String signature, final int start,
+            final int end) {
+        int position = start;
+        while (signature.charAt(position) == '[') {
+            position++;
+        }
+        char c = signature.charAt(position);
+        if (c == 'L' || c == 'T') {
+            for (int i = position + 1; i < end - 1; i++) {
+                char typeCharacter = signature.charAt(i);
+                methodName.append(typeCharacter == '/' ? '.' : typeCharacter);
+            }
+        }
+        else {
+            methodName.append(getPrimitiveType(c));
+        }
+        for (int i = start; i < position; i++) {
+            methodName.append("[]");
+        }
+    }
+
+    private static String getPrimitiveType(final char c) {
         switch (c) {
             case 'Z':
                 return "boolean";
@@ -178,15 +231,19 @@ public class JavaCoverageParser extends CoverageParser {
                 return "long";
             case 'D':
                 return "double";
-            case 'V':
+            default:
                 return "void";
-            case '[':
-                return parseMethodArg(s.substring(1)) + "[]";
-            case 'T':
-            case 'L':
-                end = s.indexOf(';');
-                return s.substring(1, end).replace('/', '.');
         }
-        return s;
+    }
+
+    // line terminators never occur in valid signatures, these signatures are not converted at all
+    private static boolean containsLineTerminator(final String signature) {
+        for (int i = 0; i < signature.length(); i++) {
+            char c = signature.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
     }
 }
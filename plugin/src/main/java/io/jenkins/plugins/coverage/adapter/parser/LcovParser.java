@@ -0,0 +1,333 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import gnu.trove.iterator.TIntObjectIterator;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+import io.jenkins.plugins.coverage.targets.Ratio;
+
+/**
+ * Parses LCOV tracefiles line by line and builds the {@link CoverageResult} tree in a single forward pass. The source
+ * files of the report are grouped by their directory, the functions of a source file become children of the file.
+ *
+ * <p>
+ * The records of a source file ({@code SF}, {@code DA}, {@code BRDA}, {@code FN}, {@code FNDA}) are painted into the
+ * file result as soon as they are read. Only the branches and functions of the current source file are buffered,
+ * since they are reported as one record per branch or function; they are written to the result at {@code
+ * end_of_record}. The summary records ({@code LF}, {@code LH}, {@code BRF}, {@code BRH}, {@code FNF}, {@code FNH}) are
+ * ignored, the coverage is computed from the painted lines instead. Source files that are reported several times,
+ * e.g. by different tests ({@code TN}), are merged into the same result.
+ * </p>
+ */
+public class LcovParser {
+    private static final String ROOT_DIRECTORY = "<root>";
+    private static final String END_OF_RECORD = "end_of_record";
+    private static final int NOT_A_NUMBER = -1;
+    private static final String WHITESPACE_AND_BYTE_ORDER_MARK = "\uFEFF \t\r";
+
+    private String reportName;
+    private NamePool namePool = new NamePool();
+
+    private final Map<String, CoverageResult> files = new HashMap<>();
+    private final TIntObjectMap<int[]> branches = new TIntObjectHashMap<>();
+    private final Map<String, int[]> functions = new LinkedHashMap<>();
+    @CheckForNull
+    private CoverageResult currentFile;
+
+    /**
+     * Report name will show in the UI, to differentiate different report.
+     *
+     * @param reportName name of the report
+     */
+    public LcovParser(final String reportName) {
+        this.reportName = reportName;
+    }
+
+    /**
+     * Parses the specified LCOV report to {@link CoverageResult}.
+     *
+     * @param report the coverage report
+     * @return Coverage result of specified report
+     * @throws CoverageException if the report cannot be read
+     */
+    public CoverageResult parse(final File report) throws CoverageException {
+        try (BufferedReader reader = Files.newBufferedReader(report.toPath(), StandardCharsets.UTF_8)) {
+            return parse(reader);
+        } catch (IOException e) {
+            throw new CoverageException(e);
+        }
+    }
+
+    /**
+     * Parses all records of the specified reader to {@link CoverageResult}.
+     *
+     * @param reader the reader positioned at the start of the report
+     * @return Coverage result of specified report
+     * @throws IOException if the report cannot be read
+     */
+    public CoverageResult parse(final BufferedReader reader) throws IOException {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "lcov: " + reportName);
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                processRecord(report, StringUtils.strip(line, WHITESPACE_AND_BYTE_ORDER_MARK));
+            }
+            finishFile();
+        } finally {
+            files.clear();
+            branches.clear();
+            functions.clear();
+            currentFile = null;
+        }
+        return report;
+    }
+
+    private void processRecord(final CoverageResult report, final String record) {
+        if (END_OF_RECORD.equals(record)) {
+            finishFile();
+            return;
+        }
+        int separator = record.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+
+        if (record.startsWith("SF")) {
+            if (separator == 2) {
+                finishFile();
+                currentFile = getFile(report, record.substring(separator + 1).trim());
+            }
+        }
+        else if (currentFile != null) {
+            if (record.startsWith("DA") && separator == 2) {
+                processLine(record, separator + 1);
+            }
+            else if (record.startsWith("BRDA") && separator == 4) {
+                processBranch(record, separator + 1);
+            }
+            else if (record.startsWith("FNDA") && separator == 4) {
+                processFunctionHits(record, separator + 1);
+            }
+            else if (record.startsWith("FN") && separator == 2) {
+                processFunction(record, separator + 1);
+            }
+        }
+    }
+
+    private CoverageResult getFile(final CoverageResult report, final String path) {
+        String normalizedPath = intern(path.replace('\\', '/'));
+        return files.computeIfAbsent(normalizedPath, key -> createFile(report, key));
+    }
+
+    private CoverageResult createFile(final CoverageResult report, final String path) {
+        int lastSlash = path.lastIndexOf('/');
+        String directoryName = intern(lastSlash > 0 ? path.substring(0, lastSlash) : ROOT_DIRECTORY);
+
+        CoverageResult directory = report.getChild(directoryName);
+        if (directory == null) {
+            directory = new CoverageResult(CoverageElement.get("Directory"), report, directoryName);
+        }
+        CoverageResult file = new CoverageResult(CoverageElement.get("File"), directory, path);
+        file.setRelativeSourcePath(path);
+        return file;
+    }
+
+    /**
+     * Processes a record {@code DA:<line>,<hits>[,<checksum>]}.
+     */
+    private void processLine(final String record, final int start) {
+        int comma = record.indexOf(',', start);
+        if (comma < 0) {
+            return;
+        }
+        int end = record.indexOf(',', comma + 1);
+        int number = parseNumber(record, start, comma);
+        int hits = parseNumber(record, comma + 1, end < 0 ? record.length() : end);
+        if (number > 0 && hits != NOT_A_NUMBER) {
+            currentFile.paint(number, hits);
+        }
+    }
+
+    /**
+     * Processes a record {@code BRDA:<line>,<block>,<branch>,<taken>}, where {@code taken} is {@code -} if the block
+     * of the branch has never been executed. Each record is a single branch of the line.
+     */
+    private void processBranch(final String record, final int start) {
+        int firstComma = record.indexOf(',', start);
+        int lastComma = record.lastIndexOf(',');
+        if (firstComma < 0 || lastComma <= firstComma) {
+            return;
+        }
+        int number = parseNumber(record, start, firstComma);
+        if (number <= 0) {
+            return;
+        }
+        int taken = parseNumber(record, lastComma + 1, record.length());
+
+        int[] branch = branches.get(number);
+        if (branch == null) {
+            branch = new int[2];
+            branches.put(number, branch);
+        }
+        if (taken > 0) {
+            branch[0]++;
+        }
+        branch[1]++;
+    }
+
+    /**
+     * Processes a record {@code FN:<line>,<name>} or {@code FN:<line>,<end line>,<name>}. Names of C++ functions may
+     * contain commas, so the name starts after the first comma unless the end line follows.
+     */
+    private void processFunction(final String record, final int start) {
+        int comma = record.indexOf(',', start);
+        if (comma < 0) {
+            return;
+        }
+        int nameStart = comma + 1;
+        int secondComma = record.indexOf(',', nameStart);
+        if (secondComma > 0 && parseNumber(record, nameStart, secondComma) != NOT_A_NUMBER) {
+            nameStart = secondComma + 1;
+        }
+        if (nameStart < record.length()) {
+            getFunction(record.substring(nameStart))[0] = Math.max(parseNumber(record, start, comma), 0);
+        }
+    }
+
+    /**
+     * Processes a record {@code FNDA:<hits>,<name>}.
+     */
+    private void processFunctionHits(final String record, final int start) {
+        int comma = record.indexOf(',', start);
+        if (comma < 0 || comma == record.length() - 1) {
+            return;
+        }
+        int hits = parseNumber(record, start, comma);
+        if (hits != NOT_A_NUMBER) {
+            int[] function = getFunction(record.substring(comma + 1));
+            function[1] = saturatedAdd(function[1], hits);
+        }
+    }
+
+    private int[] getFunction(final String name) {
+        return functions.computeIfAbsent(name, key -> new int[2]);
+    }
+
+    private void finishFile() {
+        if (currentFile == null) {
+            return;
+        }
+
+        TIntObjectIterator<int[]> branch = branches.iterator();
+        while (branch.hasNext()) {
+            branch.advance();
+            currentFile.paint(branch.key(), 0, branch.value()[0], branch.value()[1]);
+        }
+        for (Map.Entry<String, int[]> function : functions.entrySet()) {
+            createFunction(currentFile, function.getKey(), function.getValue());
+        }
+
+        CoveragePaint paint = currentFile.getPaint();
+        if (paint != null) {
+            currentFile.putLocalResult(CoverageElement.LINE, paint.getLineCoverage());
+            Ratio conditionalCoverage = paint.getConditionalCoverage();
+            if (conditionalCoverage.denominator > 0) {
+                currentFile.putLocalResult(CoverageElement.CONDITIONAL, conditionalCoverage);
+            }
+        }
+
+        branches.clear();
+        functions.clear();
+        currentFile = null;
+    }
+
+    private void createFunction(final CoverageResult file, final String name, final int[] function) {
+        String functionName = intern(name);
+        CoverageResult result = file.getChild(functionName);
+        boolean isCovered = function[1] > 0;
+        if (result == null) {
+            result = new CoverageResult(CoverageElement.get("Function"), file, functionName);
+            result.addAdditionalProperty("lineNumber", function[0] > 0 ? String.valueOf(function[0]) : "");
+        }
+        else {
+            // the function has been reported for another test already
+            Ratio coverage = result.getLocalResults().get(CoverageElement.LINE);
+            isCovered |= coverage != null && coverage.numerator > 0;
+        }
+        result.putLocalResult(CoverageElement.LINE, Ratio.create(isCovered ? 1 : 0, 1));
+    }
+
+    /**
+     * Parses the non-negative number in the specified range without creating a substring. Numbers that exceed the
+     * range of int are limited to {@link Integer#MAX_VALUE}, since LCOV reports hit counts of 64 bit.
+     *
+     * @return the parsed number, or {@link #NOT_A_NUMBER} if the range is empty or contains other characters than
+     * digits
+     */
+    static int parseNumber(final String value, final int start, final int end) {
+        if (start >= end) {
+            return NOT_A_NUMBER;
+        }
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_A_NUMBER;
+            }
+            number = Math.min(number * 10 + c - '0', Integer.MAX_VALUE);
+        }
+        return (int) number;
+    }
+
+    private static int saturatedAdd(final int first, final int second) {
+        return (int) Math.min((long) first + second, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Getter for property 'reportName'.
+     *
+     * @return value for property 'reportName'
+     */
+    public String getReportName() {
+        return reportName;
+    }
+
+    /**
+     * Setter for property 'reportName'.
+     *
+     * @param reportName value to set for property 'reportName'
+     */
+    public void setReportName(final String reportName) {
+        this.reportName = reportName;
+    }
+
+    /**
+     * Sets the pool for the names and paths of the parsed results. By default each parser uses its own pool, parsers
+     * of the same build can share a pool so that equal names are stored only once.
+     *
+     * @param namePool the pool to use
+     */
+    public void setNamePool(final NamePool namePool) {
+        this.namePool = namePool;
+    }
+
+    private String intern(final String name) {
+        return namePool.intern(name);
+    }
+}
@@ -0,0 +1,159 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang.StringUtils;
+
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+
+/**
+ * Parses an original (not transformed) coverage report with a {@link XMLStreamReader} and builds the
+ * {@link CoverageResult} tree in a single forward pass. In contrast to the {@link CoverageParser} neither the source
+ * document nor a transformed standard format document will be kept in memory, so the required memory only depends on
+ * the size of the resulting tree.
+ */
+public abstract class StreamingCoverageParser {
+    private static final byte[] NO_CONTENT = new byte[0];
+
+    private String reportName;
+    private NamePool namePool = new NamePool();
+
+    /**
+     * Report name will show in the UI, to differentiate different report.
+     *
+     * @param reportName name of the report
+     */
+    public StreamingCoverageParser(final String reportName) {
+        this.reportName = reportName;
+    }
+
+    /**
+     * Parses the specified coverage report to {@link CoverageResult}.
+     *
+     * @param report the coverage report
+     * @return Coverage result of specified report
+     * @throws CoverageException if the report cannot be read or is not well-formed
+     */
+    public CoverageResult parse(final File report) throws CoverageException {
+        try (InputStream input = Files.newInputStream(report.toPath())) {
+            XMLStreamReader reader = createSecureInputFactory().createXMLStreamReader(input);
+            try {
+                return parse(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new CoverageException(e);
+        }
+    }
+
+    /**
+     * Parses all events of the specified reader to {@link CoverageResult}.
+     *
+     * @param reader the reader positioned at the start of the document
+     * @return Coverage result of specified report
+     * @throws XMLStreamException if the report is not well-formed
+     * @throws CoverageException  if the report does not contain the expected elements
+     */
+    protected abstract CoverageResult parse(XMLStreamReader reader) throws XMLStreamException, CoverageException;
+
+    /**
+     * Getter for property 'reportName'.
+     *
+     * @return value for property 'reportName'
+     */
+    public String getReportName() {
+        return reportName;
+    }
+
+    /**
+     * Setter for property 'reportName'.
+     *
+     * @param reportName value to set for property 'reportName'
+     */
+    public void setReportName(final String reportName) {
+        this.reportName = reportName;
+    }
+
+    /**
+     * Sets the pool for the names and paths of the parsed results. By default each parser uses its own pool, parsers
+     * of the same build can share a pool so that equal names are stored only once.
+     *
+     * @param namePool the pool to use
+     */
+    public void setNamePool(final NamePool namePool) {
+        this.namePool = namePool;
+    }
+
+    /**
+     * Returns the pooled instance of the specified name or path.
+     *
+     * @param name the name
+     * @return the pooled instance
+     */
+    protected String intern(final String name) {
+        return namePool.intern(name);
+    }
+
+    /**
+     * Returns the value of the attribute of the current start element.
+     *
+     * @param reader        reader positioned at a start element
+     * @param attributeName attribute name
+     * @param defaultValue  the value to return if the attribute does not exist or is empty
+     * @return value of attribute, or the default value
+     */
+    protected String getAttribute(final XMLStreamReader reader, final String attributeName, final String defaultValue) {
+        String value = reader.getAttributeValue(null, attributeName);
+        return StringUtils.isEmpty(value) ? defaultValue : value;
+    }
+
+    /**
+     * Returns the value of the attribute of the current start element.
+     *
+     * @param reader        reader positioned at a start element
+     * @param attributeName attribute name
+     * @return value of attribute, or <code>null</code> if attribute not exists.
+     */
+    protected String getAttribute(final XMLStreamReader reader, final String attributeName) {
+        return getAttribute(reader, attributeName, null);
+    }
+
+    /**
+     * Paints the line element the reader is positioned at into the specified result.
+     *
+     * @param reader       reader positioned at a {@code line} start element
+     * @param parentResult the result that owns the line
+     */
+    protected void processLine(final XMLStreamReader reader, final CoverageResult parentResult) {
+        CoverageParser.processLine(parentResult, reader.getAttributeValue(null, "hits"),
+                reader.getAttributeValue(null, "number"), reader.getAttributeValue(null, "branch"),
+                reader.getAttributeValue(null, "condition-coverage"));
+    }
+
+    /**
+     * Creates a new {@link XMLInputFactory} that neither loads external DTDs nor resolves external entities.
+     * Factories are created for each report since the reader reuse of the JDK factory is not thread safe.
+     *
+     * @return the input factory
+     */
+    public static XMLInputFactory createSecureInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // the internal subset is still parsed, so that declared entities do not break the report
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setXMLResolver((publicId, systemId, baseUri, namespace) -> new ByteArrayInputStream(NO_CONTENT));
+        return factory;
+    }
+}
@@ -4,14 +4,16 @@ package io.jenkins.plugins.coverage.adapter.util;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 import net.sf.saxon.TransformerFactoryImpl;
 
 import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.Result;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -19,14 +21,25 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utils class used for XML related operations.
+ *
+ * <p>
+ * All transformations share one secure {@link TransformerFactory}. Stylesheets that are identified by a key are
+ * compiled only once, the compiled {@link Templates} are thread safe and will be reused for all subsequent reports.
+ * Source files are read with a parser that ignores external DTDs and entities, so each file is parsed exactly once.
+ * </p>
  */
 public class XMLUtils {
 
@@ -37,9 +50,98 @@ public class XMLUtils {
         return converter;
     }
 
+    private final TransformerFactory transformerFactory = newSecureTransformerFactory();
+    private final SAXParserFactory parserFactory = newSecureParserFactory();
+
+    private final Map<String, Templates> templatesCache = new ConcurrentHashMap<>();
+    private final AtomicLong templatesCacheHits = new AtomicLong();
+    private final AtomicLong templatesCacheMisses = new AtomicLong();
+    private final AtomicLong templatesCompileTime = new AtomicLong();
+
     private XMLUtils() {
     }
 
+    /**
+     * Provides the XSL source of a stylesheet that is not compiled yet.
+     */
+    @FunctionalInterface
+    public interface XSLProvider {
+        /**
+         * @return XSL source
+         * @throws FileNotFoundException if the XSL cannot be found
+         */
+        StreamSource getXSL() throws FileNotFoundException;
+    }
+
+    /**
+     * Returns the compiled stylesheet for the specified XSL resource of the specified class. The stylesheet will be
+     * compiled on the first call only.
+     *
+     * @param resourceClass class that owns the XSL resource
+     * @param xsl           name of the XSL resource
+     * @param provider      provides the XSL source if the stylesheet has not been compiled yet
+     * @return the compiled stylesheet
+     * @throws CoverageException if the XSL cannot be found or compiled
+     */
+    public Templates getTemplates(Class<?> resourceClass, String xsl, XSLProvider provider) throws CoverageException {
+        String key = resourceClass.getName() + '#' + xsl;
+        Templates templates = templatesCache.get(key);
+        if (templates != null) {
+            templatesCacheHits.incrementAndGet();
+            return templates;
+        }
+
+        templatesCacheMisses.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            // concurrent misses compile the stylesheet more than once, but do not block each other
+            templates = compile(provider.getXSL());
+        } catch (FileNotFoundException e) {
+            throw new CoverageException(e);
+        } finally {
+            templatesCompileTime.addAndGet(System.nanoTime() - start);
+        }
+        Templates previous = templatesCache.putIfAbsent(key, templates);
+        return previous == null ? templates : previous;
+    }
+
+    /**
+     * Returns the number of stylesheet lookups that have been served from the cache.
+     *
+     * @return number of cache hits
+     */
+    public long getTemplatesCacheHits() {
+        return templatesCacheHits.get();
+    }
+
+    /**
+     * Returns the number of stylesheet lookups that required to compile the stylesheet.
+     *
+     * @return number of cache misses
+     */
+    public long getTemplatesCacheMisses() {
+        return templatesCacheMisses.get();
+    }
+
+    /**
+     * Returns the total time that has been spent to compile the stylesheets of the cache misses.
+     *
+     * @return compile time in milliseconds
+     */
+    public long getTemplatesCompileTime() {
+        return TimeUnit.NANOSECONDS.toMillis(templatesCompileTime.get());
+    }
+
+    private Templates compile(StreamSource xsl) throws CoverageException {
+        try {
+            synchronized (transformerFactory) {
+                return transformerFactory.newTemplates(xsl);
+            }
+        } catch (TransformerConfigurationException e) {
+            throw new CoverageException(e);
+        }
+    }
+
     /**
      * Use XSL to transform source xml file to {@link Document}.
      *
@@ -49,53 +151,47 @@ public class XMLUtils {
      */
     public Document convertToDocumentWithXSL(StreamSource xsl, File source)
             throws FileNotFoundException, CoverageException {
-        DOMResult result = convertToDOMResultWithXSL(xsl, source);
+        return convertToDocumentWithXSL(compile(xsl), source);
+    }
 
-        return getDocumentFromDomResult(result);
+    /**
+     * Use compiled XSL to transform source xml file to {@link Document}.
+     *
+     * @param templates compiled XSL
+     * @param source    source xml file
+     * @return document transformed from source file
+     */
+    public Document convertToDocumentWithXSL(Templates templates, File source)
+            throws FileNotFoundException, CoverageException {
+        DOMResult result = new DOMResult();
+        convertWithXSL(templates, source, result);
+
+        Document document = getDocumentFromDomResult(result);
+        if (document == null) {
+            throw new CoverageException("Transform failed");
+        }
+        return document;
     }
 
     /**
      * Use XSL to transform source xml file to {@link Result}.
      *
-     * @param xsl    XSL source
-     * @param source source xml file
-     * @param result result transformed from source file
+     * @param templates compiled XSL
+     * @param source    source xml file
+     * @param result    result transformed from source file
      */
-    private void convertWithXSL(StreamSource xsl, File source, Result result)
+    private void convertWithXSL(Templates templates, File source, Result result)
             throws FileNotFoundException, CoverageException {
 
         if (!source.exists()) {
             throw new FileNotFoundException("source File does not exist!");
         }
 
-        TransformerFactory transformerFactory = newSecureTransformerFactory();
-        Transformer transformer;
         try {
-            transformer = transformerFactory.newTransformer(xsl);
-        } catch (TransformerConfigurationException e) {
-            e.printStackTrace();
+            templates.newTransformer().transform(createSecureSource(source), result);
+        } catch (TransformerException | ParserConfigurationException | SAXException e) {
             throw new CoverageException(e);
         }
-
-        try {
-            transformer.transform(new StreamSource(source), result);
-
-            // xml parser implementation sometimes may not throw exception, so we manually check it.
-            // TODO replace it by transformer ErrorListener
-            if (result instanceof DOMResult) {
-                Document d = getDocumentFromDomResult((DOMResult) result);
-                if (d == null || d.getDocumentElement() == null) {
-                    throw new TransformerException("Transform failed");
-                }
-            }
-        } catch (TransformerException e) {
-            // disable dtd validation then parse it again
-            try {
-                transformer.transform(new DOMSource(readXMLtoDocumentWithoutXSD(source)), result);
-            } catch (TransformerException | ParserConfigurationException | IOException | SAXException ignore) {
-                throw new CoverageException(e);
-            }
-        }
     }
 
 
@@ -109,7 +205,7 @@ public class XMLUtils {
     public DOMResult convertToDOMResultWithXSL(StreamSource xsl, File source)
             throws FileNotFoundException, CoverageException {
         DOMResult result = new DOMResult();
-        convertWithXSL(xsl, source, result);
+        convertWithXSL(compile(xsl), source, result);
         return result;
     }
 
@@ -123,7 +219,7 @@ public class XMLUtils {
     public SAXResult convertToSAXResultWithXSL(StreamSource xsl, File source)
             throws FileNotFoundException, CoverageException {
         SAXResult result = new SAXResult();
-        convertWithXSL(xsl, source, result);
+        convertWithXSL(compile(xsl), source, result);
         return result;
     }
 
@@ -135,11 +231,8 @@ public class XMLUtils {
      * @param target   target file written to
      */
     public void writeDocumentToXML(Document document, File target) {
-        TransformerFactory transformerFactory = newSecureTransformerFactory();
-        Transformer transformer;
         try {
-            transformer = transformerFactory.newTransformer();
-            transformer.transform(new DOMSource(document), new StreamResult(target));
+            newIdentityTransformer().transform(new DOMSource(document), new StreamResult(target));
         } catch (TransformerException e) {
             e.printStackTrace();
         }
@@ -153,39 +246,37 @@ public class XMLUtils {
      * @throws TransformerException file cannot be convert to {@link Document}
      */
     public Document readXMLtoDocument(File file) throws TransformerException {
-        TransformerFactory factory = newSecureTransformerFactory();
-        Transformer transformer = factory.newTransformer();
-
         DOMResult result = new DOMResult();
         try {
-            transformer.transform(new StreamSource(file), result);
-        } catch (TransformerException e) {
-            try {
-                transformer.transform(new DOMSource(readXMLtoDocumentWithoutXSD(file)), result);
-            } catch (ParserConfigurationException | IOException | SAXException ignore) {
-                throw e;
-            }
+            newIdentityTransformer().transform(createSecureSource(file), result);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new TransformerException(e);
         }
         return getDocumentFromDomResult(result);
     }
 
+    private Transformer newIdentityTransformer() throws TransformerConfigurationException {
+        synchronized (transformerFactory) {
+            return transformerFactory.newTransformer();
+        }
+    }
+
     /**
-     * Read xml file without loading external dtd.
+     * Creates a source for the xml file that will be read without loading external DTDs or entities. The internal
+     * subset of the DTD is still read, so that reports with a doctype declaration do not need to be parsed twice.
      *
      * @param file xml file be read
-     * @return document converted by xml
+     * @return the source to transform
      */
-    private Document readXMLtoDocumentWithoutXSD(File file) throws ParserConfigurationException, IOException, SAXException {
-        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-        documentBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        documentBuilderFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        documentBuilderFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-        documentBuilderFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-        documentBuilderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
-
-        DocumentBuilder builder = documentBuilderFactory.newDocumentBuilder();
+    private SAXSource createSecureSource(File file) throws ParserConfigurationException, SAXException {
+        XMLReader reader;
+        synchronized (parserFactory) {
+            reader = parserFactory.newSAXParser().getXMLReader();
+        }
+        reader.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
 
-        return builder.parse(file);
+        InputSource input = new InputSource(file.toURI().toASCIIString());
+        return new SAXSource(reader, input);
     }
 
     /**
@@ -203,7 +294,22 @@ public class XMLUtils {
         return node.getNodeType() == Node.DOCUMENT_NODE ? ((Document) node) : node.getOwnerDocument();
     }
 
-    private TransformerFactory newSecureTransformerFactory() {
+    private static SAXParserFactory newSecureParserFactory() {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
+        } catch (ParserConfigurationException | SAXException e) {
+            e.printStackTrace();
+        }
+        return factory;
+    }
+
+    private static TransformerFactory newSecureTransformerFactory() {
         TransformerFactory transformerFactory = new TransformerFactoryImpl();
         try {
             transformerFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
@@ -32,6 +32,11 @@ public class AntPathReportDetector extends ReportDetector {
         }
     }
 
+    @Override
+    public String getScanPattern() {
+        return path;
+    }
+
     public String getPath() {
         return path;
     }
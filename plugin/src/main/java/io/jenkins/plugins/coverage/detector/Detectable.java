@@ -1,5 +1,6 @@
 package io.jenkins.plugins.coverage.detector;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import io.jenkins.plugins.coverage.adapter.CoverageReportAdapter;
 
 import java.io.File;
@@ -16,4 +17,31 @@ public interface Detectable {
      * @return <code>true</code> if file match the rule
      */
     boolean detect(File file);
+
+    /**
+     * Detects the report by its header only, so that a report needs to be read once for all detectables. The default
+     * implementation uses the {@link #getHeaderDetector() header detector} if available, otherwise it reads the whole
+     * file with {@link #detect(File)}.
+     *
+     * @param header header of the file be detected
+     * @return <code>true</code> if file match the rule
+     */
+    default boolean detect(ReportHeader header) {
+        HeaderDetector headerDetector = getHeaderDetector();
+        if (headerDetector != null) {
+            return headerDetector.detect(header);
+        }
+        return detect(new File(header.getPath()));
+    }
+
+    /**
+     * Returns a detector that is able to classify reports by their header on the agent. Reports of detectables
+     * without a header detector are copied to the controller and detected there with {@link #detect(File)}.
+     *
+     * @return the header detector, or {@code null} if the whole file is required
+     */
+    @CheckForNull
+    default HeaderDetector getHeaderDetector() {
+        return null;
+    }
 }
@@ -0,0 +1,16 @@
+package io.jenkins.plugins.coverage.detector;
+
+import java.io.Serializable;
+
+/**
+ * Detects a report by its {@link ReportHeader}. Header detectors are sent to the agent, so that reports are classified
+ * where they have been created and only matching reports need to be transferred to the controller.
+ */
+@FunctionalInterface
+public interface HeaderDetector extends Serializable {
+    /**
+     * @param header header of the file be detected
+     * @return <code>true</code> if file match the rule
+     */
+    boolean detect(ReportHeader header);
+}
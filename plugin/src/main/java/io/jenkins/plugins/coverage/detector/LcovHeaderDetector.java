@@ -0,0 +1,23 @@
+package io.jenkins.plugins.coverage.detector;
+
+/**
+ * Detects LCOV tracefiles by their first record, which is either the name of a test ({@code TN:}) or the first source
+ * file ({@code SF:}).
+ */
+public class LcovHeaderDetector implements HeaderDetector {
+    private static final long serialVersionUID = 3894560915640628712L;
+
+    @Override
+    public boolean detect(final ReportHeader header) {
+        if (header.isXml()) {
+            return false;
+        }
+        String content = header.getContent();
+        int start = 0;
+        while (start < content.length() && (Character.isWhitespace(content.charAt(start))
+                || content.charAt(start) == '\uFEFF')) {
+            start++;
+        }
+        return content.startsWith("TN:", start) || content.startsWith("SF:", start);
+    }
+}
@@ -4,16 +4,21 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.FilePath;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import io.jenkins.plugins.coverage.ReportTransfer;
 import io.jenkins.plugins.coverage.adapter.CoverageAdapter;
 import io.jenkins.plugins.coverage.adapter.CoverageAdapterDescriptor;
 import io.jenkins.plugins.coverage.adapter.CoverageReportAdapter;
 import io.jenkins.plugins.coverage.adapter.CoverageReportAdapterDescriptor;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.ArrayUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,17 +31,40 @@ public abstract class ReportDetector extends CoverageAdapter {
     protected abstract List<FilePath> findFiles(Run<?, ?> run, FilePath workspace, TaskListener listener) throws CoverageException;
 
 
+    /**
+     * Returns the Ant pattern of the files that should be detected. If a pattern is provided, the files will be found
+     * by a single walk over the workspace for all adapters and detectors rather than by {@link #findFiles}.
+     *
+     * @return the Ant pattern, or {@code null} if the files can be found by {@link #findFiles} only
+     */
+    @CheckForNull
+    public String getScanPattern() {
+        return null;
+    }
+
     public Map<CoverageReportAdapter, List<File>> getReports(Run<?, ?> run, FilePath workspace, TaskListener listener, @CheckForNull Predicate<? super FilePath> includeOnly) throws CoverageException {
-        try {
-            List<FilePath> detectedFilePaths = findFiles(run, workspace, listener);
+        return getReports(run, workspace, findFiles(run, workspace, listener), includeOnly);
+    }
 
+    /**
+     * Detects the reports in the specified files, which have been found in the workspace already.
+     *
+     * @param run the build to copy the reports to
+     * @param workspace workspace that contains the files
+     * @param detectedFilePaths the files found in the workspace
+     * @param includeOnly filter for the files that should be detected
+     * @return {@link CoverageReportAdapter} and matched file.
+     * @throws CoverageException if the files cannot be detected or copied
+     */
+    public Map<CoverageReportAdapter, List<File>> getReports(Run<?, ?> run, FilePath workspace, List<FilePath> detectedFilePaths, @CheckForNull Predicate<? super FilePath> includeOnly) throws CoverageException {
+        try {
             if (includeOnly != null) {
                 detectedFilePaths = detectedFilePaths.stream()
                         .filter(includeOnly)
                         .collect(Collectors.toList());
             }
 
-            return detectReports(detectedFilePaths, run);
+            return detectReports(workspace, detectedFilePaths, run);
         } catch (IOException | InterruptedException | ReflectiveOperationException e) {
             throw new CoverageException(e);
         }
@@ -47,46 +75,75 @@ public abstract class ReportDetector extends CoverageAdapter {
     }
 
     /**
-     * Find all file that can be matched by detectable report adapter.
+     * Find all file that can be matched by detectable report adapter. The files are classified on the agent by the
+     * {@link HeaderDetector}s of the detectable report adapters, only matching files are transferred to the build
+     * directory in a single batch. Files are copied unconditionally only if there are detectable report adapters that
+     * require the whole file.
      *
+     * @param workspace workspace that contains the detected files
      * @param detectedFilePaths path of detected files
+     * @param run the build to copy the reports to
      * @return {@link CoverageReportAdapter} and matched file.
      */
-    protected Map<CoverageReportAdapter, List<File>> detectReports(List<FilePath> detectedFilePaths, Run<?, ?> run) throws IOException, InterruptedException, ReflectiveOperationException {
-        List<CoverageReportAdapterDescriptor> detectableReportDescriptors = findDetectableReportDescriptors();
+    protected Map<CoverageReportAdapter, List<File>> detectReports(FilePath workspace, List<FilePath> detectedFilePaths, Run<?, ?> run) throws IOException, InterruptedException, ReflectiveOperationException {
+        List<Detectable> detectableReportDescriptors = findDetectableReportDescriptors();
         Map<CoverageReportAdapter, List<File>> results = new HashMap<>();
+        if (detectedFilePaths.isEmpty() || detectableReportDescriptors.isEmpty()) {
+            return results;
+        }
 
-        File rootBuildDir = run.getRootDir();
-        for (FilePath fp : detectedFilePaths) {
-            // The suffix (D) means the report is found by auto detect
-            File copy = new File(rootBuildDir, fp.getBaseName() + "(D)");
+        List<HeaderDetector> headerDetectors = detectableReportDescriptors.stream()
+                .map(Detectable::getHeaderDetector)
+                .collect(Collectors.toList());
+        boolean requiresWholeFile = headerDetectors.contains(null);
 
+        List<String> remotePaths = detectedFilePaths.stream().map(FilePath::getRemote).collect(Collectors.toList());
+        int[][] headerMatches = workspace.act(new ClassifyReportsCallable(remotePaths, headerDetectors));
 
-            //if copy exist, it means there have reports have same name.
-            int i = 0;
-            while (copy.exists()) {
-                copy = new File(copy.getName() + i++);
+        // The suffix (D) means the report is found by auto detect
+        ReportTransfer transfer = new ReportTransfer();
+        String[] names = new String[detectedFilePaths.size()];
+        for (int i = 0; i < detectedFilePaths.size(); i++) {
+            if (headerMatches[i].length > 0 || requiresWholeFile) {
+                names[i] = transfer.add(remotePaths.get(i), detectedFilePaths.get(i).getBaseName() + "(D)");
             }
+        }
+        if (transfer.isEmpty()) {
+            return results;
+        }
+        File transferDirectory = transfer.transfer(workspace, run.getRootDir(), "detected coverage reports");
+
+        for (int i = 0; i < detectedFilePaths.size(); i++) {
+            if (names[i] == null) {
+                continue;
+            }
+            File copy = new File(transferDirectory, names[i]);
 
-            fp.copyTo(new FilePath(copy));
-
-            for (CoverageReportAdapterDescriptor d : detectableReportDescriptors) {
-                if (d instanceof Detectable) {
-                    Detectable detectable = ((Detectable) d);
-                    if (detectable.detect(copy)) {
-                        Class clazz = d.clazz;
-                        @SuppressWarnings("unchecked")
-                        Constructor c = clazz.getConstructor(String.class);
-                        if (c == null) continue;
-
-                        CoverageReportAdapter adapter = (CoverageReportAdapter) c.newInstance("");
-                        results.putIfAbsent(adapter, new LinkedList<>());
-                        results.get(adapter).add(copy);
-                    } else {
-                        FileUtils.deleteQuietly(copy);
-                    }
+            List<Detectable> matchingDescriptors = new ArrayList<>();
+            for (int d = 0; d < detectableReportDescriptors.size(); d++) {
+                Detectable detectable = detectableReportDescriptors.get(d);
+                if (headerDetectors.get(d) == null ? detectable.detect(copy) : ArrayUtils.contains(headerMatches[i], d)) {
+                    matchingDescriptors.add(detectable);
                 }
             }
+            if (matchingDescriptors.isEmpty()) {
+                FileUtils.deleteQuietly(copy);
+                continue;
+            }
+
+            for (Detectable detectable : matchingDescriptors) {
+                Class clazz = ((CoverageReportAdapterDescriptor) detectable).clazz;
+                @SuppressWarnings("unchecked")
+                Constructor c = clazz.getConstructor(String.class);
+                if (c == null) continue;
+
+                CoverageReportAdapter adapter = (CoverageReportAdapter) c.newInstance("");
+                results.putIfAbsent(adapter, new LinkedList<>());
+                results.get(adapter).add(copy);
+            }
+        }
+        if (results.isEmpty()) {
+            FileUtils.deleteQuietly(transferDirectory);
         }
 
         return results;
@@ -98,14 +155,54 @@ public abstract class ReportDetector extends CoverageAdapter {
      *
      * @return Detectable CoverageReportAdapterDescriptors
      */
-    @SuppressWarnings("unchecked")
-    private List<CoverageReportAdapterDescriptor> findDetectableReportDescriptors() {
+    private List<Detectable> findDetectableReportDescriptors() {
         return CoverageAdapterDescriptor.all()
                 .stream()
                 .filter(d -> d instanceof CoverageReportAdapterDescriptor && d instanceof Detectable)
-                .map(d -> (CoverageReportAdapterDescriptor) d)
+                .map(d -> (Detectable) d)
                 .collect(Collectors.toList());
     }
 
 
+    /**
+     * Reads the header of each file on the agent and returns the indices of the matching header detectors per file.
+     */
+    private static class ClassifyReportsCallable extends MasterToSlaveFileCallable<int[][]> {
+        private static final long serialVersionUID = 8245361904410562931L;
+
+        private final List<String> remotePaths;
+        private final List<HeaderDetector> headerDetectors;
+
+        ClassifyReportsCallable(List<String> remotePaths, List<HeaderDetector> headerDetectors) {
+            this.remotePaths = new ArrayList<>(remotePaths);
+            this.headerDetectors = new ArrayList<>(headerDetectors);
+        }
+
+        @Override
+        public int[][] invoke(File workspace, VirtualChannel channel) {
+            int[][] matches = new int[remotePaths.size()][];
+            for (int i = 0; i < remotePaths.size(); i++) {
+                matches[i] = classify(new File(remotePaths.get(i)));
+            }
+            return matches;
+        }
+
+        private int[] classify(File file) {
+            ReportHeader header;
+            try {
+                header = ReportHeader.read(file);
+            } catch (IOException ignore) {
+                return ArrayUtils.EMPTY_INT_ARRAY;
+            }
+
+            int[] matches = ArrayUtils.EMPTY_INT_ARRAY;
+            for (int d = 0; d < headerDetectors.size(); d++) {
+                HeaderDetector headerDetector = headerDetectors.get(d);
+                if (headerDetector != null && headerDetector.detect(header)) {
+                    matches = ArrayUtils.add(matches, d);
+                }
+            }
+            return matches;
+        }
+    }
 }
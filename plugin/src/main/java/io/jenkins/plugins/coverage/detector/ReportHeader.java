@@ -0,0 +1,204 @@
+package io.jenkins.plugins.coverage.detector;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import io.jenkins.plugins.coverage.adapter.parser.StreamingCoverageParser;
+
+/**
+ * The header of a report file, i.e. the first {@value #MAX_HEADER_SIZE} bytes of the file. If the file is an XML
+ * document then the root element is parsed with a pull parser, so that {@link Detectable}s are able to classify the
+ * report without reading the whole file. A header is read once and can be matched against all detectables.
+ */
+public final class ReportHeader implements Serializable {
+    private static final long serialVersionUID = 2916204578313466216L;
+
+    /** The maximum number of bytes that are read from a report. */
+    public static final int MAX_HEADER_SIZE = 8 * 1024;
+
+    private final String path;
+    private final String content;
+    @CheckForNull
+    private final String rootElement;
+    @CheckForNull
+    private final String rootNamespace;
+    private final Map<String, String> rootAttributes;
+
+    /**
+     * Reads the header of the specified file.
+     *
+     * @param file
+     *         the report file
+     *
+     * @return the header of the file
+     * @throws IOException
+     *         if the file cannot be read
+     */
+    public static ReportHeader read(final File file) throws IOException {
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            return create(file.getPath(), readPrefix(input));
+        }
+    }
+
+    /**
+     * Creates the header of a report from the first bytes of the report.
+     *
+     * @param path
+     *         the path of the report
+     * @param prefix
+     *         the first bytes of the report, at most {@value #MAX_HEADER_SIZE} bytes will be used
+     *
+     * @return the header of the report
+     */
+    public static ReportHeader create(final String path, final byte[] prefix) {
+        int length = Math.min(prefix.length, MAX_HEADER_SIZE);
+        Map<String, String> attributes = new HashMap<>();
+        try {
+            XMLStreamReader reader = StreamingCoverageParser.createSecureInputFactory()
+                    .createXMLStreamReader(new ByteArrayInputStream(prefix, 0, length));
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                        }
+                        return new ReportHeader(path, prefix, length, reader.getLocalName(),
+                                reader.getNamespaceURI(), attributes);
+                    }
+                }
+            }
+            finally {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException ignore) {
+            // not an XML document or the root element is not part of the header
+        }
+        return new ReportHeader(path, prefix, length, null, null, attributes);
+    }
+
+    private static byte[] readPrefix(final InputStream input) throws IOException {
+        byte[] buffer = new byte[MAX_HEADER_SIZE];
+        int length = 0;
+        while (length < buffer.length) {
+            int read = input.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        byte[] prefix = new byte[length];
+        System.arraycopy(buffer, 0, prefix, 0, length);
+        return prefix;
+    }
+
+    private ReportHeader(final String path, final byte[] prefix, final int length,
+            @CheckForNull final String rootElement, @CheckForNull final String rootNamespace,
+            final Map<String, String> rootAttributes) {
+        this.path = path;
+        this.content = new String(prefix, 0, length, StandardCharsets.UTF_8);
+        this.rootElement = rootElement;
+        this.rootNamespace = rootNamespace;
+        this.rootAttributes = rootAttributes;
+    }
+
+    /**
+     * Returns the path of the report.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the content of the header, decoded with UTF-8.
+     *
+     * @return the first bytes of the report
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Returns whether the report is an XML document whose root element is part of the header.
+     *
+     * @return {@code true} if the root element is known, {@code false} otherwise
+     */
+    public boolean isXml() {
+        return rootElement != null;
+    }
+
+    /**
+     * Returns the local name of the root element.
+     *
+     * @return the local name of the root element, or {@code null} if the report is not an XML document
+     */
+    @CheckForNull
+    public String getRootElement() {
+        return rootElement;
+    }
+
+    /**
+     * Returns the namespace URI of the root element.
+     *
+     * @return the namespace URI of the root element, or {@code null} if the root element has no namespace
+     */
+    @CheckForNull
+    public String getRootNamespace() {
+        return rootNamespace;
+    }
+
+    /**
+     * Returns the value of an attribute of the root element.
+     *
+     * @param localName
+     *         the local name of the attribute
+     *
+     * @return the value of the attribute, or {@code null} if the root element has no such attribute
+     */
+    @CheckForNull
+    public String getRootAttribute(final String localName) {
+        return rootAttributes.get(localName);
+    }
+
+    /**
+     * Returns all detectables that match this header.
+     *
+     * @param detectables
+     *         the detectables to match
+     * @param <T>
+     *         type of the detectables
+     *
+     * @return the matching detectables, in the order of the specified collection
+     */
+    public <T extends Detectable> List<T> findMatching(final Collection<? extends T> detectables) {
+        if (detectables.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> matching = new ArrayList<>();
+        for (T detectable : detectables) {
+            if (detectable.detect(this)) {
+                matching.add(detectable);
+            }
+        }
+        return matching;
+    }
+}
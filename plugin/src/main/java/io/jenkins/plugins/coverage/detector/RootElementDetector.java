@@ -0,0 +1,24 @@
+package io.jenkins.plugins.coverage.detector;
+
+/**
+ * Detects XML reports by the local name of their root element.
+ */
+public class RootElementDetector implements HeaderDetector {
+    private static final long serialVersionUID = -1755950224431717587L;
+
+    private final String rootElement;
+
+    /**
+     * Creates a new detector.
+     *
+     * @param rootElement local name of the root element of matching reports
+     */
+    public RootElementDetector(final String rootElement) {
+        this.rootElement = rootElement;
+    }
+
+    @Override
+    public boolean detect(final ReportHeader header) {
+        return rootElement.equals(header.getRootElement());
+    }
+}
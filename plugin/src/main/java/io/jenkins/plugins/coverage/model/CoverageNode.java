@@ -4,7 +4,6 @@ import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
@@ -30,6 +29,8 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 
 import one.util.streamex.StreamEx;
 
+import io.jenkins.plugins.coverage.targets.NamePool;
+
 /**
  * A hierarchical decomposition of coverage results.
  *
@@ -525,10 +526,15 @@ public class CoverageNode implements Serializable {
                     .collect(Collectors.toList());
             if (!allPackages.isEmpty()) {
                 children.clear();
+                // equal segments of different packages share a single name
+                NamePool segments = new NamePool();
                 for (CoverageNode packageNode : allPackages) {
                     String[] packageParts = packageNode.getName().split("\\.");
                     if (packageParts.length > 1) {
-                        Deque<String> packageLevels = new ArrayDeque<>(Arrays.asList(packageParts));
+                        Deque<String> packageLevels = new ArrayDeque<>();
+                        for (String packagePart : packageParts) {
+                            packageLevels.add(segments.intern(packagePart));
+                        }
                         insertPackage(packageNode, packageLevels);
                     }
                     else {
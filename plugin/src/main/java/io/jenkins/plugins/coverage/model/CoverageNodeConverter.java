@@ -11,6 +11,7 @@ import java.util.TreeMap;
 import io.jenkins.plugins.coverage.targets.CoverageElement;
 import io.jenkins.plugins.coverage.targets.CoveragePaint;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
 import io.jenkins.plugins.coverage.targets.Ratio;
 
 /**
@@ -21,6 +22,24 @@ import io.jenkins.plugins.coverage.targets.Ratio;
 public class CoverageNodeConverter {
 
     private final Map<CoverageNode, CoveragePaint> paintedFiles = new HashMap<>();
+    private final NamePool namePool;
+
+    /**
+     * Creates a new converter that uses its own pool for the names of the nodes.
+     */
+    public CoverageNodeConverter() {
+        this(new NamePool());
+    }
+
+    /**
+     * Creates a new converter.
+     *
+     * @param namePool
+     *         the pool for the names and paths of the nodes
+     */
+    public CoverageNodeConverter(final NamePool namePool) {
+        this.namePool = namePool;
+    }
 
     /**
      * Converts a {@link CoverageResult} instance to the corresponding {@link CoverageNode} instance.
@@ -58,24 +77,26 @@ public class CoverageNodeConverter {
     }
 
     private CoverageNode createNode(final CoverageMetric metric, final CoverageResult result) {
+        String name = namePool.intern(result.getName());
         if (metric.equals(CoverageMetric.METHOD)) {
             Optional<String> line = result.getAdditionalProperty("lineNumber").stream().findAny();
             if (line.isPresent() && line.get().matches("\\d+")) {
-                return new MethodCoverageNode(result.getName(), Integer.parseInt(line.get()));
+                return new MethodCoverageNode(name, Integer.parseInt(line.get()));
             }
             // fallback if method line has not been set properly since this is a temporary workaround
             // until the adapter structure has been replaced
-            return new MethodCoverageNode(result.getName(), 0);
+            return new MethodCoverageNode(name, 0);
         }
         if (metric.equals(CoverageMetric.FILE)) {
-            FileCoverageNode fileCoverageNode = new FileCoverageNode(result.getName(), result.getRelativeSourcePath());
+            FileCoverageNode fileCoverageNode = new FileCoverageNode(name,
+                    namePool.intern(result.getRelativeSourcePath()));
             attachCoverageLineMapping(result, fileCoverageNode);
             return fileCoverageNode;
         }
         if (metric.equals(CoverageMetric.PACKAGE)) {
-            return new PackageCoverageNode(result.getName());
+            return new PackageCoverageNode(name);
         }
-        return new CoverageNode(metric, result.getName());
+        return new CoverageNode(metric, name);
     }
 
     private void attachCoverageLineMapping(final CoverageResult result, final FileCoverageNode node) {
@@ -1,10 +1,12 @@
 package io.jenkins.plugins.coverage.model;
 
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
@@ -16,7 +18,9 @@ import hudson.model.TaskListener;
 
 import io.jenkins.plugins.coverage.model.exception.CodeDeltaException;
 import io.jenkins.plugins.coverage.model.visualization.code.SourceCodePainter;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
 import io.jenkins.plugins.forensics.delta.model.Delta;
 import io.jenkins.plugins.forensics.delta.model.FileChanges;
 import io.jenkins.plugins.forensics.reference.ReferenceFinder;
@@ -30,6 +34,25 @@ import io.jenkins.plugins.util.LogHandler;
  * @author Ullrich Hafner
  */
 public class CoverageReporter {
+    private final NamePool namePool;
+
+    /**
+     * Creates a new reporter that uses its own pool for the names and paths of the new model.
+     */
+    public CoverageReporter() {
+        this(new NamePool());
+    }
+
+    /**
+     * Creates a new reporter that takes the names and paths of the new model from the specified pool.
+     *
+     * @param namePool
+     *         the pool for the names and paths of the build
+     */
+    public CoverageReporter(final NamePool namePool) {
+        this.namePool = namePool;
+    }
+
     /**
      * Transforms the old model to the new model and invokes all steps that work on the new model. In the final step, a
      * new {@link CoverageBuildAction} will be attached to the build.
@@ -62,15 +85,108 @@ public class CoverageReporter {
             final Set<String> sourceDirectories, final String sourceCodeEncoding,
             final SourceCodeRetention sourceCodeRetention)
             throws InterruptedException {
-        LogHandler logHandler = new LogHandler(listener, "Coverage");
-        FilteredLog log = new FilteredLog("Errors while reporting code coverage results:");
+        run(rootResult, rootResult.getPaintedSources().keySet(), build, workspace, listener, healthReport, scm,
+                sourceDirectories, sourceCodeEncoding, sourceCodeRetention);
+    }
 
+    /**
+     * Transforms the old model to the new model and invokes all steps that work on the new model. In the final step, a
+     * new {@link CoverageBuildAction} will be attached to the build.
+     *
+     * <p>
+     * If the step is invoked several times in a build, then the root result contains the reports of all invocations.
+     * The code changes and coverage deltas are calculated and the source code is painted for the files of the current
+     * invocation only, the changes of all other files are taken from the action of the previous invocation.
+     * </p>
+     *
+     * @param rootResult
+     *         the root result obtained from the old coverage API
+     * @param touchedFiles
+     *         the relative source paths of the files that have been reported by the current invocation of the step
+     * @param build
+     *         the build that owns these results
+     * @param workspace
+     *         the workspace on the agent that provides access to the source code files
+     * @param listener
+     *         logger
+     * @param healthReport
+     *         health report
+     * @param scm
+     *         the SCM which is used for calculating the code delta to a reference build
+     * @param sourceDirectories
+     *         the source directories that have been configured in the associated job
+     * @param sourceCodeEncoding
+     *         the encoding of the source code files
+     * @param sourceCodeRetention
+     *         the source code retention strategy
+     *
+     * @throws InterruptedException
+     *         if the build has been aborted
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public void run(final CoverageResult rootResult, final Set<String> touchedFiles, final Run<?, ?> build,
+            final FilePath workspace, final TaskListener listener, final HealthReport healthReport, final String scm,
+            final Set<String> sourceDirectories, final String sourceCodeEncoding,
+            final SourceCodeRetention sourceCodeRetention)
+            throws InterruptedException {
         rootResult.stripGroup();
 
-        CoverageNodeConverter converter = new CoverageNodeConverter();
+        CoverageNodeConverter converter = new CoverageNodeConverter(namePool);
         CoverageNode rootNode = converter.convert(rootResult);
+
+        run(rootNode, converter.getPaintedFiles(), touchedFiles, build, workspace, listener, healthReport, scm,
+                sourceDirectories, sourceCodeEncoding, sourceCodeRetention);
+    }
+
+    /**
+     * Invokes all steps that work on the new model. In the final step, a new {@link CoverageBuildAction} will be
+     * attached to the build.
+     *
+     * @param rootNode
+     *         the root of the coverage tree
+     * @param paintedFiles
+     *         the files of the coverage tree that have line coverage, together with the coverage of the lines
+     * @param touchedFiles
+     *         the relative source paths of the files that have been reported by the current invocation of the step
+     * @param build
+     *         the build that owns these results
+     * @param workspace
+     *         the workspace on the agent that provides access to the source code files
+     * @param listener
+     *         logger
+     * @param healthReport
+     *         health report
+     * @param scm
+     *         the SCM which is used for calculating the code delta to a reference build
+     * @param sourceDirectories
+     *         the source directories that have been configured in the associated job
+     * @param sourceCodeEncoding
+     *         the encoding of the source code files
+     * @param sourceCodeRetention
+     *         the source code retention strategy
+     *
+     * @throws InterruptedException
+     *         if the build has been aborted
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private void run(final CoverageNode rootNode, final Set<Entry<CoverageNode, CoveragePaint>> paintedFiles,
+            final Set<String> touchedFiles, final Run<?, ?> build, final FilePath workspace,
+            final TaskListener listener, final HealthReport healthReport, final String scm,
+            final Set<String> sourceDirectories, final String sourceCodeEncoding,
+            final SourceCodeRetention sourceCodeRetention)
+            throws InterruptedException {
+        LogHandler logHandler = new LogHandler(listener, "Coverage");
+        FilteredLog log = new FilteredLog("Errors while reporting code coverage results:");
+
         rootNode.splitPackages();
 
+        // the action of a previous invocation of the step in this build
+        CoverageBuildAction previousInvocation = build.getAction(CoverageBuildAction.class);
+        Set<String> touchedPaths = rootNode.getAllFileCoverageNodes().stream()
+                .filter(node -> previousInvocation == null || touchedFiles.contains(node.getSourcePath()))
+                .map(FileCoverageNode::getPath)
+                .collect(Collectors.toSet());
+
         Optional<CoverageBuildAction> possibleReferenceResult = getReferenceBuildAction(build, log);
 
         logHandler.log(log);
@@ -91,10 +207,10 @@ public class CoverageReporter {
                 try {
                     log.logInfo("Preprocessing code changes...");
                     Set<FileChanges> changes = codeDeltaCalculator.getCoverageRelevantChanges(delta.get());
-                    Map<String, FileChanges> mappedChanges =
-                            codeDeltaCalculator.mapScmChangesToReportPaths(changes, rootNode, log);
-                    Map<String, String> oldPathMapping = codeDeltaCalculator.createOldPathMapping(
-                            rootNode, referenceRoot, mappedChanges, log);
+                    Map<String, FileChanges> mappedChanges = retainTouchedFiles(
+                            codeDeltaCalculator.mapScmChangesToReportPaths(changes, rootNode, log), touchedPaths);
+                    Map<String, String> oldPathMapping = retainTouchedFiles(codeDeltaCalculator.createOldPathMapping(
+                            rootNode, referenceRoot, mappedChanges, log), touchedPaths);
 
                     // calculate code changes
                     log.logInfo("Obtaining code changes for files...");
@@ -108,6 +224,13 @@ public class CoverageReporter {
                     // file coverage deltas
                     log.logInfo("Obtaining coverage delta for files...");
                     fileChangesProcessor.attachFileCoverageDeltas(rootNode, referenceRoot, oldPathMapping);
+
+                    if (previousInvocation != null) {
+                        log.logInfo("Reusing the changes of %d files of the previous invocation...",
+                                rootNode.getAllFileCoverageNodes().size() - touchedPaths.size());
+                        fileChangesProcessor.attachPreviousChanges(rootNode, previousInvocation.getResult(),
+                                getUntouchedPaths(rootNode, touchedPaths));
+                    }
                 }
                 catch (CodeDeltaException e) {
                     log.logError("An error occurred while processing code and coverage changes: " + e.getMessage());
@@ -143,9 +266,13 @@ public class CoverageReporter {
             action = new CoverageBuildAction(build, rootNode, healthReport);
         }
 
+        // the sources of the other files have been painted by the previous invocations already
         log.logInfo("Executing source code painting...");
+        Set<Entry<CoverageNode, CoveragePaint>> touchedPaintedFiles = paintedFiles.stream()
+                .filter(file -> touchedPaths.contains(file.getKey().getPath()))
+                .collect(Collectors.toSet());
         SourceCodePainter sourceCodePainter = new SourceCodePainter(build, workspace);
-        sourceCodePainter.processSourceCodePainting(converter.getPaintedFiles(), sourceDirectories,
+        sourceCodePainter.processSourceCodePainting(touchedPaintedFiles, sourceDirectories,
                 sourceCodeEncoding, sourceCodeRetention, log);
 
         log.logInfo("Finished coverage processing - adding the action to the build...");
@@ -155,6 +282,30 @@ public class CoverageReporter {
         build.addOrReplaceAction(action);
     }
 
+    /**
+     * Removes the values of the files that have not been reported by the current invocation of the step.
+     *
+     * @param valuesByPath
+     *         the values mapped by the paths of the files
+     * @param touchedPaths
+     *         the paths of the files of the current invocation
+     * @param <V>
+     *         the type of the values
+     *
+     * @return the values of the files of the current invocation
+     */
+    private <V> Map<String, V> retainTouchedFiles(final Map<String, V> valuesByPath, final Set<String> touchedPaths) {
+        valuesByPath.keySet().retainAll(touchedPaths);
+        return valuesByPath;
+    }
+
+    private Set<String> getUntouchedPaths(final CoverageNode rootNode, final Set<String> touchedPaths) {
+        return rootNode.getAllFileCoverageNodes().stream()
+                .map(FileCoverageNode::getPath)
+                .filter(path -> !touchedPaths.contains(path))
+                .collect(Collectors.toSet());
+    }
+
     /**
      * Computes the change coverage delta which represents the difference between the change coverage and the overall
      * coverage per coverage metric.
@@ -10,6 +10,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -51,6 +52,34 @@ public class FileChangesProcessor {
         });
     }
 
+    /**
+     * Attaches the changes concerning code and coverage, which have been calculated by a previous invocation of the
+     * step in the same build, to the file nodes of the coverage tree. Since both invocations use the same reference
+     * build, the changes of the files that have not been reported again are still valid.
+     *
+     * @param coverageNode
+     *         The root node of the coverage tree
+     * @param previousNode
+     *         The root node of the coverage tree of the previous invocation
+     * @param paths
+     *         The paths of the files whose changes should be attached
+     */
+    public void attachPreviousChanges(final CoverageNode coverageNode, final CoverageNode previousNode,
+            final Set<String> paths) {
+        Map<String, FileCoverageNode> previousFileNodes = previousNode.getAllFileCoverageNodes().stream()
+                .filter(node -> paths.contains(node.getPath()))
+                .collect(Collectors.toMap(FileCoverageNode::getPath, Function.identity()));
+
+        for (FileCoverageNode fileNode : coverageNode.getAllFileCoverageNodes()) {
+            FileCoverageNode previousFileNode = previousFileNodes.get(fileNode.getPath());
+            if (previousFileNode != null) {
+                fileNode.setChangedCodeLines(new TreeSet<>(previousFileNode.getChangedCodeLines()));
+                fileNode.setIndirectCoverageChanges(new TreeMap<>(previousFileNode.getIndirectCoverageChanges()));
+                fileNode.setFileCoverageDelta(new TreeMap<>(previousFileNode.getFileCoverageDelta()));
+            }
+        }
+    }
+
     /**
      * Attaches a set of changes to a specific {@link FileCoverageNode node}.
      *
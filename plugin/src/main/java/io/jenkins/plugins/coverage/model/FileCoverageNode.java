@@ -49,6 +49,16 @@ public class FileCoverageNode extends CoverageNode {
         return mergePath(sourcePath);
     }
 
+    /**
+     * Returns the path to the source code of this node, as it has been reported by the coverage tool. In contrast to
+     * {@link #getPath()} the path does not contain the path of the package.
+     *
+     * @return the path to the source code, or an empty string if the report contains no path
+     */
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
     /**
      * Called after de-serialization to retain backward compatibility.
      *
@@ -145,6 +155,10 @@ public class FileCoverageNode extends CoverageNode {
         indirectCoverageChanges.put(line, hitsDelta);
     }
 
+    public SortedMap<CoverageMetric, CoveragePercentage> getFileCoverageDelta() {
+        return fileCoverageDelta;
+    }
+
     public void setFileCoverageDelta(final SortedMap<CoverageMetric, CoveragePercentage> fileCoverageDelta) {
         this.fileCoverageDelta = fileCoverageDelta;
     }
@@ -2,12 +2,25 @@ package io.jenkins.plugins.coverage.targets;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Objects;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type of programming element a coverage result belongs to. Elements are equal if their names are equal: each name
+ * gets a small ordinal when the first element with this name is created, equal elements share the ordinal. Ordinals
+ * are stable as long as the JVM is running, so they are not serialized.
+ */
 public class CoverageElement implements Comparable<CoverageElement>, Serializable {
     private static final long serialVersionUID = 6722992955158201174L;
 
+    // must be initialized before the constants
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static final AtomicInteger ORDINAL_COUNT = new AtomicInteger();
+
     public final static CoverageElement AGGREGATED_REPORT = new CoverageElement("Aggregated Report", Integer.MIN_VALUE);
     public final static CoverageElement REPORT = new CoverageElement("Report", Integer.MIN_VALUE + 1);
 
@@ -23,6 +36,7 @@ public class CoverageElement implements Comparable<CoverageElement>, Serializabl
     private final String name;
     private final int order;
     private final boolean isBasicBlock;
+    private transient int ordinal;
 
     public CoverageElement(final String name, final int order) {
         this(name, order, false);
@@ -32,12 +46,42 @@ public class CoverageElement implements Comparable<CoverageElement>, Serializabl
         this.name = name;
         this.order = order;
         this.isBasicBlock = isBasicBlock;
+        this.ordinal = ordinalOf(name);
+    }
+
+    private static int ordinalOf(final String name) {
+        return ORDINALS.computeIfAbsent(name, key -> ORDINAL_COUNT.getAndIncrement());
+    }
+
+    /**
+     * Returns the number of ordinals that have been assigned so far. All elements that have been created have an
+     * ordinal below this number, so it can be used as the size of arrays that are indexed by the ordinal.
+     *
+     * @return the number of ordinals
+     */
+    public static int getOrdinalCount() {
+        return ORDINAL_COUNT.get();
+    }
+
+    private void readObject(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+        ordinal = ordinalOf(name);
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Returns the ordinal of this element. The ordinals of elements with different names are different, the ordinals
+     * start at 0 and have no gaps.
+     *
+     * @return the ordinal
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
     public boolean isBasicBlock() {
         return isBasicBlock;
     }
@@ -51,7 +95,7 @@ public class CoverageElement implements Comparable<CoverageElement>, Serializabl
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         CoverageElement that = (CoverageElement) o;
-        return Objects.equals(name, that.name);
+        return ordinal == that.ordinal;
     }
 
     @Override
@@ -61,7 +105,7 @@ public class CoverageElement implements Comparable<CoverageElement>, Serializabl
 
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return ordinal;
     }
 
     @Override
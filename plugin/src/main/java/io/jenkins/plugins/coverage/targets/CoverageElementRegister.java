@@ -2,11 +2,19 @@ package io.jenkins.plugins.coverage.targets;
 
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
+/**
+ * Registers the coverage elements of the report adapters by type. Elements are looked up by name in constant time,
+ * elements can be registered concurrently, e.g. by parallel publishers of several jobs. Each name is registered only
+ * once per type, the first registered element of a name is returned by {@link #getDespiteType(String)}.
+ */
 public class CoverageElementRegister {
 
-    private static Map<String, LinkedList<CoverageElement>> typedRegisteredElements = new HashMap<>();
+    private static final Map<String, TypedElements> typedRegisteredElements = new ConcurrentHashMap<>();
+    private static final Map<String, CoverageElement> registeredElements = new ConcurrentHashMap<>();
 
     static {
         addCoverageElement(CoverageElement.AGGREGATED_REPORT);
@@ -20,8 +28,8 @@ public class CoverageElementRegister {
     }
 
     public static boolean addCoverageElement(String type, CoverageElement element) {
-        typedRegisteredElements.putIfAbsent(type, new LinkedList<>());
-        return typedRegisteredElements.get(type).add(element);
+        registeredElements.putIfAbsent(element.getName(), element);
+        return typedRegisteredElements.computeIfAbsent(type, key -> new TypedElements()).add(element);
     }
 
     public static boolean addCoverageElements(List<CoverageElement> elements) {
@@ -29,24 +37,24 @@ public class CoverageElementRegister {
     }
 
     public static boolean addCoverageElements(String type, List<CoverageElement> elements) {
-        typedRegisteredElements.putIfAbsent(type, new LinkedList<>());
-        return typedRegisteredElements.get(type).addAll(elements);
+        boolean changed = false;
+        for (CoverageElement element : elements) {
+            changed |= addCoverageElement(type, element);
+        }
+        return changed;
     }
 
     public static CoverageElement get(String type, String name) {
-        return typedRegisteredElements.get(type).stream().filter(c -> c.is(name)).findAny().orElse(null);
+        return typedRegisteredElements.get(type).elementsByName.get(name);
     }
 
     public static CoverageElement getDespiteType(String name) {
-        return typedRegisteredElements.values().stream()
-                .flatMap(Collection::stream)
-                .filter(c -> c.is(name))
-                .findAny().orElse(null);
+        return registeredElements.get(name);
     }
 
     public static CoverageElement[] all() {
         return typedRegisteredElements.values().stream()
-                .flatMap(Collection::stream)
+                .flatMap(elements -> elements.elements.stream())
                 .distinct()
                 .sorted()
                 .collect(Collectors.toList())
@@ -54,14 +62,14 @@ public class CoverageElementRegister {
     }
 
     public static CoverageElement[] listByType(String type) {
-        return typedRegisteredElements.get(type).toArray(new CoverageElement[]{});
+        return typedRegisteredElements.get(type).elements.toArray(new CoverageElement[]{});
     }
 
 
     public static CoverageElement[] listCommonsAndSpecificType(String type) {
         CoverageElement[] elements =  typedRegisteredElements.entrySet().stream()
                 .filter(e -> e.getKey().equals(CoverageElement.COVERAGE_ELEMENT_TYPE_NONE) || e.getKey().equals(type))
-                .flatMap(e -> e.getValue().stream())
+                .flatMap(e -> e.getValue().elements.stream())
                 .distinct()
                 .collect(Collectors.toList())
                 .toArray(new CoverageElement[]{});
@@ -69,4 +77,20 @@ public class CoverageElementRegister {
         Arrays.sort(elements);
         return elements;
     }
+
+    /**
+     * The elements of a type in the order of their registration.
+     */
+    private static class TypedElements {
+        private final Map<String, CoverageElement> elementsByName = new ConcurrentHashMap<>();
+        private final List<CoverageElement> elements = new CopyOnWriteArrayList<>();
+
+        boolean add(final CoverageElement element) {
+            if (elementsByName.putIfAbsent(element.getName(), element) == null) {
+                elements.add(element);
+                return true;
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,191 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the heap that the coverage results of a build may use. The size of each result is estimated when the result
+ * has been created. As soon as the estimated size of all results exceeds the budget, the line coverage of the results
+ * is spilled to a {@link CoveragePaintStore}, while the results themselves and their coverage summaries stay in
+ * memory.
+ *
+ * <p>
+ * The size of a result is estimated by the number of nodes and painted lines, the constants are the approximate heap
+ * usage of a {@link CoverageResult} and of a painted line on a 64-bit JVM.
+ * </p>
+ *
+ * <p>
+ * The lines of a report can be spilled only after the report has been parsed completely. So a report is parsed only
+ * if its size does not exceed the budget, see {@link #canParse(long)}. Skipped reports make the build unstable, since
+ * the published coverage would miss their lines.
+ * </p>
+ */
+public class CoverageHeapBudget {
+    static final long RESULT_SIZE = 800;
+    static final long LINE_SIZE = 16;
+    /** The minimum size of the element of a line in a report, e.g. {@code <line nr="1" ci="1" mi="0"/>}. */
+    static final long REPORT_LINE_SIZE = 32;
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private final long budget;
+    private final CoveragePaintStore store;
+    private final AtomicLong usage = new AtomicLong();
+    private final AtomicLong spilledLines = new AtomicLong();
+
+    /**
+     * Creates a new budget.
+     *
+     * @param budgetInMegabytes
+     *         the heap budget in MB
+     * @param store
+     *         the store for the spilled lines
+     */
+    public CoverageHeapBudget(final int budgetInMegabytes, final CoveragePaintStore store) {
+        this(budgetInMegabytes * MEGABYTE, store);
+    }
+
+    CoverageHeapBudget(final long budget, final CoveragePaintStore store) {
+        this.budget = budget;
+        this.store = store;
+    }
+
+    /**
+     * Adds the estimated size of the specified result to the used heap. If the budget is exceeded, then the lines of
+     * the result are spilled to the store.
+     *
+     * @param result
+     *         the result to add
+     *
+     * @return {@code true} if the lines of the result have been spilled, {@code false} otherwise
+     * @throws IOException
+     *         if the lines can't be written to the store
+     */
+    public boolean add(final CoverageResult result) throws IOException {
+        if (usage.addAndGet(estimateSize(result)) <= budget) {
+            return false;
+        }
+        return spill(result) > 0;
+    }
+
+    /**
+     * Returns whether a report of the specified size can be parsed within the budget. The parsers keep all lines of a
+     * report in memory until the report has been parsed, so the lines of the report are estimated before by the size
+     * of the report.
+     *
+     * @param reportSize
+     *         the size of the report in bytes
+     *
+     * @return {@code true} if the estimated lines of the report do not exceed the budget, {@code false} otherwise
+     */
+    public boolean canParse(final long reportSize) {
+        return estimateParsingSize(reportSize) <= budget;
+    }
+
+    /**
+     * Estimates the heap usage of the lines of a report of the specified size.
+     *
+     * @param reportSize
+     *         the size of the report in bytes
+     *
+     * @return the estimated heap usage in bytes
+     */
+    public static long estimateParsingSize(final long reportSize) {
+        return reportSize / REPORT_LINE_SIZE * LINE_SIZE;
+    }
+
+    /**
+     * Spills the lines of the specified result to the store, regardless of the used heap.
+     *
+     * @param result
+     *         the result to spill
+     *
+     * @return the number of spilled lines
+     * @throws IOException
+     *         if the lines can't be written to the store
+     */
+    public long spill(final CoverageResult result) throws IOException {
+        long lines = store.spill(result);
+        usage.addAndGet(-lines * LINE_SIZE);
+        spilledLines.addAndGet(lines);
+        return lines;
+    }
+
+    /**
+     * Returns whether the budget has been exceeded, i.e. lines have been spilled to the store.
+     *
+     * @return {@code true} if lines have been spilled
+     */
+    public boolean isExceeded() {
+        return spilledLines.get() > 0;
+    }
+
+    /**
+     * Returns the estimated heap usage of the results that have been added.
+     *
+     * @return the estimated heap usage in bytes
+     */
+    public long getUsage() {
+        return usage.get();
+    }
+
+    /**
+     * Returns the budget.
+     *
+     * @return the budget in bytes
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns the number of lines that have been spilled to the store.
+     *
+     * @return the number of spilled lines
+     */
+    public long getSpilledLines() {
+        return spilledLines.get();
+    }
+
+    /**
+     * Returns the store for the spilled lines. The store is created lazily by the first spill, so its file exists only
+     * if the budget has been exceeded.
+     *
+     * @return the store
+     */
+    public CoveragePaintStore getStore() {
+        return store;
+    }
+
+    /**
+     * Estimates the heap usage of the specified result and its children. Lines that have been spilled already are not
+     * counted.
+     *
+     * @param result
+     *         the result to estimate
+     *
+     * @return the estimated heap usage in bytes
+     */
+    public static long estimateSize(final CoverageResult result) {
+        long size = RESULT_SIZE;
+        if (result.hasOwnPaint()) {
+            size += result.getPaint().getLinesInMemory() * LINE_SIZE;
+        }
+        for (CoverageResult child : result.getChildrenReal().values()) {
+            size += estimateSize(child);
+        }
+        return size;
+    }
+
+    /**
+     * Formats the specified number of bytes in MB.
+     *
+     * @param bytes
+     *         the number of bytes
+     *
+     * @return the number of MB, rounded up
+     */
+    public static long toMegabytes(final long bytes) {
+        return (bytes + MEGABYTE - 1) / MEGABYTE;
+    }
+}
@@ -21,23 +21,27 @@
  */
 package io.jenkins.plugins.coverage.targets;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.ArrayUtils;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 
 import gnu.trove.iterator.TIntObjectIterator;
 import gnu.trove.map.TIntObjectMap;
-import gnu.trove.map.hash.TIntObjectHashMap;
 
 // Code adopted from Cobertura Plugin https://github.com/jenkinsci/cobertura-plugin/
 
 /**
- * Line-by-line coverage information.
+ * Line-by-line coverage information. The painted lines are stored in sorted parallel arrays of primitive values (line,
+ * hits, branch total, and branch coverage), so a painted line requires 16 bytes of the heap and no objects at all.
  *
  * @author Stephen Connolly
  * @since 29-Aug-2007 17:44:29
@@ -45,38 +49,25 @@ import gnu.trove.map.hash.TIntObjectHashMap;
 public class CoveragePaint implements Serializable {
     private static final long serialVersionUID = -6265259191856193735L;
 
-    private static final CoveragePaintDetails[] EMPTY = new CoveragePaintDetails[0];
+    /**
+     * The serialized fields: {@code lines} is the map of releases that did not store the lines in columns, it is only
+     * read and never written.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("lines", TIntObjectMap.class),
+            new ObjectStreamField("totalLines", Integer.TYPE),
+            new ObjectStreamField("values", int[].class)
+    };
 
+    /**
+     * Coverage of a line in the serialized form of older releases.
+     */
     private static class CoveragePaintDetails implements Serializable {
         private static final long serialVersionUID = -9097537016381444671L;
 
-        /**
-         * Fly-weight object pool of (n,0,0) instances, which are very common.
-         */
-        private static final CoveragePaintDetails[] CONSTANTS = new CoveragePaintDetails[128];
-
-        /**
-         * Number of times this line is executed.
-         */
         final int hitCount;
 
-        static CoveragePaintDetails create(final int hitCount, final int branchCount, final int branchCoverage) {
-            if (branchCount == 0 && branchCoverage == 0) {
-                if (0 <= hitCount && hitCount < CONSTANTS.length) {
-                    CoveragePaintDetails r = CONSTANTS[hitCount];
-                    if (r == null) {
-                        CONSTANTS[hitCount] = r = new CoveragePaintDetails(hitCount);
-                    }
-                    return r;
-                }
-                return new CoveragePaintDetails(hitCount);
-            }
-            else {
-                return new BranchingCoveragePaintDetails(hitCount, branchCount, branchCoverage);
-            }
-        }
-
-        private CoveragePaintDetails(final int hitCount) {
+        CoveragePaintDetails(final int hitCount) {
             this.hitCount = hitCount;
         }
 
@@ -87,30 +78,19 @@ public class CoveragePaint implements Serializable {
         int branchCoverage() {
             return 0;
         }
-
-        /**
-         * Do 'this+that' and return the new object.
-         */
-        CoveragePaintDetails add(final CoveragePaintDetails that) {
-            return CoveragePaintDetails.create(
-                    this.hitCount + that.hitCount,
-                    // TODO find a better algorithm
-                    Math.max(this.branchCount(), that.branchCount()),
-                    Math.max(this.branchCoverage(), that.branchCoverage()));
-        }
     }
 
     /**
-     * {@link CoveragePaintDetails} that has non-zero branch coverage numbers. This is relatively rare, so we use two
-     * classes to save 8 bytes of storing 0.
+     * Coverage of a line with branches in the serialized form of older releases.
      */
     private static class BranchingCoveragePaintDetails extends CoveragePaintDetails {
+        private static final long serialVersionUID = 1L;
 
         final int branchCount;
 
         final int branchCoverage;
 
-        private BranchingCoveragePaintDetails(final int hitCount, final int branchCount, final int branchCoverage) {
+        BranchingCoveragePaintDetails(final int hitCount, final int branchCount, final int branchCoverage) {
             super(hitCount);
             this.branchCount = branchCount;
             this.branchCoverage = branchCoverage;
@@ -125,42 +105,177 @@ public class CoveragePaint implements Serializable {
         int branchCoverage() {
             return branchCoverage;
         }
-
-        private static final long serialVersionUID = 1L;
     }
 
-    protected TIntObjectMap<CoveragePaintDetails> lines = new TIntObjectHashMap<>();
+    private transient PaintedLines lines = new PaintedLines();
 
     private int totalLines = 0;
 
+    /**
+     * The store that contains the lines if they have been spilled to disk, {@code null} if the lines are held in
+     * memory.
+     */
+    @CheckForNull
+    private transient CoveragePaintStore store;
+    private transient long storeOffset;
+    private transient int storedValues;
+    @CheckForNull
+    private transient SoftReference<PaintedLines> loadedLines;
+
     public CoveragePaint(final CoverageElement source) {
 //		there were no getters against the source ...
 //      this.source = source;
     }
 
-    private void paint(final int line, final CoveragePaintDetails delta) {
-        CoveragePaintDetails d = lines.get(line);
-        if (d == null) {
-            lines.put(line, delta);
+    /**
+     * Returns the painted lines. If the lines have been spilled, then they are read from the store and are kept until
+     * the memory is required for other objects. Lines that have been painted out of order are sorted before they are
+     * returned.
+     *
+     * @return the painted lines
+     */
+    private synchronized PaintedLines getLines() {
+        if (store == null) {
+            lines.sort();
+            return lines;
+        }
+        PaintedLines loaded = loadedLines == null ? null : loadedLines.get();
+        if (loaded == null) {
+            try {
+                loaded = PaintedLines.fromValues(store.read(storeOffset, storedValues));
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException("Can't read spilled coverage paint from " + store.getFile(),
+                        exception);
+            }
+            loadedLines = new SoftReference<>(loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Moves the lines of this paint to the specified store. Afterwards, the lines are read from the store when
+     * required. If the paint is modified afterwards, then the lines are held in memory again.
+     *
+     * @param paintStore
+     *         the store to write the lines to
+     *
+     * @return the number of spilled lines, 0 if the lines have been spilled already or if there are no lines
+     * @throws IOException
+     *         if the lines can't be written
+     */
+    synchronized int spill(final CoveragePaintStore paintStore) throws IOException {
+        if (store != null || lines.size == 0) {
+            return 0;
+        }
+        lines.sort();
+        int spilledLines = lines.size;
+        int[] values = lines.toValues();
+        storeOffset = paintStore.write(values);
+        storedValues = values.length;
+        store = paintStore;
+        lines = new PaintedLines();
+        return spilledLines;
+    }
+
+    /**
+     * Returns whether the lines of this paint have been spilled to a {@link CoveragePaintStore}.
+     *
+     * @return {@code true} if the lines have been spilled, {@code false} if the lines are held in memory
+     */
+    public synchronized boolean isSpilled() {
+        return store != null;
+    }
+
+    /**
+     * Removes the unused capacity of the arrays of the painted lines, e.g. when all lines of a report have been
+     * painted. The arrays grow again if lines are painted afterwards.
+     */
+    public synchronized void trimToSize() {
+        if (store == null) {
+            lines.sort();
+            lines.trimToSize();
+        }
+    }
+
+    /**
+     * Returns the number of lines that are held in memory.
+     *
+     * @return the number of lines in memory, 0 if the lines have been spilled
+     */
+    synchronized int getLinesInMemory() {
+        return lines.size;
+    }
+
+    /**
+     * Returns the heap usage of the columns of the lines that are held in memory, without the headers of the arrays.
+     *
+     * @return the size of the columns in bytes, 0 if the lines have been spilled
+     */
+    synchronized long getBytesInMemory() {
+        return store == null ? 4L * Integer.BYTES * lines.lines.length : 0;
+    }
+
+    /**
+     * Returns the painted lines in ascending order. Each line is stored as four values: the line number, the hits, the
+     * branch coverage and the branch count.
+     *
+     * @return the values of the painted lines
+     */
+    int[] getValues() {
+        return getLines().toValues();
+    }
+
+    private synchronized PaintedLines getModifiableLines() {
+        if (store != null) {
+            lines = getLines();
+            store = null;
+            loadedLines = null;
+        }
+        return lines;
+    }
+
+    private void writeObject(final ObjectOutputStream output) throws IOException {
+        ObjectOutputStream.PutField fields = output.putFields();
+        fields.put("totalLines", totalLines);
+        fields.put("values", getLines().toValues());
+        output.writeFields();
+    }
+
+    private void readObject(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = input.readFields();
+        totalLines = fields.get("totalLines", 0);
+        int[] values = (int[]) fields.get("values", null);
+        if (values != null) {
+            lines = PaintedLines.fromValues(values);
         }
         else {
-            lines.put(line, d.add(delta));
+            lines = new PaintedLines();
+            @SuppressWarnings("unchecked")
+            TIntObjectMap<CoveragePaintDetails> legacyLines = (TIntObjectMap<CoveragePaintDetails>) fields.get(
+                    "lines", null);
+            if (legacyLines != null) {
+                for (TIntObjectIterator<CoveragePaintDetails> it = legacyLines.iterator(); it.hasNext(); ) {
+                    it.advance();
+                    CoveragePaintDetails details = it.value();
+                    lines.paint(it.key(), details.hitCount, details.branchCoverage(), details.branchCount());
+                }
+            }
         }
     }
 
     public void paint(final int line, final int hits) {
-        paint(line, CoveragePaintDetails.create(hits, 0, 0));
+        getModifiableLines().paint(line, hits, 0, 0);
     }
 
     public void paint(final int line, final int hits, final int branchCover, final int branchCount) {
-        paint(line, CoveragePaintDetails.create(hits, branchCount, branchCover));
+        getModifiableLines().paint(line, hits, branchCover, branchCount);
     }
 
     public void add(final CoveragePaint child) {
-        TIntObjectIterator<CoveragePaintDetails> it = child.lines.iterator();
-        while (it.hasNext()) {
-            it.advance();
-            paint(it.key(), it.value());
+        PaintedLines childLines = child.getLines();
+        if (childLines.size > 0) {
+            getModifiableLines().add(childLines);
         }
     }
 
@@ -191,13 +306,14 @@ public class CoveragePaint implements Serializable {
      * @return Value for property 'lineCoverage'.
      */
     public Ratio getLineCoverage() {
+        PaintedLines paintedLines = getLines();
         int covered = 0;
-        for (CoveragePaintDetails d : lines.values(EMPTY)) {
-            if (d.hitCount > 0) {
+        for (int i = 0; i < paintedLines.size; i++) {
+            if (paintedLines.hits[i] > 0) {
                 covered++;
             }
         }
-        return Ratio.create(covered, lines.size());
+        return Ratio.create(covered, paintedLines.size);
     }
 
     /**
@@ -206,11 +322,12 @@ public class CoveragePaint implements Serializable {
      * @return Value for property 'conditionalCoverage'.
      */
     public Ratio getConditionalCoverage() {
+        PaintedLines paintedLines = getLines();
         long maxTotal = 0;
         long total = 0;
-        for (CoveragePaintDetails d : lines.values(EMPTY)) {
-            maxTotal += d.branchCount();
-            total += d.branchCoverage();
+        for (int i = 0; i < paintedLines.size; i++) {
+            maxTotal += paintedLines.branchTotals[i];
+            total += paintedLines.branchCoverages[i];
         }
         return Ratio.create(total, maxTotal);
     }
@@ -228,58 +345,254 @@ public class CoveragePaint implements Serializable {
     }
 
     public boolean isPainted(final int line) {
-        return lines.get(line) != null;
+        return getLines().indexOf(line) >= 0;
     }
 
     public int getHits(final int line) {
-        CoveragePaintDetails d = lines.get(line);
-        if (d == null) {
-            return 0;
-        }
-        else {
-            return d.hitCount;
-        }
+        PaintedLines paintedLines = getLines();
+        int index = paintedLines.indexOf(line);
+        return index < 0 ? 0 : paintedLines.hits[index];
     }
 
     public int getBranchTotal(final int line) {
-        CoveragePaintDetails d = lines.get(line);
-        if (d == null) {
-            return 0;
-        }
-        else {
-            return d.branchCount();
-        }
+        PaintedLines paintedLines = getLines();
+        int index = paintedLines.indexOf(line);
+        return index < 0 ? 0 : paintedLines.branchTotals[index];
     }
 
     public int getBranchCoverage(final int line) {
-        CoveragePaintDetails d = lines.get(line);
-        if (d == null) {
-            return 0;
-        }
-        else {
-            return d.branchCoverage();
-        }
+        PaintedLines paintedLines = getLines();
+        int index = paintedLines.indexOf(line);
+        return index < 0 ? 0 : paintedLines.branchCoverages[index];
     }
 
     /**
      * Returns the lines of the source file that have no line coverage.
      *
-     * @return the lines without coverage
+     * @return the lines without coverage in ascending order
      */
     public int[] getUncoveredLines() {
-        List<Integer> uncovered = new ArrayList<>();
-        for (TIntObjectIterator<CoveragePaintDetails> it = this.lines.iterator(); it.hasNext(); ) {
-            it.advance();
-            if (it.value().hitCount == 0) {
-                uncovered.add(it.key());
+        PaintedLines paintedLines = getLines();
+        int[] uncovered = new int[paintedLines.size];
+        int count = 0;
+        for (int i = 0; i < paintedLines.size; i++) {
+            if (paintedLines.hits[i] == 0) {
+                uncovered[count++] = paintedLines.lines[i];
             }
         }
-        int[] sorted = ArrayUtils.toPrimitive(uncovered.toArray(new Integer[0]));
-        Arrays.sort(sorted);
-        return sorted;
+        return Arrays.copyOf(uncovered, count);
     }
 
+    /**
+     * Returns all painted lines of the source file.
+     *
+     * @return the painted lines in ascending order
+     */
     public int[] getAllLines() {
-        return lines.keys();
+        PaintedLines paintedLines = getLines();
+        return Arrays.copyOf(paintedLines.lines, paintedLines.size);
+    }
+
+    /**
+     * The painted lines in parallel arrays that are sorted by the line number. Lines are usually painted in ascending
+     * order, so they are appended to the arrays. Lines that are painted out of order are appended as well and are
+     * sorted and merged with {@link #sort()} before the lines are queried.
+     */
+    private static final class PaintedLines {
+        private static final int[] EMPTY = new int[0];
+
+        private int[] lines;
+        private int[] hits;
+        private int[] branchTotals;
+        private int[] branchCoverages;
+        private int size;
+        private boolean sorted = true;
+
+        PaintedLines() {
+            this(EMPTY, EMPTY, EMPTY, EMPTY, 0);
+        }
+
+        private PaintedLines(final int[] lines, final int[] hits, final int[] branchTotals,
+                final int[] branchCoverages, final int size) {
+            this.lines = lines;
+            this.hits = hits;
+            this.branchTotals = branchTotals;
+            this.branchCoverages = branchCoverages;
+            this.size = size;
+        }
+
+        // each line is stored as line number, hits, branch coverage and branch count
+        int[] toValues() {
+            int[] values = new int[size * 4];
+            int index = 0;
+            for (int i = 0; i < size; i++) {
+                values[index++] = lines[i];
+                values[index++] = hits[i];
+                values[index++] = branchCoverages[i];
+                values[index++] = branchTotals[i];
+            }
+            return values;
+        }
+
+        static PaintedLines fromValues(final int[] values) {
+            int count = values.length / 4;
+            PaintedLines loaded = new PaintedLines(new int[count], new int[count], new int[count], new int[count], 0);
+            for (int index = 0; index < values.length; index += 4) {
+                loaded.paint(values[index], values[index + 1], values[index + 2], values[index + 3]);
+            }
+            loaded.sort();
+            return loaded;
+        }
+
+        /**
+         * Returns the index of the specified line, the lines must be sorted.
+         *
+         * @param line
+         *         the line to find
+         *
+         * @return the index of the line, or a negative value if the line has not been painted
+         */
+        int indexOf(final int line) {
+            return Arrays.binarySearch(lines, 0, size, line);
+        }
+
+        void paint(final int line, final int lineHits, final int branchCoverage, final int branchTotal) {
+            if (size > 0 && line <= lines[size - 1]) {
+                int index = sorted ? indexOf(line) : lines[size - 1] == line ? size - 1 : -1;
+                if (index >= 0) {
+                    merge(index, lineHits, branchCoverage, branchTotal);
+                    return;
+                }
+                sorted = false;
+            }
+            if (size == lines.length) {
+                grow(size + 1);
+            }
+            lines[size] = line;
+            hits[size] = lineHits;
+            branchCoverages[size] = branchCoverage;
+            branchTotals[size] = branchTotal;
+            size++;
+        }
+
+        /**
+         * Adds the hits of the same line and takes the maximum of the branch values in constant time. The reports do
+         * not tell which of the branches have been covered, so the maximum is a lower bound of the covered branches.
+         */
+        private void merge(final int index, final int lineHits, final int branchCoverage, final int branchTotal) {
+            hits[index] += lineHits;
+            branchTotals[index] = Math.max(branchTotals[index], branchTotal);
+            branchCoverages[index] = Math.max(branchCoverages[index], branchCoverage);
+        }
+
+        private void grow(final int minimumCapacity) {
+            int capacity = Math.max(minimumCapacity, lines.length + (lines.length >> 1));
+            capacity = Math.max(capacity, 8);
+            lines = Arrays.copyOf(lines, capacity);
+            hits = Arrays.copyOf(hits, capacity);
+            branchTotals = Arrays.copyOf(branchTotals, capacity);
+            branchCoverages = Arrays.copyOf(branchCoverages, capacity);
+        }
+
+        /**
+         * Adds the lines of another sorted instance. Both instances are merged in a single pass.
+         *
+         * @param other
+         *         the lines to add
+         */
+        void add(final PaintedLines other) {
+            if (other.size == 0) {
+                return;
+            }
+            sort();
+            if (size == 0 || other.lines[0] > lines[size - 1]) {
+                if (size + other.size > lines.length) {
+                    grow(size + other.size);
+                }
+                System.arraycopy(other.lines, 0, lines, size, other.size);
+                System.arraycopy(other.hits, 0, hits, size, other.size);
+                System.arraycopy(other.branchTotals, 0, branchTotals, size, other.size);
+                System.arraycopy(other.branchCoverages, 0, branchCoverages, size, other.size);
+                size += other.size;
+                return;
+            }
+
+            int capacity = size + other.size;
+            PaintedLines merged = new PaintedLines(new int[capacity], new int[capacity], new int[capacity],
+                    new int[capacity], 0);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || i < size && lines[i] < other.lines[j]) {
+                    merged.append(lines[i], hits[i], branchCoverages[i], branchTotals[i]);
+                    i++;
+                }
+                else if (i == size || other.lines[j] < lines[i]) {
+                    merged.append(other.lines[j], other.hits[j], other.branchCoverages[j], other.branchTotals[j]);
+                    j++;
+                }
+                else {
+                    merged.append(lines[i], hits[i], branchCoverages[i], branchTotals[i]);
+                    merged.merge(merged.size - 1, other.hits[j], other.branchCoverages[j], other.branchTotals[j]);
+                    i++;
+                    j++;
+                }
+            }
+            replaceWith(merged);
+        }
+
+        private void append(final int line, final int lineHits, final int branchCoverage, final int branchTotal) {
+            lines[size] = line;
+            hits[size] = lineHits;
+            branchCoverages[size] = branchCoverage;
+            branchTotals[size] = branchTotal;
+            size++;
+        }
+
+        /**
+         * Sorts the lines that have been painted out of order and merges lines that have been painted several times.
+         * The capacity of the arrays is kept, so painting and querying lines alternately does not copy the arrays.
+         */
+        void sort() {
+            if (sorted) {
+                return;
+            }
+
+            // the line in the upper half and the index in the lower half of each key gives a stable order
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) lines[i] << 32 | i;
+            }
+            Arrays.sort(keys);
+
+            PaintedLines ordered = new PaintedLines(new int[lines.length], new int[lines.length],
+                    new int[lines.length], new int[lines.length], 0);
+            for (long key : keys) {
+                int i = (int) key;
+                ordered.paint(lines[i], hits[i], branchCoverages[i], branchTotals[i]);
+            }
+            replaceWith(ordered);
+        }
+
+        /**
+         * Removes the unused capacity of the arrays.
+         */
+        void trimToSize() {
+            if (lines.length > size) {
+                lines = Arrays.copyOf(lines, size);
+                hits = Arrays.copyOf(hits, size);
+                branchTotals = Arrays.copyOf(branchTotals, size);
+                branchCoverages = Arrays.copyOf(branchCoverages, size);
+            }
+        }
+
+        private void replaceWith(final PaintedLines other) {
+            lines = other.lines;
+            hits = other.hits;
+            branchTotals = other.branchTotals;
+            branchCoverages = other.branchCoverages;
+            size = other.size;
+            sorted = other.sorted;
+        }
     }
 }
@@ -0,0 +1,171 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * A file based store for the lines of {@link CoveragePaint} instances. Paints that have been spilled to the store keep
+ * only the position of their lines in the file and read the lines again when they are required. The file is created
+ * in the specified directory when the first paint is spilled and needs to be removed with {@link #delete()} when the
+ * spilled paints are not used anymore.
+ */
+public class CoveragePaintStore {
+    private final File directory;
+    @CheckForNull
+    private volatile File file;
+    @CheckForNull
+    private FileChannel output;
+    private long size;
+
+    /**
+     * Creates a new store.
+     *
+     * @param directory
+     *         the directory that will contain the file of the store, e.g. the directory of the build
+     */
+    public CoveragePaintStore(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Spills the lines of all paints of the specified result and its children to this store.
+     *
+     * @param result
+     *         the result to spill
+     *
+     * @return the number of spilled lines
+     * @throws IOException
+     *         if the lines can't be written
+     */
+    public synchronized long spill(final CoverageResult result) throws IOException {
+        try (FileChannel channel = openOutput()) {
+            output = channel;
+            return spillLines(result);
+        }
+        finally {
+            output = null;
+        }
+    }
+
+    private long spillLines(final CoverageResult result) throws IOException {
+        long spilledLines = 0;
+        if (result.hasOwnPaint()) {
+            spilledLines += result.getPaint().spill(this);
+        }
+        for (CoverageResult child : result.getChildrenReal().values()) {
+            spilledLines += spillLines(child);
+        }
+        return spilledLines;
+    }
+
+    /**
+     * Appends the specified values to the file of this store.
+     *
+     * @param values
+     *         the values to write
+     *
+     * @return the offset of the values in the file
+     * @throws IOException
+     *         if the values can't be written
+     */
+    synchronized long write(final int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES);
+        buffer.asIntBuffer().put(values);
+        if (output == null) {
+            try (FileChannel channel = openOutput()) {
+                write(channel, buffer);
+            }
+        }
+        else {
+            write(output, buffer);
+        }
+
+        long offset = size;
+        size += (long) values.length * Integer.BYTES;
+        return offset;
+    }
+
+    private FileChannel openOutput() throws IOException {
+        if (file == null) {
+            file = Files.createTempFile(directory.toPath(), "coverage-paints", ".bin").toFile();
+        }
+        return FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads values that have been written with {@link #write(int[])}.
+     *
+     * @param offset
+     *         the offset of the values
+     * @param length
+     *         the number of values
+     *
+     * @return the values
+     * @throws IOException
+     *         if the values can't be read
+     */
+    int[] read(final long offset, final int length) throws IOException {
+        File storeFile = getFile();
+        ByteBuffer buffer = ByteBuffer.allocate(length * Integer.BYTES);
+        try (FileChannel channel = FileChannel.open(storeFile.toPath(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of coverage paint store " + storeFile);
+                }
+            }
+        }
+        buffer.flip();
+
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Returns the file of this store.
+     *
+     * @return the file, or the directory of the store if no paint has been spilled yet
+     */
+    public File getFile() {
+        File storeFile = file;
+        return storeFile == null ? directory : storeFile;
+    }
+
+    /**
+     * Deletes the file of this store. The lines of the paints that have been spilled to this store cannot be read
+     * afterwards.
+     *
+     * @throws IOException
+     *         if the file can't be deleted
+     */
+    public synchronized void delete() throws IOException {
+        File storeFile = file;
+        if (storeFile != null) {
+            file = null;
+            size = 0;
+            Files.deleteIfExists(storeFile.toPath());
+        }
+    }
+
+    /**
+     * Returns the number of bytes that have been written to this store.
+     *
+     * @return the size of the store
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,228 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The coverage ratios of a {@link CoverageResult}. The ratios are stored in arrays that are indexed by the ordinal of
+ * the elements, see {@link CoverageElement#getOrdinal()}, so a result needs no entry object per element. The arrays
+ * are only as long as the largest ordinal that has been put into the map.
+ *
+ * <p>
+ * Like the tree maps that have been used before, the entries are sorted by the order of the elements, and elements
+ * with the same order are treated as the same key: the element that has been put first is kept.
+ * </p>
+ */
+final class CoverageRatios extends AbstractMap<CoverageElement, Ratio> implements Serializable {
+    private static final long serialVersionUID = -3189471307531586373L;
+
+    private static final CoverageElement[] NO_ELEMENTS = new CoverageElement[0];
+    private static final Ratio[] NO_RATIOS = new Ratio[0];
+    private static final int[] NO_ORDINALS = new int[0];
+
+    private transient CoverageElement[] elements = NO_ELEMENTS;
+    private transient Ratio[] ratios = NO_RATIOS;
+    /** The ordinals of the elements in the map, sorted by the order of the elements. */
+    private transient int[] sortedOrdinals = NO_ORDINALS;
+    private transient int size;
+
+    /**
+     * Creates an empty map.
+     */
+    CoverageRatios() {
+        super();
+    }
+
+    /**
+     * Creates a map with the ratios of the specified map.
+     *
+     * @param ratios
+     *         the ratios to copy
+     */
+    CoverageRatios(final Map<CoverageElement, Ratio> ratios) {
+        super();
+
+        putAll(ratios);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Ratio get(final Object key) {
+        int ordinal = indexOf(key);
+        return ordinal < 0 ? null : ratios[ordinal];
+    }
+
+    @Override
+    public Ratio put(final CoverageElement element, final Ratio ratio) {
+        int existing = indexOf(element);
+        if (existing >= 0) {
+            Ratio previous = ratios[existing];
+            ratios[existing] = ratio;
+            return previous;
+        }
+
+        int ordinal = element.getOrdinal();
+        ensureCapacity(ordinal);
+        elements[ordinal] = element;
+        ratios[ordinal] = ratio;
+
+        int position = size;
+        while (position > 0 && elements[sortedOrdinals[position - 1]].compareTo(element) > 0) {
+            sortedOrdinals[position] = sortedOrdinals[position - 1];
+            position--;
+        }
+        sortedOrdinals[position] = ordinal;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Ratio remove(final Object key) {
+        int ordinal = indexOf(key);
+        if (ordinal < 0) {
+            return null;
+        }
+
+        Ratio previous = ratios[ordinal];
+        elements[ordinal] = null;
+        ratios[ordinal] = null;
+
+        int position = 0;
+        while (sortedOrdinals[position] != ordinal) {
+            position++;
+        }
+        System.arraycopy(sortedOrdinals, position + 1, sortedOrdinals, position, size - position - 1);
+        size--;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        Arrays.fill(ratios, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<CoverageElement, Ratio>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Returns the ordinal of the element in this map that is the same key as the specified element.
+     *
+     * @param key
+     *         the element to look up
+     *
+     * @return the ordinal of the element in this map, or -1 if there is no such element
+     */
+    private int indexOf(final Object key) {
+        if (!(key instanceof CoverageElement)) {
+            return -1;
+        }
+        CoverageElement element = (CoverageElement) key;
+        int ordinal = element.getOrdinal();
+        if (ordinal < elements.length && elements[ordinal] != null) {
+            return ordinal;
+        }
+        for (int position = 0; position < size; position++) {
+            int comparison = elements[sortedOrdinals[position]].compareTo(element);
+            if (comparison == 0) {
+                return sortedOrdinals[position];
+            }
+            if (comparison > 0) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureCapacity(final int ordinal) {
+        if (ordinal >= elements.length) {
+            elements = Arrays.copyOf(elements, ordinal + 1);
+            ratios = Arrays.copyOf(ratios, ordinal + 1);
+            sortedOrdinals = Arrays.copyOf(sortedOrdinals, ordinal + 1);
+        }
+    }
+
+    private void writeObject(final ObjectOutputStream output) throws IOException {
+        output.defaultWriteObject();
+        output.writeInt(size);
+        for (int position = 0; position < size; position++) {
+            output.writeObject(elements[sortedOrdinals[position]]);
+            output.writeObject(ratios[sortedOrdinals[position]]);
+        }
+    }
+
+    private void readObject(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+        elements = NO_ELEMENTS;
+        ratios = NO_RATIOS;
+        sortedOrdinals = NO_ORDINALS;
+
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            put((CoverageElement) input.readObject(), (Ratio) input.readObject());
+        }
+    }
+
+    /**
+     * The entries of the map in the order of the elements.
+     */
+    private class EntrySet extends AbstractSet<Entry<CoverageElement, Ratio>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Entry<CoverageElement, Ratio>> iterator() {
+            return new Iterator<Entry<CoverageElement, Ratio>>() {
+                private int position;
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return position < size;
+                }
+
+                @Override
+                public Entry<CoverageElement, Ratio> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    last = sortedOrdinals[position++];
+                    return new SimpleImmutableEntry<>(elements[last], ratios[last]);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    CoverageRatios.this.remove(elements[last]);
+                    position--;
+                    last = -1;
+                }
+            };
+        }
+    }
+}
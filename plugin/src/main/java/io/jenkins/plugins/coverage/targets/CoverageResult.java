@@ -23,6 +23,7 @@ package io.jenkins.plugins.coverage.targets;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -39,7 +40,6 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -98,15 +98,23 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
 
     private final Map<String, CoverageResult> children = new TreeMap<>();
 
-    // FIXME: storing different maps does not make much sense?
-    private final Map<CoverageElement, Ratio> aggregateResults = new TreeMap<>();
+    /**
+     * The results of this result and its children. Computed lazily from the children, see {@link
+     * #getAggregateResults()}.
+     */
+    private Map<CoverageElement, Ratio> aggregateResults = new CoverageRatios();
 
-    private final Map<CoverageElement, Ratio> localResults = new TreeMap<>();
+    /**
+     * The results that override the results aggregated from the children. Builds of previous releases have stored the
+     * results in tree maps, see {@link #readObject(ObjectInputStream)}.
+     */
+    private Map<CoverageElement, Ratio> localResults = new CoverageRatios();
 
     private final Map<CoverageElement, Float> deltaResults = new TreeMap<>();
 
     /**
-     * Line-by-line coverage information. Computed lazily, since it's memory intensive.
+     * Line-by-line coverage information of the source file of this result. The results below a source file share the
+     * paint of the file, so the lines of a file are stored only once.
      */
     private CoveragePaint paint;
 
@@ -116,16 +124,29 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
 
     public transient Run<?, ?> owner = null;
 
+    /**
+     * Index of the results of this tree, only the root of a tree has an index. Created lazily and dropped when the tree
+     * is modified.
+     */
+    @CheckForNull
+    private transient volatile CoverageResultIndex index;
+
+    /**
+     * Whether {@link #aggregateResults} are up-to-date with the children and the local results of this result. If a
+     * result is not aggregated, then none of its parents is aggregated.
+     */
+    private transient volatile boolean aggregated;
+
     public CoverageResult(final CoverageElement elementType, final CoverageResult parent, final String name) {
         this.element = elementType;
         this.parent = parent;
         this.name = name;
         this.relativeSourcePath = null;
         if (this.parent != null) {
-            if (parent.getPaint() != null) {
-                this.paint = new CoveragePaint(element);
-            }
+            this.paint = parent.getPaint();
             this.parent.children.put(name, this);
+            this.parent.invalidateIndex();
+            this.parent.invalidateAggregatedResults();
         }
     }
 
@@ -140,6 +161,8 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
             if (group.getElement().getName().equals("Group")) {
                 children.clear();
                 children.putAll(group.children);
+                invalidateIndex();
+                invalidateAggregatedResults();
             }
 
         }
@@ -208,8 +231,42 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
         return StringUtils.isNotBlank(referenceBuildUrl);
     }
 
+    /**
+     * Returns the local results of this result, i.e. the results that override the results aggregated from the
+     * children. Use {@link #putLocalResult(CoverageElement, Ratio)} or {@link #updateCoverage(CoverageElement, Ratio)}
+     * to modify them.
+     *
+     * @return an unmodifiable view of the local results
+     */
     public Map<CoverageElement, Ratio> getLocalResults() {
-        return localResults;
+        return Collections.unmodifiableMap(localResults);
+    }
+
+    /**
+     * Replaces the local result for the specified element. In contrast to {@link #updateCoverage(CoverageElement,
+     * Ratio)} an existing result is not combined with the new one. The aggregated results of this result and its
+     * parents are computed again on the next access.
+     *
+     * @param coverageElement
+     *         the element of the result
+     * @param result
+     *         the new result
+     */
+    public void putLocalResult(final CoverageElement coverageElement, final Ratio result) {
+        localResults.put(coverageElement, result);
+        invalidateAggregatedResults();
+    }
+
+    /**
+     * Removes the local result for the specified element, so that the result is aggregated from the children again.
+     *
+     * @param coverageElement
+     *         the element of the result
+     */
+    public void removeLocalResult(final CoverageElement coverageElement) {
+        if (localResults.remove(coverageElement) != null) {
+            invalidateAggregatedResults();
+        }
     }
 
     /**
@@ -292,19 +349,58 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
      */
     public Optional<CoverageResult> find(final String element, final String name) {
         int hashCode = Integer.parseInt(name);
-        for (String key : children.keySet()) {
-            if (key.hashCode() == hashCode) {
-                CoverageResult childResult = children.get(key);
-                if (childResult.getElement().getName().equalsIgnoreCase(element)) {
-                    return Optional.of(childResult);
-                }
+        for (CoverageResult result : getIndex().find(element, hashCode)) {
+            if (result.isDescendantOf(this)) {
+                return Optional.of(result);
             }
         }
-        return children.values()
-                .stream()
-                .map(child -> child.find(element, name))
-                .flatMap(o -> o.map(Stream::of).orElseGet(Stream::empty))
-                .findAny();
+        return Optional.empty();
+    }
+
+    private boolean isDescendantOf(final CoverageResult ancestor) {
+        for (CoverageResult p = parent; p != null; p = p.parent) {
+            if (p == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index of the tree of this result. The index is created by the root of the tree on the first call.
+     *
+     * @return the index
+     */
+    private CoverageResultIndex getIndex() {
+        CoverageResult root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        CoverageResultIndex rootIndex = root.index;
+        if (rootIndex == null) {
+            rootIndex = new CoverageResultIndex(root);
+            root.index = rootIndex;
+        }
+        return rootIndex;
+    }
+
+    /**
+     * Drops the index of the tree of this result, must be called whenever the children of a result are modified.
+     */
+    private void invalidateIndex() {
+        for (CoverageResult result = this; result != null; result = result.parent) {
+            result.index = null;
+        }
+    }
+
+    /**
+     * Marks the aggregated results of this result and its parents as outdated, must be called whenever the children
+     * or the local results of a result are modified.
+     */
+    private void invalidateAggregatedResults() {
+        for (CoverageResult result = this; result != null && result.aggregated; result = result.parent) {
+            result.aggregated = false;
+        }
     }
 
     /**
@@ -316,8 +412,9 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
      * @return coverage ratio if available
      */
     public Optional<Ratio> getCoverageFor(final CoverageElement coverageElement) {
-        if (aggregateResults.containsKey(coverageElement)) {
-            return Optional.ofNullable(aggregateResults.get(coverageElement));
+        Map<CoverageElement, Ratio> results = getAggregateResults();
+        if (results.containsKey(coverageElement)) {
+            return Optional.ofNullable(results.get(coverageElement));
         }
         if (localResults.containsKey(coverageElement)) {
             return Optional.ofNullable(localResults.get(coverageElement));
@@ -334,8 +431,9 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
      * @return coverage ratio in a human-readable format
      */
     public String printCoverageFor(final CoverageElement coverageElement) {
-        if (aggregateResults.containsKey(coverageElement)) {
-            return String.format("%.2f%%", aggregateResults.get(coverageElement).getPercentageFloat());
+        Map<CoverageElement, Ratio> results = getAggregateResults();
+        if (results.containsKey(coverageElement)) {
+            return String.format("%.2f%%", results.get(coverageElement).getPercentageFloat());
         }
         if (localResults.containsKey(coverageElement)) {
             return String.format("%.2f%%", localResults.get(coverageElement).getPercentageFloat());
@@ -353,7 +451,7 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
         this.relativeSourcePath = relativeSourcePath;
 
         if (!StringUtils.isEmpty(relativeSourcePath)) {
-            paint = new CoveragePaint(element);
+            setPaint(new CoveragePaint(element));
         }
     }
 
@@ -385,6 +483,47 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
         return paint;
     }
 
+    /**
+     * Replaces the paint of this result. Children that share the paint of this result will share the new paint.
+     *
+     * @param paint
+     *         the new paint
+     */
+    void setPaint(@CheckForNull final CoveragePaint paint) {
+        CoveragePaint sharedPaint = this.paint;
+        this.paint = paint;
+        if (sharedPaint != null) {
+            for (CoverageResult child : children.values()) {
+                if (child.paint == sharedPaint) {
+                    child.setPaint(paint);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether this result has a paint of its own, i.e. a paint that is not shared with its parent.
+     *
+     * @return {@code true} if this result owns its paint, {@code false} if it has no paint or shares the paint of its
+     *         parent
+     */
+    boolean hasOwnPaint() {
+        return paint != null && (parent == null || parent.paint != paint);
+    }
+
+    /**
+     * Removes the unused capacity of the paints of this result and its children, e.g. when all lines of a report have
+     * been painted.
+     */
+    public void trimToSize() {
+        if (hasOwnPaint()) {
+            paint.trimToSize();
+        }
+        for (CoverageResult child : children.values()) {
+            child.trimToSize();
+        }
+    }
+
     public void paint(final int line, final int hits) {
         if (paint != null) {
             paint.paint(line, hits);
@@ -566,7 +705,20 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
     }
 
     public Map<CoverageElement, Ratio> getResults() {
-        return Collections.unmodifiableMap(aggregateResults);
+        return Collections.unmodifiableMap(getAggregateResults());
+    }
+
+    /**
+     * Returns the aggregated results of this result. The results are computed on the first call after this result or
+     * one of its children has been modified, so each result is aggregated only once.
+     *
+     * @return the aggregated results
+     */
+    private Map<CoverageElement, Ratio> getAggregateResults() {
+        if (!aggregated) {
+            updateAggregatedResults();
+        }
+        return aggregateResults;
     }
 
     public Map<CoverageElement, Float> getDeltaResults() {
@@ -585,7 +737,7 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
      */
     @Exported(name = "results")
     public CoverageTree getResultsAPI() {
-        return new CoverageTree(name, aggregateResults, children);
+        return new CoverageTree(name, getAggregateResults(), children);
     }
 
     public List<CoverageTrend> getCoverageTrends() {
@@ -643,13 +795,28 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
         return children.get(name);
     }
 
+    /**
+     * Removes the specified child from this result. The child and its children are not modified.
+     *
+     * @param child
+     *         the child to remove
+     */
+    public void removeChild(final CoverageResult child) {
+        if (children.get(child.name) == child) {
+            children.remove(child.name);
+            child.parent = null;
+            invalidateIndex();
+            invalidateAggregatedResults();
+        }
+    }
+
     public Ratio getCoverage(final CoverageElement element) {
-        return aggregateResults.getOrDefault(element, Ratio.NULL);
+        return getAggregateResults().getOrDefault(element, Ratio.NULL);
     }
 
     public Set<CoverageElement> getElements() {
-        return Collections.unmodifiableSet(
-                aggregateResults.isEmpty() ? Collections.emptySet() : aggregateResults.keySet());
+        Map<CoverageElement, Ratio> results = getAggregateResults();
+        return Collections.unmodifiableSet(results.isEmpty() ? Collections.emptySet() : results.keySet());
     }
 
     public void updateCoverage(final CoverageElement element, final Ratio additionalResult) {
@@ -660,6 +827,7 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
         else {
             localResults.put(element, additionalResult);
         }
+        invalidateAggregatedResults();
     }
 
     /**
@@ -679,37 +847,61 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
      */
     public void setOwner(final Run<?, ?> owner) {
         this.owner = owner;
-        aggregateResults.clear();
         for (CoverageResult child : children.values()) {
             child.setOwner(owner);
-            if (paint != null && child.paint != null) {
-                paint.add(child.paint);
-            }
-            for (Map.Entry<CoverageElement, Ratio> childResult : child.aggregateResults.entrySet()) {
-                aggregateResults.putAll(CoverageAggregationRule.aggregate(child.getElement(),
-                        childResult.getKey(), childResult.getValue(), aggregateResults));
-            }
+        }
+    }
 
-            Ratio prevTotal = aggregateResults.get(child.getElement());
-            if (prevTotal == null) {
-                prevTotal = Ratio.create(0, 0);
+    /**
+     * Recomputes the aggregated results of this node from the aggregated results of its children. Children that have
+     * been modified since their last aggregation are aggregated first. Usually there is no need to call this method,
+     * since the aggregated results are computed on demand.
+     */
+    public synchronized void updateAggregatedResults() {
+        RatioSums sums = new RatioSums();
+        for (CoverageResult child : children.values()) {
+            boolean isChildCovered = false;
+            for (Map.Entry<CoverageElement, Ratio> childResult : child.getAggregateResults().entrySet()) {
+                Ratio ratio = childResult.getValue();
+                sums.add(childResult.getKey(), ratio.numerator, ratio.denominator);
+                isChildCovered |= ratio.numerator > 0;
             }
-
-            boolean isChildCovered = child.aggregateResults.entrySet().stream().anyMatch(coverageElementRatioEntry ->
-                    coverageElementRatioEntry.getValue().numerator > 0);
-
-            aggregateResults.put(child.getElement(),
-                    Ratio.create(prevTotal.numerator + (isChildCovered ? 1 : 0), prevTotal.denominator + 1));
+            sums.add(child.getElement(), isChildCovered ? 1 : 0, 1);
         }
 
+        Map<CoverageElement, Ratio> results = new CoverageRatios();
+        sums.putInto(results);
+
         // override any local results
-        aggregateResults.putAll(localResults);
+        results.putAll(localResults);
+        aggregateResults = results;
+        aggregated = true;
+    }
+
+    private void readObject(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+
+        if (!(localResults instanceof CoverageRatios)) {
+            localResults = new CoverageRatios(localResults);
+        }
+        aggregateResults = new CoverageRatios();
     }
 
     public void setOwner(final AbstractBuild<?, ?> owner) {
         setOwner((Run<?, ?>) owner);
     }
 
+    /**
+     * Merges the specified result into this result. Only the aggregated results of the nodes that received new children
+     * are computed again, so merging a small result into a large tree does not require to aggregate the whole tree
+     * again.
+     *
+     * @param another
+     *         the result to merge
+     *
+     * @throws CoverageException
+     *         if the elements of the results do not match
+     */
     public void merge(final CoverageResult another) throws CoverageException {
         if (!element.equals(another.element)) {
             throw new CoverageException(
@@ -717,6 +909,13 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
                             another.getElement().getName()));
         }
 
+        CoveragePaint anotherPaint = another.paint;
+        if (paint != null && anotherPaint != null && paint != anotherPaint && another.hasOwnPaint()) {
+            // add the lines only once, the children of the other result share them
+            paint.add(anotherPaint);
+            another.setPaint(paint);
+        }
+
         for (Map.Entry<String, CoverageResult> childBeMerged : another.getChildrenReal().entrySet()) {
             if (getChild(childBeMerged.getKey()) == null) {
                 childBeMerged.getValue().resetParent(this);
@@ -725,7 +924,6 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
                 getChild(childBeMerged.getKey()).merge(childBeMerged.getValue());
             }
         }
-
     }
 
     public String getTag() {
@@ -773,12 +971,7 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
             }
         }
 
-        for (String name : children.keySet()) {
-            if (urlTransform(name).toLowerCase().equals(token)) {
-                return getChild(name);
-            }
-        }
-        return null;
+        return getIndex().getChild(this, token);
     }
 
     /**
@@ -803,23 +996,44 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
     }
 
     /**
-     * add parent for CoverageResult(Only effect when parent is null)
+     * add parent for CoverageResult(Only effect when parent is null). If the parent has a paint and this result has no
+     * source file of its own, then the lines of this result are added to the paint of the parent, which is shared with
+     * this result from now on.
      *
      * @param p
      *         parent
      */
     public void addParent(final CoverageResult p) {
+        addParent(p, true);
+    }
+
+    /**
+     * Adds the parent, the lines of this result are added to the paint of the parent only if this result owns its
+     * paint. Otherwise, the lines belong to the previous parent and would be added once per child.
+     */
+    private void addParent(final CoverageResult p, final boolean isPaintOwned) {
         if (parent == null) {
             parent = p;
             if (this.parent != null) {
+                CoveragePaint parentPaint = parent.paint;
+                if (parentPaint != null && paint != parentPaint && relativeSourcePath == null) {
+                    if (paint != null && isPaintOwned) {
+                        parentPaint.add(paint);
+                    }
+                    setPaint(parentPaint);
+                }
                 this.parent.children.put(name, this);
+                this.parent.invalidateIndex();
+                this.parent.invalidateAggregatedResults();
+                index = null;
             }
         }
     }
 
     public void resetParent(final CoverageResult p) {
+        boolean isPaintOwned = hasOwnPaint();
         parent = null;
-        addParent(p);
+        addParent(p, isPaintOwned);
     }
 
     public void addAdditionalProperty(final String propertyName, final String value) {
@@ -831,6 +1045,10 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
         return additionalProperties.get(propertyName);
     }
 
+    Map<String, Set<String>> getAdditionalProperties() {
+        return Collections.unmodifiableMap(additionalProperties);
+    }
+
     /**
      * Interface for javascript code to get code coverage result.
      *
@@ -840,7 +1058,7 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
     public List<CoverageStatistics> jsGetResults() {
         List<CoverageStatistics> results = new LinkedList<>();
 
-        for (Map.Entry<CoverageElement, Ratio> c : aggregateResults.entrySet()) {
+        for (Map.Entry<CoverageElement, Ratio> c : getAggregateResults().entrySet()) {
             results.add(new CoverageStatistics(c.getKey().getName(), c.getValue()));
         }
 
@@ -929,4 +1147,38 @@ public class CoverageResult implements Serializable, Chartable, ModelObject {
             this.ratio = ratio;
         }
     }
+
+    /**
+     * Sums up ratios of several elements in arrays that are indexed by the ordinal of the elements.
+     */
+    private static class RatioSums {
+        private final CoverageElement[] elements = new CoverageElement[CoverageElement.getOrdinalCount()];
+        private final long[] numerators = new long[elements.length];
+        private final long[] denominators = new long[elements.length];
+        private final int[] ordinals = new int[elements.length];
+        private int size;
+
+        void add(final CoverageElement element, final long numerator, final long denominator) {
+            int ordinal = element.getOrdinal();
+            if (elements[ordinal] == null) {
+                elements[ordinal] = element;
+                ordinals[size++] = ordinal;
+            }
+            numerators[ordinal] += numerator;
+            denominators[ordinal] += denominator;
+        }
+
+        /**
+         * Puts the sums into the specified map in the order the elements have been added. Elements that are equal
+         * with respect to their order in the map are combined.
+         */
+        void putInto(final Map<CoverageElement, Ratio> results) {
+            for (int i = 0; i < size; i++) {
+                int ordinal = ordinals[i];
+                CoverageElement element = elements[ordinal];
+                results.merge(element, Ratio.create(numerators[ordinal], denominators[ordinal]),
+                        (existing, additional) -> CoverageAggregationRule.combine(element, existing, additional));
+            }
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of the results of a coverage tree. The index is created by the root of the tree when a result is looked up for
+ * the first time and is dropped as soon as the tree is modified. It maps
+ * <ul>
+ *     <li>the element and the hash code of the name of a result to the result, see
+ *     {@link CoverageResult#find(String, String)}</li>
+ *     <li>the URL-safe names of the children of a result to the children, see
+ *     {@link CoverageResult#getDynamic(String, org.kohsuke.stapler.StaplerRequest,
+ *     org.kohsuke.stapler.StaplerResponse)}</li>
+ * </ul>
+ *
+ * <p>
+ * The results are indexed in the order they have been searched by the recursive lookups before: for each result
+ * first all children in the order of their names, then the descendants of each child.
+ * </p>
+ */
+class CoverageResultIndex {
+    private final Map<String, List<CoverageResult>> resultsByElementAndHashCode = new HashMap<>();
+    private final Map<CoverageResult, Map<String, CoverageResult>> childrenByUrlName = new IdentityHashMap<>();
+
+    /**
+     * Creates an index of all results below the specified root.
+     *
+     * @param root
+     *         the root of the tree
+     */
+    CoverageResultIndex(final CoverageResult root) {
+        index(root);
+    }
+
+    private void index(final CoverageResult result) {
+        Map<String, CoverageResult> children = result.getChildrenReal();
+        if (children.isEmpty()) {
+            return;
+        }
+
+        Map<String, CoverageResult> byUrlName = new HashMap<>();
+        for (Map.Entry<String, CoverageResult> child : children.entrySet()) {
+            byUrlName.putIfAbsent(toUrlName(result, child.getKey()), child.getValue());
+            resultsByElementAndHashCode.computeIfAbsent(
+                    createKey(child.getValue().getElement().getName(), child.getKey().hashCode()),
+                    key -> new ArrayList<>(1)).add(child.getValue());
+        }
+        childrenByUrlName.put(result, byUrlName);
+
+        for (CoverageResult child : children.values()) {
+            index(child);
+        }
+    }
+
+    private static String toUrlName(final CoverageResult parent, final String name) {
+        return parent.urlTransform(name).toLowerCase();
+    }
+
+    private static String createKey(final String element, final int hashCode) {
+        return element.toLowerCase(Locale.ENGLISH) + '#' + hashCode;
+    }
+
+    /**
+     * Returns the results with the specified element and name hash code, in the order of the recursive search.
+     *
+     * @param element
+     *         the name of the element, case is ignored
+     * @param hashCode
+     *         the hash code of the name of the result
+     *
+     * @return the matching results
+     */
+    List<CoverageResult> find(final String element, final int hashCode) {
+        return resultsByElementAndHashCode.getOrDefault(createKey(element, hashCode), Collections.emptyList());
+    }
+
+    /**
+     * Returns the child of the specified result with the specified URL-safe name.
+     *
+     * @param parent
+     *         the parent of the child
+     * @param urlName
+     *         the name of the child, transformed with {@link CoverageResult#urlTransform(String)} and in lower case
+     *
+     * @return the child, or {@code null} if there is no such child
+     */
+    CoverageResult getChild(final CoverageResult parent, final String urlName) {
+        return childrenByUrlName.getOrDefault(parent, Collections.emptyMap()).get(urlName);
+    }
+}
@@ -0,0 +1,273 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import io.jenkins.plugins.coverage.exception.CoverageException;
+
+/**
+ * Merges several reports of the same sources into a single report, e.g. the reports of test shards that have been run
+ * in parallel. Results with the same name are merged recursively, results that exist in only one of the reports are
+ * moved to the merged report, just like {@link CoverageResult#merge(CoverageResult)} does.
+ *
+ * <p>
+ * In contrast to {@link CoverageResult#merge(CoverageResult)}, the line coverage of results that exist in several
+ * reports is combined: a line is covered if it has been covered by one of the reports and a branch is covered if it
+ * has been covered by one of the reports. Since the reports contain the number of covered branches per line only, the
+ * covered branches of a line are the maximum of the covered branches of the reports. The lines of all reports are
+ * collected in primitive arrays and are written to the {@link CoveragePaint} of the results when all reports have been
+ * merged, so the paint is created only once per source file. The aggregated results are not computed: they are
+ * computed on demand when the merged report is accessed.
+ * </p>
+ *
+ * <p>
+ * The line and conditional coverage of a merged source file is computed from its merged lines. Parsers may count lines
+ * and branches that are not painted, e.g. lines without a valid number: the maximum of these unpainted lines and
+ * branches of the reports is added. The results above the source files, e.g. packages, lose their own line and
+ * conditional coverage, so it is aggregated from the merged source files. The results below the source files, e.g.
+ * classes and methods, share the lines of their source file, so the lines of the individual reports cannot be assigned
+ * to them: they take the maximum of the reports, just like all other elements.
+ * </p>
+ */
+public class CoverageResultMerger {
+    private final CoverageResult report;
+    private final Map<CoverageResult, LineUnion> mergedLines = new IdentityHashMap<>();
+
+    /**
+     * Creates a new merger.
+     *
+     * @param report
+     *         the report that will receive the results of all merged reports
+     */
+    public CoverageResultMerger(final CoverageResult report) {
+        this.report = report;
+    }
+
+    /**
+     * Merges the specified report into the merged report.
+     *
+     * @param another
+     *         the report to merge
+     *
+     * @throws CoverageException
+     *         if the elements of the reports do not match
+     */
+    public void merge(final CoverageResult another) throws CoverageException {
+        merge(report, another);
+    }
+
+    private void merge(final CoverageResult target, final CoverageResult another) throws CoverageException {
+        if (!target.getElement().equals(another.getElement())) {
+            throw new CoverageException(
+                    String.format("Unable to merge reports: Unmatched element %s and %s",
+                            target.getElement().getName(), another.getElement().getName()));
+        }
+
+        for (Map.Entry<String, CoverageResult> childToMerge : another.getChildrenReal().entrySet()) {
+            CoverageResult child = target.getChild(childToMerge.getKey());
+            if (child == null) {
+                CoverageResult movedChild = childToMerge.getValue();
+                if (target.getPaint() != null && movedChild.getPaint() == another.getPaint()) {
+                    // the lines of the moved child are part of the merged lines of the target
+                    movedChild.setPaint(target.getPaint());
+                }
+                movedChild.resetParent(target);
+            }
+            else {
+                merge(child, childToMerge.getValue());
+            }
+        }
+
+        if (target != report) {
+            mergeLocalResults(target, another);
+            mergeLines(target, another);
+        }
+    }
+
+    private void mergeLocalResults(final CoverageResult target, final CoverageResult another) {
+        // the line coverage of source files is computed from the merged lines
+        boolean isSourceFile = target.hasOwnPaint();
+        for (Map.Entry<CoverageElement, Ratio> result : another.getLocalResults().entrySet()) {
+            if (!isSourceFile || !isLineCoverage(result.getKey())) {
+                Ratio existing = target.getLocalResults().get(result.getKey());
+                Ratio additional = result.getValue();
+                target.putLocalResult(result.getKey(), existing == null ? additional
+                        : Ratio.create(Math.max(existing.numerator, additional.numerator),
+                                Math.max(existing.denominator, additional.denominator)));
+            }
+        }
+        if (target.getPaint() == null) {
+            // results above the source files aggregate the line coverage of the merged source files
+            target.removeLocalResult(CoverageElement.LINE);
+            target.removeLocalResult(CoverageElement.CONDITIONAL);
+        }
+    }
+
+    private static boolean isLineCoverage(final CoverageElement element) {
+        return element.equals(CoverageElement.LINE) || element.equals(CoverageElement.CONDITIONAL);
+    }
+
+    private void mergeLines(final CoverageResult target, final CoverageResult another) {
+        CoveragePaint paint = another.getPaint();
+        if (target.hasOwnPaint() && paint != null) {
+            mergedLines.computeIfAbsent(target, result -> new LineUnion(result.getPaint(), result.getLocalResults()))
+                    .add(paint, another.getLocalResults());
+        }
+    }
+
+    /**
+     * Writes the merged lines to the results of the merged report and returns the report. The line and conditional
+     * coverage of the results are computed from the merged lines.
+     *
+     * @return the merged report
+     */
+    public CoverageResult finish() {
+        for (Map.Entry<CoverageResult, LineUnion> lines : mergedLines.entrySet()) {
+            CoverageResult result = lines.getKey();
+            LineUnion union = lines.getValue();
+
+            CoveragePaint paint = union.createPaint(result.getElement());
+            result.setPaint(paint);
+            if (union.size > 0) {
+                result.putLocalResult(CoverageElement.LINE, union.unpaintedLines.addTo(paint.getLineCoverage()));
+                Ratio conditional = union.unpaintedBranches.addTo(paint.getConditionalCoverage());
+                if (conditional.denominator > 0) {
+                    result.putLocalResult(CoverageElement.CONDITIONAL, conditional);
+                }
+                else {
+                    result.removeLocalResult(CoverageElement.CONDITIONAL);
+                }
+            }
+        }
+        mergedLines.clear();
+
+        return report;
+    }
+
+    /**
+     * The union of the painted lines of several results. The lines are stored in ascending order in parallel
+     * arrays.
+     */
+    private static final class LineUnion {
+        private int[] lines;
+        private int[] hits;
+        private int[] branchTotals;
+        private int[] branchCoverages;
+        private int size;
+        private int totalLines;
+        private final Unpainted unpaintedLines = new Unpainted();
+        private final Unpainted unpaintedBranches = new Unpainted();
+
+        LineUnion(final CoveragePaint paint, final Map<CoverageElement, Ratio> localResults) {
+            addUnpainted(paint, localResults);
+            int[] painted = sortedLines(paint);
+            size = painted.length;
+            lines = painted;
+            hits = new int[size];
+            branchTotals = new int[size];
+            branchCoverages = new int[size];
+            for (int i = 0; i < size; i++) {
+                hits[i] = paint.getHits(painted[i]);
+                branchTotals[i] = paint.getBranchTotal(painted[i]);
+                branchCoverages[i] = paint.getBranchCoverage(painted[i]);
+            }
+            totalLines = paint.getTotalLines();
+        }
+
+        private static int[] sortedLines(final CoveragePaint paint) {
+            int[] painted = paint.getAllLines();
+            Arrays.sort(painted);
+            return painted;
+        }
+
+        /**
+         * Adds the lines of the specified paint to this union. Lines that are painted in both take the maximum of the
+         * hits, the number of branches and the number of covered branches.
+         *
+         * @param paint
+         *         the paint to add
+         * @param localResults
+         *         the local results of the result that owns the paint
+         */
+        void add(final CoveragePaint paint, final Map<CoverageElement, Ratio> localResults) {
+            addUnpainted(paint, localResults);
+            int[] other = sortedLines(paint);
+
+            int capacity = size + other.length;
+            int[] mergedLines = new int[capacity];
+            int[] mergedHits = new int[capacity];
+            int[] mergedBranchTotals = new int[capacity];
+            int[] mergedBranchCoverages = new int[capacity];
+
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.length) {
+                if (j == other.length || i < size && lines[i] < other[j]) {
+                    mergedLines[count] = lines[i];
+                    mergedHits[count] = hits[i];
+                    mergedBranchTotals[count] = branchTotals[i];
+                    mergedBranchCoverages[count] = branchCoverages[i];
+                    i++;
+                }
+                else {
+                    int line = other[j];
+                    mergedLines[count] = line;
+                    mergedHits[count] = paint.getHits(line);
+                    mergedBranchTotals[count] = paint.getBranchTotal(line);
+                    mergedBranchCoverages[count] = paint.getBranchCoverage(line);
+                    if (i < size && lines[i] == line) {
+                        mergedHits[count] = Math.max(mergedHits[count], hits[i]);
+                        mergedBranchTotals[count] = Math.max(mergedBranchTotals[count], branchTotals[i]);
+                        mergedBranchCoverages[count] = Math.max(mergedBranchCoverages[count], branchCoverages[i]);
+                        i++;
+                    }
+                    j++;
+                }
+                count++;
+            }
+
+            lines = mergedLines;
+            hits = mergedHits;
+            branchTotals = mergedBranchTotals;
+            branchCoverages = mergedBranchCoverages;
+            size = count;
+            totalLines = Math.max(totalLines, paint.getTotalLines());
+        }
+
+        private void addUnpainted(final CoveragePaint paint, final Map<CoverageElement, Ratio> localResults) {
+            unpaintedLines.add(localResults.get(CoverageElement.LINE), paint.getLineCoverage());
+            unpaintedBranches.add(localResults.get(CoverageElement.CONDITIONAL), paint.getConditionalCoverage());
+        }
+
+        CoveragePaint createPaint(final CoverageElement element) {
+            CoveragePaint paint = new CoveragePaint(element);
+            for (int i = 0; i < size; i++) {
+                paint.paint(lines[i], hits[i], branchCoverages[i], branchTotals[i]);
+            }
+            paint.setTotalLines(totalLines);
+            return paint;
+        }
+    }
+
+    /**
+     * The maximum of the lines or branches of several results that are part of the local results, but not of the
+     * paint.
+     */
+    private static final class Unpainted {
+        private long covered;
+        private long total;
+
+        void add(final Ratio localResult, final Ratio painted) {
+            if (localResult != null) {
+                covered = Math.max(covered, localResult.numerator - painted.numerator);
+                total = Math.max(total, localResult.denominator - painted.denominator);
+            }
+        }
+
+        Ratio addTo(final Ratio painted) {
+            return Ratio.create(painted.numerator + Math.min(covered, total), painted.denominator + total);
+        }
+    }
+}
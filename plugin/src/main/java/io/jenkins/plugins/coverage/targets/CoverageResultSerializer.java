@@ -0,0 +1,486 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * Writes and reads a {@link CoverageResult} tree in a compact binary format. The format is used to transfer the
+ * results of reports that have been parsed on an agent to the controller and to store the results of a build in the
+ * build directory. In contrast to the Java serialization of the tree the format contains neither class descriptors
+ * nor the aggregated results, which are computed again on demand when the tree is read.
+ *
+ * <p>
+ * The stream starts with a magic number and the version of the format, followed by the GZIP compressed nodes of the
+ * tree in depth first order. All numbers of the nodes are written as variable length integers, so that small numbers
+ * require a single byte. Strings and coverage elements are written only once: the first occurrence adds the value to
+ * a table, every further occurrence refers to the index in the table. The lines of a paint are written in ascending
+ * order as the distance to the previous line, and only for the result that owns the paint, the results that share the
+ * paint of their parent are marked as such. Coverage elements are stored by name, so all elements of the tree need to
+ * be registered in the {@link CoverageElementRegister} of the reading side.
+ * </p>
+ *
+ * <p>
+ * Since the results of the builds are stored in this format, later releases need to read all versions from
+ * {@value #FIRST_STORED_VERSION} up to the current version: if the format is changed, the version is incremented, the
+ * reader of the previous version is kept, and {@link #read(InputStream, NamePool)} selects the reader for the version
+ * of the stream.
+ * </p>
+ */
+public final class CoverageResultSerializer {
+    private static final int MAGIC = 0x43565253; // "CVRS"
+    private static final int VERSION = 1;
+    private static final int FIRST_STORED_VERSION = 1;
+
+    private static final int NULL_VALUE = 0;
+    private static final int NO_PAINT = 0;
+    private static final int OWN_PAINT = 1;
+    private static final int SHARED_PAINT = 2;
+
+    private CoverageResultSerializer() {
+        // prevents instantiation
+    }
+
+    /**
+     * Writes the specified coverage result and all of its children to a byte array.
+     *
+     * @param result
+     *         the result to write
+     *
+     * @return the serialized form of the result
+     * @throws IOException
+     *         if the result cannot be written
+     */
+    public static byte[] serialize(final CoverageResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(result, bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a coverage result that has been written with {@link #serialize(CoverageResult)}.
+     *
+     * @param bytes
+     *         the serialized form of the result
+     *
+     * @return the coverage result
+     * @throws IOException
+     *         if the result cannot be read
+     */
+    public static CoverageResult deserialize(final byte[] bytes) throws IOException {
+        return deserialize(bytes, new NamePool());
+    }
+
+    /**
+     * Reads a coverage result that has been written with {@link #serialize(CoverageResult)}. The names and paths of the
+     * result are taken from the specified pool.
+     *
+     * @param bytes
+     *         the serialized form of the result
+     * @param namePool
+     *         the pool for the names and paths of the build
+     *
+     * @return the coverage result
+     * @throws IOException
+     *         if the result cannot be read
+     */
+    public static CoverageResult deserialize(final byte[] bytes, final NamePool namePool) throws IOException {
+        return read(new ByteArrayInputStream(bytes), namePool);
+    }
+
+    /**
+     * Returns whether the specified stream starts with a coverage result in the format of this serializer. The stream
+     * must support {@link InputStream#mark(int)}, its position is not changed.
+     *
+     * @param stream
+     *         the stream to check
+     *
+     * @return {@code true} if the stream contains a result in the format of this serializer, {@code false} if it
+     *         contains something else, e.g. a Java serialized result of older releases
+     * @throws IOException
+     *         if the stream cannot be read
+     */
+    public static boolean isSerializedResult(final InputStream stream) throws IOException {
+        stream.mark(Integer.BYTES);
+        try {
+            return new DataInputStream(stream).readInt() == MAGIC;
+        }
+        catch (EOFException exception) {
+            return false;
+        }
+        finally {
+            stream.reset();
+        }
+    }
+
+    /**
+     * Writes the specified coverage result and all of its children to the specified stream. The stream will not be
+     * closed.
+     *
+     * @param result
+     *         the result to write
+     * @param stream
+     *         the stream to write to
+     *
+     * @throws IOException
+     *         if the result cannot be written
+     */
+    public static void write(final CoverageResult result, final OutputStream stream) throws IOException {
+        DataOutputStream header = new DataOutputStream(stream);
+        header.writeInt(MAGIC);
+        header.writeShort(VERSION);
+        header.flush();
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new CloseShieldOutputStream(stream))))) {
+            new Writer(output).writeNode(result);
+        }
+    }
+
+    /**
+     * Reads a coverage result that has been written with {@link #write(CoverageResult, OutputStream)}. The stream will
+     * not be closed.
+     *
+     * @param stream
+     *         the stream to read from
+     *
+     * @return the coverage result
+     * @throws IOException
+     *         if the result cannot be read
+     */
+    public static CoverageResult read(final InputStream stream) throws IOException {
+        return read(stream, new NamePool());
+    }
+
+    /**
+     * Reads a coverage result that has been written with {@link #write(CoverageResult, OutputStream)}. The names and
+     * paths of the result are taken from the specified pool. The stream will not be closed.
+     *
+     * @param stream
+     *         the stream to read from
+     * @param namePool
+     *         the pool for the names and paths of the build
+     *
+     * @return the coverage result
+     * @throws IOException
+     *         if the result cannot be read
+     */
+    public static CoverageResult read(final InputStream stream, final NamePool namePool) throws IOException {
+        DataInputStream header = new DataInputStream(stream);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Unable to read coverage result: unknown format");
+        }
+        int version = header.readUnsignedShort();
+        switch (version) {
+            case FIRST_STORED_VERSION:
+                try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                        new GZIPInputStream(new CloseShieldInputStream(stream))))) {
+                    return new Reader(input, namePool).readNode(null);
+                }
+            default:
+                throw new IOException(String.format(
+                        "Unable to read coverage result: unsupported version %d, supported versions are %d to %d",
+                        version, FIRST_STORED_VERSION, VERSION));
+        }
+    }
+
+    /**
+     * Writes the nodes of a tree and keeps the tables of the strings and elements that have been written already.
+     */
+    private static final class Writer {
+        private final DataOutputStream output;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<CoverageElement, Integer> elements = new HashMap<>();
+
+        Writer(final DataOutputStream output) {
+            this.output = output;
+        }
+
+        void writeNode(final CoverageResult result) throws IOException {
+            writeElement(result.getElement());
+            writeString(result.getName());
+            writeString(result.getRelativeSourcePath());
+            writeString(result.getTag());
+            writeString(result.getReferenceBuildUrl());
+            output.writeFloat(result.getChangeRequestCoverageDiffWithTargetBranch());
+
+            Map<CoverageElement, Ratio> localResults = result.getLocalResults();
+            writeVarLong(localResults.size());
+            for (Map.Entry<CoverageElement, Ratio> entry : localResults.entrySet()) {
+                writeElement(entry.getKey());
+                writeVarLong(entry.getValue().numerator);
+                writeVarLong(entry.getValue().denominator);
+            }
+
+            Map<CoverageElement, Float> deltaResults = result.getDeltaResults();
+            writeVarLong(deltaResults.size());
+            for (Map.Entry<CoverageElement, Float> entry : deltaResults.entrySet()) {
+                writeElement(entry.getKey());
+                output.writeFloat(entry.getValue());
+            }
+
+            Map<String, Set<String>> properties = result.getAdditionalProperties();
+            writeVarLong(properties.size());
+            for (Map.Entry<String, Set<String>> entry : properties.entrySet()) {
+                writeString(entry.getKey());
+                writeVarLong(entry.getValue().size());
+                for (String value : entry.getValue()) {
+                    writeString(value);
+                }
+            }
+
+            writePaint(result);
+
+            writeVarLong(result.getChildrenReal().size());
+            for (CoverageResult child : result.getChildrenReal().values()) {
+                writeNode(child);
+            }
+        }
+
+        private void writePaint(final CoverageResult result) throws IOException {
+            CoveragePaint paint = result.getPaint();
+            if (paint == null) {
+                output.writeByte(NO_PAINT);
+                return;
+            }
+            if (!result.hasOwnPaint()) {
+                output.writeByte(SHARED_PAINT);
+                return;
+            }
+            output.writeByte(OWN_PAINT);
+
+            writeSignedVarInt(paint.getTotalLines());
+            int[] values = paint.getValues();
+            writeVarLong(values.length / 4);
+            int previousLine = 0;
+            for (int index = 0; index < values.length; index += 4) {
+                int branchTotal = values[index + 3];
+                writeSignedVarInt(values[index] - previousLine);
+                writeSignedVarInt(values[index + 1]);
+                writeSignedVarInt(branchTotal);
+                if (branchTotal != 0) {
+                    writeSignedVarInt(values[index + 2]);
+                }
+                previousLine = values[index];
+            }
+        }
+
+        private void writeElement(final CoverageElement element) throws IOException {
+            Integer index = elements.get(element);
+            if (index == null) {
+                elements.put(element, elements.size());
+                writeVarLong(elements.size());
+                writeString(element.getName());
+            }
+            else {
+                writeVarLong(index + 1);
+            }
+        }
+
+        /**
+         * Writes {@code 0} for {@code null}, the index in the table plus one for known strings, or the size of the
+         * table followed by the UTF-8 bytes for new strings.
+         */
+        private void writeString(@CheckForNull final String value) throws IOException {
+            if (value == null) {
+                writeVarLong(NULL_VALUE);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index == null) {
+                strings.put(value, strings.size());
+                writeVarLong(strings.size());
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(bytes.length);
+                output.write(bytes);
+            }
+            else {
+                writeVarLong(index + 1);
+            }
+        }
+
+        private void writeSignedVarInt(final int value) throws IOException {
+            // zig-zag encoding, so that small negative values are small as well
+            writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFF_FFFFL);
+        }
+
+        private void writeVarLong(final long value) throws IOException {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                output.writeByte((int) (remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            output.writeByte((int) remaining);
+        }
+    }
+
+    /**
+     * Reads the nodes of a tree in the format of version {@value #FIRST_STORED_VERSION} and keeps the tables of the
+     * strings and elements that have been read already.
+     */
+    private static final class Reader {
+        private final DataInputStream input;
+        private final NamePool namePool;
+        private final List<String> strings = new ArrayList<>();
+        private final List<CoverageElement> elements = new ArrayList<>();
+
+        Reader(final DataInputStream input, final NamePool namePool) {
+            this.input = input;
+            this.namePool = namePool;
+        }
+
+        CoverageResult readNode(@CheckForNull final CoverageResult parent) throws IOException {
+            CoverageElement element = readElement();
+            CoverageResult result = new CoverageResult(element, parent, readString());
+            result.setRelativeSourcePath(readString());
+            result.setTag(readString());
+            result.setReferenceBuildUrl(readString());
+            result.setChangeRequestCoverageDiffWithTargetBranch(input.readFloat());
+
+            int localResults = readSize();
+            for (int i = 0; i < localResults; i++) {
+                CoverageElement coverageElement = readElement();
+                result.updateCoverage(coverageElement, Ratio.create(readVarLong(), readVarLong()));
+            }
+
+            int deltaResults = readSize();
+            if (deltaResults > 0) {
+                Map<CoverageElement, Float> delta = new HashMap<>();
+                for (int i = 0; i < deltaResults; i++) {
+                    CoverageElement coverageElement = readElement();
+                    delta.put(coverageElement, input.readFloat());
+                }
+                result.setDeltaResults(delta);
+            }
+
+            int properties = readSize();
+            for (int i = 0; i < properties; i++) {
+                String property = readString();
+                int values = readSize();
+                for (int j = 0; j < values; j++) {
+                    result.addAdditionalProperty(property, readString());
+                }
+            }
+
+            readPaint(result);
+
+            int children = readSize();
+            for (int i = 0; i < children; i++) {
+                readNode(result);
+            }
+            return result;
+        }
+
+        private void readPaint(final CoverageResult result) throws IOException {
+            int type = input.readUnsignedByte();
+            if (type == SHARED_PAINT) {
+                // the constructor shares the paint of the parent already
+                return;
+            }
+            if (type == NO_PAINT) {
+                result.setPaint(null);
+                return;
+            }
+            if (type != OWN_PAINT) {
+                throw new IOException("Unable to read coverage result: invalid paint type " + type);
+            }
+
+            CoveragePaint paint = new CoveragePaint(result.getElement());
+            paint.setTotalLines(readSignedVarInt());
+            int lines = readSize();
+            int line = 0;
+            for (int i = 0; i < lines; i++) {
+                line += readSignedVarInt();
+                int hits = readSignedVarInt();
+                int branchTotal = readSignedVarInt();
+                int branchCoverage = branchTotal == 0 ? 0 : readSignedVarInt();
+                paint.paint(line, hits, branchCoverage, branchTotal);
+            }
+            result.setPaint(paint);
+        }
+
+        private CoverageElement readElement() throws IOException {
+            int index = readSize();
+            if (index > 0 && index <= elements.size()) {
+                return elements.get(index - 1);
+            }
+            if (index != elements.size() + 1) {
+                throw new IOException("Unable to read coverage result: invalid element index " + index);
+            }
+
+            String name = readString();
+            CoverageElement element = CoverageElement.get(name);
+            if (element == null) {
+                throw new IOException(
+                        String.format("Unable to read coverage result: unknown coverage element '%s'", name));
+            }
+            elements.add(element);
+            return element;
+        }
+
+        @CheckForNull
+        private String readString() throws IOException {
+            int index = readSize();
+            if (index == NULL_VALUE) {
+                return null;
+            }
+            if (index <= strings.size()) {
+                return strings.get(index - 1);
+            }
+            if (index != strings.size() + 1) {
+                throw new IOException("Unable to read coverage result: invalid string index " + index);
+            }
+
+            byte[] bytes = new byte[readSize()];
+            input.readFully(bytes);
+            String value = namePool.intern(new String(bytes, StandardCharsets.UTF_8));
+            strings.add(value);
+            return value;
+        }
+
+        private int readSize() throws IOException {
+            long size = readVarLong();
+            if (size < 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Unable to read coverage result: invalid size " + size);
+            }
+            return (int) size;
+        }
+
+        private int readSignedVarInt() throws IOException {
+            int value = (int) readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int current = input.readUnsignedByte();
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Unable to read coverage result: invalid variable length number");
+        }
+    }
+}
@@ -55,12 +55,12 @@ public class CoverageTreeElement implements Serializable {
     }
 
     @Exported
-    public float getNumerator() {
+    public long getNumerator() {
         return ratio.numerator;
     }
 
     @Exported
-    public float getDenominator() {
+    public long getDenominator() {
         return ratio.denominator;
     }
 }
@@ -0,0 +1,49 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * Pool of the names and paths of coverage results. The parsers create a new {@link String} instance for every
+ * package, file, class and method of every report, so reports of the same build hold many copies of the same names.
+ * The pool returns a single instance for equal strings, so that the copies can be collected once the results have
+ * been built.
+ *
+ * <p>
+ * In contrast to {@link String#intern()} the pool is not global: it is created for the reports of a build and is
+ * garbage collected together with the parsers and converters that use it. The pool is thread safe, so it can be shared
+ * by reports that are converted in parallel.
+ * </p>
+ */
+public class NamePool {
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the instance of the pool that is equal to the specified string. If the pool does not contain such an
+     * instance yet, then the specified string will be added.
+     *
+     * @param value
+     *         the string to look up
+     *
+     * @return the pooled instance, or {@code null} if the value is {@code null}
+     */
+    @CheckForNull
+    public String intern(@CheckForNull final String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = names.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
+    }
+
+    /**
+     * Returns the number of distinct strings retained by this pool.
+     *
+     * @return the number of strings
+     */
+    public int size() {
+        return names.size();
+    }
+}
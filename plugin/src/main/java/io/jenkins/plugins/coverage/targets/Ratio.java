@@ -21,6 +21,10 @@
  */
 package io.jenkins.plugins.coverage.targets;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
@@ -29,33 +33,52 @@ import java.text.NumberFormat;
 // Code adopted from Cobertura Plugin https://github.com/jenkinsci/cobertura-plugin/
 
 /**
- * Represents <code>x/y</code> where x={@link #numerator} and y={@link #denominator}.
+ * Represents <code>x/y</code> where x={@link #numerator} and y={@link #denominator}. Both values are exact integers,
+ * so sums of several million lines do not lose precision.
  *
  * @author Kohsuke Kawaguchi
  */
 final public class Ratio implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The serialized fields: older releases stored the values as {@code float}, these fields are still written so
+     * that older releases can read the results. The exact values are stored in additional fields.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("numerator", Float.TYPE),
+            new ObjectStreamField("denominator", Float.TYPE),
+            new ObjectStreamField("exactNumerator", Long.TYPE),
+            new ObjectStreamField("exactDenominator", Long.TYPE)
+    };
+
+    //
+    // fly-weight patterns for common Ratio instances (x/y) where 0<=x<=y<=MAX_CACHED_DENOMINATOR
+    // and x,y are integers. The instances are created when the class is initialized, so the cache
+    // is never modified afterwards and can be shared by all threads.
+    //
+    private static final int MAX_CACHED_DENOMINATOR = 63;
+    /** The scale of fractional values that are passed to {@link #create(float, float)}. */
+    private static final long FRACTION_SCALE = 10_000;
+    private static final Ratio[] COMMON_INSTANCES = createCommonInstances();
+
     /** Null Object. **/
-    public static final Ratio NULL = new Ratio(0, 1);
+    public static final Ratio NULL = create(0, 1);
+
+    public final long numerator;
+    public final long denominator;
 
-    public final float numerator;
-    public final float denominator;
+    /** The instance that replaces this instance after deserialization. */
+    private transient Ratio resolved;
 
-    private Ratio(final float numerator, final float denominator) {
+    private Ratio(final long numerator, final long denominator) {
         this.numerator = numerator;
         this.denominator = denominator;
     }
 
     @Override
     public String toString() {
-        return getPercentageString() + String.format(" (%d/%d)", (int)numerator, (int)denominator);
-    }
-
-    private String print(final float f) {
-        int i = (int) f;
-        if (i == f)
-            return String.valueOf(i);
-        else
-            return String.valueOf(f);
+        return getPercentageString() + String.format(" (%d/%d)", numerator, denominator);
     }
 
     /**
@@ -83,7 +106,7 @@ final public class Ratio implements Serializable {
      * @return percentage
      */
     public float getPercentageFloat() {
-        return denominator == 0 ? (numerator == 0 ? 100.0f : 0.0f) : (100 * numerator / denominator);
+        return denominator == 0 ? (numerator == 0 ? 100.0f : 0.0f) : (float) (100.0 * numerator / denominator);
     }
 
     static NumberFormat dataFormat = new DecimalFormat("000.00");
@@ -120,51 +143,87 @@ final public class Ratio implements Serializable {
 
         Ratio ratio = (Ratio) o;
 
-        return Float.compare(ratio.denominator, denominator) == 0
-                && Float.compare(ratio.numerator, numerator) == 0;
-
+        return ratio.denominator == denominator && ratio.numerator == numerator;
     }
 
     /**
      * {@inheritDoc}
      */
     public int hashCode() {
-        int result;
-        result = numerator != +0.0f ? Float.floatToIntBits(numerator) : 0;
-        result = 31 * result + denominator != +0.0f ? Float.floatToIntBits(denominator) : 0;
-        return result;
+        return 31 * Long.hashCode(numerator) + Long.hashCode(denominator);
     }
 
-    private static final long serialVersionUID = 1L;
+    private void writeObject(final ObjectOutputStream output) throws IOException {
+        ObjectOutputStream.PutField fields = output.putFields();
+        fields.put("numerator", (float) numerator);
+        fields.put("denominator", (float) denominator);
+        fields.put("exactNumerator", numerator);
+        fields.put("exactDenominator", denominator);
+        output.writeFields();
+    }
 
-    //
-    // fly-weight patterns for common Ratio instances (x/y) where x<y
-    // and x,y are integers.
-    //
-    private static final Ratio[] COMMON_INSTANCES = new Ratio[256];
+    private void readObject(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = input.readFields();
+        if (fields.defaulted("exactNumerator") || fields.defaulted("exactDenominator")) {
+            resolved = create(Math.round(fields.get("numerator", 0.0f)), Math.round(fields.get("denominator", 0.0f)));
+        }
+        else {
+            resolved = create(fields.get("exactNumerator", 0L), fields.get("exactDenominator", 0L));
+        }
+    }
+
+    /**
+     * Replaces the deserialized instance, whose fields are not set, with an instance that has the serialized values.
+     * Results of older releases that stored the values as {@code float} are converted to the exact values.
+     *
+     * @return the ratio with the serialized values
+     */
+    private Object readResolve() {
+        return resolved;
+    }
+
+    private static Ratio[] createCommonInstances() {
+        Ratio[] instances = new Ratio[indexOf(MAX_CACHED_DENOMINATOR + 1, 0)];
+        for (int y = 0; y <= MAX_CACHED_DENOMINATOR; y++) {
+            for (int x = 0; x <= y; x++) {
+                instances[indexOf(y, x)] = new Ratio(x, y);
+            }
+        }
+        return instances;
+    }
+
+    private static int indexOf(final int y, final int x) {
+        return y * (y + 1) / 2 + x;
+    }
 
     /**
-     * Creates a new instance of {@link Ratio}.
+     * Creates a new instance of {@link Ratio}. Common ratios of small values are shared.
      *
      * @param x numerator
      * @param y denominator
      * @return the ratio
      */
-    public static Ratio create(final float x, final float y) {
-        // TODO COMMON_INSTANCES seems broken and return the wrong cached ratio, need to be fix.
-//        int xx = (int) x;
-//        int yy = (int) y;
-//
-//        if (xx == x && yy == y) {
-//            int idx = yy * (yy + 1) / 2 + xx;
-//            if (0 <= idx && idx < COMMON_INSTANCES.length) {
-//                Ratio r = COMMON_INSTANCES[idx];
-//                if (r == null)
-//                    COMMON_INSTANCES[idx] = r = new Ratio(x, y);
-//                return r;
-//            }
-//        }
-
+    public static Ratio create(final long x, final long y) {
+        if (0 <= x && x <= y && y <= MAX_CACHED_DENOMINATOR) {
+            return COMMON_INSTANCES[indexOf((int) y, (int) x)];
+        }
         return new Ratio(x, y);
     }
+
+    /**
+     * Creates a new instance of {@link Ratio}. Integral values are used as they are, fractional values such as
+     * {@code 0.5/1} are scaled by a factor of 10000 before they are rounded, so the percentage of the ratio is kept.
+     *
+     * @param x numerator
+     * @param y denominator
+     * @return the ratio
+     * @deprecated the values of a ratio are integers, use {@link #create(long, long)}
+     */
+    @Deprecated
+    public static Ratio create(final float x, final float y) {
+        if (x == Math.rint(x) && y == Math.rint(y)) {
+            return create(Math.round((double) x), Math.round((double) y));
+        }
+        return create(Math.round(x * (double) FRACTION_SCALE), Math.round(y * (double) FRACTION_SCALE));
+    }
 }
@@ -302,6 +302,7 @@ public class CoverageChecksPublisherTest {
         return result;
     }
 
+    @SuppressWarnings("deprecation")
     private CoverageResult createCoverageResult(final float lineCoverage, final float conditionCoverage) {
         CoverageResult result = mock(CoverageResult.class);
 
@@ -0,0 +1,210 @@
+package io.jenkins.plugins.coverage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageHeapBudget;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoverageResultCache}.
+ */
+class CoverageResultCacheTest {
+    private static final long RESULT_SIZE = CoverageHeapBudget.estimateSize(createResult("size"));
+
+    @Test
+    void shouldLoadResultOnlyOnce() throws IOException, ClassNotFoundException {
+        CoverageResultCache cache = new CoverageResultCache(10 * RESULT_SIZE);
+        AtomicInteger loads = new AtomicInteger();
+        CoverageResult result = createResult("build-1");
+
+        assertThat(cache.get("build-1", () -> load(result, loads))).isSameAs(result);
+        assertThat(cache.get("build-1", () -> load(result, loads))).isSameAs(result);
+        assertThat(cache.get("build-1", () -> load(result, loads))).isSameAs(result);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1L);
+        assertThat(cache.getHitCount()).isEqualTo(2L);
+        assertThat(cache.getSize()).isEqualTo(RESULT_SIZE);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedResults() throws IOException, ClassNotFoundException {
+        CoverageResultCache cache = new CoverageResultCache(2 * RESULT_SIZE);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("build-1", () -> load(createResult("build-1"), loads));
+        cache.get("build-2", () -> load(createResult("build-2"), loads));
+        cache.get("build-1", () -> load(createResult("build-1"), loads));
+        cache.get("build-3", () -> load(createResult("build-3"), loads));
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getNumberOfResults()).isEqualTo(2);
+        assertThat(cache.getSize()).isEqualTo(2 * RESULT_SIZE);
+
+        cache.get("build-1", () -> load(createResult("build-1"), loads));
+        assertThat(loads.get()).isEqualTo(3);
+        cache.get("build-2", () -> load(createResult("build-2"), loads));
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldKeepMostRecentlyUsedResultThatExceedsLimit() throws IOException, ClassNotFoundException {
+        CoverageResultCache cache = new CoverageResultCache(RESULT_SIZE);
+        AtomicInteger loads = new AtomicInteger();
+
+        CoverageResult large = createResult("large");
+        new CoverageResult(CoverageElement.FILE, large, "File.java");
+        cache.get("build-1", () -> load(createResult("build-1"), loads));
+        cache.get("large", () -> load(large, loads));
+
+        assertThat(cache.getNumberOfResults()).isEqualTo(1);
+        assertThat(cache.getSize()).isEqualTo(CoverageHeapBudget.estimateSize(large));
+        assertThat(cache.get("large", () -> load(large, loads))).isSameAs(large);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEstimateReplacedResultsAgain() {
+        CoverageResultCache cache = new CoverageResultCache(10 * RESULT_SIZE);
+        CoverageResult result = createResult("build-1");
+
+        cache.put("build-1", result);
+        assertThat(cache.getSize()).isEqualTo(RESULT_SIZE);
+
+        new CoverageResult(CoverageElement.FILE, result, "File.java");
+        cache.put("build-1", result);
+        assertThat(cache.getSize()).isEqualTo(CoverageHeapBudget.estimateSize(result));
+        assertThat(cache.getNumberOfResults()).isEqualTo(1);
+
+        cache.remove("build-1");
+        assertThat(cache.getSize()).isZero();
+        assertThat(cache.getNumberOfResults()).isZero();
+    }
+
+    @Test
+    void shouldLoadResultOnlyOnceForConcurrentRequests() throws Exception {
+        CoverageResultCache cache = new CoverageResultCache(10 * RESULT_SIZE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CoverageResult result = createResult("build-1");
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<CoverageResult>> requests = new ArrayList<>();
+            requests.add(executor.submit(() -> cache.get("build-1", () -> {
+                loading.countDown();
+                await(release);
+                return load(result, loads);
+            })));
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < threads; i++) {
+                requests.add(executor.submit(() -> cache.get("build-1", () -> load(result, loads))));
+            }
+            release.countDown();
+
+            for (Future<CoverageResult> request : requests) {
+                assertThat(request.get(10, TimeUnit.SECONDS)).isSameAs(result);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1L);
+        assertThat(cache.getHitCount()).isEqualTo((long) threads - 1);
+    }
+
+    @Test
+    void shouldKeepResultThatIsPutWhileLoading() throws Exception {
+        CoverageResultCache cache = new CoverageResultCache(10 * RESULT_SIZE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CoverageResult loaded = createResult("loaded");
+        CoverageResult updated = createResult("updated");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CoverageResult> request = executor.submit(() -> cache.get("build-1", () -> {
+                loading.countDown();
+                await(release);
+                return load(loaded, loads);
+            }));
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            cache.put("build-1", updated);
+            release.countDown();
+
+            assertThat(request.get(10, TimeUnit.SECONDS)).isSameAs(loaded);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.get("build-1", () -> load(loaded, loads))).isSameAs(updated);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getNumberOfResults()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheFailures() throws IOException, ClassNotFoundException {
+        CoverageResultCache cache = new CoverageResultCache(10 * RESULT_SIZE);
+
+        assertThatIOException().isThrownBy(() -> cache.get("build-1", () -> {
+            throw new IOException("Missing report");
+        })).withMessage("Missing report");
+        assertThat(cache.getNumberOfResults()).isZero();
+
+        CoverageResult result = createResult("build-1");
+        assertThat(cache.get("build-1", () -> result)).isSameAs(result);
+        assertThat(cache.getMissCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldNotCacheResultsIfDisabled() throws IOException, ClassNotFoundException {
+        CoverageResultCache cache = new CoverageResultCache(0);
+        AtomicInteger loads = new AtomicInteger();
+        CoverageResult result = createResult("build-1");
+        assertThat(cache.isEnabled()).isFalse();
+
+        cache.get("build-1", () -> load(result, loads));
+        cache.get("build-1", () -> load(result, loads));
+        cache.put("build-1", result);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getNumberOfResults()).isZero();
+        assertThat(cache.getSize()).isZero();
+    }
+
+    private static void await(final CountDownLatch latch) throws IOException {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+        catch (InterruptedException exception) {
+            throw new IOException(exception);
+        }
+    }
+
+    private static CoverageResult load(final CoverageResult result, final AtomicInteger loads) {
+        loads.incrementAndGet();
+        return result;
+    }
+
+    private static CoverageResult createResult(final String name) {
+        return new CoverageResult(CoverageElement.REPORT, null, name);
+    }
+}
@@ -0,0 +1,81 @@
+package io.jenkins.plugins.coverage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import hudson.FilePath;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link ReportTransfer}.
+ */
+class ReportTransferTest {
+    @TempDir
+    Path workspace;
+    @TempDir
+    Path buildDirectory;
+
+    @Test
+    void shouldAssignUniqueNamesInManifest() {
+        ReportTransfer transfer = new ReportTransfer();
+
+        assertThat(transfer.isEmpty()).isTrue();
+        assertThat(transfer.add("/a/coverage.xml", "coverage.xml")).isEqualTo("coverage.xml");
+        assertThat(transfer.add("/b/coverage.xml", "coverage.xml")).isEqualTo("coverage.xml(1)");
+        assertThat(transfer.add("/c/coverage.xml", "coverage.xml")).isEqualTo("coverage.xml(2)");
+        assertThat(transfer.add("/a/coverage.xml", "coverage.xml")).isEqualTo("coverage.xml(3)");
+
+        assertThat(transfer.isEmpty()).isFalse();
+        assertThat(transfer.getManifest()).containsExactly(
+                entry("coverage.xml", "/a/coverage.xml"),
+                entry("coverage.xml(1)", "/b/coverage.xml"),
+                entry("coverage.xml(2)", "/c/coverage.xml"),
+                entry("coverage.xml(3)", "/a/coverage.xml"));
+    }
+
+    @Test
+    void shouldTransferAllReportsOfManifest() throws IOException, InterruptedException {
+        Path first = createReport("first/coverage.xml", "first");
+        Path second = createReport("second/coverage.xml", "second");
+        createReport("third/coverage.xml", "not transferred");
+
+        ReportTransfer transfer = new ReportTransfer();
+        String firstName = transfer.add(first.toString(), "coverage.xml");
+        String secondName = transfer.add(second.toString(), "coverage.xml");
+
+        File directory = transfer.transfer(new FilePath(workspace.toFile()), buildDirectory.toFile(), "reports");
+
+        assertThat(directory).hasParent(buildDirectory.toFile());
+        assertThat(directory.list()).containsExactlyInAnyOrder(firstName, secondName);
+        assertThat(new File(directory, firstName)).hasContent("first");
+        assertThat(new File(directory, secondName)).hasContent("second");
+
+        ReportTransfer.deleteTransferDirectories(
+                Arrays.asList(new File(directory, firstName), new File(directory, secondName)));
+
+        assertThat(directory).doesNotExist();
+    }
+
+    @Test
+    void shouldNotDeleteOtherDirectories() throws IOException {
+        Path report = createReport("coverage.xml", "report");
+
+        ReportTransfer.deleteTransferDirectories(Arrays.asList(report.toFile()));
+
+        assertThat(report).exists();
+    }
+
+    private Path createReport(final String relativePath, final String content) throws IOException {
+        Path file = workspace.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
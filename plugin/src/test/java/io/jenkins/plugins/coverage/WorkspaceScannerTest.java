@@ -0,0 +1,110 @@
+package io.jenkins.plugins.coverage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jenkins.plugins.coverage.WorkspaceScanner.ScanResult;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link WorkspaceScanner}.
+ */
+class WorkspaceScannerTest {
+    @TempDir
+    Path workspace;
+
+    @Test
+    void shouldMatchAllPatternsWithOneWalk() throws IOException {
+        Path cobertura = createFile("module/target/site/cobertura/coverage.xml");
+        Path jacoco = createFile("module/target/site/jacoco/jacoco.xml");
+        Path other = createFile("report.xml");
+
+        ScanResult result = scan(Arrays.asList("**/cobertura/*.xml", "**/jacoco.xml, *.xml", "**/*.xml"), "", 0);
+
+        assertThat(result.getMatches(0)).containsExactly(cobertura.toString());
+        assertThat(result.getMatches(1)).containsExactlyInAnyOrder(jacoco.toString(), other.toString());
+        assertThat(result.getMatches(2)).containsExactlyInAnyOrder(
+                cobertura.toString(), jacoco.toString(), other.toString());
+    }
+
+    @Test
+    void shouldNotEnterExcludedDirectories() throws IOException {
+        Path report = createFile("module/coverage.xml");
+        createFile("module/node_modules/library/coverage.xml");
+        createFile("module/node_modules/library/lib/more/coverage.xml");
+
+        ScanResult result = scan(Collections.singletonList("**/coverage.xml"), "**/node_modules/**", 0);
+
+        assertThat(result.getMatches(0)).containsExactly(report.toString());
+        assertThat(result.getVisitedEntries()).as("module, coverage.xml and node_modules").isEqualTo(3);
+    }
+
+    @Test
+    void shouldSkipExcludedFiles() throws IOException {
+        Path report = createFile("coverage.xml");
+        createFile("coverage-old.xml");
+        createFile(".git/coverage.xml");
+
+        ScanResult result = scan(Collections.singletonList("**/coverage*.xml"), "coverage-old.xml", 0);
+
+        assertThat(result.getMatches(0)).containsExactly(report.toString());
+    }
+
+    @Test
+    void shouldNotEnterDirectoriesThatCannotContainReports() throws IOException {
+        Path report = createFile("target/coverage.xml");
+        createFile("src/main/java/Main.java");
+
+        ScanResult result = scan(Collections.singletonList("target/*.xml"), "", 0);
+
+        assertThat(result.getMatches(0)).containsExactly(report.toString());
+        assertThat(result.getVisitedEntries()).as("target, coverage.xml and src").isEqualTo(3);
+    }
+
+    @Test
+    void shouldStopAtMaximumDepth() throws IOException {
+        Path top = createFile("coverage.xml");
+        Path nested = createFile("a/coverage.xml");
+        createFile("a/b/coverage.xml");
+
+        assertThat(scan(Collections.singletonList("**/coverage.xml"), "", 2).getMatches(0))
+                .containsExactlyInAnyOrder(top.toString(), nested.toString());
+        assertThat(scan(Collections.singletonList("**/coverage.xml"), "", 1).getMatches(0))
+                .containsExactly(top.toString());
+    }
+
+    @Test
+    void shouldMatchDirectoriesWithSameWalk() throws IOException {
+        Path report = createFile("module/target/jacoco.exec");
+        Path archive = createFile("lib/app.jar");
+        Path classes = Files.createDirectories(workspace.resolve("module/target/classes"));
+        Files.createDirectories(workspace.resolve("node_modules/library/target/classes"));
+        Files.createDirectories(workspace.resolve("a/b/target/classes"));
+
+        ScanResult result = new WorkspaceScanner(Collections.singletonList("**/*.exec"),
+                Collections.singletonList("**/target/classes, lib/*.jar"), "**/node_modules/**", 3)
+                .invoke(workspace.toFile(), null);
+
+        assertThat(result.getMatches(0)).containsExactly(report.toString());
+        assertThat(result.getMatches(1)).containsExactlyInAnyOrder(classes.toString(), archive.toString());
+    }
+
+    private ScanResult scan(final List<String> patterns, final String excludes, final int maxDepth)
+            throws IOException {
+        return new WorkspaceScanner(patterns, excludes, maxDepth).invoke(workspace.toFile(), null);
+    }
+
+    private Path createFile(final String relativePath) throws IOException {
+        Path file = workspace.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, new byte[] {1});
+    }
+}
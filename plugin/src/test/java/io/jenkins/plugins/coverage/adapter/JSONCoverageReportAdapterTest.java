@@ -0,0 +1,197 @@
+package io.jenkins.plugins.coverage.adapter;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter.JacocoReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.adapter.converter.JSONDocumentConverter;
+import io.jenkins.plugins.coverage.adapter.converter.JSONStreamingConverter;
+import io.jenkins.plugins.coverage.adapter.parser.CoverageParser;
+import io.jenkins.plugins.coverage.adapter.parser.JavaCoverageParser;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageElementRegister;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+import io.jenkins.plugins.coverage.targets.Ratio;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the classes {@link JSONCoverageReportAdapter} and {@link JSONStreamingReportAdapter}.
+ */
+class JSONCoverageReportAdapterTest extends ResourceTest {
+    private static final String REPORT = "/io/jenkins/plugins/coverage/adapter/coverage-py.json";
+
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new JacocoReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldConvertReportWithDocumentConverter() throws CoverageException {
+        verifyResult(new DocumentCoveragePyAdapter().getResult(getReport()));
+    }
+
+    @Test
+    void shouldConvertReportWithStreamingConverter() throws CoverageException {
+        verifyResult(new StreamingCoveragePyAdapter().getResult(getReport()));
+    }
+
+    @Test
+    void shouldShareNamePoolOfBuild() throws CoverageException {
+        NamePool namePool = new NamePool();
+        StreamingCoveragePyAdapter adapter = new StreamingCoveragePyAdapter();
+
+        CoverageResult first = adapter.getResult(getReport(), namePool);
+        CoverageResult second = adapter.getResult(getReport(), namePool);
+
+        assertThat(second.getChild("src/app/service.py").getRelativeSourcePath())
+                .isSameAs(first.getChild("src/app/service.py").getRelativeSourcePath());
+    }
+
+    @Test
+    void shouldReportMalformedJson() {
+        File report = getResourceAsFile("/io/jenkins/plugins/coverage/jacoco.xml").toFile();
+
+        assertThatExceptionOfType(CoverageException.class)
+                .isThrownBy(() -> new StreamingCoveragePyAdapter().getResult(report));
+        assertThatExceptionOfType(CoverageException.class)
+                .isThrownBy(() -> new DocumentCoveragePyAdapter().getResult(report));
+    }
+
+    private File getReport() {
+        return getResourceAsFile(REPORT).toFile();
+    }
+
+    private void verifyResult(final CoverageResult result) {
+        assertThat(result.getElement()).isEqualTo(CoverageElement.REPORT);
+        assertThat(result.getName()).isEqualTo("coverage.py: coverage-py.json");
+        assertThat(result.getChildren()).containsExactly("src/app/__init__.py", "src/app/service.py");
+
+        result.setOwner(null);
+        assertThat(result.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(6, 8));
+
+        CoverageResult service = result.getChild("src/app/service.py");
+        assertThat(service.getElement()).isEqualTo(CoverageElement.FILE);
+        assertThat(service.getRelativeSourcePath()).isEqualTo("src/app/service.py");
+        assertThat(service.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(4, 6));
+        assertThat(service.getPaint().getHits(3)).isEqualTo(1);
+        assertThat(service.getPaint().getHits(5)).isZero();
+        assertThat(service.getPaint().isPainted(10)).isFalse();
+    }
+
+    /**
+     * Converts coverage.py reports with the {@link JsonNode} tree.
+     */
+    private static class DocumentCoveragePyAdapter extends JSONCoverageReportAdapter {
+        DocumentCoveragePyAdapter() {
+            super("coverage.json");
+        }
+
+        @Override
+        protected JSONDocumentConverter getConverter() {
+            return new JSONDocumentConverter() {
+                @Override
+                protected Document convert(final JsonNode report, final Document document) {
+                    Element reportElement = document.createElementNS(null, "report");
+                    reportElement.setAttribute("name", "coverage.py");
+                    document.appendChild(reportElement);
+
+                    report.get("files").fields().forEachRemaining(file -> {
+                        Element fileElement = document.createElementNS(null, "file");
+                        fileElement.setAttribute("name", file.getKey());
+                        reportElement.appendChild(fileElement);
+
+                        appendLines(document, fileElement, file.getValue().get("executed_lines"), 1);
+                        appendLines(document, fileElement, file.getValue().get("missing_lines"), 0);
+                    });
+                    return document;
+                }
+
+                private void appendLines(final Document document, final Element file, final JsonNode lines,
+                        final int hits) {
+                    for (JsonNode line : lines) {
+                        Element lineElement = document.createElementNS(null, "line");
+                        lineElement.setAttribute("number", line.asText());
+                        lineElement.setAttribute("hits", String.valueOf(hits));
+                        file.appendChild(lineElement);
+                    }
+                }
+            };
+        }
+
+        @Override
+        protected CoverageResult parseToResult(final Document document, final String reportName)
+                throws CoverageException {
+            return new JavaCoverageParser(reportName).parse(document);
+        }
+    }
+
+    /**
+     * Converts coverage.py reports token by token.
+     */
+    private static class StreamingCoveragePyAdapter extends JSONStreamingReportAdapter {
+        StreamingCoveragePyAdapter() {
+            super("coverage.json");
+        }
+
+        @Override
+        protected JSONStreamingConverter getStreamingConverter() {
+            return new JSONStreamingConverter() {
+                @Override
+                protected CoverageResult convert(final JsonParser parser, final String reportName)
+                        throws IOException, CoverageException {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        throw new CoverageException("Unable to parse report: expected an object");
+                    }
+                    CoverageResult report = new CoverageResult(CoverageElement.REPORT, null,
+                            "coverage.py: " + reportName);
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        parser.nextToken();
+                        if ("files".equals(parser.getCurrentName())) {
+                            readFiles(parser, report);
+                        }
+                        else {
+                            parser.skipChildren();
+                        }
+                    }
+                    return report;
+                }
+
+                private void readFiles(final JsonParser parser, final CoverageResult report) throws IOException {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = intern(parser.getCurrentName());
+                        CoverageResult file = new CoverageResult(CoverageElement.FILE, report, name);
+                        file.setRelativeSourcePath(name);
+                        parser.nextToken();
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String field = parser.getCurrentName();
+                            parser.nextToken();
+                            if ("executed_lines".equals(field) || "missing_lines".equals(field)) {
+                                int hits = "executed_lines".equals(field) ? 1 : 0;
+                                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                    CoverageParser.processLine(file, parser.getIntValue(), hits, 0, 0);
+                                }
+                            }
+                            else {
+                                parser.skipChildren();
+                            }
+                        }
+                    }
+                }
+            };
+        }
+    }
+}
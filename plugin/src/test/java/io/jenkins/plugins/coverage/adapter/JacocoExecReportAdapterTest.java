@@ -0,0 +1,230 @@
+package io.jenkins.plugins.coverage.adapter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.IOUtils;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IRuntime;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jenkins.plugins.coverage.WorkspaceScanner;
+import io.jenkins.plugins.coverage.WorkspaceScanner.ScanResult;
+import io.jenkins.plugins.coverage.adapter.JacocoExecReportAdapter.JacocoExecReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageElementRegister;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.NamePool;
+import io.jenkins.plugins.coverage.targets.Ratio;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link JacocoExecReportAdapter}. The execution data is recorded with the JaCoCo runtime while the
+ * class {@link Target} is executed.
+ */
+class JacocoExecReportAdapterTest {
+    private static final String CLASS_DIRECTORY = "module/build/classes/java/main";
+    private static final String EXECUTION_DATA = "module/build/jacoco/test.exec";
+
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new JacocoExecReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldAnalyzeExecutionDataWithClassFiles(@TempDir final Path workspace) throws Exception {
+        Path executionData = recordExecutionData(workspace);
+
+        JacocoExecReportAdapter adapter = new JacocoExecReportAdapter("**/*.exec");
+        assertThat(adapter.isWorkspaceRequired()).isTrue();
+
+        CoverageResult report = adapter.getResult(executionData.toFile(), findClassDirectories(workspace, adapter),
+                new NamePool());
+        report.setOwner(null);
+
+        assertThat(report.getName()).isEqualTo("jacoco: test.exec");
+        assertThat(report.getChildren()).containsExactly("project");
+        CoverageResult packageResult = report.getChild("project").getChild("io.jenkins.plugins.coverage.adapter");
+        assertThat(packageResult.getChildren()).containsExactly("JacocoExecReportAdapterTest.java");
+
+        CoverageResult file = packageResult.getChild("JacocoExecReportAdapterTest.java");
+        assertThat(file.getRelativeSourcePath()).isEqualTo("JacocoExecReportAdapterTest.java");
+        assertThat(file.getChildren()).containsExactly(
+                "io.jenkins.plugins.coverage.adapter.JacocoExecReportAdapterTest.Target");
+
+        CoverageResult target = file.getChild("io.jenkins.plugins.coverage.adapter.JacocoExecReportAdapterTest.Target");
+        assertThat(target.getChildren()).containsExactlyInAnyOrder(
+                "void <init>()", "void run()", "boolean isEven(int)", "int unused(int)");
+        assertThat(target.getChild("boolean isEven(int)").getCoverage(CoverageElement.CONDITIONAL))
+                .isEqualTo(Ratio.create(2, 2));
+        assertThat(target.getChild("int unused(int)").getCoverage(CoverageElement.LINE).numerator).isZero();
+        assertThat(target.getChild("int unused(int)").getAdditionalProperty("lineNumber")).hasSize(1);
+        assertThat(target.getCoverage(CoverageElement.get("Method"))).isEqualTo(Ratio.create(3, 4));
+        assertThat(target.getCoverage(CoverageElement.get("Instruction")).denominator).isPositive();
+
+        CoveragePaint paint = file.getPaint();
+        assertThat(paint.getAllLines()).isNotEmpty();
+        assertThat(paint.getUncoveredLines()).hasSize(3);
+        assertThat(file.getCoverage(CoverageElement.LINE))
+                .isEqualTo(target.getCoverage(CoverageElement.LINE))
+                .isEqualTo(paint.getLineCoverage());
+        assertThat(file.getCoverage(CoverageElement.CONDITIONAL)).isEqualTo(Ratio.create(6, 8));
+    }
+
+    @Test
+    void shouldFindClassDirectoriesAndArchives(@TempDir final Path workspace) throws IOException {
+        Files.createDirectories(workspace.resolve("a/build/classes/java/main"));
+        Files.createDirectories(workspace.resolve("b/target/classes"));
+        Files.createDirectories(workspace.resolve("c/build/classes/java/test"));
+        Files.createDirectories(workspace.resolve("lib"));
+        Files.write(workspace.resolve("lib/app.jar"), new byte[0]);
+
+        JacocoExecReportAdapter adapter = new JacocoExecReportAdapter("**/*.exec");
+        assertThat(adapter.getWorkspacePattern()).isEqualTo(JacocoExecReportAdapter.DEFAULT_CLASS_DIRECTORIES);
+        assertThat(findClassDirectories(workspace, adapter)).containsExactlyInAnyOrder(
+                workspace.resolve("a/build/classes/java/main").toFile(),
+                workspace.resolve("b/target/classes").toFile());
+
+        adapter.setClassDirectories("lib/*.jar c/build/classes/java/test");
+        assertThat(findClassDirectories(workspace, adapter)).containsExactlyInAnyOrder(
+                workspace.resolve("lib/app.jar").toFile(),
+                workspace.resolve("c/build/classes/java/test").toFile());
+
+        adapter.setClassDirectories(" ");
+        assertThat(adapter.getClassDirectories()).isEqualTo(JacocoExecReportAdapter.DEFAULT_CLASS_DIRECTORIES);
+    }
+
+    @Test
+    void shouldReportMissingClassDirectories(@TempDir final Path workspace) throws Exception {
+        Path executionData = recordExecutionData(workspace);
+
+        JacocoExecReportAdapter adapter = new JacocoExecReportAdapter("**/*.exec");
+        adapter.setClassDirectories("missing/classes");
+
+        assertThatExceptionOfType(CoverageException.class)
+                .isThrownBy(() -> adapter.getResult(executionData.toFile(), findClassDirectories(workspace, adapter),
+                        new NamePool()))
+                .withMessageContaining("missing/classes");
+        assertThatExceptionOfType(CoverageException.class)
+                .isThrownBy(() -> adapter.getResult(executionData.toFile()))
+                .withMessageContaining("class files of the workspace");
+    }
+
+    /**
+     * Finds the class directories of the adapter with the same walk over the workspace that finds the reports.
+     */
+    private List<File> findClassDirectories(final Path workspace, final JacocoExecReportAdapter adapter)
+            throws IOException {
+        ScanResult result = new WorkspaceScanner(Collections.singletonList(adapter.getPath()),
+                Collections.singletonList(adapter.getWorkspacePattern()), "", 0).invoke(workspace.toFile(), null);
+        return result.getMatches(1).stream().map(File::new).collect(Collectors.toList());
+    }
+
+    /**
+     * Copies the class file of {@link Target} into the workspace and executes an instrumented copy of the class, just
+     * like the JaCoCo agent does during the tests of a build.
+     */
+    private Path recordExecutionData(final Path workspace) throws Exception {
+        String name = Target.class.getName();
+        byte[] original;
+        try (InputStream input = Target.class.getResourceAsStream(
+                "/" + name.replace('.', '/') + ".class")) {
+            original = IOUtils.toByteArray(input);
+        }
+        Path classFile = workspace.resolve(CLASS_DIRECTORY).resolve(name.replace('.', '/') + ".class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, original);
+
+        IRuntime runtime = new LoggerRuntime();
+        RuntimeData data = new RuntimeData();
+        runtime.startup(data);
+        try {
+            byte[] instrumented = new Instrumenter(runtime).instrument(original, name);
+            Runnable target = (Runnable) new SingleClassLoader(name, instrumented).loadClass(name)
+                    .getDeclaredConstructor().newInstance();
+            target.run();
+        }
+        finally {
+            runtime.shutdown();
+        }
+
+        ExecutionDataStore executionDataStore = new ExecutionDataStore();
+        SessionInfoStore sessionInfoStore = new SessionInfoStore();
+        data.collect(executionDataStore, sessionInfoStore, false);
+
+        Path executionData = workspace.resolve(EXECUTION_DATA);
+        Files.createDirectories(executionData.getParent());
+        try (OutputStream output = Files.newOutputStream(executionData)) {
+            ExecutionDataWriter writer = new ExecutionDataWriter(output);
+            sessionInfoStore.accept(writer);
+            executionDataStore.accept(writer);
+        }
+        return executionData;
+    }
+
+    /**
+     * Defines the instrumented class, all other classes are loaded by the parent.
+     */
+    private static class SingleClassLoader extends ClassLoader {
+        private final String name;
+        private final byte[] definition;
+
+        SingleClassLoader(final String name, final byte[] definition) {
+            super(JacocoExecReportAdapterTest.class.getClassLoader());
+            this.name = name;
+            this.definition = definition;
+        }
+
+        @Override
+        protected Class<?> loadClass(final String className, final boolean resolve) throws ClassNotFoundException {
+            if (name.equals(className)) {
+                return defineClass(className, definition, 0, definition.length);
+            }
+            return super.loadClass(className, resolve);
+        }
+    }
+
+    /**
+     * The class under test: three of its four methods are executed, one of its branches is not covered.
+     */
+    public static class Target implements Runnable {
+        private int evenNumbers;
+
+        @Override
+        public void run() {
+            for (int i = 0; i < 3; i++) {
+                if (isEven(i)) {
+                    evenNumbers++;
+                }
+            }
+        }
+
+        boolean isEven(final int number) {
+            return number % 2 == 0;
+        }
+
+        int unused(final int number) {
+            if (number > 0) {
+                return evenNumbers;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.io.File;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.CoberturaReportAdapter;
+import io.jenkins.plugins.coverage.adapter.CoberturaReportAdapter.CoberturaReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElementRegister;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoberturaStreamingParser}.
+ */
+class CoberturaStreamingParserTest extends ResourceTest {
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new CoberturaReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldReadSmallReport() throws CoverageException {
+        verifySameTreeAsXslTransformation("cobertura-coverage.xml");
+    }
+
+    @Test
+    void shouldReadReportWithLotsOfData() throws CoverageException {
+        verifySameTreeAsXslTransformation("coverage-with-lots-of-data.xml");
+    }
+
+    @Test
+    void shouldReadReportsWithDifferentCoverage() throws CoverageException {
+        verifySameTreeAsXslTransformation("model/cobertura-higher-coverage.xml");
+        verifySameTreeAsXslTransformation("model/cobertura-lower-coverage.xml");
+    }
+
+    @Test
+    void shouldNotResolveExternalEntities() throws CoverageException {
+        verifySameTreeAsXslTransformation("sec1699.xml");
+    }
+
+    private void verifySameTreeAsXslTransformation(final String fileName) throws CoverageException {
+        File report = getResourceAsFile("/io/jenkins/plugins/coverage/" + fileName).toFile();
+
+        CoberturaReportAdapter adapter = new CoberturaReportAdapter("unused");
+        CoverageResult streamed = adapter.getResult(report);
+        adapter.setUseXSLTransformation(true);
+        CoverageResult transformed = adapter.getResult(report);
+
+        streamed.setOwner(null);
+        transformed.setOwner(null);
+
+        assertSameTree(streamed, transformed);
+    }
+
+    private void assertSameTree(final CoverageResult actual, final CoverageResult expected) {
+        assertThat(actual.getElement()).isEqualTo(expected.getElement());
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getRelativeSourcePath()).isEqualTo(expected.getRelativeSourcePath());
+        assertThat(actual.getLocalResults()).isEqualTo(expected.getLocalResults());
+        assertThat(actual.getResults()).isEqualTo(expected.getResults());
+        assertThat(actual.getAdditionalProperty("lineNumber")).isEqualTo(expected.getAdditionalProperty("lineNumber"));
+        assertSamePaint(actual.getPaint(), expected.getPaint());
+
+        assertThat(actual.getChildren()).containsExactlyElementsOf(expected.getChildren());
+        for (String child : expected.getChildren()) {
+            assertSameTree(actual.getChild(child), expected.getChild(child));
+        }
+    }
+
+    private void assertSamePaint(final CoveragePaint actual, final CoveragePaint expected) {
+        if (expected == null) {
+            assertThat(actual).isNull();
+            return;
+        }
+        assertThat(actual).isNotNull();
+        assertThat(actual.getAllLines()).containsExactlyInAnyOrder(expected.getAllLines());
+        for (int line : expected.getAllLines()) {
+            assertThat(actual.getHits(line)).as("hits of line %d", line).isEqualTo(expected.getHits(line));
+            assertThat(actual.getBranchCoverage(line)).isEqualTo(expected.getBranchCoverage(line));
+            assertThat(actual.getBranchTotal(line)).isEqualTo(expected.getBranchTotal(line));
+        }
+    }
+}
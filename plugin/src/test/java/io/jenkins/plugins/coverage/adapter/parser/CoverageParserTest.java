@@ -0,0 +1,72 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.CoberturaReportAdapter.CoberturaReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageElementRegister;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.Ratio;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoverageParser}.
+ */
+class CoverageParserTest extends ResourceTest {
+    /**
+     * Each line contains the expected conditional coverage (or '-' if the value is rejected), the expected branch
+     * coverage of the painted line and the value of the {@code condition-coverage} attribute. The expected values
+     * have been recorded with the regular expression that has been used to parse the attribute before.
+     */
+    private static final String GOLDEN_FILE = "/io/jenkins/plugins/coverage/adapter/parser/condition-coverage.txt";
+
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new CoberturaReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldScanConditionCoverageLikeGoldenFile() {
+        for (String line : readAllLines(GOLDEN_FILE)) {
+            String[] columns = line.split("\t", 3);
+            CoverageResult file = new CoverageResult(CoverageElement.FILE, null, "file");
+            file.setRelativeSourcePath("file");
+
+            CoverageParser.processLine(file, "1", "1", "true", columns[2]);
+
+            Ratio conditional = file.getLocalResults().get(CoverageElement.CONDITIONAL);
+            assertThat(conditional == null ? "-" : (int) conditional.numerator + "/" + (int) conditional.denominator)
+                    .as("Conditional coverage of '%s'", columns[2])
+                    .isEqualTo(columns[0]);
+            CoveragePaint paint = file.getPaint();
+            assertThat(paint.getBranchCoverage(1) + "/" + paint.getBranchTotal(1))
+                    .as("Branch coverage of '%s'", columns[2])
+                    .isEqualTo(columns[1]);
+        }
+    }
+
+    @Test
+    void shouldIgnoreConditionCoverageOfLinesWithoutBranches() {
+        CoverageResult file = new CoverageResult(CoverageElement.FILE, null, "file");
+        file.setRelativeSourcePath("file");
+
+        CoverageParser.processLine(file, "0", "7", "false", "50% (1/2)");
+
+        assertThat(file.getLocalResults()).doesNotContainKey(CoverageElement.CONDITIONAL);
+        assertThat(file.getPaint().isPainted(7)).isTrue();
+        assertThat(file.getPaint().getBranchTotal(7)).isZero();
+    }
+
+    @Test
+    void shouldPackCoveredAndTotalBranches() {
+        assertThat(CoverageParser.scanConditionCoverage("100% (2147483647/2147483647)"))
+                .isEqualTo((long) Integer.MAX_VALUE << Integer.SIZE | Integer.MAX_VALUE);
+        assertThat(CoverageParser.scanConditionCoverage("0% (0/0)")).isZero();
+        assertThat(CoverageParser.scanConditionCoverage("0% (0/)")).isEqualTo(CoverageParser.NO_CONDITION_COVERAGE);
+    }
+}
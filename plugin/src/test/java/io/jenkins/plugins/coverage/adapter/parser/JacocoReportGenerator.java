@@ -0,0 +1,134 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes synthetic JaCoCo reports with a configurable number of packages and classes.
+ */
+class JacocoReportGenerator {
+    private static final int LINES_PER_METHOD = 5;
+    private static final int METHODS_PER_CLASS = 4;
+    private static final int INNER_CLASS_FREQUENCY = 5;
+
+    private final int packages;
+    private final int classesPerPackage;
+    private int classWithoutSourceFileFrequency;
+
+    /**
+     * Creates a new generator.
+     *
+     * @param packages          the number of packages
+     * @param classesPerPackage the number of top level classes in each package
+     */
+    JacocoReportGenerator(final int packages, final int classesPerPackage) {
+        this.packages = packages;
+        this.classesPerPackage = classesPerPackage;
+    }
+
+    /**
+     * Omits the {@code sourcefilename} attribute for every n-th class, like reports of old JaCoCo versions.
+     *
+     * @param frequency the frequency of classes without a source file name, 0 to write the attribute for all classes
+     * @return this
+     */
+    JacocoReportGenerator withoutSourceFileNameEvery(final int frequency) {
+        classWithoutSourceFileFrequency = frequency;
+        return this;
+    }
+
+    /**
+     * Writes the report to the specified file.
+     *
+     * @param report the file to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(final Path report) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+            writer.write("<report name=\"Synthetic\">");
+            writer.write("<sessioninfo id=\"synthetic\" start=\"0\" dump=\"1\"/>");
+            for (int p = 0; p < packages; p++) {
+                writePackage(writer, p);
+            }
+            writeCounters(writer, packages * classesPerPackage);
+            writer.write("</report>\n");
+        }
+    }
+
+    private void writePackage(final Writer writer, final int packageIndex) throws IOException {
+        String packageName = "com/example/module" + packageIndex;
+        writer.write("<package name=\"" + packageName + "\">");
+        for (int c = 0; c < classesPerPackage; c++) {
+            boolean withSourceFileName = classWithoutSourceFileFrequency == 0
+                    || c % classWithoutSourceFileFrequency != 0;
+            String simpleName = getSimpleClassName(packageIndex, c);
+            String className = packageName + "/" + simpleName;
+            writeClass(writer, className, simpleName + ".java", withSourceFileName, c);
+            if (c % INNER_CLASS_FREQUENCY == 0) {
+                writeClass(writer, className + "$Inner", simpleName + ".java", withSourceFileName, c);
+            }
+        }
+        for (int c = 0; c < classesPerPackage; c++) {
+            writer.write("<sourcefile name=\"" + getSimpleClassName(packageIndex, c) + ".java\">");
+            for (int line = 1; line <= METHODS_PER_CLASS * LINES_PER_METHOD; line++) {
+                writeLine(writer, line, c);
+            }
+            writeCounters(writer, 1);
+            writer.write("</sourcefile>");
+        }
+        writeCounters(writer, classesPerPackage);
+        writer.write("</package>");
+    }
+
+    // source file names are unique in the report, since the XSL groups the classes of a source file over all packages
+    private String getSimpleClassName(final int packageIndex, final int classIndex) {
+        return "Module" + packageIndex + "Class" + classIndex;
+    }
+
+    private void writeClass(final Writer writer, final String className, final String sourceFileName,
+            final boolean withSourceFileName, final int seed) throws IOException {
+        writer.write("<class name=\"" + className + "\"");
+        if (withSourceFileName) {
+            writer.write(" sourcefilename=\"" + sourceFileName + "\"");
+        }
+        writer.write(">");
+        for (int m = 0; m < METHODS_PER_CLASS; m++) {
+            writer.write("<method name=\"method" + m + "\" desc=\"(Ljava/lang/String;I)V\" line=\""
+                    + (m * LINES_PER_METHOD + 1) + "\">");
+            writeCounters(writer, seed + m);
+            writer.write("</method>");
+        }
+        writeCounters(writer, seed);
+        writer.write("</class>");
+    }
+
+    private void writeLine(final Writer writer, final int line, final int seed) throws IOException {
+        int variant = (line + seed) % 4;
+        int missedInstructions = variant == 0 ? 3 : 0;
+        int coveredInstructions = variant == 0 ? 0 : 2 + variant;
+        // only coverages with an integral percentage, since the XSL drops all other branches
+        int missedBranches = variant == 1 ? 1 : variant == 2 ? 3 : 0;
+        int coveredBranches = variant == 1 ? 1 : variant == 2 ? 1 : 0;
+        writer.write("<line nr=\"" + line + "\" mi=\"" + missedInstructions + "\" ci=\"" + coveredInstructions
+                + "\" mb=\"" + missedBranches + "\" cb=\"" + coveredBranches + "\"/>");
+    }
+
+    private void writeCounters(final Writer writer, final int seed) throws IOException {
+        writeCounter(writer, "INSTRUCTION", seed % 7, 10 + seed % 13);
+        if (seed % 3 != 0) {
+            writeCounter(writer, "BRANCH", seed % 2, 2 + seed % 5);
+        }
+        writeCounter(writer, "LINE", seed % 3, 3 + seed % 11);
+        writeCounter(writer, "COMPLEXITY", 1, seed % 4);
+        writeCounter(writer, "METHOD", seed % 2, 1);
+    }
+
+    private void writeCounter(final Writer writer, final String type, final int missed, final int covered)
+            throws IOException {
+        writer.write("<counter type=\"" + type + "\" missed=\"" + missed + "\" covered=\"" + covered + "\"/>");
+    }
+}
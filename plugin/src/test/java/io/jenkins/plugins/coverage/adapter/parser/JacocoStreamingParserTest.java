@@ -0,0 +1,145 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter;
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter.JacocoReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageElementRegister;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.Ratio;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link JacocoStreamingParser}.
+ */
+class JacocoStreamingParserTest extends ResourceTest {
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new JacocoReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldReadReportsLikeXslTransformation() throws CoverageException {
+        verifySameTreeAsXslTransformation(getReport("model/jacoco-codingstyle.xml"));
+        verifySameTreeAsXslTransformation(getReport("model/jacoco-acu-cobol-parser.xml"));
+        verifySameTreeAsXslTransformation(getReport("model/jacoco-analysis-model.xml"));
+        verifySameTreeAsXslTransformation(getReport("jacoco.xml"));
+    }
+
+    @Test
+    void shouldReadGroupsAndSourceFilesLikeXslTransformation() throws CoverageException {
+        verifySameTreeAsXslTransformation(getReport("adapter/parser/jacoco-edge-cases.xml"));
+    }
+
+    @Test
+    void shouldReadSyntheticReportLikeXslTransformation(@TempDir final Path temp) throws IOException, CoverageException {
+        Path report = temp.resolve("jacoco.xml");
+        new JacocoReportGenerator(3, 40).write(report);
+
+        verifySameTreeAsXslTransformation(report.toFile());
+    }
+
+    @Test
+    void shouldGroupClassesWithoutSourceFileName(@TempDir final Path temp) throws IOException, CoverageException {
+        Path report = temp.resolve("jacoco.xml");
+        new JacocoReportGenerator(2, 12).withoutSourceFileNameEvery(3).write(report);
+
+        verifySameTreeAsXslTransformation(report.toFile());
+    }
+
+    @Test
+    void shouldGroupSourceFilesOverAllPackagesLikeXslTransformation() throws CoverageException {
+        CoverageResult result = new JacocoReportAdapter("unused").getResult(getReport("model/jacoco-analysis-model.xml"));
+
+        CoverageResult file = result.getChild("project")
+                .getChild("edu.hm.hafner.analysis.parser.jcreport")
+                .getChild("File.java");
+        assertThat(file.getChildren()).containsExactly("edu.hm.hafner.analysis.parser.checkstyle.File",
+                "edu.hm.hafner.analysis.parser.jcreport.File", "edu.hm.hafner.analysis.parser.pmd.File");
+    }
+
+    @Test
+    void shouldDropBranchesWithNonIntegralCoverageLikeXslTransformation() throws CoverageException {
+        CoverageResult result = new JacocoReportAdapter("unused").getResult(getReport("model/jacoco-analysis-model.xml"));
+
+        CoverageResult file = result.getChild("project")
+                .getChild("edu.hm.hafner.analysis.parser")
+                .getChild("IarParser.java");
+        assertThat(file.getPaint().getHits(35)).isEqualTo(1);
+        assertThat(file.getPaint().getBranchTotal(35)).isZero();
+        assertThat(file.getLocalResults()).containsEntry(CoverageElement.CONDITIONAL, Ratio.create(5, 6));
+    }
+
+    @Test
+    void shouldDetectIntegralPercentages() {
+        assertThat(JacocoStreamingParser.hasIntegralPercentage(0, 3)).isTrue();
+        assertThat(JacocoStreamingParser.hasIntegralPercentage(1, 2)).isTrue();
+        assertThat(JacocoStreamingParser.hasIntegralPercentage(3, 4)).isTrue();
+        assertThat(JacocoStreamingParser.hasIntegralPercentage(1, 5)).isTrue();
+        assertThat(JacocoStreamingParser.hasIntegralPercentage(1, 3)).isFalse();
+        assertThat(JacocoStreamingParser.hasIntegralPercentage(5, 6)).isFalse();
+    }
+
+    @Test
+    void shouldRejectOtherReports() {
+        assertThatExceptionOfType(CoverageException.class).isThrownBy(
+                () -> new JacocoStreamingParser("unused").parse(getReport("cobertura-coverage.xml")));
+    }
+
+    private File getReport(final String fileName) {
+        return getResourceAsFile("/io/jenkins/plugins/coverage/" + fileName).toFile();
+    }
+
+    private void verifySameTreeAsXslTransformation(final File report) throws CoverageException {
+        JacocoReportAdapter adapter = new JacocoReportAdapter("unused");
+        CoverageResult streamed = adapter.getResult(report);
+        adapter.setUseXSLTransformation(true);
+        CoverageResult transformed = adapter.getResult(report);
+
+        streamed.setOwner(null);
+        transformed.setOwner(null);
+
+        assertSameTree(streamed, transformed);
+    }
+
+    private void assertSameTree(final CoverageResult actual, final CoverageResult expected) {
+        assertThat(actual.getElement()).isEqualTo(expected.getElement());
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getRelativeSourcePath()).isEqualTo(expected.getRelativeSourcePath());
+        assertThat(actual.getLocalResults()).isEqualTo(expected.getLocalResults());
+        assertThat(actual.getResults()).isEqualTo(expected.getResults());
+        assertThat(actual.getAdditionalProperty("lineNumber")).isEqualTo(expected.getAdditionalProperty("lineNumber"));
+        assertSamePaint(actual.getPaint(), expected.getPaint());
+
+        assertThat(actual.getChildren()).containsExactlyElementsOf(expected.getChildren());
+        for (String child : expected.getChildren()) {
+            assertSameTree(actual.getChild(child), expected.getChild(child));
+        }
+    }
+
+    private void assertSamePaint(final CoveragePaint actual, final CoveragePaint expected) {
+        if (expected == null) {
+            assertThat(actual).isNull();
+            return;
+        }
+        assertThat(actual).isNotNull();
+        assertThat(actual.getAllLines()).containsExactlyInAnyOrder(expected.getAllLines());
+        for (int line : expected.getAllLines()) {
+            assertThat(actual.getHits(line)).as("hits of line %d", line).isEqualTo(expected.getHits(line));
+            assertThat(actual.getBranchCoverage(line)).isEqualTo(expected.getBranchCoverage(line));
+            assertThat(actual.getBranchTotal(line)).isEqualTo(expected.getBranchTotal(line));
+        }
+    }
+}
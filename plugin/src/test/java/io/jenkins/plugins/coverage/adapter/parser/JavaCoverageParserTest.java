@@ -0,0 +1,47 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link JavaCoverageParser}.
+ */
+class JavaCoverageParserTest extends ResourceTest {
+    /**
+     * Each line contains the name and the signature of a method and the expected Java method name. Most methods have
+     * been taken from the reports of the tests. The expected names have been recorded with the regular expressions that
+     * have been used to convert the signatures before.
+     */
+    private static final String GOLDEN_FILE = "/io/jenkins/plugins/coverage/adapter/parser/method-names.txt";
+
+    @Test
+    void shouldBuildMethodNamesLikeGoldenFile() {
+        for (String line : readAllLines(GOLDEN_FILE)) {
+            String[] columns = line.split("\t", -1);
+
+            assertThat(JavaCoverageParser.buildMethodName(columns[0], columns[1]))
+                    .as("Method name of '%s' with signature '%s'", columns[0], columns[1])
+                    .isEqualTo(columns[2]);
+        }
+    }
+
+    @Test
+    void shouldNotConvertSignaturesWithLineTerminators() {
+        assertThat(JavaCoverageParser.buildMethodName("test", "(I)\nV")).isEqualTo("test");
+        assertThat(JavaCoverageParser.buildMethodName("test", "(I\r)V")).isEqualTo("test");
+        assertThat(JavaCoverageParser.buildMethodName("test", "(\u2028)V")).isEqualTo("test");
+        assertThat(JavaCoverageParser.buildMethodName("test", "(I)V")).isEqualTo("void test(int)");
+    }
+
+    @Test
+    void shouldReplacePathOrDollarWithDots() {
+        assertThat(JavaCoverageParser.replacePathOrDollarWithDots("edu/hm\\hafner$Inner"))
+                .isEqualTo("edu.hm.hafner.Inner");
+        assertThat(JavaCoverageParser.replacePathOrDollarWithDots("edu.hm.hafner")).isEqualTo("edu.hm.hafner");
+        assertThat(JavaCoverageParser.replacePathOrDollarWithDots(" ")).isEqualTo(" ");
+        assertThat(JavaCoverageParser.replacePathOrDollarWithDots(null)).isNull();
+    }
+}
@@ -0,0 +1,145 @@
+package io.jenkins.plugins.coverage.adapter.parser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.LcovReportAdapter;
+import io.jenkins.plugins.coverage.adapter.LcovReportAdapter.LcovReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.detector.ReportHeader;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoverageElementRegister;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
+import io.jenkins.plugins.coverage.targets.Ratio;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link LcovParser}.
+ */
+class LcovParserTest extends ResourceTest {
+    private static final String REPORT = "/io/jenkins/plugins/coverage/adapter/lcov.info";
+
+    private static final int FILES = 2_000;
+    private static final int LINES = 500;
+
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new LcovReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldReadAllRecords() throws CoverageException {
+        CoverageResult report = new LcovReportAdapter("unused").getResult(getResourceAsFile(REPORT).toFile());
+        report.setOwner(null);
+
+        assertThat(report.getName()).isEqualTo("lcov: lcov.info");
+        assertThat(report.getChildren()).containsExactly("src", "src/util");
+
+        CoverageResult index = report.getChild("src").getChild("src/index.js");
+        assertThat(index.getElement()).isEqualTo(CoverageElement.FILE);
+        assertThat(index.getRelativeSourcePath()).isEqualTo("src/index.js");
+        assertThat(index.getPaint().getHits(2)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(index.getLocalResults().keySet()).containsExactly(CoverageElement.LINE);
+
+        CoverageResult math = report.getChild("src/util").getChild("src/util/math.js");
+        assertThat(math.getElement()).isEqualTo(CoverageElement.FILE);
+        assertThat(math.getChildren()).containsExactly("add", "compare<int, long>", "subtract");
+        assertThat(math.getChild("add").getAdditionalProperty("lineNumber")).containsExactly("1");
+        assertThat(math.getChild("compare<int, long>").getAdditionalProperty("lineNumber")).containsExactly("9");
+        assertThat(math.getCoverage(CoverageElement.get("Function"))).isEqualTo(Ratio.create(3, 3));
+
+        CoveragePaint paint = math.getPaint();
+        assertThat(paint.getAllLines()).containsExactlyInAnyOrder(1, 2, 5, 6, 9, 10, 11);
+        assertThat(paint.getHits(5)).isEqualTo(1);
+        assertThat(paint.getHits(6)).isZero();
+        assertThat(paint.getBranchCoverage(10)).isEqualTo(1);
+        assertThat(paint.getBranchTotal(10)).isEqualTo(2);
+        assertThat(paint.getBranchCoverage(11)).isEqualTo(1);
+        assertThat(paint.getBranchTotal(11)).isEqualTo(2);
+        assertThat(math.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(5, 7));
+        assertThat(math.getCoverage(CoverageElement.CONDITIONAL)).isEqualTo(Ratio.create(2, 4));
+
+        assertThat(report.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(7, 9));
+        assertThat(report.getCoverage(CoverageElement.FILE)).isEqualTo(Ratio.create(2, 2));
+    }
+
+    @Test
+    void shouldSkipMalformedRecords() throws IOException {
+        String lcov = "\uFEFFTN:\nDA:1,1\nSF:Main.c\nDA:1\nDA:x,1\nDA:2,-1\nBRDA:3\nFN:\nFNDA:1\nDA:4,2\n"
+                + "unknown\n  DA:5,0  \n";
+        CoverageResult report = new LcovParser("inline").parse(new BufferedReader(new StringReader(lcov)));
+        report.setOwner(null);
+
+        CoverageResult file = report.getChild("<root>").getChild("Main.c");
+        assertThat(file.getChildren()).isEmpty();
+        assertThat(file.getPaint().getAllLines()).containsExactlyInAnyOrder(4, 5);
+        assertThat(file.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(1, 2));
+    }
+
+    @Test
+    void shouldReadLargeGeneratedReport(@TempDir final Path folder) throws IOException, CoverageException {
+        Path lcov = folder.resolve("large.info");
+        writeReport(lcov);
+
+        CoverageResult report = new LcovReportAdapter("unused").getResult(lcov.toFile());
+        report.setOwner(null);
+
+        assertThat(report.getChildren()).hasSize(FILES / 100);
+        int coveredLines = LINES - LINES / 3;
+        assertThat(report.getCoverage(CoverageElement.LINE))
+                .isEqualTo(Ratio.create(FILES * coveredLines, FILES * LINES));
+        assertThat(report.getCoverage(CoverageElement.CONDITIONAL))
+                .isEqualTo(Ratio.create(FILES * LINES / 10, FILES * LINES / 10 * 2));
+        assertThat(report.getCoverage(CoverageElement.get("Function")))
+                .isEqualTo(Ratio.create(FILES, FILES * 2));
+
+        CoverageResult file = report.getChild("dir7").getChild("dir7/file742.c");
+        assertThat(file.getPaint().getAllLines()).hasSize(LINES);
+        assertThat(file.getPaint().getHits(LINES)).isEqualTo(LINES);
+    }
+
+    @Test
+    void shouldDetectLcovReports(@TempDir final Path folder) throws IOException {
+        LcovReportAdapterDescriptor descriptor = new LcovReportAdapterDescriptor();
+        assertThat(descriptor.detect(getResourceAsFile(REPORT).toFile())).isTrue();
+        assertThat(descriptor.detect(ReportHeader.create("lcov.info",
+                "\n SF:main.c\nend_of_record\n".getBytes(StandardCharsets.UTF_8)))).isTrue();
+
+        assertThat(descriptor.detect(
+                getResourceAsFile("/io/jenkins/plugins/coverage/cobertura-coverage.xml").toFile())).isFalse();
+        assertThat(descriptor.detect(ReportHeader.create("coverage.json",
+                "{\"SF:\": 1}".getBytes(StandardCharsets.UTF_8)))).isFalse();
+        assertThat(descriptor.detect(new File(folder.toFile(), "missing.info"))).isFalse();
+    }
+
+    private void writeReport(final Path report) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            for (int file = 0; file < FILES; file++) {
+                writer.write("TN:generated\n");
+                writer.write("SF:dir" + file / 100 + "/file" + file + ".c\n");
+                writer.write("FN:1,covered\nFN:2,uncovered\nFNDA:1,covered\nFNDA:0,uncovered\n");
+                for (int line = 1; line <= LINES; line++) {
+                    writer.write("DA:" + line + "," + (line % 3 == 0 ? 0 : line) + "\n");
+                    if (line % 10 == 0) {
+                        writer.write("BRDA:" + line + ",0,0,1\nBRDA:" + line + ",0,1,-\n");
+                    }
+                }
+                writer.write("end_of_record\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.jenkins.plugins.coverage.adapter.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.CoberturaReportAdapter;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link XMLUtils}.
+ */
+class XMLUtilsTest extends ResourceTest {
+    @Test
+    void shouldCompileStylesheetOnlyOnce() throws CoverageException {
+        XMLUtils utils = XMLUtils.getInstance();
+        long hits = utils.getTemplatesCacheHits();
+        long misses = utils.getTemplatesCacheMisses();
+
+        CoberturaReportAdapter adapter = new CoberturaReportAdapter("unused");
+        adapter.setUseXSLTransformation(true);
+        assertThat(adapter.convert(getReport("cobertura-coverage.xml")).getDocumentElement().getTagName())
+                .isEqualTo("report");
+        assertThat(adapter.convert(getReport("coverage-with-lots-of-data.xml")).getDocumentElement().getTagName())
+                .isEqualTo("report");
+
+        assertThat(utils.getTemplatesCacheMisses() - misses).isLessThanOrEqualTo(1);
+        assertThat(utils.getTemplatesCacheHits() - hits).isGreaterThanOrEqualTo(1);
+        assertThat(utils.getTemplatesCompileTime()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void shouldNotCountUncachedStylesheetsAsCacheMisses() throws CoverageException, FileNotFoundException {
+        XMLUtils utils = XMLUtils.getInstance();
+        long misses = utils.getTemplatesCacheMisses();
+
+        Document document = utils.convertToDocumentWithXSL(new StreamSource(
+                CoberturaReportAdapter.class.getResourceAsStream("cobertura-to-standard.xsl")),
+                getReport("cobertura-coverage.xml"));
+
+        assertThat(document.getDocumentElement().getTagName()).isEqualTo("report");
+        assertThat(utils.getTemplatesCacheMisses()).isEqualTo(misses);
+    }
+
+    @Test
+    void shouldReadDocumentWithDoctypeWithoutResolvingExternalEntities() throws TransformerException {
+        Document document = XMLUtils.getInstance().readXMLtoDocument(getReport("sec1699.xml"));
+
+        assertThat(document.getDocumentElement().getTagName()).isEqualTo("coverage");
+        assertThat(document.getDocumentElement().getTextContent()).doesNotContain("foobar");
+    }
+
+    private File getReport(final String fileName) {
+        return getResourceAsFile("/io/jenkins/plugins/coverage/" + fileName).toFile();
+    }
+}
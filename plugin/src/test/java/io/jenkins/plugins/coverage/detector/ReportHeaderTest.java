@@ -0,0 +1,112 @@
+package io.jenkins.plugins.coverage.detector;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.CoberturaReportAdapter.CoberturaReportAdapterDescriptor;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link ReportHeader}.
+ */
+class ReportHeaderTest extends ResourceTest {
+    @Test
+    void shouldReadRootElementOfCoberturaReport() throws IOException {
+        ReportHeader header = ReportHeader.read(getReport("cobertura-coverage.xml"));
+
+        assertThat(header.isXml()).isTrue();
+        assertThat(header.getRootElement()).isEqualTo("coverage");
+        assertThat(header.getRootNamespace()).isNull();
+        assertThat(header.getRootAttribute("lines-valid")).isEqualTo("8");
+        assertThat(header.getRootAttribute("name")).isNull();
+        assertThat(new CoberturaReportAdapterDescriptor().detect(header)).isTrue();
+    }
+
+    @Test
+    void shouldReadOnlyTheHeaderOfLargeReports() throws IOException {
+        File report = getReport("model/jacoco-analysis-model.xml");
+        assertThat(report.length()).isGreaterThan(ReportHeader.MAX_HEADER_SIZE);
+
+        ReportHeader header = ReportHeader.read(report);
+
+        assertThat(header.getRootElement()).isEqualTo("report");
+        assertThat(header.getContent()).hasSizeLessThanOrEqualTo(ReportHeader.MAX_HEADER_SIZE);
+        assertThat(new CoberturaReportAdapterDescriptor().detect(header)).isFalse();
+    }
+
+    @Test
+    void shouldNotResolveExternalEntities() throws IOException {
+        ReportHeader header = ReportHeader.read(getReport("sec1699.xml"));
+
+        assertThat(header.getRootElement()).isEqualTo("coverage");
+    }
+
+    @Test
+    void shouldReadHeaderOfOtherFiles(@TempDir final Path temp) throws IOException {
+        Path json = temp.resolve("coverage.json");
+        Files.write(json, "{\"total\": {}}".getBytes(StandardCharsets.UTF_8));
+        ReportHeader header = ReportHeader.read(json.toFile());
+
+        assertThat(header.isXml()).isFalse();
+        assertThat(header.getRootElement()).isNull();
+        assertThat(header.getContent()).isEqualTo("{\"total\": {}}");
+        assertThat(header.getPath()).isEqualTo(json.toString());
+
+        Path empty = temp.resolve("empty.xml");
+        Files.write(empty, new byte[0]);
+        assertThat(ReportHeader.read(empty.toFile()).isXml()).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreRootElementAfterHeader(@TempDir final Path temp) throws IOException {
+        Path report = temp.resolve("cobertura.xml");
+        String comment = "<!-- " + StringUtils.repeat('-', ReportHeader.MAX_HEADER_SIZE) + " -->";
+        Files.write(report, ("<?xml version=\"1.0\"?>" + comment + "<coverage/>").getBytes(StandardCharsets.UTF_8));
+
+        ReportHeader header = ReportHeader.read(report.toFile());
+
+        assertThat(header.isXml()).isFalse();
+        assertThat(new CoberturaReportAdapterDescriptor().detect(report.toFile())).isFalse();
+    }
+
+    @Test
+    void shouldFindAllMatchingDetectables() throws IOException {
+        ReportHeader header = ReportHeader.read(getReport("cobertura-coverage.xml"));
+        Detectable cobertura = new CoberturaReportAdapterDescriptor();
+        Detectable jacoco = detectRootElement("report");
+        Detectable fileName = file -> file.getName().equals("cobertura-coverage.xml");
+
+        assertThat(header.findMatching(Arrays.asList(jacoco, cobertura, fileName)))
+                .containsExactly(cobertura, fileName);
+        assertThat(header.findMatching(Arrays.asList(jacoco))).isEmpty();
+    }
+
+    private Detectable detectRootElement(final String rootElement) {
+        return new Detectable() {
+            @Override
+            public boolean detect(final File file) {
+                throw new UnsupportedOperationException("Only the header should be detected");
+            }
+
+            @Override
+            public boolean detect(final ReportHeader header) {
+                return rootElement.equals(header.getRootElement());
+            }
+        };
+    }
+
+    private File getReport(final String fileName) {
+        return getResourceAsFile("/io/jenkins/plugins/coverage/" + fileName).toFile();
+    }
+}
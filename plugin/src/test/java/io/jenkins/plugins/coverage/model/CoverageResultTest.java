@@ -80,6 +80,29 @@ class CoverageResultTest extends AbstractCoverageTest {
         assertThat(treeStringBuilderClass.getCoverageFor(BRANCH)).isEmpty();
     }
 
+    @Test
+    void shouldAggregateMergedResultsIncrementally() throws CoverageException {
+        CoverageResult expectedReport = readReport("jacoco-analysis-model.xml");
+        expectedReport.merge(readReport("jacoco-codingstyle.xml"));
+        CoverageResult expected = new CoverageResult(CoverageElement.AGGREGATED_REPORT, null, "All Reports");
+        expectedReport.resetParent(expected);
+        expected.setOwner(null);
+
+        CoverageResult first = readReport("jacoco-analysis-model.xml");
+        CoverageResult actual = new CoverageResult(CoverageElement.AGGREGATED_REPORT, null, "All Reports");
+        first.resetParent(actual);
+        actual.setOwner(null);
+
+        CoverageResult second = readReport("jacoco-codingstyle.xml");
+        second.setOwner(null);
+        first.merge(second);
+        actual.updateAggregatedResults();
+
+        assertThat(first.getChildren()).containsExactlyElementsOf(expectedReport.getChildren());
+        assertThat(first.getResults()).isEqualTo(expectedReport.getResults());
+        assertThat(actual.getResults()).isEqualTo(expected.getResults());
+    }
+
     private void verifyCoverage(final CoverageResult actualResult,
             final CoverageElement coverageElement, final int covered, final int missed) {
         assertThat(actualResult.getCoverageFor(coverageElement))
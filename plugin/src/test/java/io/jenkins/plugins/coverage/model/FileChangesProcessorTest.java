@@ -1,6 +1,7 @@
 package io.jenkins.plugins.coverage.model;
 
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -152,6 +153,30 @@ class FileChangesProcessorTest extends AbstractCoverageTest {
                 });
     }
 
+    @Test
+    void shouldAttachChangesOfPreviousInvocation() {
+        FileChangesProcessor fileChangesProcessor = createFileChangesProcessor();
+        CoverageNode reference = readCoverageTree(TEST_REPORT_BEFORE);
+        CoverageNode previous = readCoverageTree(TEST_REPORT_AFTER);
+        fileChangesProcessor.attachChangedCodeLines(previous, CODE_CHANGES);
+        fileChangesProcessor.attachIndirectCoveragesChanges(previous, reference, CODE_CHANGES, OLD_PATH_MAPPING);
+        fileChangesProcessor.attachFileCoverageDeltas(previous, reference, OLD_PATH_MAPPING);
+        FileCoverageNode previousFile = (FileCoverageNode) previous.findByHashCode(FILE, TEST_FILE_1.hashCode()).get();
+
+        CoverageNode tree = readCoverageTree(TEST_REPORT_AFTER);
+        fileChangesProcessor.attachPreviousChanges(tree, previous, Collections.singleton(previousFile.getPath()));
+
+        FileCoverageNode file = (FileCoverageNode) tree.findByHashCode(FILE, TEST_FILE_1.hashCode()).get();
+        assertThat(file.getChangedCodeLines()).isEqualTo(previousFile.getChangedCodeLines())
+                .isNotSameAs(previousFile.getChangedCodeLines());
+        assertThat(file.getIndirectCoverageChanges()).isEqualTo(previousFile.getIndirectCoverageChanges());
+        verifyFileCoverageDeltaOfTestFile1(file);
+
+        FileCoverageNode otherFile = (FileCoverageNode) tree.findByHashCode(FILE, TEST_FILE_2.hashCode()).get();
+        assertThat(otherFile.getIndirectCoverageChanges()).isEmpty();
+        assertThat(otherFile.getFileCoverageDelta()).isEmpty();
+    }
+
     /**
      * Reads the coverage tree from a report.
      *
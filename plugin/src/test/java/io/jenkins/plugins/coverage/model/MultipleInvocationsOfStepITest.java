@@ -1,5 +1,7 @@
 package io.jenkins.plugins.coverage.model;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 import org.junit.jupiter.api.Disabled;
@@ -10,6 +12,9 @@ import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import hudson.model.Result;
 import hudson.model.Run;
 
+import io.jenkins.plugins.coverage.CoverageAction;
+import io.jenkins.plugins.coverage.CoverageProcessor;
+import io.jenkins.plugins.coverage.targets.CoverageResult;
 import io.jenkins.plugins.util.IntegrationTestWithJenkinsPerSuite;
 
 import static org.assertj.core.api.Assertions.*;
@@ -100,6 +105,25 @@ class MultipleInvocationsOfStepITest extends IntegrationTestWithJenkinsPerSuite
                         JACOCO_HIGHER_BRANCH_COVERAGE_MISSED_VALUE));
     }
 
+    /**
+     * Pipeline with multiple invocations of step: the reports of each invocation are saved in a file of their own and
+     * merged again when the result is recovered.
+     */
+    @Test
+    void shouldRecoverMergedResultOfAllInvocations() throws IOException, ClassNotFoundException {
+        WorkflowJob job = createPipelineWithAdaptersAndTags("t1");
+        Run<?, ?> build = buildWithResult(job, Result.SUCCESS);
+
+        assertThat(new File(build.getRootDir(), "coverage-report.1")).exists();
+        assertThat(new File(build.getRootDir(), "coverage-report.2")).doesNotExist();
+
+        CoverageResult recovered = CoverageProcessor.recoverCoverageResult(build);
+        recovered.setOwner(build);
+        CoverageResult result = build.getAction(CoverageAction.class).getResult();
+        assertThat(recovered.getChildren()).containsExactlyElementsOf(result.getChildren());
+        assertThat(recovered.getResults()).isEqualTo(result.getResults());
+    }
+
     /**
      * Creates pipeline project with jacoco adapters and tag 't1' and adapter with variable tag.
      *
@@ -0,0 +1,97 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the classes {@link CoverageElementRegister} and {@link CoverageElement}.
+ */
+class CoverageElementRegisterTest {
+    private static final String TYPE = "RegisterTest";
+
+    @Test
+    void shouldAssignSameOrdinalToElementsWithSameName() {
+        CoverageElement first = new CoverageElement("Ordinal", 7);
+        CoverageElement second = new CoverageElement("Ordinal", 7, true);
+        CoverageElement other = new CoverageElement("Other Ordinal", 7);
+
+        assertThat(first.getOrdinal()).isEqualTo(second.getOrdinal()).isNotEqualTo(other.getOrdinal());
+        assertThat(first).isEqualTo(second).hasSameHashCodeAs(second).isNotEqualTo(other);
+        assertThat(first.getOrdinal()).isLessThan(CoverageElement.getOrdinalCount());
+        assertThat(CoverageElement.LINE.getOrdinal()).isLessThan(CoverageElement.getOrdinalCount());
+    }
+
+    @Test
+    void shouldRegisterEachNameOnlyOnce() {
+        CoverageElement function = new CoverageElement("Register Function", 4);
+        assertThat(CoverageElementRegister.addCoverageElement(TYPE, function)).isTrue();
+        assertThat(CoverageElementRegister.addCoverageElement(TYPE, new CoverageElement("Register Function", 4)))
+                .isFalse();
+        assertThat(CoverageElementRegister.addCoverageElements(TYPE,
+                Arrays.asList(new CoverageElement("Register Function", 4), new CoverageElement("Register Block", 5))))
+                .isTrue();
+
+        assertThat(CoverageElementRegister.listByType(TYPE)).extracting(CoverageElement::getName)
+                .containsExactly("Register Function", "Register Block");
+        assertThat(CoverageElementRegister.get(TYPE, "Register Function")).isSameAs(function);
+        assertThat(CoverageElement.get("Register Function")).isSameAs(function);
+        assertThat(CoverageElement.get("Line")).isSameAs(CoverageElement.LINE);
+        assertThat(CoverageElement.get("Unknown")).isNull();
+    }
+
+    @Test
+    void shouldRegisterElementsConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<CoverageElement>> tasks = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String name = "Concurrent " + i % 20;
+                tasks.add(() -> {
+                    CoverageElementRegister.addCoverageElement(TYPE + "Concurrent", new CoverageElement(name, 1));
+                    return CoverageElement.get(name);
+                });
+            }
+            List<CoverageElement> registered = new ArrayList<>();
+            for (Future<CoverageElement> future : executor.invokeAll(tasks)) {
+                registered.add(future.get());
+            }
+
+            assertThat(registered).doesNotContainNull();
+            assertThat(registered.stream().mapToInt(CoverageElement::getOrdinal).distinct().count()).isEqualTo(20);
+            assertThat(CoverageElementRegister.listByType(TYPE + "Concurrent")).hasSize(20);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRestoreOrdinalAfterDeserialization() throws IOException, ClassNotFoundException {
+        CoverageElement element = new CoverageElement("Serialized", 3);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(element);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            CoverageElement restored = (CoverageElement) input.readObject();
+
+            assertThat(restored.getOrdinal()).isEqualTo(element.getOrdinal());
+            assertThat(restored).isEqualTo(element);
+        }
+    }
+}
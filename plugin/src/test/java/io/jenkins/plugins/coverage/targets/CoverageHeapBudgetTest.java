@@ -0,0 +1,265 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter;
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter.JacocoReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the classes {@link CoverageHeapBudget} and {@link CoveragePaintStore}.
+ */
+class CoverageHeapBudgetTest extends ResourceTest {
+    private static final String REPORT = "/io/jenkins/plugins/coverage/model/jacoco-analysis-model.xml";
+
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new JacocoReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldKeepLinesWithinBudget(@TempDir final Path folder) throws CoverageException, IOException {
+        CoverageHeapBudget budget = new CoverageHeapBudget(100, new CoveragePaintStore(folder.toFile()));
+
+        CoverageResult report = readReport();
+        assertThat(budget.add(report)).isFalse();
+
+        assertThat(budget.isExceeded()).isFalse();
+        assertThat(budget.getUsage()).isEqualTo(CoverageHeapBudget.estimateSize(report)).isPositive();
+        assertThat(countSpilledPaints(report)).isZero();
+        assertThat(folder.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void shouldSpillLinesIfBudgetIsExceeded(@TempDir final Path folder) throws CoverageException, IOException {
+        CoverageResult expected = readReport();
+
+        CoveragePaintStore store = new CoveragePaintStore(folder.toFile());
+        CoverageHeapBudget budget = new CoverageHeapBudget(CoverageHeapBudget.estimateSize(expected), store);
+        assertThat(budget.add(readReport())).isFalse();
+
+        CoverageResult report = readReport();
+        long size = CoverageHeapBudget.estimateSize(report);
+        assertThat(budget.add(report)).isTrue();
+
+        assertThat(budget.isExceeded()).isTrue();
+        assertThat(budget.getSpilledLines()).isPositive();
+        assertThat(budget.getUsage()).isLessThan(2 * size);
+        assertThat(CoverageHeapBudget.estimateSize(report)).isLessThan(size);
+        assertThat(countSpilledPaints(report)).isPositive();
+        assertThat(store.getFile().getParentFile()).isEqualTo(folder.toFile());
+        assertThat(store.getFile().length()).isEqualTo(store.getSize()).isEqualTo(budget.getSpilledLines() * 16);
+
+        expected.setOwner(null);
+        report.setOwner(null);
+        assertSameTree(report, expected);
+
+        store.delete();
+        assertThat(folder.toFile().list()).isEmpty();
+        assertThat(store.getSize()).isZero();
+    }
+
+    @Test
+    void shouldRestoreSpilledLinesWhenSerialized(@TempDir final Path folder)
+            throws CoverageException, IOException, ClassNotFoundException {
+        CoverageResult expected = readReport();
+        expected.setOwner(null);
+
+        CoverageResult report = readReport();
+        report.setOwner(null);
+        new CoveragePaintStore(folder.toFile()).spill(report);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(report);
+        }
+        CoverageResult restored;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (CoverageResult) input.readObject();
+        }
+
+        assertThat(countSpilledPaints(report)).isPositive();
+        assertThat(countSpilledPaints(restored)).isZero();
+        assertSameTree(restored, expected);
+    }
+
+    @Test
+    void shouldParseOnlyReportsWithinBudget(@TempDir final Path folder) throws IOException {
+        CoverageHeapBudget budget = new CoverageHeapBudget(1, new CoveragePaintStore(folder.toFile()));
+
+        assertThat(budget.canParse(getResourceAsFile(REPORT).toFile().length())).isTrue();
+        assertThat(budget.canParse(2 * 1024 * 1024)).isTrue();
+        assertThat(budget.canParse(2 * 1024 * 1024 + CoverageHeapBudget.REPORT_LINE_SIZE)).isFalse();
+
+        Path report = folder.resolve("oversized.xml");
+        LargeReportProcessing.writeReport(report);
+        assertThat(budget.canParse(Files.size(report))).isFalse();
+        assertThat(CoverageHeapBudget.estimateParsingSize(Files.size(report)))
+                .isGreaterThan(LargeReportProcessing.LINES * CoverageHeapBudget.LINE_SIZE);
+    }
+
+    @Test
+    void shouldKeepModifiedPaintInMemory(@TempDir final Path folder) throws IOException {
+        CoveragePaint paint = new CoveragePaint(CoverageElement.LINE);
+        paint.paint(1, 1);
+        paint.paint(2, 0, 1, 2);
+
+        CoveragePaintStore store = new CoveragePaintStore(folder.toFile());
+        assertThat(paint.spill(store)).isEqualTo(2);
+        assertThat(paint.spill(store)).isZero();
+        assertThat(paint.isSpilled()).isTrue();
+        assertThat(paint.getLinesInMemory()).isZero();
+        assertThat(paint.getBranchTotal(2)).isEqualTo(2);
+
+        paint.paint(3, 4);
+
+        assertThat(paint.isSpilled()).isFalse();
+        assertThat(paint.getAllLines()).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(paint.getHits(3)).isEqualTo(4);
+        assertThat(paint.getBranchCoverage(2)).isEqualTo(1);
+    }
+
+    /**
+     * Processes reports with 5 million painted lines in a JVM with a heap of 48 MB. Without spilling, the paints
+     * alone would require more than 80 MB. Each report fits into the budget, so it is parsed.
+     */
+    @Test
+    void shouldProcessOversizedReportsWithSmallHeap(@TempDir final Path folder)
+            throws IOException, InterruptedException {
+        Path report = folder.resolve("oversized.xml");
+        LargeReportProcessing.writeReport(report);
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-Xmx48m", "-cp", System.getProperty("java.class.path"),
+                LargeReportProcessing.class.getName(), report.toString(), folder.toString())
+                .redirectErrorStream(true)
+                .start();
+        String output = readOutput(process);
+        assertThat(process.waitFor(5, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(process.exitValue()).as(output).isZero();
+        assertThat(output).contains("spilled " + LargeReportProcessing.REPORTS * LargeReportProcessing.LINES
+                + " lines").doesNotContain("skipped");
+    }
+
+    private String readOutput(final Process process) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read = process.getInputStream().read(buffer); read >= 0;
+                read = process.getInputStream().read(buffer)) {
+            output.write(buffer, 0, read);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private CoverageResult readReport() throws CoverageException {
+        return new JacocoReportAdapter("unused").getResult(getResourceAsFile(REPORT).toFile());
+    }
+
+    private int countSpilledPaints(final CoverageResult result) {
+        int count = result.getPaint() != null && result.getPaint().isSpilled() ? 1 : 0;
+        for (CoverageResult child : result.getChildrenReal().values()) {
+            count += countSpilledPaints(child);
+        }
+        return count;
+    }
+
+    private void assertSameTree(final CoverageResult actual, final CoverageResult expected) {
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getResults()).isEqualTo(expected.getResults());
+        assertThat(actual.getChildren()).containsExactlyElementsOf(expected.getChildren());
+        if (expected.getPaint() == null) {
+            assertThat(actual.getPaint()).isNull();
+        }
+        else {
+            CoveragePaint actualPaint = actual.getPaint();
+            CoveragePaint expectedPaint = expected.getPaint();
+            int[] lines = expectedPaint.getAllLines();
+            Arrays.sort(lines);
+            int[] actualLines = actualPaint.getAllLines();
+            Arrays.sort(actualLines);
+            assertThat(actualLines).isEqualTo(lines);
+            for (int line : lines) {
+                assertThat(actualPaint.getHits(line)).isEqualTo(expectedPaint.getHits(line));
+                assertThat(actualPaint.getBranchCoverage(line)).isEqualTo(expectedPaint.getBranchCoverage(line));
+                assertThat(actualPaint.getBranchTotal(line)).isEqualTo(expectedPaint.getBranchTotal(line));
+            }
+        }
+        for (String child : expected.getChildren()) {
+            assertSameTree(actual.getChild(child), expected.getChild(child));
+        }
+    }
+
+    /**
+     * Parses a synthetic report several times with a heap budget of 12 MB, which is a bit more than the estimated
+     * lines of the report. Runs in a separate JVM with a small heap.
+     */
+    static class LargeReportProcessing {
+        static final int REPORTS = 10;
+        static final int FILES = 50;
+        static final int LINES = FILES * 10_000;
+
+        public static void main(final String... args) throws IOException, CoverageException {
+            CoverageElementRegister.addCoverageElements(new JacocoReportAdapterDescriptor().getCoverageElements());
+
+            CoverageHeapBudget budget = new CoverageHeapBudget(12, new CoveragePaintStore(new File(args[1])));
+            CoverageResult build = new CoverageResult(CoverageElement.AGGREGATED_REPORT, null, "All reports");
+            for (int i = 0; i < REPORTS; i++) {
+                if (!budget.canParse(new File(args[0]).length())) {
+                    System.out.printf("skipped report %d%n", i);
+                    continue;
+                }
+                CoverageResult report = new JacocoReportAdapter("report " + i).getResult(new File(args[0]));
+                report.setName("report " + i);
+                budget.add(report);
+                report.resetParent(build);
+            }
+            build.setOwner(null);
+            budget.spill(build);
+
+            System.out.printf("spilled %d lines%n", budget.getSpilledLines());
+        }
+
+        static void writeReport(final Path report) throws IOException {
+            try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?><report name=\"oversized\">");
+                writer.write("<package name=\"com/example\">");
+                for (int file = 0; file < FILES; file++) {
+                    writer.write("<class name=\"com/example/Generated" + file + "\" sourcefilename=\"Generated"
+                            + file + ".java\">");
+                    writer.write("<counter type=\"LINE\" missed=\"0\" covered=\"1\"/>");
+                    writer.write("</class>");
+                }
+                for (int file = 0; file < FILES; file++) {
+                    writer.write("<sourcefile name=\"Generated" + file + ".java\">");
+                    for (int line = 1; line <= LINES / FILES; line++) {
+                        writer.write("<line nr=\"" + line + "\" mi=\"1\" ci=\"" + line % 3 + "\" mb=\"0\" cb=\"0\"/>");
+                    }
+                    writer.write("<counter type=\"LINE\" missed=\"0\" covered=\"1\"/>");
+                    writer.write("</sourcefile>");
+                }
+                writer.write("</package></report>");
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoveragePaint}.
+ */
+class CoveragePaintTest {
+    @Test
+    void shouldSortLinesThatArePaintedOutOfOrder() {
+        CoveragePaint paint = new CoveragePaint(CoverageElement.LINE);
+        paint.paint(10, 0);
+        paint.paint(3, 2);
+        paint.paint(7, 0, 1, 4);
+        paint.paint(3, 1);
+        paint.paint(7, 1, 3, 2);
+        paint.paint(1, 0);
+
+        assertThat(paint.getAllLines()).containsExactly(1, 3, 7, 10);
+        assertThat(paint.getUncoveredLines()).containsExactly(1, 10);
+        assertThat(paint.getHits(3)).isEqualTo(3);
+        assertThat(paint.getHits(7)).isEqualTo(1);
+        assertThat(paint.getBranchCoverage(7)).isEqualTo(3);
+        assertThat(paint.getBranchTotal(7)).isEqualTo(4);
+        assertThat(paint.isPainted(7)).isTrue();
+        assertThat(paint.isPainted(8)).isFalse();
+        assertThat(paint.getHits(8)).isZero();
+        assertThat(paint.getLineCoverage()).isEqualTo(Ratio.create(2, 4));
+        assertThat(paint.getConditionalCoverage()).isEqualTo(Ratio.create(3, 4));
+
+        paint.paint(2, 5);
+        assertThat(paint.getAllLines()).containsExactly(1, 2, 3, 7, 10);
+        assertThat(paint.getHits(2)).isEqualTo(5);
+    }
+
+    @Test
+    void shouldKeepLinesWhenTrimmed() {
+        CoveragePaint paint = new CoveragePaint(CoverageElement.LINE);
+        for (int line = 1; line <= 10; line++) {
+            paint.paint(line, line % 2);
+            assertThat(paint.isPainted(line)).isTrue();
+        }
+        paint.paint(5, 0, 1, 2);
+
+        paint.trimToSize();
+        assertThat(paint.getLinesInMemory()).isEqualTo(10);
+        assertThat(paint.getLineCoverage()).isEqualTo(Ratio.create(5, 10));
+        assertThat(paint.getBranchTotal(5)).isEqualTo(2);
+
+        paint.paint(11, 1);
+        paint.paint(0, 1);
+        assertThat(paint.getAllLines()).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+    }
+
+    @Test
+    void shouldUseLineSizeOfHeapBudgetWhenTrimmed() {
+        CoveragePaint paint = new CoveragePaint(CoverageElement.LINE);
+        for (int line = 1; line <= 500; line++) {
+            if (line % 10 == 0) {
+                paint.paint(line, line % 3, 1, 2);
+            }
+            else {
+                paint.paint(line, line % 5 == 0 ? 1000 + line : line % 3);
+            }
+        }
+        assertThat(paint.getBytesInMemory()).isGreaterThan(500 * CoverageHeapBudget.LINE_SIZE);
+
+        paint.trimToSize();
+
+        assertThat(paint.getBytesInMemory()).isEqualTo(500 * CoverageHeapBudget.LINE_SIZE);
+    }
+
+    @Test
+    void shouldAddLinesOfChildren() {
+        CoveragePaint first = new CoveragePaint(CoverageElement.LINE);
+        first.paint(1, 1);
+        first.paint(2, 0, 0, 2);
+        CoveragePaint second = new CoveragePaint(CoverageElement.LINE);
+        second.paint(2, 3, 1, 2);
+        second.paint(4, 0);
+        CoveragePaint third = new CoveragePaint(CoverageElement.LINE);
+        third.paint(5, 1);
+
+        CoveragePaint parent = new CoveragePaint(CoverageElement.LINE);
+        parent.add(first);
+        parent.add(second);
+        parent.add(third);
+        parent.add(new CoveragePaint(CoverageElement.LINE));
+
+        assertThat(parent.getAllLines()).containsExactly(1, 2, 4, 5);
+        assertThat(parent.getHits(2)).isEqualTo(3);
+        assertThat(parent.getBranchCoverage(2)).isEqualTo(1);
+        assertThat(parent.getBranchTotal(2)).isEqualTo(2);
+        assertThat(parent.getUncoveredLines()).containsExactly(4);
+        assertThat(first.getAllLines()).containsExactly(1, 2);
+    }
+
+    @Test
+    void shouldSerializeLines() throws IOException, ClassNotFoundException {
+        CoveragePaint paint = new CoveragePaint(CoverageElement.LINE);
+        for (int line = 1000; line > 0; line--) {
+            paint.paint(line, line % 3, line % 2, line % 5);
+        }
+        paint.setTotalLines(1200);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(paint);
+        }
+        CoveragePaint restored;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (CoveragePaint) input.readObject();
+        }
+
+        assertThat(restored.getTotalLines()).isEqualTo(1200);
+        assertThat(restored.getAllLines()).hasSize(1000).isEqualTo(paint.getAllLines());
+        assertThat(restored.getUncoveredLines()).isEqualTo(paint.getUncoveredLines());
+        assertThat(restored.getLineCoverage()).isEqualTo(paint.getLineCoverage());
+        assertThat(restored.getConditionalCoverage()).isEqualTo(paint.getConditionalCoverage());
+        assertThat(restored.getBranchTotal(999)).isEqualTo(4);
+    }
+}
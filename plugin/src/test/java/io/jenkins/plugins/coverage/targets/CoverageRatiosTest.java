@@ -0,0 +1,75 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoverageRatios}.
+ */
+class CoverageRatiosTest {
+    private static final CoverageElement PACKAGE = new CoverageElement("Package", 1);
+    private static final CoverageElement DIRECTORY = new CoverageElement("Directory", 1);
+    private static final CoverageElement METHOD = new CoverageElement("Method", 4);
+
+    @Test
+    void shouldBehaveLikeTreeMap() {
+        Map<CoverageElement, Ratio> expected = new TreeMap<>();
+        Map<CoverageElement, Ratio> actual = new CoverageRatios();
+
+        fill(expected);
+        fill(actual);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.keySet()).containsExactlyElementsOf(expected.keySet());
+        assertThat(actual.get(DIRECTORY)).isEqualTo(Ratio.create(0, 1));
+        assertThat(actual).doesNotContainKey(CoverageElement.CONDITIONAL);
+    }
+
+    @Test
+    void shouldRemoveEntriesWithIterator() {
+        Map<CoverageElement, Ratio> ratios = new CoverageRatios();
+        fill(ratios);
+
+        Iterator<Map.Entry<CoverageElement, Ratio>> iterator = ratios.entrySet().iterator();
+        iterator.next();
+        iterator.remove();
+
+        assertThat(ratios.keySet()).containsExactly(METHOD, CoverageElement.LINE);
+        assertThat(ratios).doesNotContainKey(PACKAGE);
+    }
+
+    @Test
+    void shouldSerializeRatios() throws IOException, ClassNotFoundException {
+        Map<CoverageElement, Ratio> ratios = new CoverageRatios();
+        fill(ratios);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(ratios);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object copy = input.readObject();
+
+            assertThat(copy).isInstanceOf(CoverageRatios.class).isEqualTo(ratios);
+        }
+    }
+
+    private void fill(final Map<CoverageElement, Ratio> ratios) {
+        ratios.put(CoverageElement.LINE, Ratio.create(1, 2));
+        ratios.put(METHOD, Ratio.create(1, 3));
+        ratios.put(PACKAGE, Ratio.create(1, 1));
+        ratios.put(DIRECTORY, Ratio.create(0, 1));
+        ratios.remove(METHOD);
+        ratios.put(METHOD, Ratio.create(2, 3));
+    }
+}
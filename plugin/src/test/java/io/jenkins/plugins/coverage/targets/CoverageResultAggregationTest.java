@@ -0,0 +1,152 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the aggregation of the results and the paints of a {@link CoverageResult} tree.
+ */
+class CoverageResultAggregationTest {
+    private static final CoverageElement PACKAGE = new CoverageElement("Package", 1);
+    private static final CoverageElement CLASS = new CoverageElement("Class", 3);
+    private static final CoverageElement METHOD = new CoverageElement("Method", 4);
+
+    private static final int FILES = 4;
+    private static final int LINES_PER_FILE = 100;
+
+    @Test
+    void shouldKeepTreeMemoryLinearInNumberOfLines() {
+        for (int depth = 1; depth <= 16; depth *= 2) {
+            CoverageResult report = createReport(depth);
+            report.setOwner(null);
+            report.setOwner(null);
+            assertThat(report.getCoverage(CoverageElement.LINE)).isEqualTo(
+                    Ratio.create(FILES * LINES_PER_FILE / 2, FILES * LINES_PER_FILE));
+
+            assertThat(countLinesInMemory(report)).as("lines in memory of a tree with depth %d", depth)
+                    .isEqualTo(FILES * LINES_PER_FILE);
+            assertThat(CoverageHeapBudget.estimateSize(report)).isEqualTo(
+                    countResults(report) * CoverageHeapBudget.RESULT_SIZE
+                            + FILES * LINES_PER_FILE * CoverageHeapBudget.LINE_SIZE);
+        }
+    }
+
+    @Test
+    void shouldShareThePaintOfTheSourceFile() {
+        CoverageResult report = createReport(2);
+        report.setOwner(null);
+
+        CoverageResult file = report.getAll(CoverageElement.FILE).get(0);
+        assertThat(report.getPaint()).isNull();
+        assertThat(file.getParent().getPaint()).isNull();
+        assertThat(file.hasOwnPaint()).isTrue();
+
+        CoverageResult method = file.getSingletonChild().getSingletonChild();
+        assertThat(method.getPaint()).isSameAs(file.getPaint());
+        assertThat(method.hasOwnPaint()).isFalse();
+        assertThat(file.getPaint().getHits(1)).isEqualTo(1);
+        assertThat(file.getPaint().getHits(2)).isZero();
+    }
+
+    @Test
+    void shouldAggregateModifiedResultsAgain() {
+        CoverageResult report = createReport(3);
+        assertThat(report.getCoverage(METHOD)).isEqualTo(Ratio.create(FILES, FILES));
+
+        CoverageResult file = report.getAll(CoverageElement.FILE).get(0);
+        CoverageResult method = file.getSingletonChild().getSingletonChild();
+        method.putLocalResult(CoverageElement.LINE, Ratio.create(0, LINES_PER_FILE));
+        assertThat(report.getCoverage(CoverageElement.LINE)).isEqualTo(
+                Ratio.create((FILES - 1) * LINES_PER_FILE / 2, FILES * LINES_PER_FILE));
+        assertThat(report.getCoverage(METHOD)).isEqualTo(Ratio.create(FILES - 1, FILES));
+
+        report.removeChild(file.getParents().get(1));
+        assertThat(report.getCoverage(CoverageElement.LINE)).isEqualTo(
+                Ratio.create((FILES - 1) * LINES_PER_FILE / 2, (FILES - 1) * LINES_PER_FILE));
+
+        new CoverageResult(CLASS, file, "Added").updateCoverage(CoverageElement.LINE, Ratio.create(1, 1));
+        assertThat(file.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(1, LINES_PER_FILE + 1));
+    }
+
+    @Test
+    void shouldAddTheLinesOfMergedFilesOnlyOnce() throws Exception {
+        CoverageResult report = createReport(1);
+        CoverageResult another = createReport(1);
+        CoverageResult anotherFile = another.getAll(CoverageElement.FILE).get(0);
+        new CoverageResult(CLASS, anotherFile, "Other").paint(1, 1);
+        new CoverageResult(CLASS, anotherFile, "Another").paint(2, 1);
+
+        report.merge(another);
+
+        CoverageResult file = report.getAll(CoverageElement.FILE).get(0);
+        assertThat(file.getChildren()).containsExactly("Another", "Class0", "Other");
+        assertThat(file.getChild("Other").getPaint()).isSameAs(file.getPaint());
+        assertThat(file.getChild("Another").getPaint()).isSameAs(file.getPaint());
+        assertThat(file.getPaint().getHits(1)).isEqualTo(3);
+        assertThat(file.getPaint().getHits(2)).isEqualTo(1);
+        assertThat(file.getPaint().getHits(3)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotModifyResultsWithLocalResultsView() {
+        CoverageResult report = createReport(1);
+        CoverageResult method = report.getAll(CoverageElement.FILE).get(0).getSingletonChild().getSingletonChild();
+
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(
+                () -> method.getLocalResults().remove(CoverageElement.LINE));
+        method.removeLocalResult(CoverageElement.LINE);
+        assertThat(method.getLocalResults()).isEmpty();
+        assertThat(report.getCoverage(CoverageElement.LINE)).isEqualTo(
+                Ratio.create((FILES - 1) * LINES_PER_FILE / 2, (FILES - 1) * LINES_PER_FILE));
+    }
+
+    /**
+     * Creates a report with {@link #FILES} files below packages that are nested {@code depth} times. Each file
+     * contains a class with a method that paints every other line of the file as covered.
+     */
+    private CoverageResult createReport(final int depth) {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "report");
+        for (int i = 0; i < FILES; i++) {
+            CoverageResult parent = report;
+            for (int level = 0; level < depth; level++) {
+                parent = new CoverageResult(PACKAGE, parent, "package" + i + "-" + level);
+            }
+            CoverageResult file = new CoverageResult(CoverageElement.FILE, parent, "File" + i + ".java");
+            file.setRelativeSourcePath("File" + i + ".java");
+            CoverageResult method = new CoverageResult(METHOD, new CoverageResult(CLASS, file, "Class" + i), "run");
+            for (int line = 1; line <= LINES_PER_FILE; line++) {
+                method.paint(line, line % 2);
+            }
+            method.updateCoverage(CoverageElement.LINE, Ratio.create(LINES_PER_FILE / 2, LINES_PER_FILE));
+        }
+        return report;
+    }
+
+    private long countLinesInMemory(final CoverageResult report) {
+        Set<CoveragePaint> paints = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectPaints(report, paints);
+        return paints.stream().mapToLong(CoveragePaint::getLinesInMemory).sum();
+    }
+
+    private void collectPaints(final CoverageResult result, final Set<CoveragePaint> paints) {
+        if (result.getPaint() != null) {
+            paints.add(result.getPaint());
+        }
+        for (CoverageResult child : result.getChildrenReal().values()) {
+            collectPaints(child, paints);
+        }
+    }
+
+    private long countResults(final CoverageResult result) {
+        long count = 1;
+        for (CoverageResult child : result.getChildrenReal().values()) {
+            count += countResults(child);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.stapler.StaplerRequest;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link CoverageResultIndex} with the lookups of {@link CoverageResult}.
+ */
+class CoverageResultIndexTest {
+    private static final CoverageElement PACKAGE = new CoverageElement("Package", 1);
+    private static final CoverageElement CLASS = new CoverageElement("Class", 3);
+
+    @Test
+    void shouldFindResultsByElementAndHashCode() {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "report");
+        CoverageResult first = new CoverageResult(PACKAGE, report, "first");
+        CoverageResult firstFile = new CoverageResult(CoverageElement.FILE, first, "Main.java");
+        CoverageResult second = new CoverageResult(PACKAGE, report, "second");
+        CoverageResult secondFile = new CoverageResult(CoverageElement.FILE, second, "Main.java");
+        CoverageResult mainClass = new CoverageResult(CLASS, secondFile, "Main");
+
+        assertThat(report.find("Package", hash("second"))).contains(second);
+        assertThat(report.find("package", hash("second"))).contains(second);
+        assertThat(report.find("File", hash("second"))).isEmpty();
+        assertThat(report.find("File", hash("Main.java"))).contains(firstFile);
+        assertThat(second.find("File", hash("Main.java"))).contains(secondFile);
+        assertThat(first.find("Class", hash("Main"))).isEmpty();
+        assertThat(report.find("Class", hash("Main"))).contains(mainClass);
+        assertThat(secondFile.find("Class", hash("Main"))).contains(mainClass);
+        assertThat(mainClass.find("Class", hash("Main"))).isEmpty();
+        assertThat(report.find("Package", hash("report"))).isEmpty();
+    }
+
+    @Test
+    void shouldUpdateIndexWhenTreeIsModified() throws Exception {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "report");
+        CoverageResult first = new CoverageResult(PACKAGE, report, "first");
+        assertThat(report.find("Package", hash("second"))).isEmpty();
+        assertThat(getDynamic(report, "second")).isNull();
+
+        CoverageResult second = new CoverageResult(PACKAGE, report, "second");
+        assertThat(report.find("Package", hash("second"))).contains(second);
+        assertThat(getDynamic(report, "second")).isSameAs(second);
+
+        report.removeChild(second);
+        assertThat(report.find("Package", hash("second"))).isEmpty();
+        assertThat(getDynamic(report, "second")).isNull();
+        assertThat(getDynamic(second, "third")).isNull();
+
+        CoverageResult third = new CoverageResult(PACKAGE, second, "third");
+        assertThat(getDynamic(second, "third")).isSameAs(third);
+        second.resetParent(first);
+        assertThat(report.find("Package", hash("third"))).contains(third);
+        assertThat(getDynamic(first, "second")).isSameAs(second);
+
+        CoverageResult other = new CoverageResult(CoverageElement.REPORT, null, "other");
+        CoverageResult otherPackage = new CoverageResult(PACKAGE, other, "other");
+        assertThat(other.find("Package", hash("other"))).contains(otherPackage);
+        report.merge(other);
+        assertThat(report.find("Package", hash("other"))).contains(otherPackage);
+        assertThat(getDynamic(report, "other")).isSameAs(otherPackage);
+    }
+
+    @Test
+    void shouldNavigateToChildrenWithUrlSafeNames() throws IOException {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "report");
+        CoverageResult utilPackage = new CoverageResult(PACKAGE, report, "edu.hm.hafner.util");
+        CoverageResult file = new CoverageResult(CoverageElement.FILE, utilPackage, "Tree String.java");
+
+        assertThat(getDynamic(report, "edu_hm_hafner_util")).isSameAs(utilPackage);
+        assertThat(getDynamic(report, "EDU_HM_HAFNER_UTIL")).isSameAs(utilPackage);
+        assertThat(getDynamic(utilPackage, "tree_string_java")).isSameAs(file);
+        assertThat(getDynamic(report, "tree_string_java")).isNull();
+        assertThat(getDynamic(file, "tree_string_java")).isNull();
+    }
+
+    private Object getDynamic(final CoverageResult result, final String token) throws IOException {
+        StaplerRequest request = mock(StaplerRequest.class);
+        when(request.getRestOfPath()).thenReturn("");
+        return result.getDynamic(token, request, null);
+    }
+
+    private String hash(final String name) {
+        return String.valueOf(name.hashCode());
+    }
+}
@@ -0,0 +1,206 @@
+package io.jenkins.plugins.coverage.targets;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter;
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter.JacocoReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoverageResultMerger}.
+ */
+class CoverageResultMergerTest extends ResourceTest {
+    private static final String REPORT = "/io/jenkins/plugins/coverage/model/jacoco-analysis-model.xml";
+    private static final CoverageElement FILE = new CoverageElement("File", 4);
+
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new JacocoReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldKeepCoverageOfIdenticalReports() throws CoverageException {
+        CoverageResult expected = readReport();
+        expected.setOwner(null);
+
+        CoverageResultMerger merger = new CoverageResultMerger(
+                new CoverageResult(CoverageElement.REPORT, null, "merged"));
+        for (int i = 0; i < 3; i++) {
+            merger.merge(readReport());
+        }
+        CoverageResult merged = merger.finish();
+        merged.setOwner(null);
+
+        assertThat(merged.getChildren()).containsExactlyElementsOf(expected.getChildren());
+        assertThat(merged.getResults()).isEqualTo(expected.getResults());
+        assertSamePaints(merged, expected);
+        assertSameLocalResultsOfSourceFiles(merged, expected);
+    }
+
+    @Test
+    void shouldCombineCoveredLinesAndBranches() throws CoverageException {
+        CoverageResult first = createReport();
+        CoverageResult firstFile = first.getChild("Main.java");
+        firstFile.paint(1, 1);
+        firstFile.paint(2, 0);
+        firstFile.paint(3, 0, 1, 4);
+        firstFile.updateCoverage(CoverageElement.LINE, Ratio.create(2, 3));
+        firstFile.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(1, 4));
+
+        CoverageResult second = createReport();
+        CoverageResult secondFile = second.getChild("Main.java");
+        secondFile.paint(2, 3);
+        secondFile.paint(3, 2, 2, 4);
+        secondFile.paint(4, 0);
+        secondFile.updateCoverage(CoverageElement.LINE, Ratio.create(2, 3));
+        secondFile.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(2, 4));
+
+        CoverageResult merged = new CoverageResult(CoverageElement.REPORT, null, "merged");
+        CoverageResultMerger merger = new CoverageResultMerger(merged);
+        merger.merge(first);
+        merger.merge(second);
+        assertThat(merger.finish()).isSameAs(merged);
+
+        CoverageResult file = merged.getChild("Main.java");
+        assertThat(file).isSameAs(firstFile);
+        CoveragePaint paint = file.getPaint();
+        assertThat(paint.getAllLines()).containsExactlyInAnyOrder(1, 2, 3, 4);
+        assertThat(paint.getHits(1)).isEqualTo(1);
+        assertThat(paint.getHits(2)).isEqualTo(3);
+        assertThat(paint.getHits(3)).isEqualTo(2);
+        assertThat(paint.getHits(4)).isZero();
+        assertThat(paint.getBranchCoverage(3)).isEqualTo(2);
+        assertThat(paint.getBranchTotal(3)).isEqualTo(4);
+
+        merged.setOwner(null);
+        assertThat(file.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(3, 4));
+        assertThat(file.getCoverage(CoverageElement.CONDITIONAL)).isEqualTo(Ratio.create(2, 4));
+    }
+
+    @Test
+    void shouldComputeTotalsFromUnionOfLines() throws CoverageException {
+        CoverageResult first = createShard(10);
+        CoverageResult second = createShard(20);
+
+        CoverageResultMerger merger = new CoverageResultMerger(
+                new CoverageResult(CoverageElement.REPORT, null, "merged"));
+        merger.merge(first);
+        merger.merge(second);
+        CoverageResult merged = merger.finish();
+        merged.setOwner(null);
+
+        CoverageResult packageResult = merged.getChild("edu.hm.hafner");
+        CoverageResult file = packageResult.getChild("Main.java");
+        assertThat(file.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(2, 2));
+        assertThat(file.getCoverage(CoverageElement.CONDITIONAL)).isEqualTo(Ratio.create(2, 4));
+        assertThat(packageResult.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(2, 2));
+        assertThat(packageResult.getCoverage(CoverageElement.CONDITIONAL)).isEqualTo(Ratio.create(2, 4));
+        assertThat(merged.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(2, 2));
+        assertThat(merged.getCoverage(CoverageElement.CONDITIONAL)).isEqualTo(Ratio.create(2, 4));
+
+        // the lines of the shards cannot be assigned to the classes of the file, so the maximum is used
+        CoverageResult classResult = file.getChild("Main");
+        assertThat(classResult.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(1, 2));
+        assertThat(classResult.getCoverage(CoverageElement.CONDITIONAL)).isEqualTo(Ratio.create(1, 4));
+    }
+
+    @Test
+    void shouldKeepLinesAndBranchesThatAreNotPainted() throws CoverageException {
+        CoverageResult first = createShard(10);
+        CoverageResult firstFile = first.getChild("edu.hm.hafner").getChild("Main.java");
+        // a line without a valid number and its branches are counted, but not painted
+        firstFile.updateCoverage(CoverageElement.LINE, Ratio.create(1, 1));
+        firstFile.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(5, 6));
+        CoverageResult second = createShard(20);
+
+        CoverageResultMerger merger = new CoverageResultMerger(
+                new CoverageResult(CoverageElement.REPORT, null, "merged"));
+        merger.merge(first);
+        merger.merge(second);
+        CoverageResult merged = merger.finish();
+        merged.setOwner(null);
+
+        CoverageResult file = merged.getChild("edu.hm.hafner").getChild("Main.java");
+        assertThat(file.getCoverage(CoverageElement.LINE)).isEqualTo(Ratio.create(3, 3));
+        assertThat(file.getCoverage(CoverageElement.CONDITIONAL)).isEqualTo(Ratio.create(7, 10));
+    }
+
+    @Test
+    void shouldRejectReportsWithDifferentElements() {
+        CoverageResultMerger merger = new CoverageResultMerger(
+                new CoverageResult(CoverageElement.REPORT, null, "merged"));
+
+        assertThatExceptionOfType(CoverageException.class).isThrownBy(
+                () -> merger.merge(new CoverageResult(CoverageElement.AGGREGATED_REPORT, null, "aggregated")))
+                .withMessageContaining("Unmatched element");
+    }
+
+    private CoverageResult createReport() {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "shard");
+        CoverageResult file = new CoverageResult(FILE, report, "Main.java");
+        file.setRelativeSourcePath("Main.java");
+        return report;
+    }
+
+    /**
+     * Creates a JaCoCo like report of a test shard that covers only the specified line of the lines 10 and 20.
+     */
+    private CoverageResult createShard(final int coveredLine) {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "shard");
+        CoverageResult packageResult = new CoverageResult(CoverageElement.get("Package"), report, "edu.hm.hafner");
+        packageResult.updateCoverage(CoverageElement.LINE, Ratio.create(1, 2));
+        packageResult.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(1, 4));
+        CoverageResult file = new CoverageResult(FILE, packageResult, "Main.java");
+        file.setRelativeSourcePath("edu/hm/hafner/Main.java");
+        CoverageResult classResult = new CoverageResult(CoverageElement.get("Class"), file, "Main");
+        classResult.updateCoverage(CoverageElement.LINE, Ratio.create(1, 2));
+        classResult.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(1, 4));
+
+        for (int line : new int[] {10, 20}) {
+            boolean isCovered = line == coveredLine;
+            file.paint(line, isCovered ? 1 : 0, isCovered ? 1 : 0, 2);
+            file.updateCoverage(CoverageElement.LINE, Ratio.create(isCovered ? 1 : 0, 1));
+        }
+        file.updateCoverage(CoverageElement.CONDITIONAL, Ratio.create(1, 4));
+        return report;
+    }
+
+    private CoverageResult readReport() throws CoverageException {
+        CoverageResult report = new JacocoReportAdapter("unused").getResult(getResourceAsFile(REPORT).toFile());
+        report.stripGroup();
+        return report;
+    }
+
+    private void assertSameLocalResultsOfSourceFiles(final CoverageResult actual, final CoverageResult expected) {
+        if (expected.getPaint() != null) {
+            assertThat(actual.getLocalResults()).as(expected.getName()).isEqualTo(expected.getLocalResults());
+        }
+        for (String child : expected.getChildren()) {
+            assertSameLocalResultsOfSourceFiles(actual.getChild(child), expected.getChild(child));
+        }
+    }
+
+    private void assertSamePaints(final CoverageResult actual, final CoverageResult expected) {
+        CoveragePaint actualPaint = actual.getPaint();
+        CoveragePaint expectedPaint = expected.getPaint();
+        if (expectedPaint == null) {
+            assertThat(actualPaint).isNull();
+        }
+        else {
+            assertThat(actualPaint.getAllLines()).containsExactlyInAnyOrder(expectedPaint.getAllLines());
+            for (int line : expectedPaint.getAllLines()) {
+                assertThat(actualPaint.getHits(line)).isEqualTo(expectedPaint.getHits(line));
+                assertThat(actualPaint.getBranchTotal(line)).isEqualTo(expectedPaint.getBranchTotal(line));
+                assertThat(actualPaint.getBranchCoverage(line)).isEqualTo(expectedPaint.getBranchCoverage(line));
+            }
+        }
+        for (String child : expected.getChildren()) {
+            assertSamePaints(actual.getChild(child), expected.getChild(child));
+        }
+    }
+}
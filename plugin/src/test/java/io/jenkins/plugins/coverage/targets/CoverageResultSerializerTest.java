@@ -0,0 +1,204 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter;
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter.JacocoReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoverageResultSerializer}.
+ */
+class CoverageResultSerializerTest extends ResourceTest {
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new JacocoReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldRestoreParsedReport() throws CoverageException, IOException {
+        CoverageResult report = new JacocoReportAdapter("unused").getResult(
+                getResourceAsFile("/io/jenkins/plugins/coverage/model/jacoco-analysis-model.xml").toFile());
+        report.setTag("tag");
+
+        CoverageResult restored = CoverageResultSerializer.deserialize(CoverageResultSerializer.serialize(report));
+
+        assertThat(restored.getParent()).isNull();
+        assertThat(restored.getTag()).isEqualTo("tag");
+
+        report.setOwner(null);
+        restored.setOwner(null);
+        assertSameTree(restored, report);
+    }
+
+    @Test
+    void shouldBeMuchSmallerThanJavaSerialization() throws CoverageException, IOException {
+        CoverageResult report = new JacocoReportAdapter("unused").getResult(
+                getResourceAsFile("/io/jenkins/plugins/coverage/model/jacoco-analysis-model.xml").toFile());
+
+        ByteArrayOutputStream javaSerialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(javaSerialized)) {
+            output.writeObject(report);
+        }
+
+        assertThat(CoverageResultSerializer.serialize(report).length).isLessThan(javaSerialized.size() / 4);
+    }
+
+    @Test
+    void shouldNotCloseStreamsOfCaller() throws IOException {
+        AtomicBoolean isOutputClosed = new AtomicBoolean();
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                isOutputClosed.set(true);
+            }
+        };
+        CoverageResultSerializer.write(new CoverageResult(CoverageElement.REPORT, null, "report"), output);
+        assertThat(isOutputClosed).isFalse();
+
+        AtomicBoolean isInputClosed = new AtomicBoolean();
+        ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray()) {
+            @Override
+            public void close() {
+                isInputClosed.set(true);
+            }
+        };
+        assertThat(CoverageResultSerializer.read(input).getName()).isEqualTo("report");
+        assertThat(isInputClosed).isFalse();
+    }
+
+    @Test
+    void shouldRestoreDeltaAndReferenceBuild() throws IOException {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "report");
+        report.setReferenceBuildUrl("job/reference/1");
+        report.setChangeRequestCoverageDiffWithTargetBranch(-2.5f);
+        report.setDeltaResults(Collections.singletonMap(CoverageElement.LINE, 1.5f));
+
+        CoverageResult restored = CoverageResultSerializer.deserialize(CoverageResultSerializer.serialize(report));
+
+        assertThat(restored.getReferenceBuildUrl()).isEqualTo("job/reference/1");
+        assertThat(restored.getChangeRequestCoverageDiffWithTargetBranch()).isEqualTo(-2.5f);
+        assertThat(restored.getDeltaResults()).containsExactly(entry(CoverageElement.LINE, 1.5f));
+        assertThat(restored.getPaint()).isNull();
+    }
+
+    @Test
+    void shouldRestoreSharedPaintsAndExtremeValues() throws IOException {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "report");
+        CoverageResult file = new CoverageResult(CoverageElement.FILE, report, "Main.java");
+        file.setRelativeSourcePath("Main.java");
+        CoverageResult method = new CoverageResult(new CoverageElement("Method", 4), file, "main");
+        CoverageElementRegister.addCoverageElement(method.getElement());
+        file.getPaint().setTotalLines(3);
+        method.paint(-1, Integer.MAX_VALUE);
+        method.paint(200_000, 0, 3, 4);
+        method.paint(7, 1);
+        method.updateCoverage(CoverageElement.LINE, Ratio.create(Long.MAX_VALUE - 1, Long.MAX_VALUE));
+
+        CoverageResult restored = CoverageResultSerializer.deserialize(CoverageResultSerializer.serialize(report));
+
+        CoverageResult restoredFile = restored.getChild("Main.java");
+        assertThat(restoredFile.getChild("main").getPaint()).isSameAs(restoredFile.getPaint());
+        assertThat(restoredFile.getChild("main").getLocalResults()).containsExactly(
+                entry(CoverageElement.LINE, Ratio.create(Long.MAX_VALUE - 1, Long.MAX_VALUE)));
+        assertSamePaint(restoredFile.getPaint(), file.getPaint());
+        assertThat(restoredFile.getPaint().getHits(-1)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(restoredFile.getPaint().getBranchCoverage(200_000)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldDetectFormat() throws IOException {
+        byte[] serialized = CoverageResultSerializer.serialize(new CoverageResult(CoverageElement.REPORT, null, "r"));
+        ByteArrayOutputStream javaSerialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(javaSerialized)) {
+            output.writeObject(new CoverageResult(CoverageElement.REPORT, null, "r"));
+        }
+
+        BufferedInputStream stream = new BufferedInputStream(new ByteArrayInputStream(serialized));
+        assertThat(CoverageResultSerializer.isSerializedResult(stream)).isTrue();
+        assertThat(CoverageResultSerializer.read(stream).getName()).isEqualTo("r");
+        assertThat(CoverageResultSerializer.isSerializedResult(
+                new BufferedInputStream(new ByteArrayInputStream(javaSerialized.toByteArray())))).isFalse();
+        assertThat(CoverageResultSerializer.isSerializedResult(
+                new BufferedInputStream(new ByteArrayInputStream(new byte[] {1, 2})))).isFalse();
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThatIOException().isThrownBy(() -> CoverageResultSerializer.deserialize(new byte[] {1, 2, 3, 4, 0, 1}))
+                .withMessageContaining("unknown format");
+    }
+
+    @Test
+    void shouldRejectUnsupportedVersion() throws IOException {
+        byte[] bytes = CoverageResultSerializer.serialize(new CoverageResult(CoverageElement.REPORT, null, "report"));
+        bytes[5] = 42;
+
+        assertThatIOException().isThrownBy(() -> CoverageResultSerializer.deserialize(bytes))
+                .withMessageContaining("unsupported version 42");
+    }
+
+    @Test
+    void shouldReportSupportedVersions() throws IOException {
+        byte[] bytes = CoverageResultSerializer.serialize(new CoverageResult(CoverageElement.REPORT, null, "report"));
+        bytes[5] = 0;
+
+        assertThatIOException().isThrownBy(() -> CoverageResultSerializer.deserialize(bytes))
+                .withMessage("Unable to read coverage result: unsupported version 0, supported versions are 1 to 1");
+    }
+
+    @Test
+    void shouldRejectUnknownCoverageElement() throws IOException {
+        CoverageResult report = new CoverageResult(CoverageElement.REPORT, null, "report");
+        new CoverageResult(new CoverageElement("Unregistered", 1), report, "child");
+
+        byte[] bytes = CoverageResultSerializer.serialize(report);
+
+        assertThatIOException().isThrownBy(() -> CoverageResultSerializer.deserialize(bytes))
+                .withMessageContaining("'Unregistered'");
+    }
+
+    private void assertSameTree(final CoverageResult actual, final CoverageResult expected) {
+        assertThat(actual.getElement()).isEqualTo(expected.getElement());
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getRelativeSourcePath()).isEqualTo(expected.getRelativeSourcePath());
+        assertThat(actual.getLocalResults()).isEqualTo(expected.getLocalResults());
+        assertThat(actual.getResults()).isEqualTo(expected.getResults());
+        assertThat(actual.getAdditionalProperties()).isEqualTo(expected.getAdditionalProperties());
+        assertSamePaint(actual.getPaint(), expected.getPaint());
+
+        assertThat(actual.getChildren()).containsExactlyElementsOf(expected.getChildren());
+        for (String child : expected.getChildren()) {
+            assertThat(actual.getChild(child).getParent()).isSameAs(actual);
+            assertSameTree(actual.getChild(child), expected.getChild(child));
+        }
+    }
+
+    private void assertSamePaint(final CoveragePaint actual, final CoveragePaint expected) {
+        if (expected == null) {
+            assertThat(actual).isNull();
+            return;
+        }
+        assertThat(actual).isNotNull();
+        assertThat(actual.getTotalLines()).isEqualTo(expected.getTotalLines());
+        assertThat(actual.getAllLines()).containsExactlyInAnyOrder(expected.getAllLines());
+        for (int line : expected.getAllLines()) {
+            assertThat(actual.getHits(line)).as("hits of line %d", line).isEqualTo(expected.getHits(line));
+            assertThat(actual.getBranchCoverage(line)).isEqualTo(expected.getBranchCoverage(line));
+            assertThat(actual.getBranchTotal(line)).isEqualTo(expected.getBranchTotal(line));
+        }
+    }
+}
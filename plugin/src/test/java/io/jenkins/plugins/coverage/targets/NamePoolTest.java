@@ -0,0 +1,89 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter;
+import io.jenkins.plugins.coverage.adapter.JacocoReportAdapter.JacocoReportAdapterDescriptor;
+import io.jenkins.plugins.coverage.exception.CoverageException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link NamePool}.
+ */
+class NamePoolTest extends ResourceTest {
+    private static final String REPORT = "/io/jenkins/plugins/coverage/model/jacoco-analysis-model.xml";
+    private static final String FILE_NAME = "Issue.java";
+    private static final String PACKAGE_NAME = "edu.hm.hafner.analysis";
+
+    @BeforeAll
+    static void registerCoverageElements() {
+        CoverageElementRegister.addCoverageElements(new JacocoReportAdapterDescriptor().getCoverageElements());
+    }
+
+    @Test
+    void shouldReturnSingleInstanceForEqualStrings() {
+        NamePool pool = new NamePool();
+
+        String first = pool.intern(new String("edu.hm.hafner"));
+        String second = pool.intern(new String("edu.hm.hafner"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(pool.intern(null)).isNull();
+        assertThat(pool.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStoreNamesOfReportsOnlyOnce() throws CoverageException {
+        CoverageResult other = readReport(new NamePool());
+        NamePool pool = new NamePool();
+        CoverageResult first = readReport(pool);
+        CoverageResult second = readReport(pool);
+
+        assertThat(getFile(other).getName()).isNotSameAs(getFile(first).getName());
+        assertThat(getFile(second).getName()).isSameAs(getFile(first).getName());
+        assertThat(getFile(second).getRelativeSourcePath()).isSameAs(getFile(first).getName());
+
+        Set<String> distinctNames = new HashSet<>();
+        int allNames = collectNames(first, distinctNames) + collectNames(second, distinctNames);
+        assertThat(allNames).isEqualTo(11900);
+        // the name of the report and the constant property keys are not part of the pool
+        assertThat(pool.size()).isEqualTo(distinctNames.size() - 2).isEqualTo(1878);
+    }
+
+    private CoverageResult readReport(final NamePool pool) throws CoverageException {
+        CoverageResult report = new JacocoReportAdapter("unused").getResult(getResourceAsFile(REPORT).toFile(), pool);
+        report.stripGroup();
+        return report;
+    }
+
+    private CoverageResult getFile(final CoverageResult report) {
+        return report.getChild(PACKAGE_NAME).getChild(FILE_NAME);
+    }
+
+    private int collectNames(final CoverageResult result, final Set<String> names) {
+        int count = 0;
+        for (String name : new String[] {result.getName(), result.getRelativeSourcePath(), result.getTag()}) {
+            if (name != null) {
+                names.add(name);
+                count++;
+            }
+        }
+        for (Map.Entry<String, Set<String>> property : result.getAdditionalProperties().entrySet()) {
+            names.add(property.getKey());
+            names.addAll(property.getValue());
+            count += 1 + property.getValue().size();
+        }
+        for (String child : result.getChildren()) {
+            count += collectNames(result.getChild(child), names);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,133 @@
+package io.jenkins.plugins.coverage.targets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.ResourceTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link Ratio}.
+ */
+class RatioTest extends ResourceTest {
+    private static final int MORE_THAN_FLOAT_PRECISION = (1 << 24) + 1;
+
+    @Test
+    void shouldShareCommonInstances() {
+        assertThat(Ratio.create(3, 7)).isSameAs(Ratio.create(3, 7));
+        assertThat(Ratio.create(0, 0)).isSameAs(Ratio.create(0, 0));
+        assertThat(Ratio.create(0, 1)).isSameAs(Ratio.NULL);
+        assertThat(Ratio.create(63, 63)).isSameAs(Ratio.create(63, 63));
+
+        assertThat(Ratio.create(64, 64)).isNotSameAs(Ratio.create(64, 64)).isEqualTo(Ratio.create(64, 64));
+        assertThat(Ratio.create(2, 1)).isNotSameAs(Ratio.create(2, 1)).isEqualTo(Ratio.create(2, 1));
+    }
+
+    @Test
+    void shouldNotMixUpInstancesWithNumeratorsAboveDenominator() {
+        Ratio invalid = Ratio.create(2, 0);
+        assertThat(invalid.numerator).isEqualTo(2);
+        assertThat(invalid.denominator).isZero();
+        assertThat(Ratio.create(1, 1).numerator).isEqualTo(1);
+        assertThat(Ratio.create(1, 1).denominator).isEqualTo(1);
+
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                Ratio ratio = Ratio.create(x, y);
+                assertThat(ratio.numerator).isEqualTo(x);
+                assertThat(ratio.denominator).isEqualTo(y);
+            }
+        }
+    }
+
+    @Test
+    void shouldCreateSameInstancesInSeveralThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Callable<Ratio> task = () -> Ratio.create(5, 9);
+            List<Future<Ratio>> results = executor.invokeAll(Collections.nCopies(16, task));
+            for (Future<Ratio> result : results) {
+                assertThat(result.get()).isSameAs(Ratio.create(5, 9));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldSumLinesExactly() {
+        Ratio sum = Ratio.create(0, 0);
+        for (int i = 0; i < 3; i++) {
+            sum = CoverageAggregationRule.combine(CoverageElement.LINE, sum,
+                    Ratio.create(MORE_THAN_FLOAT_PRECISION, MORE_THAN_FLOAT_PRECISION + 2));
+        }
+
+        assertThat(sum.numerator).isEqualTo(3L * MORE_THAN_FLOAT_PRECISION);
+        assertThat(sum.denominator).isEqualTo(3L * MORE_THAN_FLOAT_PRECISION + 6);
+        assertThat(sum).isNotEqualTo(Ratio.create(3L * MORE_THAN_FLOAT_PRECISION + 1, sum.denominator));
+        assertThat(sum.toString()).endsWith("(50331651/50331657)");
+        assertThat(sum.getPercentage()).isEqualTo(99);
+
+        Ratio lines = Ratio.create(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        Ratio twice = CoverageAggregationRule.combine(CoverageElement.LINE, lines, lines);
+        assertThat(twice.denominator).isEqualTo(2L * Integer.MAX_VALUE);
+        assertThat(twice.getPercentageFloat()).isEqualTo(100.0f);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void shouldCreateRatiosOfFloatValues() {
+        assertThat(Ratio.create(3.0f, 7.0f)).isSameAs(Ratio.create(3, 7));
+        assertThat(Ratio.create((float) MORE_THAN_FLOAT_PRECISION, 1.0f).numerator).isEqualTo(1 << 24);
+        assertThat(Ratio.create(0.5f, 1.0f)).isEqualTo(Ratio.create(5000, 10_000));
+        assertThat(Ratio.create(0.5f, 1.0f).getPercentage()).isEqualTo(50);
+    }
+
+    @Test
+    void shouldComputePercentages() {
+        assertThat(Ratio.create(1, 3).getPercentageFloat()).isCloseTo(33.333f, within(0.001f));
+        assertThat(Ratio.create(1, 3).getPercentageString()).isEqualTo("033.33");
+        assertThat(Ratio.create(0, 0).getPercentageFloat()).isEqualTo(100.0f);
+        assertThat(Ratio.create(5, 0).getPercentageFloat()).isZero();
+        assertThat(Ratio.create(9999, 10000).getPercentage()).isEqualTo(99);
+    }
+
+    @Test
+    void shouldSerializeExactValues() throws IOException, ClassNotFoundException {
+        Ratio large = Ratio.create(MORE_THAN_FLOAT_PRECISION, MORE_THAN_FLOAT_PRECISION + 2);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(large);
+            output.writeObject(Ratio.create(3, 7));
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertThat(input.readObject()).isEqualTo(large);
+            assertThat(input.readObject()).isSameAs(Ratio.create(3, 7));
+        }
+    }
+
+    @Test
+    void shouldReadRatiosOfOlderReleases() throws IOException, ClassNotFoundException {
+        try (InputStream stream = Files.newInputStream(getResourceAsFile("float-ratios.ser"));
+                ObjectInputStream input = new ObjectInputStream(stream)) {
+            assertThat((List<?>) input.readObject()).containsExactly(
+                    Ratio.create(3, 7), Ratio.create(0, 0), Ratio.create(12_000_000, 16_000_000));
+        }
+    }
+}